@@ -0,0 +1,610 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javanpst.data.writers.BufferedDataWriter;
+import javanpst.distributions.common.continuous.FDistribution;
+import javanpst.tests.Instrumentation;
+
+/**
+ * A micro-benchmark harness.
+ * 
+ * Each benchmark prepares its input for a given size, and then its operation
+ * is invoked repeatedly: a number of warmup iterations, which are discarded,
+ * and a number of measurement iterations, each one lasting at least a given
+ * time. The score is the average time per operation, with the error of a
+ * 99.9% confidence interval from the Student t distribution with one less
+ * degree of freedom than measurement iterations, as reported by JMH.
+ * 
+ * The bytes allocated by the running thread are measured along with the
+ * time (when the JVM supports it), so the allocation per operation is also
+ * reported (the equivalent of the -prof gc profiler of JMH). Allocations
+ * made by other threads (e.g. parallel streams) are not included.
+ * 
+ * Sizes are run in ascending order. The growth of the time per operation
+ * between two sizes is used to predict the time of the next one, and the
+ * remaining sizes are skipped if it exceeds a limit, so quadratic or exact
+ * algorithms do not stall the suite.
+ * 
+ * Results are written as a CSV file, and can be compared with a baseline
+ * file to find regressions and improvements.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class Benchmark{
+	
+	/**
+	 * An operation to measure
+	 */
+	public interface Operation{
+		
+		/**
+		 * Runs the operation once
+		 * 
+		 * @return result of the operation (consumed by the harness)
+		 * @throws Exception if the operation fails
+		 */
+		Object run() throws Exception;
+		
+	}//end-interface
+	
+	/**
+	 * A parameterized workload
+	 */
+	public interface Workload{
+		
+		/**
+		 * Prepares the input of a size. Preparation is not measured
+		 * 
+		 * @param size size of the input
+		 * @return operation over the input
+		 * @throws Exception if the input cannot be prepared
+		 */
+		Operation prepare(int size) throws Exception;
+		
+	}//end-interface
+	
+	/**
+	 * Result of a benchmark at a size
+	 */
+	public static class Result{
+		
+		/**
+		 * Family and name of the benchmark
+		 */
+		public String family,name;
+		
+		/**
+		 * Size of the input
+		 */
+		public int size;
+		
+		/**
+		 * Average time per operation (ns)
+		 */
+		public double score;
+		
+		/**
+		 * Error of the score (ns, 99.9% confidence)
+		 */
+		public double error;
+		
+		/**
+		 * Bytes allocated per operation (-1 if not measured)
+		 */
+		public double allocation;
+		
+		/**
+		 * Number of operations measured
+		 */
+		public long operations;
+		
+		/**
+		 * State of the result (OK, SKIPPED or an error message)
+		 */
+		public String status;
+		
+		/**
+		 * Get the key of the result in a results file
+		 * 
+		 * @return key of the result
+		 */
+		public String key(){
+			
+			return name+"@"+size;
+			
+		}//end-method
+		
+	}//end-class
+	
+	/**
+	 * Status of the results
+	 */
+	public static final String OK = "OK", SKIPPED = "SKIPPED";
+	
+	/**
+	 * Header of the results files
+	 */
+	public static final String HEADER = "Family,Benchmark,Size,Score(ns/op),Error(ns/op),Alloc(B/op),Operations,Status";
+	
+	/**
+	 * Two-sided confidence level of the intervals
+	 */
+	private static final double CONFIDENCE = 0.999;
+	
+	/**
+	 * Result of the operations, kept so they are not optimized away
+	 */
+	private static volatile long sink;
+	
+	/**
+	 * Family of the benchmark
+	 */
+	private String family;
+	
+	/**
+	 * Name of the benchmark
+	 */
+	private String name;
+	
+	/**
+	 * Workload of the benchmark
+	 */
+	private Workload workload;
+	
+	/**
+	 * Builder
+	 * 
+	 * @param family family of the benchmark (tests, distributions, io, structures...)
+	 * @param name name of the benchmark
+	 * @param workload workload to measure
+	 */
+	public Benchmark(String family, String name, Workload workload){
+		
+		this.family=family;
+		this.name=name;
+		this.workload=workload;
+		
+	}//end-method
+	
+	/**
+	 * Get the family of the benchmark
+	 * 
+	 * @return family of the benchmark
+	 */
+	public String getFamily(){
+		
+		return family;
+		
+	}//end-method
+	
+	/**
+	 * Get the name of the benchmark
+	 * 
+	 * @return name of the benchmark
+	 */
+	public String getName(){
+		
+		return name;
+		
+	}//end-method
+	
+	/**
+	 * Runs the benchmark at several sizes
+	 * 
+	 * @param sizes sizes of the input, in ascending order
+	 * @param warmup number of warmup iterations
+	 * @param iterations number of measurement iterations
+	 * @param iterationTime minimum time of each iteration (ms)
+	 * @param maxTime maximum expected time of an operation (ms); larger sizes are skipped
+	 * @return results, one per size
+	 */
+	public List<Result> run(int sizes[], int warmup, int iterations, long iterationTime, long maxTime){
+		
+		List<Result> results=new ArrayList<Result>();
+		Result result,previous,last;
+		double predicted,exponent;
+		boolean skip;
+		
+		previous=null;
+		last=null;
+		skip=false;
+		
+		for(int size : sizes){
+			
+			if(!skip&&(last!=null)&&OK.equals(last.status)){
+				
+				//polynomial growth between the last two sizes, at least linear
+				exponent=1.0;
+				if((previous!=null)&&OK.equals(previous.status)&&(previous.score>0.0)){
+					exponent=Math.max(1.0, Math.log(last.score/previous.score)/Math.log((double)last.size/previous.size));
+				}
+				predicted=last.score*Math.pow((double)size/last.size, exponent);
+				skip=predicted>maxTime*1e6;
+			}
+			
+			if(skip){
+				result=newResult(size);
+				result.status=SKIPPED;
+			}
+			else{
+				result=measure(size, warmup, iterations, iterationTime);
+				if(!OK.equals(result.status)){
+					skip=true;
+				}
+			}
+			
+			results.add(result);
+			previous=last;
+			last=result;
+		}
+		
+		return results;
+		
+	}//end-method
+	
+	/**
+	 * Creates a void result of the benchmark
+	 * 
+	 * @param size size of the input
+	 * @return void result
+	 */
+	private Result newResult(int size){
+		
+		Result result=new Result();
+		
+		result.family=family;
+		result.name=name;
+		result.size=size;
+		result.score=Double.NaN;
+		result.error=Double.NaN;
+		result.allocation=-1.0;
+		result.operations=0;
+		
+		return result;
+		
+	}//end-method
+	
+	/**
+	 * Computes the quantile of the Student t distribution for the confidence
+	 * intervals, by bisection over t^2 ~ F(1, df)
+	 * 
+	 * @param df degrees of freedom
+	 * @return value t with P(|T| > t) = 1 - CONFIDENCE
+	 */
+	static double studentQuantile(int df){
+		
+		FDistribution f=new FDistribution(1.0, df);
+		double low,high,middle;
+		
+		low=0.0;
+		high=1.0;
+		while(f.computeRightTailProbability(high*high)>1.0-CONFIDENCE){
+			low=high;
+			high*=2.0;
+		}
+		
+		for(int i=0;i<100;i++){
+			middle=(low+high)/2.0;
+			if(f.computeRightTailProbability(middle*middle)>1.0-CONFIDENCE){
+				low=middle;
+			}
+			else{
+				high=middle;
+			}
+		}
+		
+		return (low+high)/2.0;
+		
+	}//end-method
+	
+	/**
+	 * Measures the benchmark at a size
+	 * 
+	 * @param size size of the input
+	 * @param warmup number of warmup iterations
+	 * @param iterations number of measurement iterations
+	 * @param iterationTime minimum time of each iteration (ms)
+	 * @return result of the measurement
+	 */
+	private Result measure(int size, int warmup, int iterations, long iterationTime){
+		
+		Result result=newResult(size);
+		Operation operation;
+		double scores [];
+		double mean,variance;
+		long ops,totalOps,allocated,start,elapsed,bytes;
+		
+		try{
+			operation=workload.prepare(size);
+			
+			for(int i=0;i<warmup;i++){
+				iteration(operation, iterationTime);
+			}
+			
+			scores=new double [iterations];
+			totalOps=0;
+			allocated=0;
+			for(int i=0;i<iterations;i++){
+				bytes=Instrumentation.allocatedBytes();
+				start=System.nanoTime();
+				ops=iteration(operation, iterationTime);
+				elapsed=System.nanoTime()-start;
+				if(bytes>=0){
+					allocated+=Instrumentation.allocatedBytes()-bytes;
+				}
+				scores[i]=(double)elapsed/ops;
+				totalOps+=ops;
+			}
+			
+			mean=0.0;
+			for(double score : scores){
+				mean+=score;
+			}
+			mean/=iterations;
+			
+			variance=0.0;
+			for(double score : scores){
+				variance+=(score-mean)*(score-mean);
+			}
+			variance=(iterations>1) ? variance/(iterations-1) : 0.0;
+			
+			result.score=mean;
+			result.error=(iterations>1) ? studentQuantile(iterations-1)*Math.sqrt(variance/iterations) : 0.0;
+			result.allocation=(Instrumentation.allocatedBytes()>=0) ? (double)allocated/totalOps : -1.0;
+			result.operations=totalOps;
+			result.status=OK;
+			
+		}catch(Exception e){
+			result.status="ERROR: "+e;
+		}catch(StackOverflowError e){
+			result.status="ERROR: "+e;
+		}catch(OutOfMemoryError e){
+			result.status="ERROR: "+e;
+		}
+		
+		return result;
+		
+	}//end-method
+	
+	/**
+	 * Runs an iteration: the operation is invoked until the time is over
+	 * 
+	 * @param operation operation to run
+	 * @param iterationTime minimum time of the iteration (ms)
+	 * @return number of operations performed
+	 * @throws Exception if the operation fails
+	 */
+	private static long iteration(Operation operation, long iterationTime) throws Exception{
+		
+		long end=System.nanoTime()+iterationTime*1000000L;
+		long ops=0;
+		
+		do{
+			consume(operation.run());
+			ops++;
+		}while(System.nanoTime()<end);
+		
+		return ops;
+		
+	}//end-method
+	
+	/**
+	 * Consumes the result of an operation
+	 * 
+	 * @param value result of the operation
+	 */
+	private static void consume(Object value){
+		
+		long hash=0;
+		
+		if(value instanceof double []){
+			for(double element : (double [])value){
+				hash=31*hash+Double.doubleToLongBits(element);
+			}
+		}
+		else if(value instanceof Number){
+			hash=Double.doubleToLongBits(((Number)value).doubleValue());
+		}
+		else if(value instanceof Boolean){
+			hash=((Boolean)value).booleanValue() ? 1 : 0;
+		}
+		else if(value!=null){
+			hash=System.identityHashCode(value);
+		}
+		
+		sink+=hash;
+		
+	}//end-method
+	
+	/**
+	 * Writes results to a CSV file
+	 * 
+	 * @param results results to write
+	 * @param file path of the file
+	 * @param comment comment written at the beginning of the file (null for none)
+	 * @param append true to add the results at the end of the file
+	 */
+	public static void write(List<Result> results, String file, String comment, boolean append){
+		
+		try(BufferedDataWriter writer=new BufferedDataWriter(file, append)){
+			
+			if(!writer.isReady()){
+				return;
+			}
+			
+			if(!append){
+				if(comment!=null){
+					writer.write("# "+comment+"\n");
+				}
+				writer.write(HEADER+"\n");
+			}
+			
+			for(Result result : results){
+				writer.write(format(result));
+				writer.write('\n');
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Formats a result as a line of a results file
+	 * 
+	 * @param result result to format
+	 * @return line of the result
+	 */
+	public static String format(Result result){
+		
+		return String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.1f,%d,%s", result.family, result.name, result.size,
+				result.score, result.error, result.allocation, result.operations, result.status.replace(',', ';'));
+		
+	}//end-method
+	
+	/**
+	 * Reads a results file. Lines starting with # are ignored
+	 * 
+	 * @param file path of the file
+	 * @return results, by key (benchmark@size)
+	 */
+	public static Map<String, Result> read(String file){
+		
+		Map<String, Result> results=new HashMap<String, Result>();
+		Result result;
+		String line;
+		String fields [];
+		
+		try(BufferedReader reader=new BufferedReader(new FileReader(file))){
+			
+			while((line=reader.readLine())!=null){
+				
+				if(line.startsWith("#")||line.startsWith("Family,")||line.trim().isEmpty()){
+					continue;
+				}
+				
+				fields=line.split(",", 8);
+				if(fields.length<8){
+					System.out.println("Wrong line in "+file+": "+line);
+					continue;
+				}
+				
+				result=new Result();
+				result.family=fields[0];
+				result.name=fields[1];
+				result.size=Integer.parseInt(fields[2]);
+				result.score=Double.parseDouble(fields[3]);
+				result.error=Double.parseDouble(fields[4]);
+				result.allocation=Double.parseDouble(fields[5]);
+				result.operations=Long.parseLong(fields[6]);
+				result.status=fields[7];
+				
+				results.put(result.key(), result);
+			}
+			
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+		}catch(NumberFormatException e){
+			System.out.println("Parsing error in "+file+": "+e.getMessage());
+		}
+		
+		return results;
+		
+	}//end-method
+	
+	/**
+	 * Compares results with a baseline. A change is reported when the ratio
+	 * of the scores exceeds the threshold and the confidence intervals of
+	 * both scores do not overlap
+	 * 
+	 * @param results results to compare
+	 * @param baseline baseline results, by key
+	 * @param threshold relative change reported (e.g. 0.10 for 10%)
+	 * @return report of the comparison
+	 */
+	public static String compare(List<Result> results, Map<String, Result> baseline, double threshold){
+		
+		StringBuilder report=new StringBuilder();
+		Result base;
+		double ratio;
+		int regressions,improvements;
+		String verdict;
+		
+		regressions=0;
+		improvements=0;
+		
+		report.append(String.format(Locale.ROOT, "%-45s %8s %14s %14s %8s %s\n", "Benchmark", "Size", "Baseline", "Current", "Ratio", ""));
+		
+		for(Result result : results){
+			
+			base=baseline.get(result.key());
+			if((base==null)||!OK.equals(base.status)||!OK.equals(result.status)){
+				continue;
+			}
+			
+			ratio=result.score/base.score;
+			verdict="";
+			if((ratio>1.0+threshold)&&(result.score-result.error>base.score+base.error)){
+				verdict="REGRESSION";
+				regressions++;
+			}
+			else if((ratio<1.0/(1.0+threshold))&&(result.score+result.error<base.score-base.error)){
+				verdict="IMPROVEMENT";
+				improvements++;
+			}
+			
+			report.append(String.format(Locale.ROOT, "%-45s %8d %14.1f %14.1f %8.3f %s\n", result.name, result.size, base.score, result.score, ratio, verdict));
+		}
+		
+		report.append("\nRegressions: ").append(regressions).append(" Improvements: ").append(improvements).append("\n");
+		
+		return report.toString();
+		
+	}//end-method
+	
+	/**
+	 * Get the sink of the results, so it is not removed as dead code
+	 * 
+	 * @return sink value
+	 */
+	public static long getSink(){
+		
+		return sink;
+		
+	}//end-method
+	
+}//end-class
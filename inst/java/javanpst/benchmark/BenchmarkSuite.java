@@ -0,0 +1,899 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import javanpst.data.ColumnarFile;
+import javanpst.data.readers.tabularDataReaders.TabularDataParallelReader;
+import javanpst.data.readers.tabularDataReaders.TabularDataXMLStreamReader;
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.data.structures.sequence.NumericSequence;
+import javanpst.distributions.common.Distribution;
+import javanpst.distributions.common.continuous.ChiSquareDistribution;
+import javanpst.distributions.common.continuous.ExponentialDistribution;
+import javanpst.distributions.common.continuous.FDistribution;
+import javanpst.distributions.common.continuous.GammaDistribution;
+import javanpst.distributions.common.continuous.LaplaceDistribution;
+import javanpst.distributions.common.continuous.LogisticDistribution;
+import javanpst.distributions.common.continuous.NormalDistribution;
+import javanpst.distributions.common.continuous.UniformCDistribution;
+import javanpst.distributions.common.continuous.WeibullDistribution;
+import javanpst.distributions.common.discrete.BinomialDistribution;
+import javanpst.distributions.common.discrete.GeometricDistribution;
+import javanpst.distributions.common.discrete.PoissonDistribution;
+import javanpst.distributions.common.discrete.UniformDistribution;
+import javanpst.tests.bayesian.friedmanTest.BayesianFriedmanTest;
+import javanpst.tests.bayesian.idpTest.BayesianIDPTest;
+import javanpst.tests.bayesian.multipleMeasuresTest.BayesianMultipleMeasuresTest;
+import javanpst.tests.bayesian.signTest.BayesianSignTest;
+import javanpst.tests.bayesian.signedRankTest.BayesianSignedRankTest;
+import javanpst.tests.countData.contingencyCoefficient.ContingencyCoefficient;
+import javanpst.tests.countData.multinomialEqualityTest.MultinomialEqualityTest;
+import javanpst.tests.countData.orderedEqualityTest.OrderedEqualityTest;
+import javanpst.tests.equality.CDTest.CDTest;
+import javanpst.tests.equality.JTTest.JTTest;
+import javanpst.tests.equality.extendedMedianTest.ExtendedMedianTest;
+import javanpst.tests.equality.kruskalWallisTest.KruskalWallisTest;
+import javanpst.tests.goodness.A_DTest.A_DTest;
+import javanpst.tests.goodness.chiSquareTest.ChiSquareTest;
+import javanpst.tests.goodness.lillieforsTest.LillieforsTest;
+import javanpst.tests.location.normalScoresTest.NormalScoresTest;
+import javanpst.tests.location.wilcoxonRankSumTest.WilcoxonRankSumTest;
+import javanpst.tests.multiple.concordanceCoefficient.ConcordanceCoefficient;
+import javanpst.tests.multiple.friedmanAlignedRanksTest.FriedmanAlignedRanksTest;
+import javanpst.tests.multiple.friedmanTest.FriedmanTest;
+import javanpst.tests.multiple.imanDavenportTest.ImanDavenportTest;
+import javanpst.tests.multiple.incompleteConcordance.IncompleteConcordance;
+import javanpst.tests.multiple.pageTest.PageTest;
+import javanpst.tests.multiple.partialCorrelationTest.PartialCorrelationTest;
+import javanpst.tests.multiple.quadeTest.QuadeTest;
+import javanpst.tests.oneSample.confidenceQuantile.ConfidenceQuantile;
+import javanpst.tests.oneSample.populationQuantile.PopulationQuantile;
+import javanpst.tests.oneSample.signTest.SignTest;
+import javanpst.tests.oneSample.wilcoxonTest.WilcoxonTest;
+import javanpst.tests.pValue.LinearRankStatistic;
+import javanpst.tests.randomness.numberRunsTest.NumberRunsTest;
+import javanpst.tests.randomness.runsUpDownMedianTest.RunsUpDownMedianTest;
+import javanpst.tests.randomness.runsUpDownTest.RunsUpDownTest;
+import javanpst.tests.randomness.vonNeumannTest.VonNeumannTest;
+import javanpst.tests.scale.david_BartonTest.David_BartonTest;
+import javanpst.tests.scale.freund_Ansari_BradleyTest.Freund_Ansari_BradleyTest;
+import javanpst.tests.scale.klotzTest.KlotzTest;
+import javanpst.tests.scale.moodTest.MoodTest;
+import javanpst.tests.scale.siegel_TukeyTest.Siegel_TukeyTest;
+import javanpst.tests.scale.sukhatmeTest.SukhatmeTest;
+import javanpst.tests.twoSample.K_STest.K_STest;
+import javanpst.tests.twoSample.controlMedianTest.ControlMedianTest;
+import javanpst.tests.twoSample.medianTest.MedianTest;
+import javanpst.tests.twoSample.wald_WolfowitzTest.Wald_WolfowitzTest;
+
+/**
+ * The benchmark suite of the library.
+ * 
+ * It covers every statistical test (through its static run method), the
+ * cumulative and quantile functions of the distributions, the readers and
+ * writers of tables and sequences, the construction paths of DataTable, and
+ * the methods of p-values of linear rank statistics.
+ * Each benchmark is run over inputs of several sizes (10 to 10^5 by
+ * default). Inputs are generated with fixed seeds, so every run measures the
+ * same data.
+ * 
+ * Usage: java javanpst.benchmark.BenchmarkSuite [options]
+ * 
+ * <pre>
+ * -sizes 10,100,1000     sizes of the inputs
+ * -filter regex          run only the benchmarks whose name matches
+ * -exclude regex         skip the benchmarks whose name matches
+ * -warmup n              warmup iterations (3)
+ * -iterations n          measurement iterations (5)
+ * -time ms               time of each iteration (1000)
+ * -max ms                maximum expected time of an operation (2000)
+ * -out file              write the results as CSV
+ * -baseline file         compare the results with a previous CSV file
+ * -threshold r           relative change reported in the comparison (0.10)
+ * -list                  list the benchmarks and exit
+ * </pre>
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BenchmarkSuite{
+	
+	/**
+	 * Default sizes of the inputs
+	 */
+	public static final int DEFAULT_SIZES [] = {10, 100, 1000, 10000, 100000};
+	
+	/**
+	 * Number of columns of the tables used in the readers and writers benchmarks
+	 */
+	private static final int IO_COLUMNS = 10;
+	
+	/**
+	 * Number of samples of the bayesian tests and of Monte Carlo p-values
+	 */
+	private static final int SAMPLES = 1000;
+	
+	/**
+	 * Temporal directory for the readers and writers benchmarks
+	 */
+	private static File directory;
+	
+	/**
+	 * Get the benchmarks of the suite
+	 * 
+	 * @return list of benchmarks
+	 */
+	public static List<Benchmark> benchmarks(){
+		
+		List<Benchmark> list=new ArrayList<Benchmark>();
+		
+		addTests(list);
+		addDistributions(list);
+		addIO(list);
+		addStructures(list);
+		addPValues(list);
+		
+		return list;
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmarks of the statistical tests
+	 * 
+	 * @param list list of benchmarks
+	 */
+	private static void addTests(List<Benchmark> list){
+		
+		//one sample and paired samples
+		list.add(new Benchmark("tests", "SignTest", n -> { double d[][]=paired(n, 1); return () -> SignTest.run(d); }));
+		list.add(new Benchmark("tests", "SignTest.sequence", n -> { double s[]=normal(n, 2); return () -> SignTest.run(s); }));
+		list.add(new Benchmark("tests", "WilcoxonTest", n -> { double d[][]=paired(n, 3); return () -> WilcoxonTest.run(d); }));
+		list.add(new Benchmark("tests", "PopulationQuantile", n -> { double s[]=normal(n, 4); return () -> PopulationQuantile.run(s, 0.5, 0.0); }));
+		list.add(new Benchmark("tests", "ConfidenceQuantile", n -> () -> ConfidenceQuantile.run(n, 0.5, 0.95)));
+		
+		//scale
+		list.add(new Benchmark("tests", "SukhatmeTest", n -> { double d[][]=samples(n, 5); return () -> SukhatmeTest.run(d); }));
+		list.add(new Benchmark("tests", "David_BartonTest", n -> { double d[][]=samples(n, 6); return () -> David_BartonTest.run(d); }));
+		list.add(new Benchmark("tests", "Freund_Ansari_BradleyTest", n -> { double d[][]=samples(n, 7); return () -> Freund_Ansari_BradleyTest.run(d); }));
+		list.add(new Benchmark("tests", "Siegel_TukeyTest", n -> { double d[][]=samples(n, 8); return () -> Siegel_TukeyTest.run(d); }));
+		list.add(new Benchmark("tests", "MoodTest", n -> { double d[][]=samples(n, 9); return () -> MoodTest.run(d); }));
+		list.add(new Benchmark("tests", "KlotzTest", n -> { double d[][]=samples(n, 10); return () -> KlotzTest.run(d); }));
+		
+		//location and two samples
+		list.add(new Benchmark("tests", "WilcoxonRankSumTest", n -> { double d[][]=samples(n, 11); return () -> WilcoxonRankSumTest.run(d); }));
+		list.add(new Benchmark("tests", "NormalScoresTest", n -> { double d[][]=samples(n, 12); return () -> NormalScoresTest.run(d); }));
+		list.add(new Benchmark("tests", "Wald_WolfowitzTest", n -> { double d[][]=samples(n, 13); return () -> Wald_WolfowitzTest.run(d); }));
+		list.add(new Benchmark("tests", "K_STest", n -> { double d[][]=samples(n, 14); return () -> K_STest.run(d); }));
+		list.add(new Benchmark("tests", "ControlMedianTest", n -> { double d[][]=samples(n, 15); return () -> ControlMedianTest.run(d); }));
+		list.add(new Benchmark("tests", "MedianTest", n -> { double d[][]=samples(n, 16); return () -> MedianTest.run(d); }));
+		
+		//multiple comparisons
+		list.add(new Benchmark("tests", "FriedmanTest", n -> { double d[][]=table(n, 5, 17); return () -> FriedmanTest.run(d); }));
+		list.add(new Benchmark("tests", "QuadeTest", n -> { double d[][]=table(n, 5, 18); return () -> QuadeTest.run(d); }));
+		list.add(new Benchmark("tests", "ImanDavenportTest", n -> { double d[][]=table(n, 5, 19); return () -> ImanDavenportTest.run(d); }));
+		list.add(new Benchmark("tests", "FriedmanAlignedRanksTest", n -> { double d[][]=table(n, 5, 20); return () -> FriedmanAlignedRanksTest.run(d); }));
+		list.add(new Benchmark("tests", "PageTest", n -> { double d[][]=table(n, 5, 21); return () -> PageTest.run(d); }));
+		list.add(new Benchmark("tests", "ConcordanceCoefficient", n -> { double d[][]=table(n, 5, 22); return () -> ConcordanceCoefficient.run(d); }));
+		list.add(new Benchmark("tests", "IncompleteConcordance", n -> { double d[][]=incomplete(n, 23); return () -> IncompleteConcordance.run(d, 1.0); }));
+		list.add(new Benchmark("tests", "PartialCorrelationTest", n -> { double d[][]=table(n, 3, 24); return () -> PartialCorrelationTest.run(d); }));
+		
+		//equality of k samples
+		list.add(new Benchmark("tests", "KruskalWallisTest", n -> { double d[][]=table(n, 5, 25); return () -> KruskalWallisTest.run(d); }));
+		list.add(new Benchmark("tests", "ExtendedMedianTest", n -> { double d[][]=table(n, 5, 26); return () -> ExtendedMedianTest.run(d); }));
+		list.add(new Benchmark("tests", "JTTest", n -> { double d[][]=table(n, 5, 27); return () -> JTTest.run(d); }));
+		list.add(new Benchmark("tests", "CDTest", n -> { double d[][]=table(n, 5, 28); return () -> CDTest.run(d); }));
+		
+		//goodness of fit
+		list.add(new Benchmark("tests", "A_DTest", n -> { double s[]=normal(n, 29); return () -> A_DTest.run(s); }));
+		list.add(new Benchmark("tests", "LillieforsTest", n -> { double s[]=normal(n, 30); return () -> LillieforsTest.run(s); }));
+		list.add(new Benchmark("tests", "ChiSquareTest", n -> { double d[][]=binomialFrequencies(n); return () -> ChiSquareTest.run(d, n); }));
+		
+		//randomness
+		list.add(new Benchmark("tests", "NumberRunsTest", n -> { int c[]=codes(n, 31); String s[]={"A", "B"}; return () -> NumberRunsTest.run(c, s); }));
+		list.add(new Benchmark("tests", "RunsUpDownTest", n -> { double s[]=normal(n, 32); return () -> RunsUpDownTest.run(s); }));
+		list.add(new Benchmark("tests", "RunsUpDownMedianTest", n -> { double s[]=normal(n, 33); return () -> RunsUpDownMedianTest.run(s); }));
+		list.add(new Benchmark("tests", "VonNeumannTest", n -> { double s[]=normal(n, 34); return () -> VonNeumannTest.run(s); }));
+		
+		//count data
+		list.add(new Benchmark("tests", "ContingencyCoefficient", n -> { double d[][]=counts(n, 3, 35); return () -> ContingencyCoefficient.run(d); }));
+		list.add(new Benchmark("tests", "MultinomialEqualityTest", n -> { double d[][]=counts(2, n, 36); return () -> MultinomialEqualityTest.run(d); }));
+		list.add(new Benchmark("tests", "OrderedEqualityTest", n -> { double d[][]=counts(2, n, 37); return () -> OrderedEqualityTest.run(d); }));
+		
+		//bayesian
+		list.add(new Benchmark("tests", "BayesianSignTest", n -> { double s[]=normal(n, 38); return () -> BayesianSignTest.run(s, 1.0, -0.01, 0.01, SAMPLES); }));
+		list.add(new Benchmark("tests", "BayesianSignedRankTest", n -> { double s[]=normal(n, 39); return () -> BayesianSignedRankTest.run(s, 1.0, 0.0, -0.01, 0.01, SAMPLES); }));
+		list.add(new Benchmark("tests", "BayesianIDPTest", n -> { double x[]=normal(n, 40), y[]=normal(n, 41); return () -> BayesianIDPTest.run(x, y, 1.0, SAMPLES); }));
+		list.add(new Benchmark("tests", "BayesianMultipleMeasuresTest", n -> { double x[][]=table(n, 4, 42), y[][]=table(n, 4, 43); return () -> BayesianMultipleMeasuresTest.run(x, y); }));
+		list.add(new Benchmark("tests", "BayesianFriedmanTest", n -> { double d[][]=table(n, 4, 44); return () -> BayesianFriedmanTest.run(d, 1.0, 0.95); }));
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmarks of the distributions. Each operation evaluates
+	 * size points of the function
+	 * 
+	 * @param list list of benchmarks
+	 */
+	private static void addDistributions(List<Benchmark> list){
+		
+		addCDF(list, "ChiSquareDistribution", new ChiSquareDistribution(5), 0.0, 30.0);
+		addCDF(list, "ExponentialDistribution", new ExponentialDistribution(1.0), 0.0, 10.0);
+		addCDF(list, "FDistribution", new FDistribution(4.0, 20.0), 0.0, 10.0);
+		addCDF(list, "GammaDistribution", new GammaDistribution(2.0, 1.0), 0.0, 20.0);
+		addCDF(list, "LaplaceDistribution", new LaplaceDistribution(0.0, 1.0), -10.0, 10.0);
+		addCDF(list, "LogisticDistribution", new LogisticDistribution(0.0, 1.0), -10.0, 10.0);
+		addCDF(list, "NormalDistribution", new NormalDistribution(0.0, 1.0), -6.0, 6.0);
+		addCDF(list, "UniformCDistribution", new UniformCDistribution(0.0, 1.0), -0.5, 1.5);
+		addCDF(list, "WeibullDistribution", new WeibullDistribution(1.0, 1.5), 0.0, 10.0);
+		addCDF(list, "BinomialDistribution", new BinomialDistribution(100, 0.3), 0.0, 100.0);
+		addCDF(list, "GeometricDistribution", new GeometricDistribution(0.2), 0.0, 50.0);
+		//factorials are only tabulated up to 11
+		addCDF(list, "PoissonDistribution", new PoissonDistribution(3.0), 0.0, 11.0);
+		addCDF(list, "UniformDistribution", new UniformDistribution(20), 0.0, 20.0);
+		
+		list.add(new Benchmark("distributions", "NormalDistribution.quantile", n -> {
+			NormalDistribution normal=new NormalDistribution();
+			double p[]=grid(n, 1e-6, 1.0-1e-6);
+			return () -> {
+				double sum=0.0;
+				for(double value : p){
+					sum+=normal.inverseNormalDistribution(value);
+				}
+				return sum;
+			};
+		}));
+		list.add(new Benchmark("distributions", "FDistribution.quantile", n -> {
+			FDistribution f=new FDistribution(4.0, 20.0);
+			double p[]=grid(n, 1e-6, 1.0-1e-6);
+			return () -> {
+				double sum=0.0;
+				for(double value : p){
+					sum+=f.inverseCumulativeProbability(value);
+				}
+				return sum;
+			};
+		}));
+		list.add(new Benchmark("distributions", "BinomialDistribution.quantile", n -> {
+			BinomialDistribution binomial=new BinomialDistribution(100, 0.3);
+			double p[]=grid(n, 1e-6, 0.5);
+			return () -> {
+				double sum=0.0;
+				for(double value : p){
+					sum+=binomial.getLesserCumulativeProbability(value)+binomial.getUpperCumulativeProbability(value);
+				}
+				return sum;
+			};
+		}));
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmark of a cumulative distribution function
+	 * 
+	 * @param list list of benchmarks
+	 * @param name name of the distribution
+	 * @param distribution distribution to evaluate
+	 * @param from first point evaluated
+	 * @param to last point evaluated
+	 */
+	private static void addCDF(List<Benchmark> list, String name, Distribution distribution, double from, double to){
+		
+		list.add(new Benchmark("distributions", name+".cdf", n -> {
+			double x[]=grid(n, from, to);
+			return () -> {
+				double sum=0.0;
+				for(double value : x){
+					sum+=distribution.computeCumulativeProbability(value);
+				}
+				return sum;
+			};
+		}));
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmarks of the readers and writers. Tables have size rows
+	 * and IO_COLUMNS columns, with a 1% of null values
+	 * 
+	 * @param list list of benchmarks
+	 */
+	private static void addIO(List<Benchmark> list){
+		
+		list.add(new Benchmark("io", "DataTable.writeCSV", n -> { DataTable t=ioTable(n); String f=file("w", n, "csv"); return () -> { t.writeCSV(f, true); return f; }; }));
+		list.add(new Benchmark("io", "DataTable.writeTXT", n -> { DataTable t=ioTable(n); String f=file("w", n, "txt"); return () -> { t.writeTXT(f); return f; }; }));
+		list.add(new Benchmark("io", "DataTable.writeXML", n -> { DataTable t=ioTable(n); String f=file("w", n, "xml"); return () -> { t.writeXML(f); return f; }; }));
+		list.add(new Benchmark("io", "DataTable.writeBinary", n -> { DataTable t=ioTable(n); String f=file("w", n, "bin"); return () -> { t.writeBinary(f); return f; }; }));
+		
+		list.add(new Benchmark("io", "DataTable.readCSV", n -> {
+			String f=file("r", n, "csv");
+			ioTable(n).writeCSV(f, true);
+			return () -> { DataTable t=new DataTable(); t.readCSV(f); return t.getRows(); };
+		}));
+		list.add(new Benchmark("io", "DataTable.readTXT", n -> {
+			String f=file("r", n, "txt");
+			ioTable(n).writeTXT(f);
+			return () -> { DataTable t=new DataTable(); t.readTXT(f); return t.getRows(); };
+		}));
+		list.add(new Benchmark("io", "DataTable.readXML", n -> {
+			String f=file("r", n, "xml");
+			ioTable(n).writeXML(f);
+			return () -> { DataTable t=new DataTable(); t.readXML(f); return t.getRows(); };
+		}));
+		list.add(new Benchmark("io", "DataTable.readBinary", n -> {
+			String f=file("r", n, "bin");
+			ioTable(n).writeBinary(f);
+			return () -> { DataTable t=new DataTable(); t.readBinary(f); return t.get(t.getRows()-1, IO_COLUMNS-1); };
+		}));
+		list.add(new Benchmark("io", "TabularDataParallelReader", n -> {
+			String f=file("p", n, "csv");
+			ioTable(n).writeCSV(f, true);
+			return () -> { TabularDataParallelReader r=new TabularDataParallelReader(f); r.read(); return r.getRows(); };
+		}));
+		list.add(new Benchmark("io", "TabularDataXMLStreamReader", n -> {
+			String f=file("s", n, "xml");
+			ioTable(n).writeXML(f);
+			return () -> { try(TabularDataXMLStreamReader r=new TabularDataXMLStreamReader(f)){ return r.readTable().getRows(); } };
+		}));
+		list.add(new Benchmark("io", "ColumnarFile.write", n -> {
+			DataTable t=ioTable(n);
+			String f=file("c", n, "npst");
+			return () -> ColumnarFile.write(f, ColumnarFile.TABLE, n, IO_COLUMNS, t::get, t::isNull);
+		}));
+		list.add(new Benchmark("io", "ColumnarFile.open", n -> {
+			String f=file("o", n, "npst");
+			ioTable(n).writeBinary(f);
+			return () -> ColumnarFile.open(f).getRows();
+		}));
+		
+		list.add(new Benchmark("io", "NumericSequence.writeCSV", n -> { NumericSequence s=new NumericSequence(normal(n, 45)); String f=file("sw", n, "csv"); return () -> { s.writeCSV(f, true); return f; }; }));
+		list.add(new Benchmark("io", "NumericSequence.writeBinary", n -> { NumericSequence s=new NumericSequence(normal(n, 46)); String f=file("sw", n, "bin"); return () -> { s.writeBinary(f); return f; }; }));
+		list.add(new Benchmark("io", "NumericSequence.readCSV", n -> {
+			String f=file("sr", n, "csv");
+			new NumericSequence(normal(n, 47)).writeCSV(f, true);
+			return () -> { NumericSequence s=new NumericSequence(); s.readCSV(f); return s.size(); };
+		}));
+		list.add(new Benchmark("io", "NumericSequence.readBinary", n -> {
+			String f=file("sr", n, "bin");
+			new NumericSequence(normal(n, 48)).writeBinary(f);
+			return () -> { NumericSequence s=new NumericSequence(); s.readBinary(f); return s.size(); };
+		}));
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmarks of the construction of tables. Tables have size
+	 * rows and IO_COLUMNS columns
+	 * 
+	 * @param list list of benchmarks
+	 */
+	private static void addStructures(List<Benchmark> list){
+		
+		list.add(new Benchmark("structures", "DataTable.new", n -> { double d[][]=table(n, IO_COLUMNS, 49); return () -> new DataTable(d); }));
+		list.add(new Benchmark("structures", "DataTable.newWithNulls", n -> {
+			double d[][]=table(n, IO_COLUMNS, 50);
+			boolean nulls[][]=nulls(n, IO_COLUMNS, 51);
+			return () -> new DataTable(d, nulls);
+		}));
+		list.add(new Benchmark("structures", "DataTable.fromColumns", n -> {
+			double d[][]=transpose(table(n, IO_COLUMNS, 52));
+			boolean nulls[][]=transpose(nulls(n, IO_COLUMNS, 53));
+			return () -> DataTable.fromColumns(d, nulls, n);
+		}));
+		list.add(new Benchmark("structures", "DataTable.newInstance", n -> { DataTable t=ioTable(n); return () -> DataTable.newInstance(t); }));
+		list.add(new Benchmark("structures", "DataTable.columnView", n -> { DataTable t=ioTable(n); return () -> t.columnView(0, 2, 4); }));
+		list.add(new Benchmark("structures", "DataTable.rowView", n -> { DataTable t=ioTable(n); return () -> t.rowView(n/4, n/2); }));
+		list.add(new Benchmark("structures", "DataTable.fromColumnarFile", n -> {
+			String f=file("m", n, "npst");
+			ioTable(n).writeBinary(f);
+			ColumnarFile c=ColumnarFile.open(f);
+			return () -> new DataTable(c);
+		}));
+		list.add(new Benchmark("structures", "DataTable.getBody", n -> { DataTable t=ioTable(n); return () -> t.getBody(); }));
+		
+	}//end-method
+	
+	/**
+	 * Adds the benchmarks of the methods of p-values. The statistic is the 
+	 * Wilcoxon rank sum of size/2 values, two standard deviations over its
+	 * mean. Monte Carlo draws a fixed number of samples
+	 * 
+	 * @param list list of benchmarks
+	 */
+	private static void addPValues(List<Benchmark> list){
+		
+		list.add(new Benchmark("pvalues", "LinearRankStatistic.exact", n -> {
+			LinearRankStatistic s=rankSum(n);
+			if(!s.isExactAvailable()){
+				throw new IllegalArgumentException("Exact table too large");
+			}
+			return () -> s.exactTails();
+		}));
+		list.add(new Benchmark("pvalues", "LinearRankStatistic.saddlepoint", n -> { LinearRankStatistic s=rankSum(n); return () -> s.saddlepointTails(); }));
+		list.add(new Benchmark("pvalues", "LinearRankStatistic.monteCarlo", n -> {
+			LinearRankStatistic s=rankSum(n);
+			SplittableRandom random=new SplittableRandom(54);
+			return () -> s.monteCarloTails(random, 0.0, SAMPLES);
+		}));
+		list.add(new Benchmark("pvalues", "LinearRankStatistic.normal", n -> { LinearRankStatistic s=rankSum(n); return () -> s.normalTails(); }));
+		
+	}//end-method
+	
+	/**
+	 * Builds a Wilcoxon rank sum statistic, two standard deviations over its mean
+	 * 
+	 * @param n number of ranks
+	 * @return statistic
+	 */
+	private static LinearRankStatistic rankSum(int n){
+		
+		double ranks []=new double [n];
+		int m=n/2;
+		
+		for(int i=0;i<n;i++){
+			ranks[i]=i+1;
+		}
+		
+		return new LinearRankStatistic(ranks, m, Math.rint((double)m*(n+1)/2.0+2.0*Math.sqrt((double)m*(n-m)*(n+1)/12.0)));
+		
+	}//end-method
+	
+	/**
+	 * Generates a sample of a standard normal distribution
+	 * 
+	 * @param n size of the sample
+	 * @param seed seed of the generator
+	 * @return sample generated
+	 */
+	private static double [] normal(int n, long seed){
+		
+		Random random=new Random(seed);
+		double sample []=new double [n];
+		
+		for(int i=0;i<n;i++){
+			sample[i]=random.nextGaussian();
+		}
+		
+		return sample;
+		
+	}//end-method
+	
+	/**
+	 * Generates a table of positive values (like the performance measures
+	 * compared in the multiple comparisons tests)
+	 * 
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 * @param seed seed of the generator
+	 * @return table generated, by rows
+	 */
+	private static double [][] table(int rows, int columns, long seed){
+		
+		Random random=new Random(seed);
+		double data [][]=new double [rows][columns];
+		
+		for(int i=0;i<rows;i++){
+			for(int j=0;j<columns;j++){
+				data[i][j]=1.0+random.nextDouble()+0.1*j;
+			}
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates two related samples, the second one shifted
+	 * 
+	 * @param n size of the samples
+	 * @param seed seed of the generator
+	 * @return samples generated, by rows
+	 */
+	private static double [][] paired(int n, long seed){
+		
+		Random random=new Random(seed);
+		double data [][]=new double [n][2];
+		
+		for(int i=0;i<n;i++){
+			data[i][0]=random.nextGaussian();
+			data[i][1]=data[i][0]+0.2+random.nextGaussian();
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates two independent samples, the second one with a larger scale
+	 * 
+	 * @param n size of the samples
+	 * @param seed seed of the generator
+	 * @return samples generated, by rows
+	 */
+	private static double [][] samples(int n, long seed){
+		
+		Random random=new Random(seed);
+		double data [][]=new double [n][2];
+		
+		for(int i=0;i<n;i++){
+			data[i][0]=random.nextGaussian();
+			data[i][1]=0.2+1.5*random.nextGaussian();
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates a table of counts
+	 * 
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 * @param seed seed of the generator
+	 * @return table generated
+	 */
+	private static double [][] counts(int rows, int columns, long seed){
+		
+		Random random=new Random(seed);
+		double data [][]=new double [rows][columns];
+		
+		for(int i=0;i<rows;i++){
+			for(int j=0;j<columns;j++){
+				data[i][j]=5+random.nextInt(20);
+			}
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates an incomplete design: each block of 3 treatments
+	 * 
+	 * @param n number of blocks
+	 * @param seed seed of the generator
+	 * @return design generated, with 0 for the treatments not observed
+	 */
+	private static double [][] incomplete(int n, long seed){
+		
+		Random random=new Random(seed);
+		double data [][]=new double [n][4];
+		int skip;
+		
+		for(int i=0;i<n;i++){
+			skip=i%4;
+			for(int j=0;j<4;j++){
+				data[i][j]=(j==skip) ? 0.0 : 1+random.nextInt(3);
+			}
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates the frequencies of a binomial sample, for the chi square test
+	 * 
+	 * @param n number of trials
+	 * @return observed and expected frequencies of each value, by rows
+	 */
+	private static double [][] binomialFrequencies(int n){
+		
+		BinomialDistribution binomial=new BinomialDistribution(n, 0.5);
+		Random random=new Random(n);
+		double data [][]=new double [n+1][2];
+		
+		for(int i=0;i<=n;i++){
+			data[i][1]=binomial.computeProbability(i);
+		}
+		for(int i=0;i<n;i++){
+			data[random.nextInt(n+1)][0]+=1.0;
+		}
+		
+		return data;
+		
+	}//end-method
+	
+	/**
+	 * Generates a dichotomous sequence
+	 * 
+	 * @param n size of the sequence
+	 * @param seed seed of the generator
+	 * @return codes (0 or 1) of the sequence
+	 */
+	private static int [] codes(int n, long seed){
+		
+		Random random=new Random(seed);
+		int sequence []=new int [n];
+		
+		for(int i=0;i<n;i++){
+			sequence[i]=random.nextInt(2);
+		}
+		
+		return sequence;
+		
+	}//end-method
+	
+	/**
+	 * Generates null values (1%)
+	 * 
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 * @param seed seed of the generator
+	 * @return null values, by rows
+	 */
+	private static boolean [][] nulls(int rows, int columns, long seed){
+		
+		Random random=new Random(seed);
+		boolean nulls [][]=new boolean [rows][columns];
+		
+		for(int i=0;i<rows;i++){
+			for(int j=0;j<columns;j++){
+				nulls[i][j]=random.nextInt(100)==0;
+			}
+		}
+		
+		return nulls;
+		
+	}//end-method
+	
+	/**
+	 * Generates equally spaced points
+	 * 
+	 * @param n number of points
+	 * @param from first point
+	 * @param to last point
+	 * @return points generated
+	 */
+	private static double [] grid(int n, double from, double to){
+		
+		double points []=new double [n];
+		
+		for(int i=0;i<n;i++){
+			points[i]=(n==1) ? from : from+(to-from)*i/(n-1);
+		}
+		
+		return points;
+		
+	}//end-method
+	
+	/**
+	 * Transposes a matrix
+	 * 
+	 * @param data matrix to transpose
+	 * @return transposed matrix
+	 */
+	private static double [][] transpose(double data[][]){
+		
+		double result [][]=new double [data[0].length][data.length];
+		
+		for(int i=0;i<data.length;i++){
+			for(int j=0;j<data[i].length;j++){
+				result[j][i]=data[i][j];
+			}
+		}
+		
+		return result;
+		
+	}//end-method
+	
+	/**
+	 * Transposes a matrix
+	 * 
+	 * @param data matrix to transpose
+	 * @return transposed matrix
+	 */
+	private static boolean [][] transpose(boolean data[][]){
+		
+		boolean result [][]=new boolean [data[0].length][data.length];
+		
+		for(int i=0;i<data.length;i++){
+			for(int j=0;j<data[i].length;j++){
+				result[j][i]=data[i][j];
+			}
+		}
+		
+		return result;
+		
+	}//end-method
+	
+	/**
+	 * Generates the table of the readers and writers benchmarks
+	 * 
+	 * @param rows number of rows
+	 * @return table generated
+	 */
+	private static DataTable ioTable(int rows){
+		
+		return new DataTable(table(rows, IO_COLUMNS, rows), nulls(rows, IO_COLUMNS, rows+1));
+		
+	}//end-method
+	
+	/**
+	 * Get the path of a temporal file. Files are removed when the JVM exits
+	 * 
+	 * @param prefix prefix of the name
+	 * @param n size of the contents
+	 * @param extension extension of the file
+	 * @return path of the file
+	 * @throws IOException if the temporal directory cannot be created
+	 */
+	private static synchronized String file(String prefix, int n, String extension) throws IOException{
+		
+		File file;
+		
+		if(directory==null){
+			directory=Files.createTempDirectory("javanpst-benchmark").toFile();
+			directory.deleteOnExit();
+		}
+		
+		file=new File(directory, prefix+"-"+n+"."+extension);
+		file.deleteOnExit();
+		
+		return file.getPath();
+		
+	}//end-method
+	
+	/**
+	 * Runs the suite
+	 * 
+	 * @param args options (see the description of the class)
+	 */
+	public static void main(String args[]){
+		
+		List<Benchmark> selected=new ArrayList<Benchmark>();
+		List<Benchmark.Result> results=new ArrayList<Benchmark.Result>();
+		List<Benchmark.Result> partial;
+		Map<String, Benchmark.Result> baseline;
+		Pattern filter,exclude;
+		String out,baselineFile,fields [];
+		int sizes [];
+		int warmup,iterations;
+		long time,max;
+		double threshold;
+		boolean list;
+		
+		sizes=DEFAULT_SIZES;
+		filter=null;
+		exclude=null;
+		warmup=3;
+		iterations=5;
+		time=1000;
+		max=2000;
+		out=null;
+		baselineFile=null;
+		threshold=0.10;
+		list=false;
+		
+		try{
+			for(int i=0;i<args.length;i++){
+				switch(args[i]){
+				case "-sizes":
+					fields=args[++i].split(",");
+					sizes=new int [fields.length];
+					for(int j=0;j<fields.length;j++){
+						sizes[j]=Integer.parseInt(fields[j].trim());
+					}
+					break;
+				case "-filter": filter=Pattern.compile(args[++i]); break;
+				case "-exclude": exclude=Pattern.compile(args[++i]); break;
+				case "-warmup": warmup=Integer.parseInt(args[++i]); break;
+				case "-iterations": iterations=Integer.parseInt(args[++i]); break;
+				case "-time": time=Long.parseLong(args[++i]); break;
+				case "-max": max=Long.parseLong(args[++i]); break;
+				case "-out": out=args[++i]; break;
+				case "-baseline": baselineFile=args[++i]; break;
+				case "-threshold": threshold=Double.parseDouble(args[++i]); break;
+				case "-list": list=true; break;
+				default:
+					System.out.println("Unknown option: "+args[i]);
+					return;
+				}
+			}
+		}catch(ArrayIndexOutOfBoundsException e){
+			System.out.println("Missing value of option "+args[args.length-1]);
+			return;
+		}catch(NumberFormatException e){
+			System.out.println("Wrong value: "+e.getMessage());
+			return;
+		}
+		
+		if(iterations<1){
+			System.out.println("At least one measurement iteration is needed.");
+			return;
+		}
+		
+		for(Benchmark benchmark : benchmarks()){
+			if(((filter==null)||filter.matcher(benchmark.getName()).find())
+					&&((exclude==null)||!exclude.matcher(benchmark.getName()).find())){
+				selected.add(benchmark);
+			}
+		}
+		
+		if(list){
+			for(Benchmark benchmark : selected){
+				System.out.println(benchmark.getFamily()+"\t"+benchmark.getName());
+			}
+			return;
+		}
+		
+		System.out.println("# "+description(warmup, iterations, time));
+		System.out.println(Benchmark.HEADER);
+		
+		for(Benchmark benchmark : selected){
+			partial=benchmark.run(sizes, warmup, iterations, time, max);
+			for(Benchmark.Result result : partial){
+				System.out.println(Benchmark.format(result));
+			}
+			results.addAll(partial);
+		}
+		
+		if(out!=null){
+			Benchmark.write(results, out, description(warmup, iterations, time), false);
+		}
+		
+		if(baselineFile!=null){
+			baseline=Benchmark.read(baselineFile);
+			System.out.println();
+			System.out.print(Benchmark.compare(results, baseline, threshold));
+		}
+		
+		//keep the results of the operations alive
+		if(Benchmark.getSink()==42){
+			System.out.println();
+		}
+		
+	}//end-method
+	
+	/**
+	 * Describes the environment and settings of a run
+	 * 
+	 * @param warmup warmup iterations
+	 * @param iterations measurement iterations
+	 * @param time time of each iteration (ms)
+	 * @return description
+	 */
+	private static String description(int warmup, int iterations, long time){
+		
+		return "JVM "+System.getProperty("java.vm.name")+" "+System.getProperty("java.version")
+			+", "+System.getProperty("os.name")+" "+System.getProperty("os.arch")
+			+", "+Runtime.getRuntime().availableProcessors()+" processors"
+			+", warmup "+warmup+"x"+time+" ms, measurement "+iterations+"x"+time+" ms";
+		
+	}//end-method
+	
+}//end-class
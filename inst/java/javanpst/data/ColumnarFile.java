@@ -0,0 +1,524 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary columnar file of numeric data, and its memory-mapped view.
+ *
+ * All values are stored in little-endian order. The file starts with a
+ * header of 32 bytes:
+ *
+ * <pre>
+ * 0   int   magic number ("NPST")
+ * 4   int   version of the format
+ * 8   int   kind of contents (TABLE or SEQUENCE)
+ * 12  int   number of columns
+ * 16  long  number of rows
+ * 24  long  offset of the first column
+ * </pre>
+ *
+ * followed by the number of null values of each column (one long per
+ * column). Then, aligned to 8 bytes, each column is stored as its rows
+ * doubles followed by a null bitmap of (rows+63)/64 longs, where bit
+ * (i mod 64) of word i/64 is set if the value of row i is null.
+ *
+ * Columns of a file are mapped on demand and exposed as read-only
+ * buffers, so the values are not copied when the file is opened.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class ColumnarFile{
+
+	/**
+	 * Magic number of the format ("NPST" in little-endian order)
+	 */
+	public static final int MAGIC = 0x5453504E;
+
+	/**
+	 * Current version of the format
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Kind of contents: a data table
+	 */
+	public static final int TABLE = 1;
+
+	/**
+	 * Kind of contents: a numeric sequence (one column)
+	 */
+	public static final int SEQUENCE = 2;
+
+	/**
+	 * Size of the fixed part of the header
+	 */
+	private static final int HEADER_SIZE = 32;
+
+	/**
+	 * Size of the write buffer
+	 */
+	private static final int BUFFER_SIZE = 1<<16;
+
+	/**
+	 * A source of values to write
+	 */
+	public interface Values{
+
+		/**
+		 * Get a value
+		 *
+		 * @param row row index
+		 * @param col column index
+		 * @return value stored
+		 */
+		double get(int row, int col);
+
+	}//end-interface
+
+	/**
+	 * A source of null values to write
+	 */
+	public interface Nulls{
+
+		/**
+		 * Checks if a value is null
+		 *
+		 * @param row row index
+		 * @param col column index
+		 * @return true if the value is null
+		 */
+		boolean isNull(int row, int col);
+
+	}//end-interface
+
+	/**
+	 * Path of the file
+	 */
+	private final String file;
+
+	/**
+	 * Kind of contents
+	 */
+	private final int kind;
+
+	/**
+	 * Number of rows
+	 */
+	private final int rows;
+
+	/**
+	 * Number of null values of each column
+	 */
+	private final long nullCounts [];
+
+	/**
+	 * Offset of the first column
+	 */
+	private final long dataOffset;
+
+	/**
+	 * Values of the columns mapped
+	 */
+	private final DoubleBuffer columnValues [];
+
+	/**
+	 * Null bitmaps of the columns mapped
+	 */
+	private final LongBuffer columnNulls [];
+
+	/**
+	 * Builder
+	 *
+	 * @param newFile path of the file
+	 * @param newKind kind of contents
+	 * @param newRows number of rows
+	 * @param newNullCounts number of null values of each column
+	 * @param offset offset of the first column
+	 */
+	private ColumnarFile(String newFile, int newKind, int newRows, long newNullCounts[], long offset){
+
+		file=newFile;
+		kind=newKind;
+		rows=newRows;
+		nullCounts=newNullCounts;
+		dataOffset=offset;
+		columnValues=new DoubleBuffer [nullCounts.length];
+		columnNulls=new LongBuffer [nullCounts.length];
+
+	}//end-method
+
+	/**
+	 * Number of words of a null bitmap
+	 *
+	 * @param rows number of rows
+	 * @return number of longs
+	 */
+	private static long bitmapWords(long rows){
+
+		return (rows+63)/64;
+
+	}//end-method
+
+	/**
+	 * Offset of the first column
+	 *
+	 * @param columns number of columns
+	 * @return offset (multiple of 8)
+	 */
+	private static long dataOffset(int columns){
+
+		return HEADER_SIZE+8L*columns;
+
+	}//end-method
+
+	/**
+	 * Size of a column, including its null bitmap
+	 *
+	 * @param rows number of rows
+	 * @return size in bytes
+	 */
+	private static long columnSize(long rows){
+
+		return 8L*rows+8L*bitmapWords(rows);
+
+	}//end-method
+
+	/**
+	 * Writes numeric contents into a binary columnar file
+	 *
+	 * @param file path of the file
+	 * @param kind kind of contents (TABLE or SEQUENCE)
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 * @param values source of the values
+	 * @param nulls source of the null values
+	 * @return true if the file was written correctly. False, otherwise
+	 */
+	public static boolean write(String file, int kind, int rows, int columns, Values values, Nulls nulls){
+
+		ByteBuffer buffer;
+		long counts [];
+		long word;
+
+		buffer=ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		counts=new long [columns];
+
+		for(int j=0;j<columns;j++){
+			for(int i=0;i<rows;i++){
+				if(nulls.isNull(i, j)){
+					counts[j]++;
+				}
+			}
+		}
+
+		try(FileChannel channel=FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(kind);
+			buffer.putInt(columns);
+			buffer.putLong(rows);
+			buffer.putLong(dataOffset(columns));
+
+			for(int j=0;j<columns;j++){
+				put(channel, buffer);
+				buffer.putLong(counts[j]);
+			}
+
+			for(int j=0;j<columns;j++){
+
+				for(int i=0;i<rows;i++){
+					put(channel, buffer);
+					buffer.putDouble(nulls.isNull(i, j) ? DataDefinitions.NULL_VALUE : values.get(i, j));
+				}
+
+				word=0;
+				for(int i=0;i<rows;i++){
+					if(nulls.isNull(i, j)){
+						word|=1L<<(i&63);
+					}
+					if(((i&63)==63)||(i==rows-1)){
+						put(channel, buffer);
+						buffer.putLong(word);
+						word=0;
+					}
+				}
+			}
+
+			buffer.flip();
+			while(buffer.hasRemaining()){
+				channel.write(buffer);
+			}
+
+		}catch(IOException e){
+			System.out.println("Error writing "+file+": "+e.getMessage());
+			return false;
+		}
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Flushes the write buffer if there is no room for another 8 bytes
+	 *
+	 * @param channel channel of the file
+	 * @param buffer write buffer
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void put(FileChannel channel, ByteBuffer buffer) throws IOException{
+
+		if(buffer.remaining()<8){
+			buffer.flip();
+			while(buffer.hasRemaining()){
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+	}//end-method
+
+	/**
+	 * Opens a binary columnar file. Only the header is read; the
+	 * columns are mapped when they are first requested
+	 *
+	 * @param file path of the file
+	 * @return view of the file (null if it could not be opened)
+	 */
+	public static ColumnarFile open(String file){
+
+		ByteBuffer header;
+		int version,kind,columns;
+		long rows,offset;
+		long counts [];
+
+		try(FileChannel channel=FileChannel.open(Paths.get(file), StandardOpenOption.READ)){
+
+			if(channel.size()<HEADER_SIZE){
+				System.out.println("Error reading "+file+". It is not a binary columnar file.");
+				return null;
+			}
+
+			header=channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			if(header.getInt(0)!=MAGIC){
+				System.out.println("Error reading "+file+". It is not a binary columnar file.");
+				return null;
+			}
+
+			version=header.getInt(4);
+			kind=header.getInt(8);
+			columns=header.getInt(12);
+			rows=header.getLong(16);
+			offset=header.getLong(24);
+
+			if(version>VERSION){
+				System.out.println("Error reading "+file+". Version "+version+" of the format is not supported.");
+				return null;
+			}
+
+			if((columns<0)||(rows<0)||(8L*rows>Integer.MAX_VALUE)||
+					(channel.size()<offset+columns*columnSize(rows))){
+				System.out.println("Error reading "+file+". The file is corrupted.");
+				return null;
+			}
+
+			counts=new long [columns];
+			if(columns>0){
+				channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 8L*columns)
+					.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(counts);
+			}
+
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			return null;
+		}
+
+		return new ColumnarFile(file, kind, (int)rows, counts, offset);
+
+	}//end-method
+
+	/**
+	 * Maps a column of the file
+	 *
+	 * @param col column index
+	 * @throws UncheckedIOException if the column cannot be mapped
+	 */
+	private synchronized void map(int col){
+
+		long start;
+		MappedByteBuffer region;
+
+		if(columnValues[col]!=null){
+			return;
+		}
+
+		start=dataOffset+col*columnSize(rows);
+
+		try(FileChannel channel=FileChannel.open(Paths.get(file), StandardOpenOption.READ)){
+
+			region=channel.map(FileChannel.MapMode.READ_ONLY, start, 8L*rows);
+			columnValues[col]=region.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+
+			region=channel.map(FileChannel.MapMode.READ_ONLY, start+8L*rows, 8L*bitmapWords(rows));
+			columnNulls[col]=region.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+
+		}catch(IOException e){
+			columnValues[col]=null;
+			columnNulls[col]=null;
+			throw new UncheckedIOException("Error reading "+file+": "+e.getMessage(), e);
+		}
+
+	}//end-method
+
+	/**
+	 * Get the kind of contents of the file
+	 *
+	 * @return TABLE or SEQUENCE
+	 */
+	public int getKind(){
+
+		return kind;
+
+	}//end-method
+
+	/**
+	 * Get the number of rows
+	 *
+	 * @return number of rows
+	 */
+	public int getRows(){
+
+		return rows;
+
+	}//end-method
+
+	/**
+	 * Get the number of columns
+	 *
+	 * @return number of columns
+	 */
+	public int getColumns(){
+
+		return nullCounts.length;
+
+	}//end-method
+
+	/**
+	 * Get the number of null values of a column
+	 *
+	 * @param col column index
+	 * @return number of null values
+	 */
+	public long getNullCount(int col){
+
+		return nullCounts[col];
+
+	}//end-method
+
+	/**
+	 * Get the values of a column. The buffer is a read-only view of the file
+	 *
+	 * @param col column index
+	 * @return values of the column
+	 * @throws UncheckedIOException if the column cannot be mapped
+	 */
+	public DoubleBuffer getColumn(int col){
+
+		map(col);
+
+		return columnValues[col].asReadOnlyBuffer();
+
+	}//end-method
+
+	/**
+	 * Get the null bitmap of a column. The buffer is a read-only view of the file
+	 *
+	 * @param col column index
+	 * @return null bitmap of the column
+	 * @throws UncheckedIOException if the column cannot be mapped
+	 */
+	public LongBuffer getNullBitmap(int col){
+
+		map(col);
+
+		return columnNulls[col].asReadOnlyBuffer();
+
+	}//end-method
+
+	/**
+	 * Checks if a value is null
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if the value is null
+	 */
+	public boolean isNull(int row, int col){
+
+		if(nullCounts[col]==0){
+			return false;
+		}
+
+		map(col);
+
+		return (columnNulls[col].get(row>>>6)&(1L<<(row&63)))!=0;
+
+	}//end-method
+
+	/**
+	 * Get a value. Returns NULL_VALUE if null.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return value stored
+	 */
+	public double get(int row, int col){
+
+		if(isNull(row, col)){
+			return DataDefinitions.NULL_VALUE;
+		}
+
+		map(col);
+
+		return columnValues[col].get(row);
+
+	}//end-method
+
+}//end-class
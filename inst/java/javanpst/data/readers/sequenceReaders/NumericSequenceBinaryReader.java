@@ -0,0 +1,88 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.sequenceReaders;
+
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+
+import javanpst.data.ColumnarFile;
+
+/**
+ * A reader for numerical sequences in binary columnar format.
+ * 
+ * A file with several columns is read row by row. Null values are discarded.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class NumericSequenceBinaryReader{
+
+	/**
+	 * Read a numeric sequence from a binary columnar file
+	 * 
+	 * @param file path of the file
+	 * @return sequence read (void if the file could not be read)
+	 */
+	public static ArrayList<Double> readNumericSequence(String file){
+	
+		ColumnarFile contents;
+		ArrayList<Double> sequence;
+		DoubleBuffer columns [];
+		
+		contents=ColumnarFile.open(file);
+		sequence=new ArrayList<Double>();
+		
+		if(contents==null){
+			return sequence;
+		}
+		
+		columns=new DoubleBuffer [contents.getColumns()];
+		try{
+			for(int j=0;j<columns.length;j++){
+				columns[j]=contents.getColumn(j);
+			}
+		}catch(UncheckedIOException e){
+			System.out.println(e.getMessage());
+			return sequence;
+		}
+		
+		sequence.ensureCapacity(contents.getRows()*columns.length);
+		
+		for(int i=0;i<contents.getRows();i++){
+			for(int j=0;j<columns.length;j++){
+				if(!contents.isNull(i, j)){
+					sequence.add(columns[j].get(i));
+				}
+			}
+		}
+		
+		return sequence;
+
+	}//end-method
+	
+}//end-class
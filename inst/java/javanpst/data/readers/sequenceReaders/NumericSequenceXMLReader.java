@@ -26,12 +26,6 @@
 
 package javanpst.data.readers.sequenceReaders;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import org.xml.sax.SAXException;
-import java.io.IOException;
-
 import java.util.ArrayList;
 
 /**
@@ -94,25 +88,13 @@ public class NumericSequenceXMLReader{
 	}//end-method
 	
 	/**
-	 * Read a string sequence from a file, through SAX API
+	 * Read a numeric sequence from a file, through StAX API
 	 * 
 	 * @param file path of the file
 	 */
 	public static void readXMLSequence(String file){
 	
-		sequence=new ArrayList<Double>();
-		
-		try{
-            SAXParserFactory spf=SAXParserFactory.newInstance(); 
-            SAXParser sp = spf.newSAXParser();                   
-           	sp.parse(file, new SequenceXMLReaderFormat(SequenceXMLReaderFormat.NUMERIC) );	            
-        }catch(ParserConfigurationException e){                  
-        	System.err.println("Parser error");             
-        }catch(SAXException e2){                                 
-        	System.err.println("SAX error: " + e2.getStackTrace());
-        } catch (IOException e3) {
-        	System.err.println("Input/Output error: " + e3.getMessage() );
-        }
+		sequence=new SequenceXMLStreamReader(file).readNumbers();
 
 	}//end-method
 	
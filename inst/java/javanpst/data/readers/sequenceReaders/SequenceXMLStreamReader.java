@@ -0,0 +1,279 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.sequenceReaders;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A streaming XML reader for numeric and string sequences.
+ *
+ * The file is pulled element by element through the StAX API, so only
+ * the current element is held in memory. Elements can be visited one at a
+ * time (next/getText), passed to a listener, or collected into a list.
+ *
+ * Each reader keeps its own state, so several files can be read at once.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class SequenceXMLStreamReader implements AutoCloseable{
+
+	/**
+	 * Receives the elements read from the file
+	 */
+	public interface ElementListener{
+
+		/**
+		 * Called once per element
+		 *
+		 * @param index index of the element
+		 * @param text contents of the element
+		 */
+		void element(int index, String text);
+
+	}//end-interface
+
+	/**
+	 * Path of the file
+	 */
+	private String file;
+
+	/**
+	 * Input stream of the file
+	 */
+	private InputStream input;
+
+	/**
+	 * StAX reader
+	 */
+	private XMLStreamReader reader;
+
+	/**
+	 * Contents of the current element
+	 */
+	private String text;
+
+	/**
+	 * Index of the current element
+	 */
+	private int index;
+
+	/**
+	 * State of the reader (false after an error or the end of the data)
+	 */
+	private boolean state;
+
+	/**
+	 * Builder. Opens a file
+	 *
+	 * @param file path of the file
+	 */
+	public SequenceXMLStreamReader(String file){
+
+		XMLInputFactory factory;
+
+		this.file=file;
+		index=-1;
+		state=false;
+
+		try{
+			factory=XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+			input=new BufferedInputStream(new FileInputStream(file), 1<<16);
+			reader=factory.createXMLStreamReader(input);
+
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			close();
+			return;
+		}catch(XMLStreamException e){
+			System.out.println("XML error in "+file+": "+e.getMessage());
+			close();
+			return;
+		}
+
+		state=true;
+
+	}//end-method
+
+	/**
+	 * Moves to the next element of the file
+	 *
+	 * @return true if a new element has been read, false at the end of the data or after an error
+	 */
+	public boolean next(){
+
+		int event;
+
+		if(!state){
+			return false;
+		}
+
+		try{
+			do{
+				event=reader.next();
+			}while((event!=XMLStreamConstants.END_DOCUMENT)
+					&&!((event==XMLStreamConstants.START_ELEMENT)&&reader.getLocalName().equals("element")));
+
+			if(event==XMLStreamConstants.END_DOCUMENT){
+				close();
+				return false;
+			}
+
+			text=reader.getElementText();
+
+		}catch(XMLStreamException e){
+			System.out.println("XML error in "+file+" at element "+(index+1)+": "+e.getMessage());
+			close();
+			return false;
+		}
+
+		index++;
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Get the contents of the current element
+	 *
+	 * @return contents of the element
+	 */
+	public String getText(){
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Get the index of the current element
+	 *
+	 * @return index of the element (-1 before the first element)
+	 */
+	public int getIndex(){
+
+		return index;
+
+	}//end-method
+
+	/**
+	 * Reads the remaining elements, passing each of them to a listener.
+	 * The file is closed at the end
+	 *
+	 * @param listener receiver of the elements
+	 * @return number of elements read
+	 */
+	public int forEachElement(ElementListener listener){
+
+		int counter=0;
+
+		while(next()){
+			listener.element(index, text);
+			counter++;
+		}
+
+		return counter;
+
+	}//end-method
+
+	/**
+	 * Reads the remaining elements as a string sequence.
+	 * The file is closed at the end
+	 *
+	 * @return elements read
+	 */
+	public ArrayList<String> readStrings(){
+
+		ArrayList<String> sequence=new ArrayList<String>();
+
+		while(next()){
+			sequence.add(text);
+		}
+
+		return sequence;
+
+	}//end-method
+
+	/**
+	 * Reads the remaining elements as a numeric sequence. Elements which
+	 * are not numeric are reported and discarded. The file is closed at the end
+	 *
+	 * @return elements read
+	 */
+	public ArrayList<Double> readNumbers(){
+
+		ArrayList<Double> sequence=new ArrayList<Double>();
+
+		while(next()){
+			try{
+				sequence.add(Double.parseDouble(text));
+			}catch(NumberFormatException e){
+				System.out.println("Parsing error with value \""+text+"\"");
+			}
+		}
+
+		return sequence;
+
+	}//end-method
+
+	/**
+	 * Closes the file
+	 */
+	public void close(){
+
+		state=false;
+
+		try{
+			if(reader!=null){
+				reader.close();
+			}
+			if(input!=null){
+				input.close();
+			}
+		}catch(XMLStreamException e){
+			System.out.println("XML error closing "+file+": "+e.getMessage());
+		}catch(IOException e){
+			System.out.println("Error closing "+file+": "+e.getMessage());
+		}
+
+		reader=null;
+		input=null;
+
+	}//end-method
+
+}//end-class
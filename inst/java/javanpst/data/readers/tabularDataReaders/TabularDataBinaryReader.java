@@ -0,0 +1,70 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.tabularDataReaders;
+
+import java.io.UncheckedIOException;
+
+import javanpst.data.ColumnarFile;
+import javanpst.data.structures.dataTable.DataTable;
+
+/**
+ * A reader for numeric tabular data in binary columnar format.
+ * 
+ * The columns of the table are the memory-mapped columns of the file,
+ * so no text is parsed and no value is copied. Support null values treatment.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TabularDataBinaryReader{
+
+	/**
+	 * Read tabular data from a binary columnar file
+	 * 
+	 * @param file path of the file
+	 * @return table read (a void table if the file could not be read)
+	 */
+	public static DataTable readTabularData(String file){
+		
+		ColumnarFile contents;
+		
+		contents=ColumnarFile.open(file);
+		
+		if(contents==null){
+			return new DataTable();
+		}
+		
+		try{
+			return new DataTable(contents);
+		}catch(UncheckedIOException e){
+			System.out.println(e.getMessage());
+			return new DataTable();
+		}
+		
+	}//end-method
+	
+}//end-class
@@ -26,15 +26,13 @@
 
 package javanpst.data.readers.tabularDataReaders;
 
-import java.util.StringTokenizer;
-
 import javanpst.data.structures.dataTable.DataTable;
-import javanpst.utils.Files;
 
 /**
  * A CSV reader for numeric tabular data.
  * 
  * Store data inside a inner table. Support null values treatment.
+ * The file is parsed in a single streaming pass by TabularDataStreamReader.
  * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
@@ -46,19 +44,6 @@ public class TabularDataCSVReader{
 	 */
 	private static DataTable table;
 
-	/**
-	 * Initializes the inner table with the specified dimensions
-	 * 
-	 * @param rows
-	 * @param cols
-	 */
-	private static void generateTable(int rows, int cols){
-		
-		table= new DataTable();
-		table.setDimensions(rows,cols);
-		
-	}//end-method
-	
 	/**
 	 * Get a copy of the inner table as output
 	 * 
@@ -71,36 +56,6 @@ public class TabularDataCSVReader{
 		return tab;
 		
 	}//end-method
-	
-	/**
-	 * Adds a new value to the table
-	 * 
-	 * @param value string representation of value to add
-	 * @param row row selected
-	 * @param col column selected
-	 * @return true if the value was added correctly. False, otherwise
-	 */
-	private static boolean addValue(String value,int row,int col){
-		
-		double val;
-		
-		if(value=="NULL"){
-			table.setNull(row, col);
-		}
-		
-		try{
-			val=Double.parseDouble(value);
-		}catch(Exception e){
-			System.out.println("Parsing error on row "+row+" column "+col);
-			return false;
-		}
-		
-		table.setValue(row, col, val);
-		
-		return true;
-		
-	}//end-method
-
 
 	/**
 	 * Read tabular data from a CSV file
@@ -109,81 +64,7 @@ public class TabularDataCSVReader{
 	 */
 	public static void readCSVTabularData(String file){
 		
-		String content,separator,content2,value;
-		StringTokenizer tokens,tokens2;
-		int indexRow,indexCol;
-		boolean state;
-		
-		content=Files.readFile(file);
-		
-		separator = Files.findSeparator(content);
-		
-		extractDimensions(content,separator);
-		
-		tokens = new StringTokenizer (content, "\n");
-		
-		indexRow=0;
-		indexCol=0;
-		state=true;
-		
-		while(tokens.hasMoreElements()){
-			
-			content2=tokens.nextToken();
-			
-			tokens2 = new StringTokenizer (content2, separator);
-			
-			if(tokens2.countTokens()!=table.getColumns()){
-				table.clear();
-				System.out.println("\nError reading "+table.getRows()+" x "+table.getColumns()+" table. " +
-						"The number of colums is wrong.\n");
-				return;
-			}
-			
-			while(tokens2.hasMoreElements()){
-				
-				value=tokens2.nextToken();
-				
-				state= state && addValue(value,indexRow,indexCol);
-				
-				indexCol++;
-			}
-			
-			if(!state){
-				table.clear();
-				return;
-			}
-			
-			indexRow++;
-			indexCol=0;
-		}
-		
-	}//end-method
-	
-	/**
-	 * Guess dimensions of the table and generates the inner table of the reader
-	 * 
-	 * @param text contents of the table in CSV format
-	 * @param separator separator used (either ";" or ",")
-	 */
-	private static void extractDimensions(String text, String separator){
-		
-		int nRows,nColumns;
-		String line;
-		
-		StringTokenizer tokens,tokens2;
-		
-		tokens = new StringTokenizer (text, "\n");
-		
-		nRows = tokens.countTokens();
-		
-		line = tokens.nextToken();
-		
-		tokens2 = new StringTokenizer (line, separator);
-		
-		nColumns = tokens2.countTokens();
-		
-		//Generate table
-		generateTable(nRows,nColumns);
+		table=TabularDataStreamReader.readTabularData(file);
 		
 	}//end-method
 	
@@ -0,0 +1,513 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.tabularDataReaders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.data.structures.sequence.NumericSequence;
+
+/**
+ * A parallel reader for large numeric files in CSV or TXT format.
+ *
+ * The file is memory-mapped and split into chunks ending at line
+ * boundaries. The lines of every chunk are counted in parallel, so the
+ * first row of each chunk is known before parsing. Then, the chunks are
+ * parsed in parallel, each one writing its values straight into its own
+ * range of rows of the output columns, so no stitching copy is needed.
+ *
+ * The time spent parsing each chunk is recorded, and can be reported as
+ * throughput. Support null values treatment.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TabularDataParallelReader{
+
+	/**
+	 * Default size of the chunks (in bytes)
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1<<24;
+
+	/**
+	 * Path of the file
+	 */
+	private String file;
+
+	/**
+	 * Separator of the values (0 to guess it)
+	 */
+	private char separator;
+
+	/**
+	 * Size of the chunks
+	 */
+	private int chunkSize;
+
+	/**
+	 * Number of threads
+	 */
+	private int parallelism;
+
+	/**
+	 * Values read, by columns
+	 */
+	private double values [][];
+
+	/**
+	 * Null values read, by columns
+	 */
+	private boolean nulls [][];
+
+	/**
+	 * Number of rows read
+	 */
+	private int rows;
+
+	/**
+	 * Size of each chunk
+	 */
+	private long chunkBytes [];
+
+	/**
+	 * Number of rows of each chunk
+	 */
+	private int chunkRows [];
+
+	/**
+	 * Parsing time of each chunk (in nanoseconds)
+	 */
+	private long chunkTimes [];
+
+	/**
+	 * Total reading time (in nanoseconds)
+	 */
+	private long totalTime;
+
+	/**
+	 * Flag for a file read correctly
+	 */
+	private boolean read;
+
+	/**
+	 * Builder
+	 *
+	 * @param newFile path of the file
+	 */
+	public TabularDataParallelReader(String newFile){
+
+		file=newFile;
+		separator=0;
+		chunkSize=DEFAULT_CHUNK_SIZE;
+		parallelism=Runtime.getRuntime().availableProcessors();
+		read=false;
+
+	}//end-method
+
+	/**
+	 * Sets the separator of the values
+	 *
+	 * @param newSeparator separator (0 to guess it among ";", "," and tab)
+	 */
+	public void setSeparator(char newSeparator){
+
+		separator=newSeparator;
+
+	}//end-method
+
+	/**
+	 * Sets the size of the chunks
+	 *
+	 * @param size size of the chunks (in bytes)
+	 */
+	public void setChunkSize(int size){
+
+		if(size>0){
+			chunkSize=size;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the number of threads
+	 *
+	 * @param threads number of threads
+	 */
+	public void setParallelism(int threads){
+
+		if(threads>0){
+			parallelism=threads;
+		}
+
+	}//end-method
+
+	/**
+	 * Reads the file
+	 *
+	 * @return true if the file was read correctly. False, otherwise
+	 */
+	public boolean read(){
+
+		long start;
+		long bounds [];
+		final MappedByteBuffer chunks [];
+		final int firstRows [];
+		final byte sep;
+		int columns;
+		ForkJoinPool pool;
+		List<Callable<Boolean>> tasks;
+		boolean state;
+
+		read=false;
+		values=new double [0][0];
+		nulls=new boolean [0][0];
+		rows=0;
+
+		start=System.nanoTime();
+		pool=new ForkJoinPool(parallelism);
+
+		try(FileChannel channel=FileChannel.open(Paths.get(file), StandardOpenOption.READ)){
+
+			bounds=findBounds(channel);
+			chunks=new MappedByteBuffer [bounds.length-1];
+			chunkBytes=new long [chunks.length];
+			chunkRows=new int [chunks.length];
+			chunkTimes=new long [chunks.length];
+
+			for(int c=0;c<chunks.length;c++){
+				chunkBytes[c]=bounds[c+1]-bounds[c];
+				chunks[c]=channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], chunkBytes[c]);
+			}
+
+			if(chunks.length==0){
+				read=true;
+				totalTime=System.nanoTime()-start;
+				return true;
+			}
+
+			sep=(separator!=0) ? (byte)separator : TabularDataParser.findSeparator(chunks[0], 0, chunks[0].limit());
+			columns=TabularDataParser.countFields(chunks[0], 0, chunks[0].limit(), sep);
+
+			//first pass: number of rows of each chunk
+			tasks=new ArrayList<Callable<Boolean>>();
+			for(int c=0;c<chunks.length;c++){
+				final int chunk=c;
+				tasks.add(() -> {
+					chunkRows[chunk]=TabularDataParser.countLines(chunks[chunk], 0, chunks[chunk].limit());
+					return true;
+				});
+			}
+			runAll(pool, tasks);
+
+			firstRows=new int [chunks.length+1];
+			for(int c=0;c<chunks.length;c++){
+				if((long)firstRows[c]+chunkRows[c]>Integer.MAX_VALUE){
+					System.out.println("\nError reading "+file+". Too many rows.\n");
+					return false;
+				}
+				firstRows[c+1]=firstRows[c]+chunkRows[c];
+			}
+			rows=firstRows[chunks.length];
+
+			values=new double [columns][rows];
+			nulls=new boolean [columns][rows];
+
+			//second pass: each chunk is parsed into its range of rows
+			tasks=new ArrayList<Callable<Boolean>>();
+			for(int c=0;c<chunks.length;c++){
+				final int chunk=c;
+				tasks.add(() -> {
+					long begin=System.nanoTime();
+					TabularDataParser parser=new TabularDataParser(sep, values, nulls, firstRows[chunk], firstRows[chunk+1]);
+					boolean ok=parser.parse(chunks[chunk], 0, chunks[chunk].limit())&&parser.finish();
+					chunkTimes[chunk]=System.nanoTime()-begin;
+					return ok;
+				});
+			}
+			state=runAll(pool, tasks);
+
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			return false;
+		}finally{
+			pool.shutdown();
+		}
+
+		if(!state){
+			values=new double [0][0];
+			nulls=new boolean [0][0];
+			rows=0;
+			return false;
+		}
+
+		totalTime=System.nanoTime()-start;
+		read=true;
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Splits the file into chunks ending at line boundaries
+	 *
+	 * @param channel channel of the file
+	 * @return positions of the bounds of the chunks (first one is 0, last one is the size)
+	 * @throws IOException if the file cannot be read
+	 */
+	private long [] findBounds(FileChannel channel) throws IOException{
+
+		ArrayList<Long> bounds;
+		ByteBuffer probe;
+		long size,position;
+		long result [];
+		boolean found;
+
+		size=channel.size();
+		bounds=new ArrayList<Long>();
+		bounds.add(0L);
+		probe=ByteBuffer.allocate(4096);
+		position=0;
+
+		while(size-position>chunkSize){
+
+			position+=chunkSize;
+			found=false;
+
+			//move the bound forward, just after the next end of line
+			while(!found&&(position<size)){
+				probe.clear();
+				channel.read(probe, position);
+				for(int i=0;i<probe.position();i++){
+					if(probe.get(i)=='\n'){
+						position+=i+1;
+						found=true;
+						break;
+					}
+				}
+				if(!found){
+					position+=probe.position();
+				}
+			}
+
+			if(position<size){
+				bounds.add(position);
+			}
+		}
+
+		if(size>0){
+			bounds.add(size);
+		}
+
+		result=new long [bounds.size()];
+		for(int i=0;i<result.length;i++){
+			result[i]=bounds.get(i);
+		}
+
+		return result;
+
+	}//end-method
+
+	/**
+	 * Runs a set of tasks in a pool, waiting for all of them
+	 *
+	 * @param pool pool of threads
+	 * @param tasks tasks to run
+	 * @return true if all tasks succeeded. False, otherwise
+	 */
+	private static boolean runAll(ForkJoinPool pool, List<Callable<Boolean>> tasks){
+
+		boolean state=true;
+
+		for(Future<Boolean> result : pool.invokeAll(tasks)){
+			try{
+				state&=result.get();
+			}catch(InterruptedException | ExecutionException e){
+				System.out.println("Error reading chunk: "+e.getMessage());
+				state=false;
+			}
+		}
+
+		return state;
+
+	}//end-method
+
+	/**
+	 * Get the values read, by columns. The arrays are not copied
+	 *
+	 * @return values read (one array per column)
+	 */
+	public double [][] getColumns(){
+
+		return values;
+
+	}//end-method
+
+	/**
+	 * Get the null values read, by columns. The arrays are not copied
+	 *
+	 * @return null values read (one array per column)
+	 */
+	public boolean [][] getNulls(){
+
+		return nulls;
+
+	}//end-method
+
+	/**
+	 * Get the number of rows read
+	 *
+	 * @return number of rows
+	 */
+	public int getRows(){
+
+		return rows;
+
+	}//end-method
+
+	/**
+	 * Get the table read. The columns read are not copied
+	 *
+	 * @return a new table with the contents read
+	 */
+	public DataTable getTable(){
+
+		return DataTable.fromColumns(values, nulls, rows);
+
+	}//end-method
+
+	/**
+	 * Get the contents read as a sequence, row by row. Null values are discarded
+	 *
+	 * @return a new sequence with the contents read
+	 */
+	public NumericSequence getSequence(){
+
+		double sequence [];
+		long size;
+		int counter;
+
+		size=(long)rows*values.length;
+		if(size>Integer.MAX_VALUE-8){
+			System.out.println("\nError reading "+file+". Too many values for a sequence.\n");
+			return new NumericSequence();
+		}
+
+		sequence=new double [(int)size];
+		counter=0;
+
+		for(int i=0;i<rows;i++){
+			for(int j=0;j<values.length;j++){
+				if(!nulls[j][i]){
+					sequence[counter]=values[j][i];
+					counter++;
+				}
+			}
+		}
+
+		return new NumericSequence(Arrays.copyOf(sequence, counter));
+
+	}//end-method
+
+	/**
+	 * Get the throughput of each chunk
+	 *
+	 * @return throughput of each chunk (in MB per second)
+	 */
+	public double [] getChunkThroughput(){
+
+		double throughput []=new double [chunkTimes.length];
+
+		for(int c=0;c<chunkTimes.length;c++){
+			throughput[c]=(chunkBytes[c]/1e6)/(Math.max(chunkTimes[c],1)/1e9);
+		}
+
+		return throughput;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the size, rows and throughput of each chunk
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+		double throughput [];
+		long bytes;
+		DecimalFormat nf2;
+		DecimalFormatSymbols dfs;
+
+		if(!read){
+			report+="The file has not been read.\n";
+			return report;
+		}
+
+		nf2=(DecimalFormat) DecimalFormat.getInstance();
+		nf2.setMaximumFractionDigits(2);
+		nf2.setMinimumFractionDigits(2);
+		nf2.setGroupingUsed(false);
+		dfs=nf2.getDecimalFormatSymbols();
+		dfs.setDecimalSeparator('.');
+		nf2.setDecimalFormatSymbols(dfs);
+
+		throughput=getChunkThroughput();
+		bytes=0;
+
+		report+="\n*****************************\n";
+		report+="Parallel reading of "+file+"\n";
+		report+="*****************************\n\n";
+
+		report+="Chunk\tBytes\tRows\tMB/s\n";
+		for(int c=0;c<throughput.length;c++){
+			report+=c+"\t"+chunkBytes[c]+"\t"+chunkRows[c]+"\t"+nf2.format(throughput[c])+"\n";
+			bytes+=chunkBytes[c];
+		}
+
+		report+="\nTable: "+rows+" x "+values.length+"\n";
+		report+="Total time: "+nf2.format(totalTime/1e6)+" ms ("+
+				nf2.format((bytes/1e6)/(Math.max(totalTime,1)/1e9))+" MB/s)\n\n";
+
+		return report;
+
+	}//end-method
+
+}//end-class
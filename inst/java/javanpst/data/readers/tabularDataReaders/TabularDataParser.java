@@ -0,0 +1,618 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.tabularDataReaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javanpst.data.structures.dataTable.DataTable;
+
+/**
+ * An incremental parser for numeric tabular data in delimited text format.
+ *
+ * Bytes are fed in pieces of any size, so a token may be split between
+ * two pieces. Values are parsed straight from the bytes and stored by
+ * columns, either in buffers which grow geometrically or in a range of
+ * rows of columns allocated by the caller. Empty lines are skipped,
+ * and both "NULL" and empty fields are read as null values.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+final class TabularDataParser{
+
+	/**
+	 * Initial number of rows of the column buffers
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Number of lines examined to find the separator
+	 */
+	private static final int SNIFF_LINES = 8;
+
+	/**
+	 * Candidate separators. The first one is preferred on ties
+	 */
+	private static final byte SEPARATORS [] = {';', ',', '\t'};
+
+	/**
+	 * Exact powers of ten representable as doubles
+	 */
+	private static final double POWERS [] = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Mantissas up to this value are represented exactly as doubles
+	 */
+	private static final long EXACT_MANTISSA = 1L<<53;
+
+	/**
+	 * Separator of the values
+	 */
+	private final byte separator;
+
+	/**
+	 * Bytes of the current token
+	 */
+	private byte token [];
+
+	/**
+	 * Length of the current token
+	 */
+	private int tokenLength;
+
+	/**
+	 * Flag for a line with contents
+	 */
+	private boolean lineStarted;
+
+	/**
+	 * Values stored, by columns
+	 */
+	private double values [][];
+
+	/**
+	 * Null values stored, by columns
+	 */
+	private boolean nulls [][];
+
+	/**
+	 * Number of columns (-1 until the first line is read)
+	 */
+	private int columns;
+
+	/**
+	 * Number of rows stored
+	 */
+	private int rows;
+
+	/**
+	 * Column of the current token
+	 */
+	private int col;
+
+	/**
+	 * Number of rows allocated in the column buffers
+	 */
+	private int capacity;
+
+	/**
+	 * Flag for column buffers owned (and grown) by the parser
+	 */
+	private final boolean growable;
+
+	/**
+	 * Builder
+	 *
+	 * @param newSeparator separator of the values
+	 */
+	TabularDataParser(byte newSeparator){
+
+		separator=newSeparator;
+
+		token=new byte [64];
+		tokenLength=0;
+		lineStarted=false;
+
+		//columns are added as the first line is read
+		capacity=INITIAL_CAPACITY;
+		values=new double [0][];
+		nulls=new boolean [0][];
+		columns=-1;
+		rows=0;
+		col=0;
+		growable=true;
+
+	}//end-method
+
+	/**
+	 * Builder. Values are stored in a range of rows of given columns
+	 *
+	 * @param newSeparator separator of the values
+	 * @param newValues columns where values are stored
+	 * @param newNulls columns where null values are stored
+	 * @param firstRow first row of the range (inclusive)
+	 * @param lastRow last row of the range (exclusive)
+	 */
+	TabularDataParser(byte newSeparator, double newValues[][], boolean newNulls[][], int firstRow, int lastRow){
+
+		separator=newSeparator;
+
+		token=new byte [64];
+		tokenLength=0;
+		lineStarted=false;
+
+		values=newValues;
+		nulls=newNulls;
+		columns=newValues.length;
+		rows=firstRow;
+		capacity=lastRow;
+		col=0;
+		growable=false;
+
+	}//end-method
+
+	/**
+	 * Parses a piece of contents
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @return true if the piece was parsed correctly. False, otherwise
+	 */
+	boolean parse(byte bytes[], int from, int to){
+
+		return parse(ByteBuffer.wrap(bytes), from, to);
+
+	}//end-method
+
+	/**
+	 * Parses a piece of contents stored in a buffer. The position
+	 * of the buffer is not modified
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @return true if the piece was parsed correctly. False, otherwise
+	 */
+	boolean parse(ByteBuffer bytes, int from, int to){
+
+		byte b;
+
+		for(int i=from;i<to;i++){
+
+			b=bytes.get(i);
+
+			if(b==separator){
+				lineStarted=true;
+				if(!endToken()){
+					return false;
+				}
+			}
+			else if(b=='\n'){
+				if(lineStarted){
+					if(!endToken()||!endLine()){
+						return false;
+					}
+				}
+			}
+			else if(b!='\r'){
+				lineStarted=true;
+				if(tokenLength==token.length){
+					token=Arrays.copyOf(token, 2*token.length);
+				}
+				token[tokenLength++]=b;
+			}
+		}
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Ends the parsing, adding the last line if it was not ended
+	 *
+	 * @return true if the contents were parsed correctly. False, otherwise
+	 */
+	boolean finish(){
+
+		if(lineStarted){
+			return endToken()&&endLine();
+		}
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Stores the current token
+	 *
+	 * @return true if the token was added correctly. False, otherwise
+	 */
+	private boolean endToken(){
+
+		int from,to;
+		double value;
+		boolean isNull;
+
+		if(columns<0){
+			values=Arrays.copyOf(values, col+1);
+			nulls=Arrays.copyOf(nulls, col+1);
+			values[col]=new double [capacity];
+			nulls[col]=new boolean [capacity];
+		}
+		else if(col>=columns){
+			System.out.println("\nError reading table. The number of colums is wrong in row "+rows+".\n");
+			return false;
+		}
+		else if(rows>=capacity){
+			System.out.println("\nError reading table. Unexpected row "+rows+".\n");
+			return false;
+		}
+
+		from=0;
+		to=tokenLength;
+		while((from<to)&&((token[from]==' ')||(token[from]=='\t'))){
+			from++;
+		}
+		while((to>from)&&((token[to-1]==' ')||(token[to-1]=='\t'))){
+			to--;
+		}
+
+		isNull=(from==to)||isNullToken(token,from,to);
+		value=0.0;
+
+		if(!isNull){
+			try{
+				value=parseDouble(token,from,to);
+			}catch(NumberFormatException e){
+				System.out.println("Parsing error on row "+rows+" column "+col);
+				return false;
+			}
+		}
+
+		values[col][rows]=value;
+		nulls[col][rows]=isNull;
+
+		col++;
+		tokenLength=0;
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Ends the current line
+	 *
+	 * @return true if the line was complete. False, otherwise
+	 */
+	private boolean endLine(){
+
+		if(columns<0){
+			columns=col;
+		}
+		else if(col!=columns){
+			System.out.println("\nError reading table. The number of colums is wrong in row "+rows+".\n");
+			return false;
+		}
+
+		rows++;
+		col=0;
+		lineStarted=false;
+
+		if(growable&&(rows==capacity)){
+			capacity*=2;
+			for(int j=0;j<columns;j++){
+				values[j]=Arrays.copyOf(values[j], capacity);
+				nulls[j]=Arrays.copyOf(nulls[j], capacity);
+			}
+		}
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Get the number of rows read
+	 *
+	 * @return number of rows
+	 */
+	int getRows(){
+
+		return rows;
+
+	}//end-method
+
+	/**
+	 * Get the number of columns read
+	 *
+	 * @return number of columns
+	 */
+	int getColumns(){
+
+		return Math.max(columns,0);
+
+	}//end-method
+
+	/**
+	 * Counts the lines with contents of a piece of contents
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @return number of lines which are not empty
+	 */
+	static int countLines(ByteBuffer bytes, int from, int to){
+
+		int lines;
+		boolean started;
+		byte b;
+
+		lines=0;
+		started=false;
+
+		for(int i=from;i<to;i++){
+			b=bytes.get(i);
+			if(b=='\n'){
+				if(started){
+					lines++;
+				}
+				started=false;
+			}
+			else if(b!='\r'){
+				started=true;
+			}
+		}
+
+		if(started){
+			lines++;
+		}
+
+		return lines;
+
+	}//end-method
+
+	/**
+	 * Counts the fields of the first line with contents
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @param separator separator of the values
+	 * @return number of fields (0 if there are no lines with contents)
+	 */
+	static int countFields(ByteBuffer bytes, int from, int to, byte separator){
+
+		int fields;
+		boolean started;
+		byte b;
+
+		fields=1;
+		started=false;
+
+		for(int i=from;i<to;i++){
+			b=bytes.get(i);
+			if(b=='\n'){
+				if(started){
+					return fields;
+				}
+			}
+			else if(b!='\r'){
+				started=true;
+				if(b==separator){
+					fields++;
+				}
+			}
+		}
+
+		return started ? fields : 0;
+
+	}//end-method
+
+	/**
+	 * Get the table read
+	 *
+	 * @return a new table with the contents parsed (0x0 if there were no rows)
+	 */
+	DataTable getTable(){
+
+		return DataTable.fromColumns(values, nulls, rows);
+
+	}//end-method
+
+	/**
+	 * Checks whether a token is the "NULL" keyword
+	 *
+	 * @param bytes contents
+	 * @param from first position of the token (inclusive)
+	 * @param to last position of the token (exclusive)
+	 * @return true if the token is "NULL"
+	 */
+	private static boolean isNullToken(byte bytes[], int from, int to){
+
+		return (to-from==4)&&(bytes[from]=='N')&&(bytes[from+1]=='U')
+				&&(bytes[from+2]=='L')&&(bytes[from+3]=='L');
+
+	}//end-method
+
+	/**
+	 * Finds the separator used in the first lines of a delimited text.
+	 * The most frequent among ";", "," and tab is selected.
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @return separator found (";" if none of them appears)
+	 */
+	static byte findSeparator(byte bytes[], int from, int to){
+
+		return findSeparator(ByteBuffer.wrap(bytes), from, to);
+
+	}//end-method
+
+	/**
+	 * Finds the separator used in the first lines of a delimited text
+	 * stored in a buffer.
+	 *
+	 * @param bytes contents
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 * @return separator found (";" if none of them appears)
+	 */
+	static byte findSeparator(ByteBuffer bytes, int from, int to){
+
+		int counts []=new int [SEPARATORS.length];
+		int lines,best;
+		byte b;
+
+		lines=0;
+		for(int i=from;(i<to)&&(lines<SNIFF_LINES);i++){
+			b=bytes.get(i);
+			if(b=='\n'){
+				lines++;
+			}
+			for(int s=0;s<SEPARATORS.length;s++){
+				if(b==SEPARATORS[s]){
+					counts[s]++;
+				}
+			}
+		}
+
+		best=0;
+		for(int s=1;s<SEPARATORS.length;s++){
+			if(counts[s]>counts[best]){
+				best=s;
+			}
+		}
+
+		return SEPARATORS[best];
+
+	}//end-method
+
+	/**
+	 * Parses a decimal number from its bytes.
+	 *
+	 * Numbers with up to 15 significant digits and a small exponent are
+	 * computed exactly with a single product or division by a power of ten.
+	 * The rest of representations are delegated to Double.parseDouble.
+	 *
+	 * @param bytes contents
+	 * @param from first position of the number (inclusive)
+	 * @param to last position of the number (exclusive)
+	 * @return value parsed
+	 * @throws NumberFormatException if the token is not a number
+	 */
+	static double parseDouble(byte bytes[], int from, int to){
+
+		int i,digit,exponent,expValue;
+		long mantissa;
+		boolean negative,expNegative,anyDigit,truncated;
+		double value;
+
+		i=from;
+		negative=false;
+		if((i<to)&&((bytes[i]=='-')||(bytes[i]=='+'))){
+			negative=(bytes[i]=='-');
+			i++;
+		}
+
+		mantissa=0;
+		exponent=0;
+		anyDigit=false;
+		truncated=false;
+
+		while((i<to)&&(bytes[i]>='0')&&(bytes[i]<='9')){
+			digit=bytes[i]-'0';
+			anyDigit=true;
+			if(mantissa<EXACT_MANTISSA){
+				mantissa=mantissa*10+digit;
+			}
+			else{
+				truncated|=(digit!=0);
+				exponent++;
+			}
+			i++;
+		}
+
+		if((i<to)&&(bytes[i]=='.')){
+			i++;
+			while((i<to)&&(bytes[i]>='0')&&(bytes[i]<='9')){
+				digit=bytes[i]-'0';
+				anyDigit=true;
+				if(mantissa<EXACT_MANTISSA){
+					mantissa=mantissa*10+digit;
+					exponent--;
+				}
+				else{
+					truncated|=(digit!=0);
+				}
+				i++;
+			}
+		}
+
+		if(anyDigit&&(i<to)&&((bytes[i]=='e')||(bytes[i]=='E'))){
+			i++;
+			expNegative=false;
+			if((i<to)&&((bytes[i]=='-')||(bytes[i]=='+'))){
+				expNegative=(bytes[i]=='-');
+				i++;
+			}
+			if((i==to)||(bytes[i]<'0')||(bytes[i]>'9')){
+				anyDigit=false;
+			}
+			expValue=0;
+			while((i<to)&&(bytes[i]>='0')&&(bytes[i]<='9')){
+				if(expValue<100000){
+					expValue=expValue*10+(bytes[i]-'0');
+				}
+				i++;
+			}
+			exponent+=expNegative ? -expValue : expValue;
+		}
+
+		if(anyDigit&&(i==to)&&!truncated&&(mantissa<=EXACT_MANTISSA)
+				&&(exponent>=-22)&&(exponent<=22)){
+
+			if(exponent>=0){
+				value=mantissa*POWERS[exponent];
+			}
+			else{
+				value=mantissa/POWERS[-exponent];
+			}
+
+			return negative ? -value : value;
+		}
+
+		return Double.parseDouble(new String(bytes, from, to-from, StandardCharsets.ISO_8859_1));
+
+	}//end-method
+
+}//end-class
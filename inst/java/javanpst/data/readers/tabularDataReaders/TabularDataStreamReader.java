@@ -0,0 +1,122 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.tabularDataReaders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import javanpst.data.structures.dataTable.DataTable;
+
+/**
+ * A streaming reader for numeric tabular data in CSV or TXT format.
+ *
+ * The file is read through a FileChannel in fixed size pieces, and
+ * each piece is parsed as it arrives, so the contents are never held
+ * as a String. The separator can be given or guessed from the first
+ * lines of the file. Support null values treatment.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TabularDataStreamReader{
+
+	/**
+	 * Size of the pieces read from the file
+	 */
+	private static final int BUFFER_SIZE = 1<<16;
+
+	/**
+	 * Read tabular data from a delimited text file, guessing the separator
+	 * among ";", "," and tab
+	 *
+	 * @param file path of the file
+	 * @return table read (a void table if the file could not be read)
+	 */
+	public static DataTable readTabularData(String file){
+
+		return readTabularData(file, (char)0);
+
+	}//end-method
+
+	/**
+	 * Read tabular data from a delimited text file
+	 *
+	 * @param file path of the file
+	 * @param separator separator of the values (0 to guess it)
+	 * @return table read (a void table if the file could not be read)
+	 */
+	public static DataTable readTabularData(String file, char separator){
+
+		ByteBuffer buffer;
+		TabularDataParser parser;
+		byte bytes [];
+		boolean state;
+
+		buffer=ByteBuffer.allocate(BUFFER_SIZE);
+		bytes=buffer.array();
+		parser=null;
+		state=true;
+
+		try(FileChannel channel=FileChannel.open(Paths.get(file), StandardOpenOption.READ)){
+
+			while(state&&(channel.read(buffer)!=-1)){
+
+				//fill the first piece, so the separator is guessed from whole lines
+				if((parser==null)&&buffer.hasRemaining()){
+					continue;
+				}
+
+				if(parser==null){
+					parser=new TabularDataParser(separator!=0 ? (byte)separator : TabularDataParser.findSeparator(bytes, 0, buffer.position()));
+				}
+
+				state=parser.parse(bytes, 0, buffer.position());
+				buffer.clear();
+			}
+
+			if(state&&(parser==null)){
+				parser=new TabularDataParser(separator!=0 ? (byte)separator : TabularDataParser.findSeparator(bytes, 0, buffer.position()));
+				state=parser.parse(bytes, 0, buffer.position());
+			}
+
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			return new DataTable();
+		}
+
+		if(!state||!parser.finish()){
+			return new DataTable();
+		}
+
+		return parser.getTable();
+
+	}//end-method
+
+}//end-class
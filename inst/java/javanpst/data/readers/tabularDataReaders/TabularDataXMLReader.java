@@ -28,18 +28,15 @@ package javanpst.data.readers.tabularDataReaders;
 
 import javanpst.data.structures.dataTable.DataTable;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import org.xml.sax.SAXException;
-
-import java.io.IOException;
-
 /**
  * A XML reader for numeric tabular data.
  * 
  * Store data inside a inner table. Support null values treatment.
  * 
+ * The file is read through TabularDataXMLStreamReader, which should be
+ * preferred to read several files at once or to process the rows as they
+ * are read.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
@@ -50,19 +47,6 @@ public class TabularDataXMLReader{
 	 */
 	private static DataTable table;
 
-	/**
-	 * Initializes the inner table with the specified dimensions
-	 * 
-	 * @param rows
-	 * @param cols
-	 */
-	static void generateTable(int rows, int cols){
-		
-		table= new DataTable();
-		table.setDimensions(rows,cols);
-		
-	}//end-method
-	
 	/**
 	 * Get a copy of the inner table as output
 	 * 
@@ -77,58 +61,13 @@ public class TabularDataXMLReader{
 	}//end-method
 	
 	/**
-	 * Clears the table
-	 */
-	static void clear(){
-		
-		table.clear();
-		
-	}//end-method
-	
-	/**
-	 * Add a new row to the table in the specified position
-	 * 
-	 * @param row index of the row
-	 * @param array data to add
-	 */
-	static void addRow(int row,double array []){
-		
-		table.setRow(row, array);
-		
-	}//end-method
-	
-	/**
-	 * Set a value of the table as NULL
-	 * 
-	 * @param row row index
-	 * @param col column index
-	 */
-	static void setNull(int row,int col){
-		
-		table.setNull(row, col);
-
-	}//end-method
-
-	/**
-	 * Read tabular data from a file, through SAX API
+	 * Read tabular data from a file, through StAX API
 	 * 
 	 * @param file path of the file
 	 */
 	public static void readXMLTabularData(String file){
 	
-		table=new DataTable();
-		
-		try{
-            SAXParserFactory spf=SAXParserFactory.newInstance(); 
-            SAXParser sp = spf.newSAXParser();                   
-           	sp.parse(file, new TabularDataXMLReaderFormat());	            
-        }catch(ParserConfigurationException e){                  
-        	System.err.println("Parser error");             
-        }catch(SAXException e2){                                 
-        	System.err.println("SAX error: " + e2.getStackTrace());
-        } catch (IOException e3) {
-        	System.err.println("Input/Output error: " + e3.getMessage() );
-        }
+		table=new TabularDataXMLStreamReader(file).readTable();
 
 	}//end-method
 	
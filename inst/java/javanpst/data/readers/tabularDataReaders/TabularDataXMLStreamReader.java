@@ -0,0 +1,451 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.readers.tabularDataReaders;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import javanpst.data.DataDefinitions;
+import javanpst.data.structures.dataTable.DataTable;
+
+/**
+ * A streaming XML reader for numeric tabular data.
+ *
+ * The file is pulled row by row through the StAX API, so only the current
+ * row is held in memory. Rows can be visited one at a time (next/getRow),
+ * passed to a listener, or collected by columns into a new table.
+ * Support null values treatment.
+ *
+ * Each reader keeps its own state, so several files can be read at once.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TabularDataXMLStreamReader implements AutoCloseable{
+
+	/**
+	 * Maximum number of values allocated in advance from the declared size.
+	 * Larger tables grow as their rows are read
+	 */
+	private static final int MAX_PREALLOCATED_VALUES = 1<<20;
+
+	/**
+	 * Receives the rows read from the file
+	 */
+	public interface RowListener{
+
+		/**
+		 * Called once per row. Arrays are reused between calls
+		 *
+		 * @param index index of the row
+		 * @param values values of the row (NULL_VALUE if null)
+		 * @param nulls null values of the row
+		 */
+		void row(int index, double values[], boolean nulls[]);
+
+	}//end-interface
+
+	/**
+	 * Path of the file
+	 */
+	private String file;
+
+	/**
+	 * Input stream of the file
+	 */
+	private InputStream input;
+
+	/**
+	 * StAX reader
+	 */
+	private XMLStreamReader reader;
+
+	/**
+	 * Number of rows declared in the file (-1 if unknown)
+	 */
+	private int declaredRows;
+
+	/**
+	 * Number of columns
+	 */
+	private int columns;
+
+	/**
+	 * Values of the current row
+	 */
+	private double values [];
+
+	/**
+	 * Null values of the current row
+	 */
+	private boolean nulls [];
+
+	/**
+	 * Index of the current row
+	 */
+	private int rowIndex;
+
+	/**
+	 * State of the reader (false after an error or the end of the data)
+	 */
+	private boolean state;
+
+	/**
+	 * Flag for errors found while reading
+	 */
+	private boolean failed;
+
+	/**
+	 * Builder. Opens a file and reads its header
+	 *
+	 * @param file path of the file
+	 */
+	public TabularDataXMLStreamReader(String file){
+
+		XMLInputFactory factory;
+		String attribute;
+
+		this.file=file;
+		declaredRows=-1;
+		columns=0;
+		rowIndex=-1;
+		state=false;
+		failed=true;
+
+		try{
+			factory=XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+			input=new BufferedInputStream(new FileInputStream(file), 1<<16);
+			reader=factory.createXMLStreamReader(input);
+
+			while(reader.hasNext()&&(reader.next()!=XMLStreamConstants.START_ELEMENT));
+
+			if(!reader.isStartElement()||!reader.getLocalName().equals("tabular")){
+				System.out.println("Error reading "+file+". It is not a XML tabular data file.");
+				close();
+				return;
+			}
+
+			attribute=reader.getAttributeValue(null, "rows");
+			if(attribute!=null){
+				declaredRows=Integer.parseInt(attribute.trim());
+			}
+			attribute=reader.getAttributeValue(null, "columns");
+			if(attribute!=null){
+				columns=Integer.parseInt(attribute.trim());
+			}
+			if((declaredRows<-1)||(columns<0)){
+				throw new NumberFormatException(declaredRows+"x"+columns);
+			}
+
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			close();
+			return;
+		}catch(XMLStreamException e){
+			System.out.println("XML error in "+file+": "+e.getMessage());
+			close();
+			return;
+		}catch(NumberFormatException e){
+			System.out.println("Error reading "+file+". Wrong dimensions: "+e.getMessage());
+			close();
+			return;
+		}
+
+		values=new double [columns];
+		nulls=new boolean [columns];
+		state=true;
+		failed=false;
+
+	}//end-method
+
+	/**
+	 * Moves to the next row of the file
+	 *
+	 * @return true if a new row has been read, false at the end of the data or after an error
+	 */
+	public boolean next(){
+
+		int event;
+		int counter;
+		String text;
+
+		if(!state){
+			return false;
+		}
+
+		try{
+			//find the next row
+			do{
+				event=reader.next();
+				if((event==XMLStreamConstants.END_ELEMENT)&&reader.getLocalName().equals("tabular")){
+					close();
+					return false;
+				}
+			}while((event!=XMLStreamConstants.END_DOCUMENT)
+					&&!((event==XMLStreamConstants.START_ELEMENT)&&reader.getLocalName().equals("row")));
+
+			if(event==XMLStreamConstants.END_DOCUMENT){
+				close();
+				return false;
+			}
+
+			counter=0;
+
+			while((event=reader.nextTag())==XMLStreamConstants.START_ELEMENT){
+
+				text=reader.getElementText().trim();
+
+				if(counter==values.length){
+					values=Arrays.copyOf(values, counter+1);
+					nulls=Arrays.copyOf(nulls, counter+1);
+				}
+
+				if(text.equals("NULL")||text.isEmpty()){
+					values[counter]=DataDefinitions.NULL_VALUE;
+					nulls[counter]=true;
+				}
+				else{
+					values[counter]=Double.parseDouble(text);
+					nulls[counter]=false;
+				}
+				counter++;
+			}
+
+			//missing elements at the end of the row are null
+			for(int j=counter;j<values.length;j++){
+				values[j]=DataDefinitions.NULL_VALUE;
+				nulls[j]=true;
+			}
+
+		}catch(XMLStreamException e){
+			System.out.println("XML error in "+file+" at row "+(rowIndex+1)+": "+e.getMessage());
+			failed=true;
+			close();
+			return false;
+		}catch(NumberFormatException e){
+			System.out.println("Parsing error on row "+(rowIndex+1)+": "+e.getMessage());
+			failed=true;
+			close();
+			return false;
+		}
+
+		if(values.length>columns){
+			columns=values.length;
+		}
+		rowIndex++;
+
+		return true;
+
+	}//end-method
+
+	/**
+	 * Get the values of the current row. The array is reused by the next row
+	 *
+	 * @return values of the row (NULL_VALUE if null)
+	 */
+	public double [] getRow(){
+
+		return values;
+
+	}//end-method
+
+	/**
+	 * Checks if a value of the current row is null
+	 *
+	 * @param col column index
+	 * @return true if it is null, false otherwise
+	 */
+	public boolean isNull(int col){
+
+		return nulls[col];
+
+	}//end-method
+
+	/**
+	 * Get the index of the current row
+	 *
+	 * @return index of the row (-1 before the first row)
+	 */
+	public int getRowIndex(){
+
+		return rowIndex;
+
+	}//end-method
+
+	/**
+	 * Get the number of rows declared in the file
+	 *
+	 * @return number of rows (-1 if not declared)
+	 */
+	public int getDeclaredRows(){
+
+		return declaredRows;
+
+	}//end-method
+
+	/**
+	 * Get the number of columns
+	 *
+	 * @return number of columns
+	 */
+	public int getColumns(){
+
+		return columns;
+
+	}//end-method
+
+	/**
+	 * Reads the remaining rows, passing each of them to a listener.
+	 * The file is closed at the end
+	 *
+	 * @param listener receiver of the rows
+	 * @return number of rows read
+	 */
+	public int forEachRow(RowListener listener){
+
+		int counter=0;
+
+		try{
+			while(next()){
+				listener.row(rowIndex, values, nulls);
+				counter++;
+			}
+		}finally{
+			close();
+		}
+
+		return counter;
+
+	}//end-method
+
+	/**
+	 * Reads the remaining rows into a new table. Values are collected by
+	 * columns, and the columns are adopted by the table without copying.
+	 * The file is closed at the end
+	 *
+	 * @return table read (a void table if the file could not be read)
+	 */
+	public DataTable readTable(){
+
+		double data [][];
+		boolean nullV [][];
+		int capacity;
+		int rows;
+
+		if(!state){
+			return new DataTable();
+		}
+
+		capacity=16;
+		data=null;
+		nullV=null;
+		rows=0;
+
+		try{
+			while(next()){
+
+				//columns not declared are taken from the first row.
+				//The declared rows are only trusted up to a bound
+				if(data==null){
+					capacity=Math.max(Math.min(declaredRows, MAX_PREALLOCATED_VALUES/Math.max(values.length, 1)), capacity);
+					data=new double [values.length][capacity];
+					nullV=new boolean [values.length][capacity];
+				}
+
+				if(values.length>data.length){
+					System.out.println("Error reading "+file+". Row "+rowIndex+" has "+values.length+" values, instead of "+data.length);
+					return new DataTable();
+				}
+
+				if(rows==capacity){
+					capacity+=capacity>>1;
+					for(int j=0;j<data.length;j++){
+						data[j]=Arrays.copyOf(data[j], capacity);
+						nullV[j]=Arrays.copyOf(nullV[j], capacity);
+					}
+				}
+
+				for(int j=0;j<data.length;j++){
+					data[j][rows]=values[j];
+					nullV[j][rows]=nulls[j];
+				}
+				rows++;
+			}
+		}finally{
+			close();
+		}
+
+		if(failed){
+			return new DataTable();
+		}
+
+		if(data==null){
+			data=new double [columns][0];
+			nullV=new boolean [columns][0];
+		}
+
+		return DataTable.fromColumns(data, nullV, rows);
+
+	}//end-method
+
+	/**
+	 * Closes the file
+	 */
+	public void close(){
+
+		state=false;
+
+		try{
+			if(reader!=null){
+				reader.close();
+			}
+			if(input!=null){
+				input.close();
+			}
+		}catch(XMLStreamException e){
+			System.out.println("XML error closing "+file+": "+e.getMessage());
+		}catch(IOException e){
+			System.out.println("Error closing "+file+": "+e.getMessage());
+		}
+
+		reader=null;
+		input=null;
+
+	}//end-method
+
+}//end-class
@@ -26,11 +26,15 @@
 
 package javanpst.data.structures.dataTable;
 
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
+import javanpst.data.ColumnarFile;
 import javanpst.data.DataDefinitions;
+import javanpst.data.readers.tabularDataReaders.TabularDataBinaryReader;
 import javanpst.data.readers.tabularDataReaders.TabularDataCSVReader;
 import javanpst.data.readers.tabularDataReaders.TabularDataTXTReader;
-import javanpst.data.readers.tabularDataReaders.TabularDataXMLReader;
+import javanpst.data.readers.tabularDataReaders.TabularDataXMLStreamReader;
+import javanpst.data.writers.tabularDataWriters.TabularDataBinaryWriter;
 import javanpst.data.writers.tabularDataWriters.TabularDataCSVWriter;
 import javanpst.data.writers.tabularDataWriters.TabularDataTXTWriter;
 import javanpst.data.writers.tabularDataWriters.TabularDataXMLWriter;
@@ -40,20 +44,53 @@ import javanpst.data.writers.tabularDataWriters.TabularDataXMLWriter;
  * 
  * Support null values treatment.
  * 
+ * Values are stored by columns. Each column is a buffer of doubles, either
+ * on the heap or memory-mapped from a binary columnar file, so tables larger
+ * than the heap can be analyzed. Null values are tracked by a packed bitmap
+ * per column, whose number of null values is kept up to date.
+ * 
+ * Mapped columns are read-only, and are copied to the heap only if
+ * they are modified.
+ * 
+ * Copies and views (column subsets, row ranges) share the columns of
+ * the original table. A shared column is copied only when one of the
+ * tables sharing it modifies it, so each table behaves as an independent
+ * copy.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
 public class DataTable{
 
 	/**
-	 * Contents of the table
+	 * Contents of the table, by columns
+	 */
+	private DoubleBuffer columns [];
+	
+	/**
+	 * Null values representation, by columns (bit set = null)
+	 */
+	private long nulls [][];
+	
+	/**
+	 * Number of null values of each column
+	 */
+	private int nullCounts [];
+	
+	/**
+	 * Number of rows
+	 */
+	private int rows;
+	
+	/**
+	 * Columns whose values may be shared with other tables
 	 */
-	private double body[][];
+	private boolean sharedValues [];
 	
 	/**
-	 * Null values representation (true = null, false = not null)
+	 * Columns whose null bitmap may be shared with other tables
 	 */
-	private boolean nulls [][];
+	private boolean sharedNulls [];
 
 
 	/**
@@ -61,8 +98,7 @@ public class DataTable{
 	 */
 	public DataTable(){
 		
-		body=new double [0][0];
-		nulls=new boolean [0][0];
+		allocate(0,0);
 		
 	}//end-method
 	
@@ -76,14 +112,16 @@ public class DataTable{
 	 */
 	public DataTable(double data[][]){
 	
-		body=new double [data.length][data[0].length];
-		nulls=new boolean [data.length][data[0].length];
+		allocate(data.length,data[0].length);
 		
 		for(int i=0;i<data.length;i++){
-			System.arraycopy(data[i], 0, body[i], 0, data[0].length);
-			Arrays.fill(nulls[i], false);
+			for(int j=0;j<data[0].length;j++){
+				columns[j].put(i, data[i][j]);
+			}
 		}
 		
+		clearNulls();
+		
 	}//end-method
 	
 	/**
@@ -97,44 +135,373 @@ public class DataTable{
 	 */
 	public DataTable(double data[][], boolean nullV [][]){
 
-		if((data.length==nullV.length)&&(data[0].length==nullV[0].length)){
+		if((data.length>0)&&(data.length==nullV.length)&&(data[0].length==nullV[0].length)){
 			
-			body=new double [data.length][data[0].length];
-			nulls=new boolean [data.length][data[0].length];
+			allocate(data.length,data[0].length);
+			clearNulls();
 			
 			for(int i=0;i<data.length;i++){
-				System.arraycopy(data[i], 0, body[i], 0, data[0].length);
-				System.arraycopy(nullV[i], 0, nulls[i], 0, data[0].length);
+				for(int j=0;j<data[0].length;j++){
+					columns[j].put(i, data[i][j]);
+					if(nullV[i][j]){
+						setNull(i,j);
+					}
+				}
 			}
 		}
 		else{
-			body=new double [0][0];
-			nulls=new boolean [0][0];
+			allocate(0,0);
+		}
+		
+	}//end-method
+	
+	/**
+	 * Builder. Built a new table over the columns of a binary columnar file.
+	 * 
+	 * Columns are memory-mapped, not copied.
+	 * 
+	 * @param file contents of the file
+	 */
+	public DataTable(ColumnarFile file){
+		
+		long bitmap [];
+		
+		rows=file.getRows();
+		columns=new DoubleBuffer [file.getColumns()];
+		nulls=new long [file.getColumns()][];
+		nullCounts=new int [file.getColumns()];
+		sharedValues=new boolean [file.getColumns()];
+		sharedNulls=new boolean [file.getColumns()];
+		
+		for(int j=0;j<columns.length;j++){
+			
+			columns[j]=file.getColumn(j);
+			
+			bitmap=new long [words(rows)];
+			if(file.getNullCount(j)>0){
+				file.getNullBitmap(j).get(bitmap);
+			}
+			nulls[j]=bitmap;
+			nullCounts[j]=(int)file.getNullCount(j);
+		}
+		
+	}//end-method
+	
+	/**
+	 * Builds a new table from a set of columns.
+	 * 
+	 * The arrays of values are not copied, so they should not be
+	 * modified later by the caller.
+	 * 
+	 * @param data contents of the table, by columns
+	 * @param nullV null values, by columns
+	 * @param nRows number of rows (arrays may be larger)
+	 * @return a new table
+	 */
+	public static DataTable fromColumns(double data[][], boolean nullV[][], int nRows){
+		
+		DataTable table=new DataTable();
+		
+		table.allocate(0,data.length);
+		table.rows=nRows;
+		
+		for(int j=0;j<data.length;j++){
+			
+			table.columns[j]=DoubleBuffer.wrap(data[j], 0, nRows).slice();
+			table.nulls[j]=new long [words(nRows)];
+			
+			for(int i=0;i<nRows;i++){
+				if(nullV[j][i]){
+					table.nulls[j][i>>>6]|=1L<<(i&63);
+				}
+			}
+			table.countNulls(j);
 		}
 		
+		return table;
+		
 	}//end-method
 	
 	/**
 	 * Copy constructor
 	 * 
+	 * Columns are shared with the old table until one of both
+	 * tables modifies them, so no value is copied here.
+	 * 
 	 * @param aTable old table
 	 * @return a copy of aTable
 	 */
 	public static DataTable newInstance(DataTable aTable){
 		
-		DataTable copy= new DataTable(aTable.body,aTable.nulls);
+		int indexes [];
 		
-		return copy;
+		indexes=new int [aTable.columns.length];
+		for(int j=0;j<indexes.length;j++){
+			indexes[j]=j;
+		}
+		
+		return aTable.columnView(indexes);
+		
+	}//end-method
+	
+	/**
+	 * Builds a view with a subset of the columns of the table.
+	 * 
+	 * Columns are shared, not copied. A column may be selected more than once.
+	 * 
+	 * @param indexes columns selected
+	 * @return a new table with the selected columns
+	 */
+	public DataTable columnView(int... indexes){
+		
+		DataTable view=new DataTable();
+		
+		view.allocate(rows,0);
+		view.columns=new DoubleBuffer [indexes.length];
+		view.nulls=new long [indexes.length][];
+		view.nullCounts=new int [indexes.length];
+		view.sharedValues=new boolean [indexes.length];
+		view.sharedNulls=new boolean [indexes.length];
+		
+		for(int j=0;j<indexes.length;j++){
+			
+			view.columns[j]=columns[indexes[j]].asReadOnlyBuffer();
+			view.nulls[j]=nulls[indexes[j]];
+			view.nullCounts[j]=nullCounts[indexes[j]];
+			view.sharedValues[j]=true;
+			view.sharedNulls[j]=true;
+			
+			sharedValues[indexes[j]]=true;
+			sharedNulls[indexes[j]]=true;
+		}
+		
+		return view;
+		
+	}//end-method
+	
+	/**
+	 * Builds a view with a range of rows of the table.
+	 * 
+	 * Values are shared, not copied. Null bitmaps of the range are
+	 * built again.
+	 * 
+	 * @param from first row (inclusive)
+	 * @param to last row (exclusive)
+	 * @return a new table with the selected rows
+	 */
+	public DataTable rowView(int from, int to){
+		
+		DataTable view=new DataTable();
+		DoubleBuffer buffer;
+		long bitmap [];
+		
+		if((from<0)||(to>rows)||(from>to)){
+			System.out.println("Rows "+from+" to "+to+" are out of the table");
+			return view;
+		}
+		
+		view.allocate(to-from,0);
+		view.columns=new DoubleBuffer [columns.length];
+		view.nulls=new long [columns.length][];
+		view.nullCounts=new int [columns.length];
+		view.sharedValues=new boolean [columns.length];
+		view.sharedNulls=new boolean [columns.length];
+		
+		for(int j=0;j<columns.length;j++){
+			
+			buffer=columns[j].asReadOnlyBuffer();
+			buffer.position(from);
+			buffer.limit(to);
+			view.columns[j]=buffer.slice();
+			view.sharedValues[j]=true;
+			sharedValues[j]=true;
+			
+			bitmap=new long [words(to-from)];
+			view.nulls[j]=bitmap;
+			if(nullCounts[j]>0){
+				for(int i=from;i<to;i++){
+					if(isNull(i,j)){
+						bitmap[(i-from)>>>6]|=1L<<((i-from)&63);
+					}
+				}
+			}
+			view.countNulls(j);
+		}
+		
+		return view;
+		
+	}//end-method
+	
+	/**
+	 * Builds a one column table with the difference of two columns
+	 * (first - second). A row is null if any of both values is null.
+	 * 
+	 * The difference is computed once, in bulk, so only a single
+	 * column is allocated.
+	 * 
+	 * @param first index of the first column
+	 * @param second index of the second column
+	 * @return a new table with the differences
+	 */
+	public DataTable differenceView(int first, int second){
+		
+		DataTable view=new DataTable();
+		DoubleBuffer a,b;
+		double values [];
+		long bitmap [];
+		
+		a=columns[first].duplicate();
+		b=columns[second].duplicate();
+		values=new double [rows];
+		bitmap=new long [words(rows)];
+		
+		for(int i=0;i<rows;i++){
+			values[i]=a.get(i)-b.get(i);
+		}
+		for(int w=0;w<bitmap.length;w++){
+			bitmap[w]=nulls[first][w]|nulls[second][w];
+		}
+		
+		view.allocate(rows,0);
+		view.columns=new DoubleBuffer [] {DoubleBuffer.wrap(values)};
+		view.nulls=new long [][] {bitmap};
+		view.nullCounts=new int [1];
+		view.sharedValues=new boolean [1];
+		view.sharedNulls=new boolean [1];
+		view.countNulls(0);
+		
+		return view;
+		
+	}//end-method
+	
+	/**
+	 * Allocates heap columns for a table. All values are set to null
+	 * 
+	 * @param row number of rows
+	 * @param col number of columns
+	 */
+	private void allocate(int row,int col){
+		
+		rows=row;
+		columns=new DoubleBuffer [col];
+		nulls=new long [col][];
+		nullCounts=new int [col];
+		sharedValues=new boolean [col];
+		sharedNulls=new boolean [col];
+		
+		for(int j=0;j<col;j++){
+			columns[j]=DoubleBuffer.wrap(new double [row]);
+			nulls[j]=new long [words(row)];
+		}
+		
+		clear();
+		
+	}//end-method
+	
+	/**
+	 * Number of words of a null bitmap
+	 * 
+	 * @param row number of rows
+	 * @return number of longs needed
+	 */
+	private static int words(int row){
+		
+		return (row+63)>>>6;
+		
+	}//end-method
+	
+	/**
+	 * Sets all values of the table to not null
+	 */
+	private void clearNulls(){
+		
+		for(int j=0;j<columns.length;j++){
+			Arrays.fill(nulls[j], 0L);
+			nullCounts[j]=0;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Counts the null values of a column
+	 * 
+	 * @param col column index
+	 */
+	private void countNulls(int col){
+		
+		int counter=0;
+		
+		for(long word : nulls[col]){
+			counter+=Long.bitCount(word);
+		}
+		
+		nullCounts[col]=counter;
+		
+	}//end-method
+	
+	/**
+	 * Copies a read-only or shared column to the heap before modifying it
+	 * 
+	 * @param col column index
+	 */
+	private void makeWritable(int col){
+		
+		double values [];
+		
+		if(columns[col].isReadOnly()||sharedValues[col]){
+			values=new double [rows];
+			columns[col].duplicate().get(values);
+			columns[col]=DoubleBuffer.wrap(values);
+			sharedValues[col]=false;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Copies a shared null bitmap before modifying it
+	 * 
+	 * @param col column index
+	 */
+	private void ownNulls(int col){
+		
+		if(sharedNulls[col]){
+			nulls[col]=Arrays.copyOf(nulls[col], nulls[col].length);
+			sharedNulls[col]=false;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Takes the contents of another table
+	 * 
+	 * @param other table whose contents are taken
+	 */
+	private void adopt(DataTable other){
+		
+		rows=other.rows;
+		columns=other.columns;
+		nulls=other.nulls;
+		nullCounts=other.nullCounts;
+		sharedValues=other.sharedValues;
+		sharedNulls=other.sharedNulls;
 		
 	}//end-method
 	
 	/**
 	 * Get the data matrix
 	 * 
-	 * @return values of the table
+	 * @return a copy of the values of the table, by rows
 	 */
 	public double [][] getBody(){
 		
+		double body [][]=new double [rows][columns.length];
+		
+		for(int j=0;j<columns.length;j++){
+			for(int i=0;i<rows;i++){
+				body[i][j]=columns[j].get(i);
+			}
+		}
+		
 		return body;
 		
 	}//end-method
@@ -142,11 +509,19 @@ public class DataTable{
 	/**
 	 * Get the matrix of nulls
 	 * 
-	 * @return null values of the table
+	 * @return a copy of the null values of the table, by rows
 	 */
 	public boolean [][] getNulls(){
 		
-		return nulls;
+		boolean matrix [][]=new boolean [rows][columns.length];
+		
+		for(int j=0;j<columns.length;j++){
+			for(int i=0;i<rows;i++){
+				matrix[i][j]=isNull(i,j);
+			}
+		}
+		
+		return matrix;
 		
 	}//end-method 
 	
@@ -157,7 +532,7 @@ public class DataTable{
 	 */
 	public boolean isNull(int row, int col){
 		
-		return nulls[row][col];
+		return (nulls[col][row>>>6]&(1L<<(row&63)))!=0;
 		
 	}//end-method 
 	
@@ -168,7 +543,7 @@ public class DataTable{
 	 */
 	public int getRows(){
 		
-		return body.length;
+		return rows;
 		
 	}//end-method
 	
@@ -179,7 +554,7 @@ public class DataTable{
 	 */
 	public int getColumns(){
 		
-		return body[0].length;
+		return columns.length;
 		
 	}//end-method
 	
@@ -190,8 +565,13 @@ public class DataTable{
 	 */
 	public void clear(){
 			
-		for(int i=0;i<body.length;i++){
-			Arrays.fill(nulls[i],true);
+		for(int j=0;j<columns.length;j++){
+			ownNulls(j);
+			Arrays.fill(nulls[j], -1L);
+			if((rows&63)!=0){
+				nulls[j][nulls[j].length-1]=(1L<<(rows&63))-1;
+			}
+			nullCounts[j]=rows;
 		}
 		
 	}//end-method
@@ -206,10 +586,7 @@ public class DataTable{
 	 */
 	public void setDimensions(int row,int col){
 		
-		body = new double [row][col];
-		nulls = new boolean [row][col];
-		
-		clear();
+		allocate(row,col);
 		
 	}//end-method
 	
@@ -220,10 +597,7 @@ public class DataTable{
 	 */
 	public void setRows(int row){
 		
-		body = new double [row][body[0].length];
-		nulls = new boolean [row][body[0].length];
-		
-		clear();
+		allocate(row,columns.length);
 		
 	}//end-method
 	
@@ -234,10 +608,7 @@ public class DataTable{
 	 */
 	public void setColumns(int col){
 		
-		body = new double [body.length][col];
-		nulls = new boolean [body.length][col];
-		
-		clear();
+		allocate(rows,col);
 		
 	}//end-method
 	
@@ -250,8 +621,14 @@ public class DataTable{
 	 */
 	public void setValue(int row,int col, double value){
 		
-		body[row][col]=value;
-		nulls[row][col]=false;
+		makeWritable(col);
+		columns[col].put(row, value);
+		
+		if(isNull(row,col)){
+			ownNulls(col);
+			nulls[col][row>>>6]&=~(1L<<(row&63));
+			nullCounts[col]--;
+		}
 		
 	}//end-method
 	
@@ -263,7 +640,11 @@ public class DataTable{
 	 */
 	public void setNull(int row,int col){
 		
-		nulls[row][col]=true;
+		if(!isNull(row,col)){
+			ownNulls(col);
+			nulls[col][row>>>6]|=1L<<(row&63);
+			nullCounts[col]++;
+		}
 		
 	}//end-method
 	
@@ -274,9 +655,17 @@ public class DataTable{
 	 */
 	public void setRow(int row,double [] array){
 		
-		if(array.length<=body[row].length){
-			System.arraycopy(array, 0, body[row], 0, array.length);
-			Arrays.fill(nulls[row], false);
+		if(array.length<=columns.length){
+			for(int j=0;j<array.length;j++){
+				setValue(row,j,array[j]);
+			}
+			for(int j=array.length;j<columns.length;j++){
+				if(isNull(row,j)){
+					ownNulls(j);
+					nulls[j][row>>>6]&=~(1L<<(row&63));
+					nullCounts[j]--;
+				}
+			}
 		}
 		
 	}//end-method
@@ -288,10 +677,9 @@ public class DataTable{
 	 */
 	public void setColumn(int col,double [] array){
 		
-		if(array.length<=body.length){
+		if(array.length<=rows){
 			for(int i=0;i<array.length;i++){
-				body[i][col]=array[i];
-				nulls[i][col]=false;
+				setValue(i,col,array[i]);
 			}
 		}
 		
@@ -307,9 +695,9 @@ public class DataTable{
 		
 		int counter=0;
 		
-		for(int i=0;i<body[0].length;i++){
+		for(int j=0;j<columns.length;j++){
 			
-			if(nulls[row][i]){
+			if(isNull(row,j)){
 				counter++;
 			}
 		}
@@ -326,16 +714,7 @@ public class DataTable{
 	 */
 	public int getColumnNulls(int col){
 		
-		int counter=0;
-		
-		for(int i=0;i<body.length;i++){
-			
-			if(nulls[i][col]){
-				counter++;
-			}
-		}
-		
-		return counter;
+		return nullCounts[col];
 		
 	}//end-method
 	
@@ -350,11 +729,11 @@ public class DataTable{
 	 */
 	public double get(int row,int col){
 		
-		if(nulls[row][col]){
+		if(isNull(row,col)){
 			return DataDefinitions.NULL_VALUE;
 		}
 		
-		return body[row][col];
+		return columns[col].get(row);
 		
 	}//end-method
 	
@@ -370,9 +749,11 @@ public class DataTable{
 		
 		double copy [];
 		
-		copy=new double[body[row].length];
+		copy=new double[columns.length];
 		
-		System.arraycopy(body[row], 0,copy, 0, body[row].length);
+		for(int j=0;j<copy.length;j++){
+			copy[j]=columns[j].get(row);
+		}
 		
 		return copy;
 		
@@ -390,15 +771,40 @@ public class DataTable{
 		
 		double copy [];
 		
-		copy=new double[body.length];
+		copy=new double[rows];
 		
-		for(int i=0;i<copy.length;i++){
-			copy[i]=body[i][col];
-		}
+		columns[col].duplicate().get(copy);
 		
 		return copy;
 		
 	}//end-method
+	
+	/**
+	 * Get a read-only view of a column. Values are not copied
+	 * 
+	 * (no null values are considered)
+	 * 
+	 * @param col column index
+	 * @return view of the values stored
+	 */
+	public DoubleBuffer getColumnView(int col){
+		
+		return columns[col].asReadOnlyBuffer();
+		
+	}//end-method
+	
+	/**
+	 * Get a copy of the null bitmap of a column. Bit (i mod 64) of
+	 * word i/64 is set if the value of row i is null.
+	 * 
+	 * @param col column index
+	 * @return null bitmap
+	 */
+	public long [] getNullBitmap(int col){
+		
+		return Arrays.copyOf(nulls[col], nulls[col].length);
+		
+	}//end-method
 
 	/**
 	 * To String method
@@ -408,12 +814,12 @@ public class DataTable{
 		String text="";
 		String text2;
 		
-		text+="*** Rows: "+body.length+" Columns: "+body[0].length+" **********\n";
+		text+="*** Rows: "+rows+" Columns: "+columns.length+" **********\n";
 		
-		for(int i=0;i<body.length;i++){
+		for(int i=0;i<rows;i++){
 			text2="";
-			for(int j=0;j<body[0].length;j++){
-				text2+=body[i][j]+"\t";
+			for(int j=0;j<columns.length;j++){
+				text2+=columns[j].get(i)+"\t";
 			}
 			text+=text2+"\n";
 		}
@@ -429,10 +835,7 @@ public class DataTable{
 	 */
 	public void readXML(String file){
 		
-		TabularDataXMLReader.readXMLTabularData(file);
-		
-		body=TabularDataXMLReader.getTable().getBody();
-		nulls=TabularDataXMLReader.getTable().getNulls();
+		adopt(new TabularDataXMLStreamReader(file).readTable());
 		
 	}//end-method
 	
@@ -456,8 +859,7 @@ public class DataTable{
 		
 		TabularDataCSVReader.readCSVTabularData(file);
 		
-		body=TabularDataCSVReader.getTable().getBody();
-		nulls=TabularDataCSVReader.getTable().getNulls();
+		adopt(TabularDataCSVReader.getTable());
 		
 	}//end-method
 	
@@ -482,8 +884,7 @@ public class DataTable{
 		
 		TabularDataTXTReader.readTXTTabularData(file);
 		
-		body=TabularDataTXTReader.getTable().getBody();
-		nulls=TabularDataTXTReader.getTable().getNulls();
+		adopt(TabularDataTXTReader.getTable());
 		
 	}//end-method
 	
@@ -497,6 +898,28 @@ public class DataTable{
 		TabularDataTXTWriter.writeTabularData(this, file);
 		
 	}//end-method
+	
+	/**
+	 * Loads a table from a binary columnar file. Columns are
+	 * memory-mapped, not copied
+	 * 
+	 * @param file path of the file
+	 */
+	public void readBinary(String file){
+		
+		adopt(TabularDataBinaryReader.readTabularData(file));
+		
+	}//end-method
+	
+	/**
+	 * Writes a table to a binary columnar file
+	 * 
+	 * @param file path of the file
+	 */
+	public void writeBinary(String file){
+		
+		TabularDataBinaryWriter.writeTabularData(this, file);
+		
+	}//end-method
 
 }//end-class
-
@@ -29,9 +29,11 @@ package javanpst.data.structures.sequence;
 import java.util.ArrayList;
 import java.util.Collections;
 
+import javanpst.data.readers.sequenceReaders.NumericSequenceBinaryReader;
 import javanpst.data.readers.sequenceReaders.NumericSequenceCSVReader;
 import javanpst.data.readers.sequenceReaders.NumericSequenceTXTReader;
-import javanpst.data.readers.sequenceReaders.NumericSequenceXMLReader;
+import javanpst.data.readers.sequenceReaders.SequenceXMLStreamReader;
+import javanpst.data.writers.sequenceWriters.SequenceBinaryWriter;
 import javanpst.data.writers.sequenceWriters.SequenceCSVWriter;
 import javanpst.data.writers.sequenceWriters.SequenceTXTWriter;
 import javanpst.data.writers.sequenceWriters.SequenceXMLWriter;
@@ -197,8 +199,7 @@ public class NumericSequence extends Sequence{
 	 */
 	public void readXML(String file){
 		
-		NumericSequenceXMLReader.readXMLSequence(file);
-		body=NumericSequenceXMLReader.getSequence();
+		body=new SequenceXMLStreamReader(file).readNumbers();
 		
 	}//end-method
 	
@@ -260,5 +261,27 @@ public class NumericSequence extends Sequence{
 		
 	}//end-method
 	
+	/**
+	 * Loads a numeric sequence from a binary columnar file
+	 * 
+	 * @param file path of the file
+	 */
+	public void readBinary(String file){
+		
+		body=NumericSequenceBinaryReader.readNumericSequence(file);
+		
+	}//end-method
+	
+	/**
+	 * Writes a numeric sequence to a binary columnar file
+	 * 
+	 * @param file path of the file
+	 */
+	public void writeBinary(String file){
+		
+		SequenceBinaryWriter.writeNumericSequence(body,file);
+		
+	}//end-method
+	
 }//end-class
 
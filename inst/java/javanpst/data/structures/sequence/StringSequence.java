@@ -24,13 +24,16 @@
   
 **********************************************************************/
 
+
 package javanpst.data.structures.sequence;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 import javanpst.data.readers.sequenceReaders.StringSequenceCSVReader;
 import javanpst.data.readers.sequenceReaders.StringSequenceTXTReader;
-import javanpst.data.readers.sequenceReaders.StringSequenceXMLReader;
+import javanpst.data.readers.sequenceReaders.SequenceXMLStreamReader;
 import javanpst.data.writers.sequenceWriters.SequenceCSVWriter;
 import javanpst.data.writers.sequenceWriters.SequenceTXTWriter;
 import javanpst.data.writers.sequenceWriters.SequenceXMLWriter;
@@ -38,22 +41,58 @@ import javanpst.data.writers.sequenceWriters.SequenceXMLWriter;
 /**
  * A class representing string sequences
  * 
+ * The sequence is dictionary-encoded: each different string is stored
+ * once in a table of symbols, and the sequence itself is an array of
+ * codes (one byte per element while there are at most 256 symbols, an
+ * int otherwise). The number of occurrences of each symbol is kept up
+ * to date, so binary checks and runs counts work over the codes only.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
 public class StringSequence extends Sequence{
 
 	/**
-	 * Body of the sequence
+	 * Maximum number of symbols stored with byte codes
+	 */
+	private static final int BYTE_SYMBOLS = 256;
+	
+	/**
+	 * Codes of the sequence, while there are few symbols
+	 */
+	private byte smallCodes [];
+	
+	/**
+	 * Codes of the sequence, when there are many symbols
+	 */
+	private int codes [];
+	
+	/**
+	 * Number of elements of the sequence
+	 */
+	private int size;
+	
+	/**
+	 * Table of symbols
+	 */
+	private ArrayList<String> symbols;
+	
+	/**
+	 * Code of each symbol
+	 */
+	private HashMap<String,Integer> dictionary;
+	
+	/**
+	 * Number of occurrences of each symbol
 	 */
-	private ArrayList<String> body;
+	private long counts [];
 	
 	/**
 	 * Default builder
 	 */
 	public StringSequence (){
 		
-		body=new ArrayList<String>();
+		initialize(16);
 		
 	}//end-method
 	
@@ -66,7 +105,11 @@ public class StringSequence extends Sequence{
 	 */
 	public StringSequence (ArrayList<String> contents){
 		
-		body= new ArrayList<String>(contents);
+		initialize(contents.size());
+		
+		for(String s : contents){
+			add(encode(s));
+		}
 		
 	}//end-method
 	
@@ -79,14 +122,65 @@ public class StringSequence extends Sequence{
 	 */
 	public StringSequence (String [] contents){
 		
-		body = new ArrayList<String>();
+		initialize(contents.length);
 		
 		for(int i=0; i < contents.length;i++){
-			body.add(contents[i]);
+			add(encode(contents[i]));
 		}
 
 	}//end-method
 	
+	/**
+	 * Builder. 
+	 * 
+	 * Creates a new string sequence from an array of codes and its table
+	 * of symbols (e.g. the integer codes and the levels of a R factor,
+	 * starting at 0). No string is created per element.
+	 * 
+	 * @param newCodes code of each element
+	 * @param newSymbols table of symbols (must not contain repeated values)
+	 */
+	public StringSequence (int [] newCodes, String [] newSymbols){
+		
+		initialize(0);
+		
+		for(String s : newSymbols){
+			encode(s);
+		}
+		
+		if(symbols.size()!=newSymbols.length){
+			System.out.println("The table of symbols contains repeated values");
+			initialize(16);
+			return;
+		}
+		
+		for(int i=0;i<newCodes.length;i++){
+			if((newCodes[i]<0)||(newCodes[i]>=newSymbols.length)){
+				System.out.println("Code "+newCodes[i]+" at position "+i+" is not in the table of symbols");
+				initialize(16);
+				return;
+			}
+		}
+		
+		if(newSymbols.length<=BYTE_SYMBOLS){
+			smallCodes=new byte [newCodes.length];
+			for(int i=0;i<newCodes.length;i++){
+				smallCodes[i]=(byte)newCodes[i];
+				counts[newCodes[i]]++;
+			}
+		}
+		else{
+			smallCodes=null;
+			codes=Arrays.copyOf(newCodes, newCodes.length);
+			for(int i=0;i<newCodes.length;i++){
+				counts[newCodes[i]]++;
+			}
+		}
+		
+		size=newCodes.length;
+		
+	}//end-method
+	
 	/**
 	 * Copy constructor
 	 * 
@@ -94,18 +188,116 @@ public class StringSequence extends Sequence{
 	 */
 	public StringSequence(StringSequence copy) {
 		
-	    this(copy.getSequence());
+		size=copy.size;
+		symbols=new ArrayList<String>(copy.symbols);
+		dictionary=new HashMap<String,Integer>(copy.dictionary);
+		counts=Arrays.copyOf(copy.counts, copy.counts.length);
+		smallCodes=(copy.smallCodes==null) ? null : Arrays.copyOf(copy.smallCodes, size);
+		codes=(copy.codes==null) ? null : Arrays.copyOf(copy.codes, size);
 	    
 	}//end-method
 	
+	/**
+	 * Initializes an empty sequence
+	 * 
+	 * @param capacity initial capacity
+	 */
+	private void initialize(int capacity){
+		
+		size=0;
+		smallCodes=new byte [Math.max(capacity, 16)];
+		codes=null;
+		symbols=new ArrayList<String>();
+		dictionary=new HashMap<String,Integer>();
+		counts=new long [16];
+		
+	}//end-method
+	
+	/**
+	 * Get the code of a symbol, adding it to the table if it is new
+	 * 
+	 * @param symbol symbol to encode
+	 * @return code of the symbol
+	 */
+	private int encode(String symbol){
+		
+		Integer code=dictionary.get(symbol);
+		
+		if(code==null){
+			
+			code=symbols.size();
+			symbols.add(symbol);
+			dictionary.put(symbol, code);
+			
+			if(code==counts.length){
+				counts=Arrays.copyOf(counts, 2*counts.length);
+			}
+			
+			//widen the codes when bytes are not enough
+			if((code==BYTE_SYMBOLS)&&(smallCodes!=null)){
+				codes=new int [smallCodes.length];
+				for(int i=0;i<size;i++){
+					codes[i]=smallCodes[i]&0xFF;
+				}
+				smallCodes=null;
+			}
+		}
+		
+		return code;
+		
+	}//end-method
+	
+	/**
+	 * Makes room for a new element
+	 */
+	private void grow(){
+		
+		if(smallCodes!=null){
+			if(size==smallCodes.length){
+				smallCodes=Arrays.copyOf(smallCodes, size+(size>>1)+1);
+			}
+		}
+		else if(size==codes.length){
+			codes=Arrays.copyOf(codes, size+(size>>1)+1);
+		}
+		
+	}//end-method
+	
+	/**
+	 * Adds a code to the end of the sequence
+	 * 
+	 * @param code code to add
+	 */
+	private void add(int code){
+		
+		grow();
+		
+		if(smallCodes!=null){
+			smallCodes[size]=(byte)code;
+		}
+		else{
+			codes[size]=code;
+		}
+		
+		counts[code]++;
+		size++;
+		
+	}//end-method
+	
 	/**
 	 * Returns the contents of the sequence as an array
 	 * 
-	 * @return contents of the sequence
+	 * @return a new list with the contents of the sequence
 	 */
 	public ArrayList<String> getSequence(){
 		
-		return body;
+		ArrayList<String> list=new ArrayList<String>(size);
+		
+		for(int i=0;i<size;i++){
+			list.add(symbols.get(getCode(i)));
+		}
+		
+		return list;
 		
 	}//end-method
 	
@@ -114,7 +306,7 @@ public class StringSequence extends Sequence{
 	 */
 	public void append(Object text){	
 		
-		body.add(text.toString());
+		add(encode(text.toString()));
 		
 	}//end-method
 	
@@ -123,7 +315,21 @@ public class StringSequence extends Sequence{
 	 */
 	public void prepend(Object text){	
 		
-		body.add(0,text.toString());
+		int code=encode(text.toString());
+		
+		grow();
+		
+		if(smallCodes!=null){
+			System.arraycopy(smallCodes, 0, smallCodes, 1, size);
+			smallCodes[0]=(byte)code;
+		}
+		else{
+			System.arraycopy(codes, 0, codes, 1, size);
+			codes[0]=code;
+		}
+		
+		counts[code]++;
+		size++;
 		
 	}//end-method
 	
@@ -135,14 +341,105 @@ public class StringSequence extends Sequence{
 	 */
 	public String get(int index){
 		
-		if((index>-1)&&(index<body.size())){
-			return body.get(index);
+		if((index>-1)&&(index<size)){
+			return symbols.get(getCode(index));
 		}
 		
 		return "";
 		
 	}//end-method
 	
+	/**
+	 * Get the code of an element of the sequence
+	 * 
+	 * @param index index of the element
+	 * @return code of the element
+	 */
+	public int getCode(int index){
+		
+		if(smallCodes!=null){
+			return smallCodes[index]&0xFF;
+		}
+		
+		return codes[index];
+		
+	}//end-method
+	
+	/**
+	 * Get the symbol of a code
+	 * 
+	 * @param code code of the symbol
+	 * @return the symbol
+	 */
+	public String getSymbol(int code){
+		
+		return symbols.get(code);
+		
+	}//end-method
+	
+	/**
+	 * Get the number of symbols of the table
+	 * 
+	 * @return number of symbols
+	 */
+	public int getSymbols(){
+		
+		return symbols.size();
+		
+	}//end-method
+	
+	/**
+	 * Get the number of occurrences of a symbol
+	 * 
+	 * @param code code of the symbol
+	 * @return number of occurrences
+	 */
+	public long count(int code){
+		
+		return counts[code];
+		
+	}//end-method
+	
+	/**
+	 * Counts the runs of the sequence (maximal blocks of equal elements)
+	 * 
+	 * @return number of runs (0 if the sequence is empty)
+	 */
+	public long countRuns(){
+		
+		long runs;
+		byte lastByte;
+		int last;
+		
+		if(size==0){
+			return 0;
+		}
+		
+		runs=1;
+		
+		if(smallCodes!=null){
+			lastByte=smallCodes[0];
+			for(int i=1;i<size;i++){
+				if(smallCodes[i]!=lastByte){
+					runs++;
+					lastByte=smallCodes[i];
+				}
+			}
+		}
+		else{
+			last=codes[0];
+			for(int i=1;i<size;i++){
+				if(codes[i]!=last){
+					runs++;
+					last=codes[i];
+				}
+			}
+		}
+		
+		return runs;
+		
+	}//end-method
+	
 	/**
 	 * Get the size of the sequence
 	 * 
@@ -150,7 +447,7 @@ public class StringSequence extends Sequence{
 	 */
 	public int size(){
 		
-		return body.size();
+		return size;
 		
 	}//end-method
 	
@@ -159,7 +456,7 @@ public class StringSequence extends Sequence{
 	 */
 	public void clear(){
 		
-		body.clear();
+		initialize(16);
 		
 	}//end-method
 	
@@ -168,15 +465,16 @@ public class StringSequence extends Sequence{
 	 */
 	public String toString() {
 	
-		String text="";
-		
-		for (String s : body){
-			text+=s+"*";          
-        }
+		StringBuilder text=new StringBuilder();
 		
-		text=text.substring(0,text.length()-1);
+		for(int i=0;i<size;i++){
+			if(i>0){
+				text.append('*');
+			}
+			text.append(symbols.get(getCode(i)));
+		}
 	
-		return text;
+		return text.toString();
 		
 	}//end-method
 	
@@ -187,43 +485,31 @@ public class StringSequence extends Sequence{
 	 */
 	public boolean isBinary(){
 		
-		int i;
-		String s;
+		int present=0;
 		
-		String firstElement, secondElement;
-		
-		if(body.size()<2){
-			return true;
+		for(int i=0;i<symbols.size();i++){
+			if(counts[i]>0){
+				present++;
+			}
 		}
-
-		firstElement=body.get(0);
-		s=body.get(1);
 		
-		i=2;
-		while(firstElement.equals(s)&& i<body.size()){
-			s=body.get(i);
-			i++;
-		}
+		return present<=2;
 		
-		if(i==body.size()){
-			return true;
-		}
+	}//end-method
+	
+	/**
+	 * Replaces the contents of the sequence
+	 * 
+	 * @param contents new contents
+	 */
+	private void load(ArrayList<String> contents){
 		
-		i--;
-		secondElement=body.get(i);
-		i++;
+		initialize(contents.size());
 		
-		while(i<body.size()){
-			if(!body.get(i).equals(firstElement)){
-				if(!body.get(i).equals(secondElement)){
-					return false;
-				}
-			}
-			i++;
+		for(String s : contents){
+			add(encode(s));
 		}
 		
-		return true;
-		
 	}//end-method
 	
 	/**
@@ -233,8 +519,9 @@ public class StringSequence extends Sequence{
 	 */
 	public void readXML(String file){
 		
-		StringSequenceXMLReader.readXMLSequence(file);
-		body=StringSequenceXMLReader.getSequence();
+		initialize(16);
+		
+		new SequenceXMLStreamReader(file).forEachElement((index, text) -> append(text));
 		
 	}//end-method
 	
@@ -245,7 +532,7 @@ public class StringSequence extends Sequence{
 	 */
 	public void writeXML(String file){
 		
-		SequenceXMLWriter.writeStringSequence(body,file);
+		SequenceXMLWriter.writeStringSequence(getSequence(),file);
 		
 	}//end-method
 	
@@ -257,7 +544,7 @@ public class StringSequence extends Sequence{
 	public void readCSV(String file){
 		
 		StringSequenceCSVReader.readCSVSequence(file);
-		body=StringSequenceCSVReader.getSequence();
+		load(StringSequenceCSVReader.getSequence());
 		
 	}//end-method
 	
@@ -269,7 +556,7 @@ public class StringSequence extends Sequence{
 	 */
 	public void writeCSV(String file, boolean useComma){
 		
-		SequenceCSVWriter.writeStringSequence(body,file,useComma);
+		SequenceCSVWriter.writeStringSequence(getSequence(),file,useComma);
 		
 	}//end-method
 	
@@ -281,7 +568,7 @@ public class StringSequence extends Sequence{
 	public void readTXT(String file){
 		
 		StringSequenceTXTReader.readTXTSequence(file);
-		body=StringSequenceTXTReader.getSequence();
+		load(StringSequenceTXTReader.getSequence());
 		
 	}//end-method
 	
@@ -292,7 +579,7 @@ public class StringSequence extends Sequence{
 	 */
 	public void writeTXT(String file){
 		
-		SequenceTXTWriter.writeStringSequence(body,file);
+		SequenceTXTWriter.writeStringSequence(getSequence(),file);
 		
 	}//end-method
 
@@ -0,0 +1,252 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.writers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A buffered text writer over a FileChannel.
+ *
+ * Text is collected in a fixed size byte buffer, which is written to the
+ * file each time it gets full, so the size of the output is not limited by
+ * memory. Characters are written as single bytes (ISO-8859-1), as in the
+ * rest of writers of the library, and doubles are formatted through
+ * DoubleFormat without creating strings.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BufferedDataWriter implements AutoCloseable{
+
+	/**
+	 * Size of the buffer
+	 */
+	private static final int BUFFER_SIZE = 1<<16;
+
+	/**
+	 * Path of the file
+	 */
+	private String file;
+
+	/**
+	 * Channel of the file
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Buffer of contents not written yet
+	 */
+	private byte buffer [];
+
+	/**
+	 * Number of bytes in the buffer
+	 */
+	private int count;
+
+	/**
+	 * State of the writer (false after an error or after closing it)
+	 */
+	private boolean state;
+
+	/**
+	 * Builder. Opens a file for writing
+	 *
+	 * @param file path of the file
+	 * @param append true to add the new contents at the end of the file, false to overwrite it
+	 */
+	public BufferedDataWriter(String file, boolean append){
+
+		this.file=file;
+		buffer=new byte [BUFFER_SIZE];
+		count=0;
+		state=false;
+
+		try{
+			if(append){
+				channel=FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			}
+			else{
+				channel=FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			}
+		}catch(IOException e){
+			System.out.println("Error opening "+file+": "+e.getMessage());
+			return;
+		}
+
+		state=true;
+
+	}//end-method
+
+	/**
+	 * Checks if the writer can be used
+	 *
+	 * @return true if the file is open and no error has been found
+	 */
+	public boolean isReady(){
+
+		return state;
+
+	}//end-method
+
+	/**
+	 * Makes room in the buffer
+	 *
+	 * @param length number of bytes needed
+	 */
+	private void reserve(int length){
+
+		if(count+length>buffer.length){
+			flush();
+		}
+
+	}//end-method
+
+	/**
+	 * Writes a character
+	 *
+	 * @param c character to write
+	 */
+	public void write(char c){
+
+		reserve(1);
+		buffer[count++]=(byte)c;
+
+	}//end-method
+
+	/**
+	 * Writes a text
+	 *
+	 * @param text text to write
+	 */
+	public void write(String text){
+
+		int from,piece;
+
+		from=0;
+
+		while(from<text.length()){
+
+			reserve(1);
+			piece=Math.min(text.length()-from, buffer.length-count);
+
+			for(int i=0;i<piece;i++){
+				buffer[count++]=(byte)text.charAt(from+i);
+			}
+			from+=piece;
+		}
+
+	}//end-method
+
+	/**
+	 * Writes a double, in its shortest round-trip representation
+	 *
+	 * @param value value to write
+	 */
+	public void write(double value){
+
+		reserve(DoubleFormat.MAX_LENGTH);
+		count=DoubleFormat.format(value, buffer, count);
+
+	}//end-method
+
+	/**
+	 * Writes an integer
+	 *
+	 * @param value value to write
+	 */
+	public void write(long value){
+
+		int len;
+		long aux;
+
+		if(value<0){
+			write(Long.toString(value));
+			return;
+		}
+
+		len=1;
+		for(aux=value/10;aux!=0;aux/=10){
+			len++;
+		}
+
+		reserve(len);
+		for(int i=count+len-1;i>=count;i--){
+			buffer[i]=(byte)('0'+value%10);
+			value/=10;
+		}
+		count+=len;
+
+	}//end-method
+
+	/**
+	 * Writes the buffered contents to the file
+	 */
+	public void flush(){
+
+		ByteBuffer wrapper;
+
+		if(state&&(count>0)){
+			try{
+				wrapper=ByteBuffer.wrap(buffer, 0, count);
+				while(wrapper.hasRemaining()){
+					channel.write(wrapper);
+				}
+			}catch(IOException e){
+				System.out.println("Error writing "+file+": "+e.getMessage());
+				state=false;
+			}
+		}
+
+		count=0;
+
+	}//end-method
+
+	/**
+	 * Writes the buffered contents and closes the file
+	 */
+	public void close(){
+
+		flush();
+
+		try{
+			if(channel!=null){
+				channel.close();
+			}
+		}catch(IOException e){
+			System.out.println("Error closing "+file+": "+e.getMessage());
+		}
+
+		channel=null;
+		state=false;
+
+	}//end-method
+
+}//end-class
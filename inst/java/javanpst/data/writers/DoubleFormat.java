@@ -0,0 +1,438 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.writers;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest round-trip formatting of double values.
+ *
+ * Values are converted with the Schubfach algorithm (R. Giulietti, 2020):
+ * the decimal written is the shortest one which is read back as the same
+ * double, and the closest to it among the shortest ones. The layout is the
+ * one of Double.toString ("1.0", "0.001", "1.0E7", "4.9E-324"), so files
+ * written before are read in the same way.
+ *
+ * Digits are written straight into a byte array, so no object is
+ * allocated per value.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class DoubleFormat{
+
+	/**
+	 * Maximum number of bytes written for a value
+	 */
+	public static final int MAX_LENGTH = 26;
+
+	/**
+	 * Precision of doubles
+	 */
+	private static final int P = 53;
+
+	/**
+	 * Minimum binary exponent
+	 */
+	private static final int Q_MIN = -1074;
+
+	/**
+	 * Smallest normal significand
+	 */
+	private static final long C_MIN = 1L<<(P-1);
+
+	/**
+	 * Smallest significand of subnormals with two digits
+	 */
+	private static final int C_TINY = 3;
+
+	/**
+	 * Range of decimal exponents of the table
+	 */
+	private static final int K_MIN = -324, K_MAX = 292;
+
+	/**
+	 * Low 63 bits mask
+	 */
+	private static final long MASK_63 = (1L<<63)-1;
+
+	/**
+	 * Powers of ten, as 126 bits values split in two halves of 63 bits
+	 */
+	private static final long G1 [], G0 [];
+
+	static{
+
+		BigInteger g,pow;
+		int r;
+
+		G1=new long [K_MAX-K_MIN+1];
+		G0=new long [K_MAX-K_MIN+1];
+
+		//10^-k = g 2^r, with 2^125 <= g < 2^126
+		for(int k=K_MIN;k<=K_MAX;k++){
+
+			r=flog2pow10(-k)-125;
+
+			if(k<=0){
+				pow=BigInteger.TEN.pow(-k);
+				g=(r>=0) ? pow.shiftRight(r) : pow.shiftLeft(-r);
+			}
+			else{
+				g=BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+			}
+			g=g.add(BigInteger.ONE);
+
+			G1[k-K_MIN]=g.shiftRight(63).longValue();
+			G0[k-K_MIN]=g.longValue()&MASK_63;
+		}
+
+	}//end-block
+
+	/**
+	 * Writes a value
+	 *
+	 * @param v value to write
+	 * @param out destination (at least MAX_LENGTH bytes from pos)
+	 * @param pos first position to write
+	 * @return position after the last byte written
+	 */
+	public static int format(double v, byte out[], int pos){
+
+		long bits,t,c,f;
+		int bq,mq;
+
+		bits=Double.doubleToRawLongBits(v);
+		t=bits&(C_MIN-1);
+		bq=(int)(bits>>>(P-1))&0x7FF;
+
+		if(bq==0x7FF){
+			return (t!=0) ? put(out, pos, "NaN") : put(out, pos, (bits<0) ? "-Infinity" : "Infinity");
+		}
+
+		if(bits<0){
+			out[pos++]='-';
+		}
+
+		if(bq!=0){
+
+			mq=-Q_MIN+1-bq;
+			c=C_MIN|t;
+
+			//integers are written directly
+			if((0<mq)&&(mq<P)){
+				f=c>>mq;
+				if((f<<mq)==c){
+					return toChars(f, 0, out, pos);
+				}
+			}
+
+			return toDecimal(-mq, c, 0, out, pos);
+		}
+
+		if(t!=0){
+			return (t<C_TINY) ? toDecimal(Q_MIN, 10*t, -1, out, pos) : toDecimal(Q_MIN, t, 0, out, pos);
+		}
+
+		return put(out, pos, "0.0");
+
+	}//end-method
+
+	/**
+	 * Finds the shortest decimal in the rounding interval of c 2^q
+	 *
+	 * @param q binary exponent
+	 * @param c significand
+	 * @param dk correction of the decimal exponent
+	 * @param out destination
+	 * @param pos first position to write
+	 * @return position after the last byte written
+	 */
+	private static int toDecimal(int q, long c, int dk, byte out[], int pos){
+
+		int odd,k,h;
+		long cb,cbr,cbl,g1,g0,vb,vbl,vbr,s,t,sp10,tp10,cmp;
+		boolean upin,wpin,uin,win;
+
+		odd=(int)c&1;
+		cb=c<<2;
+		cbr=cb+2;
+
+		if((c!=C_MIN)|(q==Q_MIN)){
+			cbl=cb-2;
+			k=flog10pow2(q);
+		}
+		else{
+			cbl=cb-1;
+			k=flog10threeQuartersPow2(q);
+		}
+
+		h=q+flog2pow10(-k)+2;
+
+		g1=G1[k-K_MIN];
+		g0=G0[k-K_MIN];
+
+		vb=rop(g1, g0, cb<<h);
+		vbl=rop(g1, g0, cbl<<h);
+		vbr=rop(g1, g0, cbr<<h);
+
+		s=vb>>2;
+
+		if(s>=100){
+
+			//try a candidate with one digit less
+			sp10=10*multiplyHigh(s, 115_292_150_460_684_698L<<4);
+			tp10=sp10+10;
+			upin=vbl+odd<=sp10<<2;
+			wpin=(tp10<<2)+odd<=vbr;
+
+			if(upin!=wpin){
+				return toChars(upin ? sp10 : tp10, k, out, pos);
+			}
+		}
+
+		t=s+1;
+		uin=vbl+odd<=s<<2;
+		win=(t<<2)+odd<=vbr;
+
+		if(uin!=win){
+			return toChars(uin ? s : t, k+dk, out, pos);
+		}
+
+		//both candidates are valid: take the closest one
+		cmp=vb-((s+t)<<1);
+
+		return toChars(((cmp<0)||((cmp==0)&&((s&1)==0))) ? s : t, k+dk, out, pos);
+
+	}//end-method
+
+	/**
+	 * Writes the decimal f 10^e
+	 *
+	 * @param f significand
+	 * @param e decimal exponent
+	 * @param out destination
+	 * @param pos first position to write
+	 * @return position after the last byte written
+	 */
+	private static int toChars(long f, int e, byte out[], int pos){
+
+		int len,exp;
+		long aux;
+
+		while((f!=0)&&(f%10==0)){
+			f/=10;
+			e++;
+		}
+
+		len=1;
+		for(aux=f/10;aux!=0;aux/=10){
+			len++;
+		}
+
+		exp=e+len-1;
+
+		if((exp>=0)&&(exp<7)){
+
+			//plain notation, integer part first
+			if(len<=exp+1){
+				pos=digits(f, len, out, pos);
+				for(int i=len;i<=exp;i++){
+					out[pos++]='0';
+				}
+				out[pos++]='.';
+				out[pos++]='0';
+			}
+			else{
+				digits(f, len, out, pos+1);
+				System.arraycopy(out, pos+1, out, pos, exp+1);
+				out[pos+exp+1]='.';
+				pos+=len+1;
+			}
+			return pos;
+		}
+
+		if((exp<0)&&(exp>=-3)){
+
+			out[pos++]='0';
+			out[pos++]='.';
+			for(int i=-1;i>exp;i--){
+				out[pos++]='0';
+			}
+			return digits(f, len, out, pos);
+		}
+
+		//computerized scientific notation
+		digits(f, len, out, pos+1);
+		out[pos]=out[pos+1];
+		out[pos+1]='.';
+		pos+=len+1;
+		if(len==1){
+			out[pos++]='0';
+		}
+		out[pos++]='E';
+		if(exp<0){
+			out[pos++]='-';
+			exp=-exp;
+		}
+		if(exp>=100){
+			out[pos++]=(byte)('0'+exp/100);
+			exp%=100;
+			out[pos++]=(byte)('0'+exp/10);
+		}
+		else if(exp>=10){
+			out[pos++]=(byte)('0'+exp/10);
+		}
+		out[pos++]=(byte)('0'+exp%10);
+
+		return pos;
+
+	}//end-method
+
+	/**
+	 * Writes the digits of a number
+	 *
+	 * @param f number
+	 * @param len number of digits
+	 * @param out destination
+	 * @param pos first position to write
+	 * @return position after the last byte written
+	 */
+	private static int digits(long f, int len, byte out[], int pos){
+
+		for(int i=pos+len-1;i>=pos;i--){
+			out[i]=(byte)('0'+f%10);
+			f/=10;
+		}
+
+		return pos+len;
+
+	}//end-method
+
+	/**
+	 * Writes a literal text
+	 *
+	 * @param out destination
+	 * @param pos first position to write
+	 * @param text text to write
+	 * @return position after the last byte written
+	 */
+	private static int put(byte out[], int pos, String text){
+
+		for(int i=0;i<text.length();i++){
+			out[pos++]=(byte)text.charAt(i);
+		}
+
+		return pos;
+
+	}//end-method
+
+	/**
+	 * Rounds to odd the product of g and cp, keeping the upper bits
+	 *
+	 * @param g1 upper half of g
+	 * @param g0 lower half of g
+	 * @param cp multiplier
+	 * @return upper bits of the product, rounded to odd
+	 */
+	private static long rop(long g1, long g0, long cp){
+
+		long x1,y0,y1,z,vbp;
+
+		x1=multiplyHigh(g0, cp);
+		y0=g1*cp;
+		y1=multiplyHigh(g1, cp);
+		z=(y0>>>1)+x1;
+		vbp=y1+(z>>>63);
+
+		return vbp|(((z&MASK_63)+MASK_63)>>>63);
+
+	}//end-method
+
+	/**
+	 * Upper 64 bits of the product of two non negative values
+	 *
+	 * @param x first value
+	 * @param y second value
+	 * @return upper half of x*y
+	 */
+	private static long multiplyHigh(long x, long y){
+
+		long x1,x2,y1,y2,z0,z1,z2,t;
+
+		x1=x>>32;
+		x2=x&0xFFFFFFFFL;
+		y1=y>>32;
+		y2=y&0xFFFFFFFFL;
+
+		z2=x2*y2;
+		t=x1*y2+(z2>>>32);
+		z1=t&0xFFFFFFFFL;
+		z0=t>>32;
+		z1+=x2*y1;
+
+		return x1*y1+z0+(z1>>32);
+
+	}//end-method
+
+	/**
+	 * floor(q log10(2))
+	 *
+	 * @param q exponent
+	 * @return floor of the logarithm
+	 */
+	private static int flog10pow2(int q){
+
+		return (int)((q*661_971_961_083L)>>41);
+
+	}//end-method
+
+	/**
+	 * floor(log10(3/4 2^q))
+	 *
+	 * @param q exponent
+	 * @return floor of the logarithm
+	 */
+	private static int flog10threeQuartersPow2(int q){
+
+		return (int)((q*661_971_961_083L-274_743_187_321L)>>41);
+
+	}//end-method
+
+	/**
+	 * floor(e log2(10))
+	 *
+	 * @param e exponent
+	 * @return floor of the logarithm
+	 */
+	private static int flog2pow10(int e){
+
+		return (int)((e*913_124_641_741L)>>38);
+
+	}//end-method
+
+}//end-class
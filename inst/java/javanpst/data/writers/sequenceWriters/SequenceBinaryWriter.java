@@ -0,0 +1,53 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.writers.sequenceWriters;
+
+import java.util.ArrayList;
+
+import javanpst.data.ColumnarFile;
+
+/**
+ * A class for writing numeric sequences into a binary columnar file
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class SequenceBinaryWriter{
+
+	/**
+	 * Writes a numeric sequence in a file, in binary columnar format
+	 *
+	 * @param seq sequence to write
+	 * @param file path of the file
+	 */
+	public static void writeNumericSequence(ArrayList<Double> seq, String file){
+
+		ColumnarFile.write(file, ColumnarFile.SEQUENCE, seq.size(), 1, (row, col) -> seq.get(row), (row, col) -> false);
+
+	}//end-method
+
+}//end-class
@@ -4,7 +4,7 @@
 	Statistical Tests.
 
 	Copyright (C) 2011
-
+	
 	J. Derrac (jderrac@decsai.ugr.es)
 	S. García (sglopez@ujaen.es)
 	F. Herrera (herrera@decsai.ugr.es)
@@ -21,14 +21,16 @@
 
 	You should have received a copy of the GNU General Public License
 	along with this program.  If not, see http://www.gnu.org/licenses/
-
+  
 **********************************************************************/
 
+
 package javanpst.data.writers.sequenceWriters;
 
-import javanpst.utils.Files;
 import java.util.ArrayList;
 
+import javanpst.data.writers.BufferedDataWriter;
+
 /**
  * A class for writing numeric and string sequences into a CSV file
  *
@@ -46,26 +48,21 @@ public class SequenceCSVWriter{
 	 */
 	public static void writeStringSequence(ArrayList<String> seq, String file, boolean commaSeparator){
 
-		String text;
-
-		text="";
+		BufferedDataWriter writer;
+		char separator;
 
-		for (String s : seq){
+		writer=new BufferedDataWriter(file, false);
+		separator=commaSeparator ? ',' : ';';
 
-			text+=s;
+		for(int i=0;i<seq.size();i++){
 
-			if(commaSeparator){
-				text+=",";
+			if(i>0){
+				writer.write(separator);
 			}
-			else{
-				text+=";";
-			}
-        }
-
-		//drop last separator
-		text=text.substring(0, text.length()-2);
+			writer.write(seq.get(i));
+		}
 
-		Files.writeFile(file,text);
+		writer.close();
 
 	}//end-method
 
@@ -78,26 +75,21 @@ public class SequenceCSVWriter{
 	 */
 	public static void writeNumericSequence(ArrayList<Double> seq,String file, boolean commaSeparator){
 
-		String text;
-
-		text="";
+		BufferedDataWriter writer;
+		char separator;
 
-		for (Double s : seq){
+		writer=new BufferedDataWriter(file, false);
+		separator=commaSeparator ? ',' : ';';
 
-			text+=s;
+		for(int i=0;i<seq.size();i++){
 
-			if(commaSeparator){
-				text+=",";
+			if(i>0){
+				writer.write(separator);
 			}
-			else{
-				text+=";";
-			}
-        }
-
-		//drop last separator
-		text=text.substring(0, text.length()-2);
+			writer.write(seq.get(i).doubleValue());
+		}
 
-		Files.writeFile(file,text);
+		writer.close();
 
 	}//end-method
 
@@ -24,14 +24,16 @@
   
 **********************************************************************/
 
+
 package javanpst.data.writers.sequenceWriters;
 
-import javanpst.utils.Files;
 import java.util.ArrayList;
 
 /**
  * A class for writing numeric and string sequences into a TXT file
  * 
+ * Values are separated by ";"
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
@@ -45,21 +47,7 @@ public class SequenceTXTWriter{
 	 */
 	public static void writeStringSequence(ArrayList<String> seq, String file){
 	
-		String text;
-		
-		text="";
-		
-		for (String s : seq){
-			
-			text+=s;
-			text+=";";
-
-        }
-		
-		//drop last separator
-		text=text.substring(0, text.length()-2);
-		
-		Files.writeFile(file,text);
+		SequenceCSVWriter.writeStringSequence(seq, file, false);
 		
 	}//end-method
 	
@@ -71,21 +59,7 @@ public class SequenceTXTWriter{
 	 */
 	public static void writeNumericSequence(ArrayList<Double> seq,String file){
 	
-		String text;
-		
-		text="";
-		
-		for (Double s : seq){
-			
-			text+=s;
-			text+=";";
-
-        }
-		
-		//drop last separator
-		text=text.substring(0, text.length()-2);
-		
-		Files.writeFile(file,text);
+		SequenceCSVWriter.writeNumericSequence(seq, file, false);
 		
 	}//end-method
 	
@@ -24,11 +24,13 @@
   
 **********************************************************************/
 
+
 package javanpst.data.writers.sequenceWriters;
 
-import javanpst.utils.Files;
 import java.util.ArrayList;
 
+import javanpst.data.writers.BufferedDataWriter;
+
 /**
  * A class for writing numeric and string sequences into a XML file
  * 
@@ -45,22 +47,22 @@ public class SequenceXMLWriter{
 	 */
 	public static void writeStringSequence(ArrayList<String> seq, String file){
 	
-		String text;
+		BufferedDataWriter writer=new BufferedDataWriter(file, false);
 		
 		//write header
-		text="<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>";
-		
-		Files.writeFile(file,text);
+		writer.write("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>");
 		
 		//write sequence
-		text="\n<sequence>\n";
+		writer.write("\n<sequence>\n");
 		
 		for (String s : seq){
-			text+="\t<element>"+s+"</element>\n";          
-        }
-		text+="</sequence>";
+			writer.write("\t<element>");
+			writer.write(s);
+			writer.write("</element>\n");
+		}
+		writer.write("</sequence>");
 		
-		Files.addToFile(file,text);
+		writer.close();
 		
 	}//end-method
 	
@@ -72,22 +74,22 @@ public class SequenceXMLWriter{
 	 */
 	public static void writeNumericSequence(ArrayList<Double> seq,String file){
 	
-		String text;
+		BufferedDataWriter writer=new BufferedDataWriter(file, false);
 		
 		//write header
-		text="<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>";
-		
-		Files.writeFile(file,text);
+		writer.write("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>");
 		
 		//write sequence
-		text="\n<sequence>\n";
+		writer.write("\n<sequence>\n");
 		
 		for (Double s : seq){
-			text+="<element>"+s+"</element>\n";          
-        }
-		text+="\n</sequence>";
+			writer.write("<element>");
+			writer.write(s.doubleValue());
+			writer.write("</element>\n");
+		}
+		writer.write("\n</sequence>");
 		
-		Files.addToFile(file,text);
+		writer.close();
 		
 	}//end-method
 	
@@ -0,0 +1,54 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.data.writers.tabularDataWriters;
+
+import javanpst.data.ColumnarFile;
+import javanpst.data.structures.dataTable.DataTable;
+
+/**
+ * A class for writing DataTable objects into a binary columnar file
+ * 
+ * Support null values treatment.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TabularDataBinaryWriter{
+
+	/**
+	 * Writes a table in a file, in binary columnar format.
+	 * 
+	 * @param tab table to write
+	 * @param file path to the file
+	 */
+	public static void writeTabularData(DataTable tab, String file){
+	
+		ColumnarFile.write(file, ColumnarFile.TABLE, tab.getRows(), tab.getColumns(), tab::get, tab::isNull);
+		
+	}//end-method
+	
+}//end-class
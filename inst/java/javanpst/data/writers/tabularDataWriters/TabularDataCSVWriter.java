@@ -24,62 +24,148 @@
   
 **********************************************************************/
 
+
 package javanpst.data.writers.tabularDataWriters;
 
+import javanpst.data.DataDefinitions;
 import javanpst.data.structures.dataTable.DataTable;
-import javanpst.utils.Files;
+import javanpst.data.writers.BufferedDataWriter;
 
 /**
  * A class for writing DataTable objects into a CSV file
  * 
  * Support null values treatment.
  * 
+ * Rows are streamed to the file through a buffered writer, so tables
+ * can be written (or rows appended to a file) one row at a time.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
-public class TabularDataCSVWriter{
+public class TabularDataCSVWriter implements AutoCloseable{
 
 	/**
-	 * Writes a table in a file, in CSV format.
+	 * Writer of the file
+	 */
+	private BufferedDataWriter writer;
+	
+	/**
+	 * Separator of the values
+	 */
+	private char separator;
+	
+	/**
+	 * Builder. Opens a file for writing rows
 	 * 
-	 * @param tab table to write
 	 * @param file path to the file
 	 * @param commaSeparator true if "," is used as separator, false if ";" is used instead
+	 * @param append true to add rows at the end of the file, false to overwrite it
 	 */
-	public static void writeTabularData(DataTable tab, String file, boolean commaSeparator){
+	public TabularDataCSVWriter(String file, boolean commaSeparator, boolean append){
+		
+		writer=new BufferedDataWriter(file, append);
+		separator=commaSeparator ? ',' : ';';
+		
+	}//end-method
 	
-		String text;
-		String text2;
+	/**
+	 * Writes a row. NULL_VALUE values are written as nulls
+	 * 
+	 * @param values values of the row
+	 */
+	public void writeRow(double values []){
 		
-		text="";
+		for(int j=0;j<values.length;j++){
+			
+			if(j>0){
+				writer.write(separator);
+			}
+			
+			if(values[j]==DataDefinitions.NULL_VALUE){
+				writer.write("NULL");
+			}else{
+				writer.write(values[j]);
+			}
+		}
 		
-		//write data
-		for(int i=0;i<tab.getRows();i++){
+		writer.write('\n');
+		
+	}//end-method
+	
+	/**
+	 * Writes a row
+	 * 
+	 * @param values values of the row
+	 * @param nulls null values of the row
+	 */
+	public void writeRow(double values [], boolean nulls []){
+		
+		for(int j=0;j<values.length;j++){
 			
-			text2="";
+			if(j>0){
+				writer.write(separator);
+			}
+			
+			if(nulls[j]){
+				writer.write("NULL");
+			}else{
+				writer.write(values[j]);
+			}
+		}
+		
+		writer.write('\n');
+		
+	}//end-method
+	
+	/**
+	 * Writes all the rows of a table
+	 * 
+	 * @param tab table to write
+	 */
+	public void writeRows(DataTable tab){
+		
+		for(int i=0;i<tab.getRows();i++){
 			
 			for(int j=0;j<tab.getColumns();j++){
 				
+				if(j>0){
+					writer.write(separator);
+				}
+				
 				if(tab.isNull(i, j)){
-					text2+="NULL";
+					writer.write("NULL");
 				}else{
-					text2+="tab.get(i, j)";
-				}	
-				
-				if(j!=tab.getColumns()-1){
-					if(commaSeparator){
-						text2+=",";
-					}
-					else{
-						text2+=";";
-					}
+					writer.write(tab.get(i, j));
 				}
 			}
 			
-			text+=text2+"\n";
+			writer.write('\n');
 		}
 		
-		Files.writeFile(file,text);
+	}//end-method
+	
+	/**
+	 * Writes the rows pending and closes the file
+	 */
+	public void close(){
+		
+		writer.close();
+		
+	}//end-method
+
+	/**
+	 * Writes a table in a file, in CSV format.
+	 * 
+	 * @param tab table to write
+	 * @param file path to the file
+	 * @param commaSeparator true if "," is used as separator, false if ";" is used instead
+	 */
+	public static void writeTabularData(DataTable tab, String file, boolean commaSeparator){
+	
+		TabularDataCSVWriter out=new TabularDataCSVWriter(file, commaSeparator, false);
+		
+		out.writeRows(tab);
+		out.close();
 		
 	}//end-method
 	
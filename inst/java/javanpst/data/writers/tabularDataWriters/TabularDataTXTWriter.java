@@ -24,20 +24,83 @@
   
 **********************************************************************/
 
+
 package javanpst.data.writers.tabularDataWriters;
 
 import javanpst.data.structures.dataTable.DataTable;
-import javanpst.utils.Files;
 
 /**
  * A class for writing DataTable objects into a TXT file
  * 
  * Support null values treatment.
  * 
+ * Values are separated by ";", rows are separated by a "\n". Rows are
+ * streamed to the file, so they can also be appended one at a time.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
-public class TabularDataTXTWriter{
+public class TabularDataTXTWriter implements AutoCloseable{
+
+	/**
+	 * Writer of delimited rows
+	 */
+	private TabularDataCSVWriter writer;
+	
+	/**
+	 * Builder. Opens a file for writing rows
+	 * 
+	 * @param file path to the file
+	 * @param append true to add rows at the end of the file, false to overwrite it
+	 */
+	public TabularDataTXTWriter(String file, boolean append){
+		
+		writer=new TabularDataCSVWriter(file, false, append);
+		
+	}//end-method
+	
+	/**
+	 * Writes a row. NULL_VALUE values are written as nulls
+	 * 
+	 * @param values values of the row
+	 */
+	public void writeRow(double values []){
+		
+		writer.writeRow(values);
+		
+	}//end-method
+	
+	/**
+	 * Writes a row
+	 * 
+	 * @param values values of the row
+	 * @param nulls null values of the row
+	 */
+	public void writeRow(double values [], boolean nulls []){
+		
+		writer.writeRow(values, nulls);
+		
+	}//end-method
+	
+	/**
+	 * Writes all the rows of a table
+	 * 
+	 * @param tab table to write
+	 */
+	public void writeRows(DataTable tab){
+		
+		writer.writeRows(tab);
+		
+	}//end-method
+	
+	/**
+	 * Writes the rows pending and closes the file
+	 */
+	public void close(){
+		
+		writer.close();
+		
+	}//end-method
 
 	/**
 	 * Writes a table in a file, in TXT format.
@@ -49,35 +112,10 @@ public class TabularDataTXTWriter{
 	 */
 	public static void writeTabularData(DataTable tab, String file){
 	
-		String text;
-		String text2;
-		
-		text="";
-		
-		//write data
-		for(int i=0;i<tab.getRows();i++){
-			
-			text2="";
-			
-			for(int j=0;j<tab.getColumns();j++){
-				
-				if(tab.isNull(i, j)){
-					text2+="NULL";
-				}else{
-					text2+="tab.get(i, j)";
-				}	
-				
-				if(j!=tab.getColumns()-1){
-					
-					text2+=";";
-					
-				}
-			}
-			
-			text+=text2+"\n";
-		}
+		TabularDataTXTWriter out=new TabularDataTXTWriter(file, false);
 		
-		Files.writeFile(file,text);
+		out.writeRows(tab);
+		out.close();
 		
 	}//end-method
 	
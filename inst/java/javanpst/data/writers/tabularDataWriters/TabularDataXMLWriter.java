@@ -24,55 +24,145 @@
   
 **********************************************************************/
 
+
 package javanpst.data.writers.tabularDataWriters;
 
+import javanpst.data.DataDefinitions;
 import javanpst.data.structures.dataTable.DataTable;
-import javanpst.utils.Files;
+import javanpst.data.writers.BufferedDataWriter;
 
 /**
  * A class for writing DataTable objects into a XML file
  * 
  * Support null values treatment.
  * 
+ * Rows are streamed to the file through a buffered writer, so tables
+ * can be written one row at a time. The document is closed when the
+ * writer is closed.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
-public class TabularDataXMLWriter{
+public class TabularDataXMLWriter implements AutoCloseable{
 
 	/**
-	 * Writes a table in a file, in XML format
+	 * Writer of the file
+	 */
+	private BufferedDataWriter writer;
+	
+	/**
+	 * Builder. Opens a file and writes the header of the document
 	 * 
-	 * @param tab table to write
 	 * @param file path to the file
+	 * @param rows number of rows (negative if not known in advance)
+	 * @param columns number of columns
 	 */
-	public static void writeTabularData(DataTable tab, String file){
-	
-		String text;
-		String text2;
+	public TabularDataXMLWriter(String file, int rows, int columns){
+		
+		writer=new BufferedDataWriter(file, false);
 		
 		//write header
-		text="<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>";
+		writer.write("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>");
+		writer.write("\n<tabular");
+		if(rows>=0){
+			writer.write(" rows=\"");
+			writer.write(rows);
+			writer.write('"');
+		}
+		writer.write(" columns=\"");
+		writer.write(columns);
+		writer.write("\">\n");
+		
+	}//end-method
+	
+	/**
+	 * Writes a row. NULL_VALUE values are written as nulls
+	 * 
+	 * @param values values of the row
+	 */
+	public void writeRow(double values []){
+		
+		writer.write("<row>");
+		for(int j=0;j<values.length;j++){
+			writeElement(values[j], values[j]==DataDefinitions.NULL_VALUE);
+		}
+		writer.write("</row>\n");
+		
+	}//end-method
+	
+	/**
+	 * Writes a row
+	 * 
+	 * @param values values of the row
+	 * @param nulls null values of the row
+	 */
+	public void writeRow(double values [], boolean nulls []){
 		
-		Files.writeFile(file,text);
+		writer.write("<row>");
+		for(int j=0;j<values.length;j++){
+			writeElement(values[j], nulls[j]);
+		}
+		writer.write("</row>\n");
 		
-		text="\n<tabular rows=\""+tab.getRows()+"\" columns=\""+tab.getColumns()+"\">\n";
+	}//end-method
+	
+	/**
+	 * Writes all the rows of a table
+	 * 
+	 * @param tab table to write
+	 */
+	public void writeRows(DataTable tab){
 		
-		//write data
 		for(int i=0;i<tab.getRows();i++){
-			text2="<row>";
+			writer.write("<row>");
 			for(int j=0;j<tab.getColumns();j++){
-				if(tab.isNull(i, j)){
-					text2+="<element>NULL</element>";
-				}else{
-					text2+="<element>"+tab.get(i, j)+"</element>";
-				}			
+				writeElement(tab.get(i, j), tab.isNull(i, j));
 			}
-			text+=text2+"</row>\n";
+			writer.write("</row>\n");
+		}
+		
+	}//end-method
+	
+	/**
+	 * Writes an element of a row
+	 * 
+	 * @param value value of the element
+	 * @param isNull true if the element is null
+	 */
+	private void writeElement(double value, boolean isNull){
+		
+		writer.write("<element>");
+		if(isNull){
+			writer.write("NULL");
+		}else{
+			writer.write(value);
 		}
+		writer.write("</element>");
+		
+	}//end-method
+	
+	/**
+	 * Closes the document and the file
+	 */
+	public void close(){
+		
+		writer.write("</tabular>");
+		writer.close();
+		
+	}//end-method
 
-		text+="</tabular>";
+	/**
+	 * Writes a table in a file, in XML format
+	 * 
+	 * @param tab table to write
+	 * @param file path to the file
+	 */
+	public static void writeTabularData(DataTable tab, String file){
+	
+		TabularDataXMLWriter out=new TabularDataXMLWriter(file, tab.getRows(), tab.getColumns());
 		
-		Files.addToFile(file,text);
+		out.writeRows(tab);
+		out.close();
 		
 	}//end-method
 	
@@ -159,16 +159,17 @@ public final class ChiSquareDistribution implements Distribution{
 		double EPSILON = 0.0000000001;
 		
         if ((freedom == 1) & (value > 1000.0)) {
-            return 0;
+            return 1;
         }
         
         if ((value > 1000) || (freedom > 1000)) {
-            q = computeRightTailProbability((value - freedom) * (value - freedom) / (2 * freedom)) / 2;
+            //normal approximation: q is the tail beyond |value - freedom| / sqrt(2 freedom)
+            q = (1 - new ChiSquareDistribution(1).computeRightTailProbability((value - freedom) * (value - freedom) / (2 * freedom))) / 2;
             if (value > freedom) {
-                return q;
+                return 1 - q;
             }
             
-            return 1 - q;
+            return q;
             
         }
         
@@ -198,6 +199,23 @@ public final class ChiSquareDistribution implements Distribution{
         
     }//end-method
 	
+	/**
+	 * Computes the upper tail P(X >= value) of the chi-square distribution,
+	 * as the regularized upper incomplete gamma function Q(freedom/2, value/2).
+	 * 
+	 * Unlike computeCumulativeProbability, it is not computed as the complement
+	 * of the lower tail, so it keeps its relative accuracy down to the smallest
+	 * doubles.
+	 * 
+	 * @param value point selected
+	 * @return upper tail probability at 'value'
+	 */
+	public double computeUpperTailProbability(double value){
+		
+		return gamma.regularizedGammaQ(freedom/2.0, value/2.0);
+		
+	}//end-method
+	
 	/**
 	 * To String method.
 	 * 
@@ -0,0 +1,381 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.distributions.common.continuous;
+
+import javanpst.distributions.common.Distribution;
+
+/**
+ * A Fisher-Snedecor F distribution.
+ *
+ * Cumulative probabilities are computed through the regularized
+ * incomplete beta function, evaluated by its continued fraction.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class FDistribution implements Distribution{
+
+	private static final double EPSILON = 1e-14;
+	private static final double TINY = 1e-300;
+	private static final int ITERATIONS = 1000;
+
+	/**
+	 * Degrees of freedom of the numerator
+	 */
+	private double freedom1;
+
+	/**
+	 * Degrees of freedom of the denominator
+	 */
+	private double freedom2;
+
+	/**
+	 * Default builder.
+	 *
+	 * Creates a F distribution with 1 and 1 degrees of freedom
+	 */
+	public FDistribution(){
+
+		freedom1=1.0;
+		freedom2=1.0;
+
+	}//end-method
+
+	/**
+	 * Builder.
+	 *
+	 * Creates a F distribution with specified degrees of freedom
+	 *
+	 * @param degree1 degrees of freedom of the numerator
+	 * @param degree2 degrees of freedom of the denominator
+	 */
+	public FDistribution(double degree1, double degree2){
+
+		freedom1=degree1;
+		freedom2=degree2;
+
+	}//end-method
+
+	/**
+	 * Copy constructor
+	 *
+	 * Creates a copy of a given F distribution
+	 *
+	 * @param old F distribution to copy
+	 */
+	public FDistribution(FDistribution old){
+
+		this(old.getDegree1(),old.getDegree2());
+
+	}//end-method
+
+	/**
+	 * Gets the degrees of freedom of the numerator
+	 *
+	 * @return degrees of freedom
+	 */
+	public double getDegree1(){
+
+		return freedom1;
+
+	}//end-method
+
+	/**
+	 * Gets the degrees of freedom of the denominator
+	 *
+	 * @return degrees of freedom
+	 */
+	public double getDegree2(){
+
+		return freedom2;
+
+	}//end-method
+
+	/**
+	 * Sets the degrees of freedom of the distribution
+	 *
+	 * @param degree1 degrees of freedom of the numerator (positive)
+	 * @param degree2 degrees of freedom of the denominator (positive)
+	 */
+	public void setDegrees(double degree1, double degree2){
+
+		if((degree1>0.0)&&(degree2>0.0)){
+			freedom1=degree1;
+			freedom2=degree2;
+		}
+
+	}//end-method
+
+	/**
+	 * Computes density at a given point of the F distribution.
+	 *
+	 * @param value point selected
+	 * @return density at 'value'
+	 */
+	public double computeProbability(double value){
+
+		double logDensity;
+
+		if(value<=0.0){
+			return 0.0;
+		}
+
+		logDensity=(freedom1/2.0)*Math.log(freedom1*value)+(freedom2/2.0)*Math.log(freedom2);
+		logDensity-=((freedom1+freedom2)/2.0)*Math.log(freedom1*value+freedom2);
+		logDensity-=Math.log(value)+logBeta(freedom1/2.0,freedom2/2.0);
+
+		return Math.exp(logDensity);
+
+	}//end-method
+
+	/**
+	 * Computes cumulative probability at a given point of the F distribution.
+	 *
+	 * @param value point selected
+	 * @return cumulative probability at 'value'
+	 */
+	public double computeCumulativeProbability(double value){
+
+		if(value<=0.0){
+			return 0.0;
+		}
+		if(Double.isInfinite(value)){
+			return 1.0;
+		}
+
+		return regularizedBeta(freedom1*value/(freedom1*value+freedom2),freedom1/2.0,freedom2/2.0);
+
+	}//end-method
+
+	/**
+	 * Computes the right tail of the F distribution
+	 *
+	 * @param value point selected
+	 * @return right tail probability at 'value'
+	 */
+	public double computeRightTailProbability(double value){
+
+		if(value<=0.0){
+			return 1.0;
+		}
+		if(Double.isInfinite(value)){
+			return 0.0;
+		}
+
+		return regularizedBeta(freedom2/(freedom2+freedom1*value),freedom2/2.0,freedom1/2.0);
+
+	}//end-method
+
+	/**
+	 * Computes the quantile of the F distribution for a given probability.
+	 *
+	 * Uses bisection over the cumulative probability.
+	 *
+	 * @param p probability value
+	 * @return value whose cumulative probability is p
+	 */
+	public double inverseCumulativeProbability(double p){
+
+		double low,high,middle;
+
+		if(p<=0.0){
+			return 0.0;
+		}
+		if(p>=1.0){
+			return Double.POSITIVE_INFINITY;
+		}
+
+		low=0.0;
+		high=1.0;
+		while(computeCumulativeProbability(high)<p){
+			low=high;
+			high*=2.0;
+		}
+
+		for(int i=0;(i<ITERATIONS)&&(high-low>EPSILON*high);i++){
+			middle=(low+high)/2.0;
+			if(computeCumulativeProbability(middle)<p){
+				low=middle;
+			}
+			else{
+				high=middle;
+			}
+		}
+
+		return (low+high)/2.0;
+
+	}//end-method
+
+	/**
+	 * Computes the regularized incomplete beta function I_x(a,b)
+	 *
+	 * @param x x value (between 0 and 1)
+	 * @param a a parameter
+	 * @param b b parameter
+	 * @return value of I_x(a,b)
+	 */
+	public static double regularizedBeta(double x, double a, double b){
+
+		double front;
+
+		if(x<=0.0){
+			return 0.0;
+		}
+		if(x>=1.0){
+			return 1.0;
+		}
+
+		front=Math.exp(a*Math.log(x)+b*Math.log(1.0-x)-logBeta(a,b));
+
+		//the continued fraction converges quickly for x < (a+1)/(a+b+2)
+		if(x<(a+1.0)/(a+b+2.0)){
+			return front*betaFraction(x,a,b)/a;
+		}
+
+		return 1.0-front*betaFraction(1.0-x,b,a)/b;
+
+	}//end-method
+
+	/**
+	 * Evaluates the continued fraction of the incomplete beta function
+	 * (modified Lentz method)
+	 *
+	 * @param x x value
+	 * @param a a parameter
+	 * @param b b parameter
+	 * @return value of the continued fraction
+	 */
+	private static double betaFraction(double x, double a, double b){
+
+		double c,d,h,delta,aa;
+		int m2;
+
+		c=1.0;
+		d=1.0-(a+b)*x/(a+1.0);
+		if(Math.abs(d)<TINY){
+			d=TINY;
+		}
+		d=1.0/d;
+		h=d;
+
+		for(int m=1;m<=ITERATIONS;m++){
+
+			m2=2*m;
+
+			aa=m*(b-m)*x/((a+m2-1.0)*(a+m2));
+			d=1.0+aa*d;
+			if(Math.abs(d)<TINY){
+				d=TINY;
+			}
+			c=1.0+aa/c;
+			if(Math.abs(c)<TINY){
+				c=TINY;
+			}
+			d=1.0/d;
+			h*=d*c;
+
+			aa=-(a+m)*(a+b+m)*x/((a+m2)*(a+m2+1.0));
+			d=1.0+aa*d;
+			if(Math.abs(d)<TINY){
+				d=TINY;
+			}
+			c=1.0+aa/c;
+			if(Math.abs(c)<TINY){
+				c=TINY;
+			}
+			d=1.0/d;
+			delta=d*c;
+			h*=delta;
+
+			if(Math.abs(delta-1.0)<EPSILON){
+				break;
+			}
+		}
+
+		return h;
+
+	}//end-method
+
+	/**
+	 * Computes natural logarithm of beta function
+	 *
+	 * @param a a parameter
+	 * @param b b parameter
+	 * @return natural logarithm of B(a,b)
+	 */
+	private static double logBeta(double a, double b){
+
+		return logGamma(a)+logGamma(b)-logGamma(a+b);
+
+	}//end-method
+
+	/**
+	 * Computes natural logarithm of gamma function.
+	 *
+	 * Uses Lanczos coefficients (g=7, n=9)
+	 *
+	 * @param value value to compute
+	 * @return natural logarithm of gamma function
+	 */
+	private static double logGamma(double value){
+
+		double coefficients [] = { 0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+							771.32342877765313, -176.61502916214059, 12.507343278686905,
+							-0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7 };
+		double sum,t,x;
+
+		if(value<0.5){
+			return Math.log(Math.PI/Math.abs(Math.sin(Math.PI*value)))-logGamma(1.0-value);
+		}
+
+		x=value-1.0;
+		sum=coefficients[0];
+		for(int i=1;i<coefficients.length;i++){
+			sum+=coefficients[i]/(x+i);
+		}
+		t=x+7.5;
+
+		return 0.5*Math.log(2.0*Math.PI)+(x+0.5)*Math.log(t)-t+Math.log(sum);
+
+	}//end-method
+
+	/**
+	 * To String method.
+	 *
+	 * @return string representation of the distribution
+	 */
+	public String toString(){
+
+		String text="";
+
+		text+="F distribution. Degrees of freedom: "+freedom1+", "+freedom2;
+
+		return text;
+
+	}//end-method
+
+}//end-class
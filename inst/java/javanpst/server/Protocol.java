@@ -0,0 +1,484 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Binary framing of the requests and responses of the test server.
+ *
+ * Every message is a frame: its length in bytes (int) followed by its
+ * contents. All values are big-endian, as written by DataOutputStream.
+ *
+ * A request holds an identifier chosen by the client (int), the name of the
+ * test class (UTF), the number of arguments (byte) and the arguments. Each
+ * argument is an array with a type tag (byte):
+ *
+ * 'D' vector of doubles: length (int) and values.
+ * 'I' vector of ints: length (int) and values.
+ * 'M' matrix of doubles: rows (int), columns (int) and values by rows.
+ * 'S' vector of strings: length (int) and values (UTF).
+ *
+ * Scalar parameters are sent as vectors of length one. A response holds
+ * the identifier of its request (int) and a status (byte). If the status
+ * is OK it is followed by the results vector: length (int) and values;
+ * otherwise, by an error message (UTF).
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class Protocol{
+
+	/**
+	 * Type tags of the arguments
+	 */
+	public static final byte DOUBLES = 'D', INTS = 'I', MATRIX = 'M', STRINGS = 'S';
+
+	/**
+	 * Status of the responses
+	 */
+	public static final byte OK = 0, ERROR = 1;
+
+	/**
+	 * Maximum size of a frame (bytes)
+	 */
+	public static final int MAX_FRAME = 1<<30;
+
+	/**
+	 * Size of the first block read of a frame (bytes). The buffer grows as
+	 * the contents arrive, so a length is not trusted before its data
+	 */
+	private static final int FRAME_BLOCK = 1<<16;
+
+	/**
+	 * A request decoded from a frame
+	 */
+	public static final class Request{
+
+		/**
+		 * Identifier of the request
+		 */
+		public final int id;
+
+		/**
+		 * Name of the test class
+		 */
+		public final String test;
+
+		/**
+		 * Arguments (double[], int[], double[][] or String[])
+		 */
+		public final Object args [];
+
+		/**
+		 * Builder
+		 *
+		 * @param id identifier of the request
+		 * @param test name of the test class
+		 * @param args arguments
+		 */
+		public Request(int id, String test, Object args[]){
+
+			this.id=id;
+			this.test=test;
+			this.args=args;
+
+		}//end-method
+
+	}//end-class
+
+	/**
+	 * A response decoded from a frame
+	 */
+	public static final class Response{
+
+		/**
+		 * Identifier of the request
+		 */
+		public final int id;
+
+		/**
+		 * Results of the test (null after an error)
+		 */
+		public final double results [];
+
+		/**
+		 * Error message (null if the test was performed)
+		 */
+		public final String error;
+
+		/**
+		 * Builder
+		 *
+		 * @param id identifier of the request
+		 * @param results results of the test
+		 * @param error error message
+		 */
+		public Response(int id, double results[], String error){
+
+			this.id=id;
+			this.results=results;
+			this.error=error;
+
+		}//end-method
+
+	}//end-class
+
+	/**
+	 * Not instantiable
+	 */
+	private Protocol(){
+
+	}//end-method
+
+	/**
+	 * Reads the contents of the next frame
+	 *
+	 * @param in input stream
+	 * @return contents of the frame, or null at the end of the stream
+	 * @throws IOException if the stream fails or the frame is not valid
+	 */
+	public static byte [] readFrame(DataInputStream in) throws IOException{
+
+		int length,read,block;
+		byte frame [];
+
+		try{
+			length=in.readInt();
+		}catch(EOFException e){
+			return null;
+		}
+
+		if((length<0)||(length>MAX_FRAME)){
+			throw new IOException("Wrong frame length: "+length);
+		}
+
+		frame=new byte [Math.min(length, FRAME_BLOCK)];
+		read=0;
+
+		while(read<length){
+			if(read==frame.length){
+				frame=Arrays.copyOf(frame, (int)Math.min((long)length, 2L*frame.length));
+			}
+			block=frame.length-read;
+			in.readFully(frame, read, block);
+			read+=block;
+		}
+
+		return frame;
+
+	}//end-method
+
+	/**
+	 * Writes a frame
+	 *
+	 * @param out output stream
+	 * @param frame contents of the frame
+	 * @throws IOException if the stream fails
+	 */
+	public static void writeFrame(DataOutputStream out, byte frame[]) throws IOException{
+
+		out.writeInt(frame.length);
+		out.write(frame);
+
+	}//end-method
+
+	/**
+	 * Encodes a request
+	 *
+	 * @param id identifier of the request
+	 * @param test name of the test class
+	 * @param args arguments (double[], int[], double[][] or String[])
+	 * @return contents of the frame
+	 * @throws IOException if an argument has a type not supported
+	 */
+	public static byte [] encodeRequest(int id, String test, Object... args) throws IOException{
+
+		ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+		DataOutputStream out=new DataOutputStream(buffer);
+
+		out.writeInt(id);
+		out.writeUTF(test);
+		out.writeByte(args.length);
+
+		for(Object arg : args){
+
+			if(arg instanceof double[]){
+				out.writeByte(DOUBLES);
+				writeDoubles(out, (double [])arg);
+			}
+			else if(arg instanceof int[]){
+				out.writeByte(INTS);
+				out.writeInt(((int [])arg).length);
+				for(int value : (int [])arg){
+					out.writeInt(value);
+				}
+			}
+			else if(arg instanceof double[][]){
+				double matrix [][]=(double [][])arg;
+				int cols=(matrix.length>0) ? matrix[0].length : 0;
+				for(double row [] : matrix){
+					if(row.length!=cols){
+						throw new IOException("Ragged matrix");
+					}
+				}
+				out.writeByte(MATRIX);
+				out.writeInt(matrix.length);
+				out.writeInt(cols);
+				for(double row [] : matrix){
+					for(double value : row){
+						out.writeDouble(value);
+					}
+				}
+			}
+			else if(arg instanceof String[]){
+				out.writeByte(STRINGS);
+				out.writeInt(((String [])arg).length);
+				for(String value : (String [])arg){
+					out.writeUTF(value);
+				}
+			}
+			else{
+				throw new IOException("Argument type not supported: "+((arg==null) ? "null" : arg.getClass().getName()));
+			}
+		}
+
+		out.flush();
+
+		return buffer.toByteArray();
+
+	}//end-method
+
+	/**
+	 * Decodes a request
+	 *
+	 * @param frame contents of the frame
+	 * @return request decoded
+	 * @throws IOException if the frame is not valid
+	 */
+	public static Request decodeRequest(byte frame[]) throws IOException{
+
+		DataInputStream in=new DataInputStream(new ByteArrayInputStream(frame));
+		int id,n,rows,cols;
+		String test;
+		Object args [];
+
+		id=in.readInt();
+		test=in.readUTF();
+		args=new Object [in.readUnsignedByte()];
+
+		for(int i=0;i<args.length;i++){
+
+			switch(in.readByte()){
+				case DOUBLES:
+					args[i]=readDoubles(in);
+					break;
+				case INTS:
+					n=length(in.readInt(), 4, in);
+					int ints []=new int [n];
+					for(int j=0;j<n;j++){
+						ints[j]=in.readInt();
+					}
+					args[i]=ints;
+					break;
+				case MATRIX:
+					rows=in.readInt();
+					cols=in.readInt();
+					//rows are bounded on their own, as rows without columns take no bytes
+					if((rows<0)||(cols<0)||(rows>in.available())||((long)rows*cols*8>in.available())){
+						throw new IOException("Wrong matrix dimensions: "+rows+"x"+cols);
+					}
+					double matrix [][]=new double [rows][cols];
+					for(int r=0;r<rows;r++){
+						for(int c=0;c<cols;c++){
+							matrix[r][c]=in.readDouble();
+						}
+					}
+					args[i]=matrix;
+					break;
+				case STRINGS:
+					n=length(in.readInt(), 2, in);
+					String strings []=new String [n];
+					for(int j=0;j<n;j++){
+						strings[j]=in.readUTF();
+					}
+					args[i]=strings;
+					break;
+				default:
+					throw new IOException("Unknown type of argument "+(i+1));
+			}
+		}
+
+		return new Request(id, test, args);
+
+	}//end-method
+
+	/**
+	 * Encodes the response of a test performed
+	 *
+	 * @param id identifier of the request
+	 * @param results results of the test
+	 * @return contents of the frame
+	 */
+	public static byte [] encodeResults(int id, double results[]){
+
+		ByteArrayOutputStream buffer=new ByteArrayOutputStream(9+8*results.length);
+		DataOutputStream out=new DataOutputStream(buffer);
+
+		try{
+			out.writeInt(id);
+			out.writeByte(OK);
+			writeDoubles(out, results);
+			out.flush();
+		}catch(IOException e){
+			//not thrown by a ByteArrayOutputStream
+		}
+
+		return buffer.toByteArray();
+
+	}//end-method
+
+	/**
+	 * Encodes the response of a test which could not be performed
+	 *
+	 * @param id identifier of the request
+	 * @param message error message
+	 * @return contents of the frame
+	 */
+	public static byte [] encodeError(int id, String message){
+
+		ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+		DataOutputStream out=new DataOutputStream(buffer);
+
+		if(message==null){
+			message="Unknown error";
+		}
+		if(message.length()>16384){
+			message=message.substring(0, 16384);
+		}
+
+		try{
+			out.writeInt(id);
+			out.writeByte(ERROR);
+			out.writeUTF(message);
+			out.flush();
+		}catch(IOException e){
+			//not thrown by a ByteArrayOutputStream
+		}
+
+		return buffer.toByteArray();
+
+	}//end-method
+
+	/**
+	 * Decodes a response
+	 *
+	 * @param frame contents of the frame
+	 * @return response decoded
+	 * @throws IOException if the frame is not valid
+	 */
+	public static Response decodeResponse(byte frame[]) throws IOException{
+
+		DataInputStream in=new DataInputStream(new ByteArrayInputStream(frame));
+		int id;
+
+		id=in.readInt();
+
+		if(in.readByte()==OK){
+			return new Response(id, readDoubles(in), null);
+		}
+
+		return new Response(id, null, in.readUTF());
+
+	}//end-method
+
+	/**
+	 * Writes a vector of doubles
+	 *
+	 * @param out output stream
+	 * @param values values to write
+	 * @throws IOException if the stream fails
+	 */
+	private static void writeDoubles(DataOutputStream out, double values[]) throws IOException{
+
+		out.writeInt(values.length);
+		for(double value : values){
+			out.writeDouble(value);
+		}
+
+	}//end-method
+
+	/**
+	 * Reads a vector of doubles
+	 *
+	 * @param in contents of the frame
+	 * @return values read
+	 * @throws IOException if the stream fails or the length is not valid
+	 */
+	private static double [] readDoubles(DataInputStream in) throws IOException{
+
+		int n;
+		double values [];
+
+		n=length(in.readInt(), 8, in);
+
+		values=new double [n];
+		for(int i=0;i<n;i++){
+			values[i]=in.readDouble();
+		}
+
+		return values;
+
+	}//end-method
+
+	/**
+	 * Checks the length of a vector against the bytes left in its frame
+	 *
+	 * @param n length read
+	 * @param size minimum size of each element (bytes)
+	 * @param in contents of the frame
+	 * @return the length, if it is valid
+	 * @throws IOException if the length is not valid
+	 */
+	private static int length(int n, int size, DataInputStream in) throws IOException{
+
+		if((n<0)||((long)n*size>in.available())){
+			throw new IOException("Wrong vector length: "+n);
+		}
+
+		return n;
+
+	}//end-method
+
+}//end-class
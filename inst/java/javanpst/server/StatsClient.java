@@ -0,0 +1,164 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A client of the test server.
+ *
+ * Requests are written as they are submitted, and responses are read in
+ * the order the server sends them, so a batch of tests can be submitted
+ * before reading any result. Each response carries the identifier given to
+ * its request.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class StatsClient implements AutoCloseable{
+
+	/**
+	 * Socket of the connection
+	 */
+	private Socket socket;
+
+	/**
+	 * Input stream of the connection
+	 */
+	private DataInputStream in;
+
+	/**
+	 * Output stream of the connection
+	 */
+	private DataOutputStream out;
+
+	/**
+	 * Builder. Connects to a server of the local machine
+	 *
+	 * @param port port of the server
+	 * @throws IOException if the server cannot be reached
+	 */
+	public StatsClient(int port) throws IOException{
+
+		socket=new Socket(InetAddress.getLoopbackAddress(), port);
+		socket.setTcpNoDelay(true);
+		in=new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1<<16));
+		out=new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1<<16));
+
+	}//end-method
+
+	/**
+	 * Submits a request. It is sent with the next flush or receive
+	 *
+	 * @param id identifier of the request
+	 * @param test name of the test class, full or relative to javanpst.tests
+	 * @param args arguments of its run method (double[], int[], double[][] or String[])
+	 * @throws IOException if the request cannot be written
+	 */
+	public void submit(int id, String test, Object... args) throws IOException{
+
+		Protocol.writeFrame(out, Protocol.encodeRequest(id, test, args));
+
+	}//end-method
+
+	/**
+	 * Sends the requests submitted
+	 *
+	 * @throws IOException if the requests cannot be written
+	 */
+	public void flush() throws IOException{
+
+		out.flush();
+
+	}//end-method
+
+	/**
+	 * Receives the next response
+	 *
+	 * @return response read, or null if the server has closed the connection
+	 * @throws IOException if the response cannot be read
+	 */
+	public Protocol.Response receive() throws IOException{
+
+		byte frame [];
+
+		out.flush();
+
+		frame=Protocol.readFrame(in);
+
+		return (frame==null) ? null : Protocol.decodeResponse(frame);
+
+	}//end-method
+
+	/**
+	 * Performs a single test
+	 *
+	 * @param test name of the test class, full or relative to javanpst.tests
+	 * @param args arguments of its run method
+	 * @return results of the test
+	 * @throws IOException if the test cannot be performed
+	 */
+	public double [] run(String test, Object... args) throws IOException{
+
+		Protocol.Response response;
+
+		submit(0, test, args);
+		response=receive();
+
+		if(response==null){
+			throw new IOException("Connection closed by the server");
+		}
+		if(response.error!=null){
+			throw new IOException(response.error);
+		}
+
+		return response.results;
+
+	}//end-method
+
+	/**
+	 * Closes the connection
+	 */
+	public void close(){
+
+		try{
+			out.flush();
+			socket.close();
+		}catch(IOException e){
+			System.out.println("Error closing the connection: "+e.getMessage());
+		}
+
+	}//end-method
+
+}//end-class
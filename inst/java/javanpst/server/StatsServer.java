@@ -0,0 +1,648 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javanpst.tests.StatisticalTest;
+
+/**
+ * A long-lived server of statistical tests.
+ *
+ * The server listens on a TCP port of the loopback interface, so only
+ * local clients can reach it. Each client sends a batch of requests, framed
+ * as described in Protocol, and receives a response per request. Requests
+ * are performed by a pool of workers through the static run methods of the
+ * tests, and each response is written as soon as its test ends, so the
+ * responses of a batch may arrive in any order.
+ *
+ * Since the JVM is kept alive between clients, the tests run JIT-compiled
+ * code and reuse any table already computed by the distributions.
+ *
+ * The server can be launched with
+ * java javanpst.server.StatsServer [port] [workers]
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class StatsServer implements AutoCloseable{
+
+	/**
+	 * Default port of the server
+	 */
+	public static final int DEFAULT_PORT = 7397;
+
+	/**
+	 * Package of the tests, used when the class name is relative
+	 */
+	private static final String TESTS_PACKAGE = "javanpst.tests.";
+
+	/**
+	 * Socket of the server
+	 */
+	private ServerSocket server;
+
+	/**
+	 * Pool of workers
+	 */
+	private ExecutorService workers;
+
+	/**
+	 * Number of workers
+	 */
+	private int threads;
+
+	/**
+	 * Thread accepting connections
+	 */
+	private Thread acceptor;
+
+	/**
+	 * Connections open
+	 */
+	private ArrayList<Socket> connections;
+
+	/**
+	 * Run methods of the tests already requested
+	 */
+	private ConcurrentHashMap<String, Method []> methods;
+
+	/**
+	 * State of the server
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Builder. Opens the socket of the server on the loopback interface
+	 *
+	 * @param port port of the server (0 to take any free port)
+	 * @param threads number of workers
+	 * @throws IOException if the port cannot be opened
+	 */
+	public StatsServer(int port, int threads) throws IOException{
+
+		this.threads=Math.max(1, threads);
+
+		server=new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		connections=new ArrayList<Socket>();
+		methods=new ConcurrentHashMap<String, Method []>();
+		running=false;
+
+	}//end-method
+
+	/**
+	 * Get the port of the server
+	 *
+	 * @return port of the server
+	 */
+	public int getPort(){
+
+		return server.getLocalPort();
+
+	}//end-method
+
+	/**
+	 * Checks if the server is accepting connections
+	 *
+	 * @return true if it is running
+	 */
+	public boolean isRunning(){
+
+		return running;
+
+	}//end-method
+
+	/**
+	 * Starts the workers and the thread accepting connections
+	 */
+	public synchronized void start(){
+
+		if(running){
+			return;
+		}
+
+		workers=Executors.newFixedThreadPool(threads, daemonThreads("javanpst-worker"));
+		running=true;
+
+		acceptor=daemonThreads("javanpst-server").newThread(new Runnable(){
+			public void run(){
+				acceptConnections();
+			}
+		});
+		acceptor.start();
+
+	}//end-method
+
+	/**
+	 * Accepts connections until the server is closed
+	 */
+	private void acceptConnections(){
+
+		ThreadFactory factory=daemonThreads("javanpst-connection");
+
+		while(running){
+			try{
+				final Socket socket=server.accept();
+				synchronized(connections){
+					connections.add(socket);
+				}
+				factory.newThread(new Runnable(){
+					public void run(){
+						serve(socket);
+					}
+				}).start();
+			}catch(IOException e){
+				if(running){
+					System.out.println("Error accepting a connection: "+e.getMessage());
+				}
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Serves the requests of a connection. Requests are read and passed to
+	 * the workers until the client closes its side, then the connection is
+	 * closed after the last response is written.
+	 *
+	 * Reading is never blocked by the workers, so a client can send a whole
+	 * batch before reading its responses without deadlocking the connection
+	 *
+	 * @param socket socket of the connection
+	 */
+	private void serve(Socket socket){
+
+		final DataOutputStream out;
+		DataInputStream in;
+		final AtomicInteger pending;
+		byte frame [];
+
+		pending=new AtomicInteger();
+
+		try{
+			socket.setTcpNoDelay(true);
+			in=new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1<<16));
+			out=new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1<<16));
+
+			while(true){
+
+				final Protocol.Request request;
+
+				//a request which cannot be read is answered with an error before closing
+				frame=null;
+				try{
+					frame=Protocol.readFrame(in);
+					if(frame==null){
+						break;
+					}
+					request=Protocol.decodeRequest(frame);
+				}catch(SocketException e){
+					throw e;
+				}catch(IOException e){
+					reject(out, frame, e.getMessage());
+					break;
+				}catch(RuntimeException e){
+					reject(out, frame, e.toString());
+					break;
+				}catch(OutOfMemoryError e){
+					reject(out, null, e.toString());
+					break;
+				}
+
+				pending.incrementAndGet();
+
+				try{
+					workers.execute(new Runnable(){
+						public void run(){
+							try{
+								respond(out, answer(request));
+							}finally{
+								finished(pending);
+							}
+						}
+					});
+				}catch(RejectedExecutionException e){
+					finished(pending);
+					break;
+				}
+			}
+
+			//waits for the pending responses
+			synchronized(pending){
+				while(pending.get()>0){
+					pending.wait();
+				}
+			}
+
+		}catch(InterruptedException e){
+			//server closed
+		}catch(SocketException e){
+			//connection closed by the client
+		}catch(IOException e){
+			System.out.println("Error in connection: "+e.getMessage());
+		}finally{
+			try{
+				socket.close();
+			}catch(IOException e){
+				//already closed
+			}
+			synchronized(connections){
+				connections.remove(socket);
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Answers a request which could not be read. The identifier is taken
+	 * from the frame when possible (-1 otherwise)
+	 *
+	 * @param out output stream of the connection
+	 * @param frame contents of the frame (null if it could not be read)
+	 * @param message error message
+	 */
+	private static void reject(DataOutputStream out, byte frame[], String message){
+
+		int id=-1;
+
+		if((frame!=null)&&(frame.length>=4)){
+			id=((frame[0]&0xFF)<<24)|((frame[1]&0xFF)<<16)|((frame[2]&0xFF)<<8)|(frame[3]&0xFF);
+		}
+
+		System.out.println("Wrong request: "+message);
+		respond(out, Protocol.encodeError(id, "Wrong request: "+message));
+
+	}//end-method
+
+	/**
+	 * Counts a request as finished, waking up the connection if it was the last one
+	 *
+	 * @param pending number of requests pending
+	 */
+	private static void finished(AtomicInteger pending){
+
+		if(pending.decrementAndGet()==0){
+			synchronized(pending){
+				pending.notifyAll();
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Performs a request and encodes its response
+	 *
+	 * @param request request to perform
+	 * @return contents of the response frame
+	 */
+	private byte [] answer(Protocol.Request request){
+
+		try{
+			return Protocol.encodeResults(request.id, execute(request.test, request.args));
+		}catch(IllegalArgumentException e){
+			return Protocol.encodeError(request.id, e.getMessage());
+		}catch(RuntimeException e){
+			return Protocol.encodeError(request.id, e.toString());
+		}catch(Error e){
+			return Protocol.encodeError(request.id, e.toString());
+		}
+
+	}//end-method
+
+	/**
+	 * Writes a response. Writes from several workers are serialized
+	 *
+	 * @param out output stream of the connection
+	 * @param frame contents of the frame
+	 */
+	private static void respond(DataOutputStream out, byte frame[]){
+
+		synchronized(out){
+			try{
+				Protocol.writeFrame(out, frame);
+				out.flush();
+			}catch(IOException e){
+				//the client has gone, the response is discarded
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Performs a test through its static run method
+	 *
+	 * @param test name of the test class, full or relative to javanpst.tests
+	 * @param args arguments (double[], int[], double[][] or String[]). Scalar
+	 * parameters are taken from vectors of length one
+	 * @return results of the test
+	 * @throws IllegalArgumentException if the test or a matching run method is not found
+	 */
+	public double [] execute(String test, Object args[]){
+
+		Method candidates [];
+		Object actual [];
+		Throwable cause;
+
+		candidates=methods.get(test);
+		if(candidates==null){
+			candidates=findRunMethods(test);
+			methods.putIfAbsent(test, candidates);
+		}
+
+		for(Method method : candidates){
+
+			actual=coerce(args, method.getParameterTypes());
+			if(actual==null){
+				continue;
+			}
+
+			try{
+				return (double [])method.invoke(null, actual);
+			}catch(IllegalAccessException e){
+				throw new IllegalArgumentException("Cannot access "+method);
+			}catch(InvocationTargetException e){
+				cause=e.getCause();
+				if(cause instanceof RuntimeException){
+					throw (RuntimeException)cause;
+				}
+				if(cause instanceof Error){
+					throw (Error)cause;
+				}
+				throw new IllegalArgumentException(cause.toString());
+			}
+		}
+
+		throw new IllegalArgumentException("No run method of "+test+" matches the arguments");
+
+	}//end-method
+
+	/**
+	 * Finds the run methods of a test
+	 *
+	 * @param test name of the test class
+	 * @return static run methods of the class
+	 * @throws IllegalArgumentException if the class is not a test
+	 */
+	private static Method [] findRunMethods(String test){
+
+		String name;
+		Class<?> type;
+		ArrayList<Method> found;
+
+		name=test.startsWith("javanpst.") ? test : TESTS_PACKAGE+test;
+
+		try{
+			type=Class.forName(name, false, StatsServer.class.getClassLoader());
+		}catch(ClassNotFoundException e){
+			throw new IllegalArgumentException("Test not found: "+test);
+		}
+
+		if(!StatisticalTest.class.isAssignableFrom(type)){
+			throw new IllegalArgumentException(test+" is not a statistical test");
+		}
+
+		found=new ArrayList<Method>();
+		for(Method method : type.getMethods()){
+			if(method.getName().equals("run")&&Modifier.isStatic(method.getModifiers())
+					&&(method.getReturnType()==double[].class)){
+				found.add(method);
+			}
+		}
+
+		return found.toArray(new Method [found.size()]);
+
+	}//end-method
+
+	/**
+	 * Converts the arguments of a request to the parameters of a method
+	 *
+	 * @param args arguments of the request
+	 * @param types types of the parameters
+	 * @return arguments converted, or null if they do not match
+	 */
+	private static Object [] coerce(Object args[], Class<?> types[]){
+
+		Object actual [];
+
+		if(args.length!=types.length){
+			return null;
+		}
+
+		actual=new Object [args.length];
+
+		for(int i=0;i<args.length;i++){
+			actual[i]=coerce(args[i], types[i]);
+			if(actual[i]==null){
+				return null;
+			}
+		}
+
+		return actual;
+
+	}//end-method
+
+	/**
+	 * Converts an argument to the type of a parameter
+	 *
+	 * @param arg argument of the request
+	 * @param type type of the parameter
+	 * @return argument converted, or null if it does not match
+	 */
+	private static Object coerce(Object arg, Class<?> type){
+
+		double values [];
+
+		if(type.isInstance(arg)){
+			return arg;
+		}
+
+		//integer vectors are taken as numeric ones
+		if(arg instanceof int[]){
+			int ints []=(int [])arg;
+			values=new double [ints.length];
+			for(int i=0;i<ints.length;i++){
+				values[i]=ints[i];
+			}
+		}
+		else if(arg instanceof double[]){
+			values=(double [])arg;
+		}
+		else{
+			return null;
+		}
+
+		if(type==double[].class){
+			return values;
+		}
+
+		if(type==int[].class){
+			int ints []=new int [values.length];
+			for(int i=0;i<values.length;i++){
+				if(values[i]!=(int)values[i]){
+					return null;
+				}
+				ints[i]=(int)values[i];
+			}
+			return ints;
+		}
+
+		if(values.length!=1){
+			return null;
+		}
+
+		if(type==double.class){
+			return Double.valueOf(values[0]);
+		}
+		if((type==int.class)&&(values[0]==(int)values[0])){
+			return Integer.valueOf((int)values[0]);
+		}
+		if((type==long.class)&&(values[0]==(long)values[0])){
+			return Long.valueOf((long)values[0]);
+		}
+		if(type==boolean.class){
+			return Boolean.valueOf(values[0]!=0.0);
+		}
+
+		return null;
+
+	}//end-method
+
+	/**
+	 * Creates daemon threads, so the server does not keep alive a JVM
+	 * which has ended its work
+	 *
+	 * @param prefix prefix of the names of the threads
+	 * @return factory of threads
+	 */
+	private static ThreadFactory daemonThreads(final String prefix){
+
+		final AtomicInteger counter=new AtomicInteger();
+
+		return new ThreadFactory(){
+			public Thread newThread(Runnable task){
+				Thread thread=new Thread(task, prefix+"-"+counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+
+	}//end-method
+
+	/**
+	 * Stops the server, closing its socket and all the connections open
+	 */
+	public synchronized void close(){
+
+		running=false;
+
+		try{
+			server.close();
+		}catch(IOException e){
+			System.out.println("Error closing the server: "+e.getMessage());
+		}
+
+		synchronized(connections){
+			for(Socket socket : connections){
+				try{
+					socket.close();
+				}catch(IOException e){
+					//already closed
+				}
+			}
+			connections.clear();
+		}
+
+		if(workers!=null){
+			workers.shutdownNow();
+		}
+
+	}//end-method
+
+	/**
+	 * Launches a server, which runs until the JVM is stopped
+	 *
+	 * @param args port (optional) and number of workers (optional)
+	 */
+	public static void main(String args[]){
+
+		int port,threads;
+		StatsServer server;
+
+		port=DEFAULT_PORT;
+		threads=Runtime.getRuntime().availableProcessors();
+
+		try{
+			if(args.length>0){
+				port=Integer.parseInt(args[0]);
+			}
+			if(args.length>1){
+				threads=Integer.parseInt(args[1]);
+			}
+		}catch(NumberFormatException e){
+			System.out.println("Usage: java javanpst.server.StatsServer [port] [workers]");
+			return;
+		}
+
+		try{
+			server=new StatsServer(port, threads);
+		}catch(IOException e){
+			System.out.println("Error opening port "+port+": "+e.getMessage());
+			return;
+		}
+
+		server.start();
+		System.out.println("javanpst server listening on "+InetAddress.getLoopbackAddress().getHostAddress()+":"+server.getPort()+" with "+server.threads+" workers");
+
+		//the threads of the server are daemons, so main keeps the JVM alive
+		try{
+			server.acceptor.join();
+		}catch(InterruptedException e){
+			server.close();
+		}
+
+	}//end-method
+
+}//end-class
@@ -0,0 +1,202 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A listener which commits Java Flight Recorder events.
+ * 
+ * Each execution of a test is committed as a javanpst.TestExecution event,
+ * followed by a javanpst.TestPhase event for each of its phases. Each table
+ * load is committed as a javanpst.TableLoad event. The events are only
+ * filled when they are enabled in the running recording.
+ * 
+ * This class needs the jdk.jfr module (OpenJDK 8u262 and later). It should
+ * not be referenced directly: Instrumentation.addFlightRecorderListener
+ * loads it by name only if Flight Recorder is available, so the library
+ * still runs on JVMs without it.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class FlightRecorderListener implements TestListener{
+	
+	/**
+	 * Event of an execution of a test
+	 */
+	@Name("javanpst.TestExecution")
+	@Label("Test Execution")
+	@Category("JavaNPST")
+	@Description("Execution of a statistical test")
+	static class ExecutionEvent extends Event{
+		
+		@Label("Test")
+		String test;
+		
+		@Label("Operation")
+		String operation;
+		
+		@Label("Size")
+		int size;
+		
+		@Label("Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+		
+		@Label("Allocated")
+		@DataAmount
+		long bytes;
+		
+	}//end-class
+	
+	/**
+	 * Event of a phase of an execution of a test
+	 */
+	@Name("javanpst.TestPhase")
+	@Label("Test Phase")
+	@Category("JavaNPST")
+	@Description("Phase of an execution of a statistical test")
+	static class PhaseEvent extends Event{
+		
+		@Label("Test")
+		String test;
+		
+		@Label("Operation")
+		String operation;
+		
+		@Label("Phase")
+		String phase;
+		
+		@Label("Size")
+		int size;
+		
+		@Label("Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+		
+		@Label("Allocated")
+		@DataAmount
+		long bytes;
+		
+	}//end-class
+	
+	/**
+	 * Event of a table loaded or computed
+	 */
+	@Name("javanpst.TableLoad")
+	@Label("Table Load")
+	@Category("JavaNPST")
+	@Description("Table loaded from disk or computed")
+	static class TableEvent extends Event{
+		
+		@Label("Table")
+		String table;
+		
+		@Label("Entries")
+		int entries;
+		
+		@Label("Source")
+		String source;
+		
+		@Label("Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+		
+		@Label("Allocated")
+		@DataAmount
+		long bytes;
+		
+	}//end-class
+	
+	/**
+	 * Commits the events of an execution
+	 * 
+	 * @param execution metrics of the execution
+	 */
+	public void testExecuted(TestExecution execution){
+		
+		ExecutionEvent event=new ExecutionEvent();
+		PhaseEvent phase;
+		
+		if(event.isEnabled()){
+			event.test=execution.getTestName();
+			event.operation=execution.getOperation();
+			event.size=execution.getSize();
+			event.nanos=execution.getNanos();
+			event.bytes=execution.getAllocatedBytes();
+			event.commit();
+		}
+		
+		for(int i=0;i<execution.getPhases();i++){
+			phase=new PhaseEvent();
+			if(!phase.isEnabled()){
+				return;
+			}
+			phase.test=execution.getTestName();
+			phase.operation=execution.getOperation();
+			phase.phase=execution.getPhaseName(i);
+			phase.size=execution.getSize();
+			phase.nanos=execution.getPhaseNanos(i);
+			phase.bytes=execution.getPhaseBytes(i);
+			phase.commit();
+		}
+		
+	}//end-method
+	
+	/**
+	 * Commits the event of a table
+	 * 
+	 * @param table name of the table
+	 * @param entries number of entries of the table
+	 * @param source origin of the table ("disk" or "computed")
+	 * @param nanos time spent (ns)
+	 * @param bytes bytes allocated (-1 if not measured)
+	 */
+	public void tableLoaded(String table, int entries, String source, long nanos, long bytes){
+		
+		TableEvent event=new TableEvent();
+		
+		if(event.isEnabled()){
+			event.table=table;
+			event.entries=entries;
+			event.source=source;
+			event.nanos=nanos;
+			event.bytes=bytes;
+			event.commit();
+		}
+		
+	}//end-method
+	
+}//end-class
@@ -0,0 +1,272 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Registry of the listeners of the statistical tests.
+ * 
+ * Instrumentation is enabled while there is at least a listener registered.
+ * When it is disabled, an instrumented test only checks a flag at the start
+ * of each execution, so it can be left in the code without a measurable
+ * cost.
+ * 
+ * Every test records its doTest executions. SignTest, WilcoxonTest,
+ * FriedmanTest, KruskalWallisTest, QuadeTest, FriedmanAlignedRanksTest and
+ * ImanDavenportTest also record printReport, and split their executions
+ * into phases.
+ * 
+ * Java Flight Recorder events can be committed by registering the listener
+ * returned by addFlightRecorderListener, on JVMs which include Flight
+ * Recorder.
+ * 
+ * Allocated bytes are measured with the thread allocation counter of the
+ * HotSpot JVM, which is only enabled once a listener is registered. In
+ * other JVMs, they are reported as -1.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class Instrumentation{
+	
+	/**
+	 * Listeners registered (copied on each change)
+	 */
+	private static volatile TestListener listeners [] = new TestListener [0];
+	
+	/**
+	 * Flag of instrumentation enabled
+	 */
+	private static volatile boolean enabled = false;
+	
+	/**
+	 * Not instantiable
+	 */
+	private Instrumentation(){
+		
+	}//end-method
+	
+	/**
+	 * Holder of the thread allocation counter, so it is only looked up
+	 * (and enabled) once a listener is registered or the allocated bytes
+	 * are requested
+	 */
+	private static final class Allocation{
+		
+		/**
+		 * Thread allocation counter (null if not supported)
+		 */
+		static final com.sun.management.ThreadMXBean BEAN = allocationBean();
+		
+	}//end-class
+	
+	/**
+	 * Registers a listener
+	 * 
+	 * @param listener listener to add
+	 */
+	public static synchronized void addListener(TestListener listener){
+		
+		TestListener newListeners [];
+		
+		if(listener==null){
+			return;
+		}
+		
+		//looks up the allocation counter before the first execution is measured
+		allocatedBytes();
+		
+		newListeners=new TestListener [listeners.length+1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length]=listener;
+		
+		listeners=newListeners;
+		enabled=true;
+		
+	}//end-method
+	
+	/**
+	 * Registers a listener which commits Java Flight Recorder events for
+	 * each execution and each table loaded. The listener is loaded by name,
+	 * so nothing is done in JVMs without Flight Recorder
+	 * 
+	 * @return listener registered (null if Flight Recorder is not available)
+	 */
+	public static TestListener addFlightRecorderListener(){
+		
+		TestListener listener;
+		
+		try{
+			Class.forName("jdk.jfr.Event");
+			listener=(TestListener)Class.forName("javanpst.tests.FlightRecorderListener").newInstance();
+		}catch(ReflectiveOperationException | LinkageError e){
+			return null;
+		}
+		
+		addListener(listener);
+		
+		return listener;
+		
+	}//end-method
+	
+	/**
+	 * Removes a listener
+	 * 
+	 * @param listener listener to remove
+	 */
+	public static synchronized void removeListener(TestListener listener){
+		
+		TestListener newListeners [];
+		int pointer;
+		
+		for(int i=0;i<listeners.length;i++){
+			if(listeners[i]==listener){
+				newListeners=new TestListener [listeners.length-1];
+				pointer=0;
+				for(int j=0;j<listeners.length;j++){
+					if(j!=i){
+						newListeners[pointer++]=listeners[j];
+					}
+				}
+				listeners=newListeners;
+				enabled=newListeners.length>0;
+				return;
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Removes all the listeners
+	 */
+	public static synchronized void clearListeners(){
+		
+		listeners=new TestListener [0];
+		enabled=false;
+		
+	}//end-method
+	
+	/**
+	 * Checks if instrumentation is enabled
+	 * 
+	 * @return true if there is any listener registered
+	 */
+	public static boolean isEnabled(){
+		
+		return enabled;
+		
+	}//end-method
+	
+	/**
+	 * Notifies the end of an execution to the listeners
+	 * 
+	 * @param execution execution finished
+	 */
+	static void testExecuted(TestExecution execution){
+		
+		for(TestListener listener : listeners){
+			try{
+				listener.testExecuted(execution);
+			}catch(RuntimeException e){
+				System.out.println("Error in test listener: "+e);
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Notifies the load of a table to the listeners
+	 * 
+	 * @param table name of the table
+	 * @param entries number of entries of the table
+	 * @param source origin of the table ("disk" or "computed")
+	 * @param nanos time spent (ns)
+	 * @param bytes bytes allocated (-1 if not measured)
+	 */
+	public static void tableLoaded(String table, int entries, String source, long nanos, long bytes){
+		
+		for(TestListener listener : listeners){
+			try{
+				listener.tableLoaded(table, entries, source, nanos, bytes);
+			}catch(RuntimeException e){
+				System.out.println("Error in test listener: "+e);
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Get the bytes allocated by the current thread
+	 * 
+	 * @return bytes allocated since the thread started (-1 if not supported)
+	 */
+	public static long allocatedBytes(){
+		
+		if(Allocation.BEAN==null){
+			return -1;
+		}
+		
+		return Allocation.BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+		
+	}//end-method
+	
+	/**
+	 * Get the thread allocation counter of the JVM, enabling it if needed
+	 * 
+	 * @return allocation counter (null if not supported)
+	 */
+	private static com.sun.management.ThreadMXBean allocationBean(){
+		
+		ThreadMXBean bean;
+		com.sun.management.ThreadMXBean sunBean;
+		
+		try{
+			bean=ManagementFactory.getThreadMXBean();
+		}catch(LinkageError e){
+			return null;
+		}
+		
+		if(!(bean instanceof com.sun.management.ThreadMXBean)){
+			return null;
+		}
+		
+		sunBean=(com.sun.management.ThreadMXBean)bean;
+		if(!sunBean.isThreadAllocatedMemorySupported()){
+			return null;
+		}
+		if(!sunBean.isThreadAllocatedMemoryEnabled()){
+			sunBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		
+		return sunBean;
+		
+	}//end-method
+	
+}//end-class
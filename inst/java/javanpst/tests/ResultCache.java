@@ -0,0 +1,1014 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.data.structures.sequence.NumericSequence;
+
+/**
+ * A cache of the results of the statistical tests.
+ * 
+ * Results are stored by a 128 bits hash of the name of the test and of its
+ * arguments (data and parameters), computed over their primitive values
+ * (MurmurHash3 x64 mixing), so the inputs are not copied nor kept by the
+ * cache. Data tables are hashed through their column views and null
+ * bitmaps.
+ * 
+ * The cache is bounded both by number of entries and by weight (an
+ * estimation of the bytes held by each entry). When any bound is exceeded,
+ * the least recently used entries are evicted. Hits, misses and evictions
+ * are counted. The contents can be saved to a file and loaded in a later
+ * session.
+ * 
+ * Results are computed out of the lock of the cache, so two threads asking
+ * for the same missing result may both compute it. Vectors are copied in
+ * and out, so callers may modify them.
+ * 
+ * Tests which draw random samples (e.g. the bayesian tests) return the same
+ * vector each time they are found in the cache.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class ResultCache{
+	
+	/**
+	 * A computation of the results of a test
+	 */
+	public interface Computation{
+		
+		/**
+		 * Computes the results
+		 * 
+		 * @return results of the test
+		 */
+		double [] compute();
+		
+	}//end-interface
+	
+	/**
+	 * Key of the cache: a 128 bits hash
+	 */
+	public static final class Key{
+		
+		/**
+		 * High and low halves of the hash
+		 */
+		private final long high,low;
+		
+		/**
+		 * Builder
+		 * 
+		 * @param high high half of the hash
+		 * @param low low half of the hash
+		 */
+		public Key(long high, long low){
+			
+			this.high=high;
+			this.low=low;
+			
+		}//end-method
+		
+		/**
+		 * Get the high half of the hash
+		 * 
+		 * @return high half
+		 */
+		public long getHigh(){
+			
+			return high;
+			
+		}//end-method
+		
+		/**
+		 * Get the low half of the hash
+		 * 
+		 * @return low half
+		 */
+		public long getLow(){
+			
+			return low;
+			
+		}//end-method
+		
+		/**
+		 * Equals method
+		 * 
+		 * @param other object to compare
+		 * @return true if both keys have the same hash
+		 */
+		public boolean equals(Object other){
+			
+			Key key;
+			
+			if(!(other instanceof Key)){
+				return false;
+			}
+			
+			key=(Key)other;
+			
+			return (high==key.high)&&(low==key.low);
+			
+		}//end-method
+		
+		/**
+		 * Hash code method
+		 * 
+		 * @return hash code of the key
+		 */
+		public int hashCode(){
+			
+			return (int)(low^(low>>>32));
+			
+		}//end-method
+		
+		/**
+		 * To String method.
+		 * 
+		 * @return the hash, in hexadecimal
+		 */
+		public String toString(){
+			
+			return String.format("%016x%016x", high, low);
+			
+		}//end-method
+		
+	}//end-class
+	
+	/**
+	 * Default maximum number of entries
+	 */
+	public static final int DEFAULT_ENTRIES = 4096;
+	
+	/**
+	 * Default maximum weight (bytes)
+	 */
+	public static final long DEFAULT_WEIGHT = 16L<<20;
+	
+	/**
+	 * Estimated bytes held by an entry, besides its values
+	 */
+	private static final long ENTRY_OVERHEAD = 96;
+	
+	/**
+	 * Magic number of the cache files ("JRC1")
+	 */
+	private static final int MAGIC = 0x4A524331;
+	
+	/**
+	 * Version of the results and of the file format. It must be increased
+	 * whenever a test changes its results or the file layout changes, so
+	 * stale files and keys are discarded
+	 */
+	private static final int VERSION = 2;
+	
+	/**
+	 * Constants of the hash
+	 */
+	private static final long C1 = 0x87c37b91114253d5L, C2 = 0x4cf5ad432745937fL;
+	
+	/**
+	 * Shared cache of the run methods
+	 */
+	private static ResultCache defaultCache;
+	
+	/**
+	 * Run methods of the tests, by name of the class
+	 */
+	private static final Map<String, Method []> RUN_METHODS = new HashMap<String, Method []>();
+	
+	/**
+	 * Entries, in access order
+	 */
+	private LinkedHashMap<Key, double []> entries;
+	
+	/**
+	 * Maximum number of entries
+	 */
+	private int maxEntries;
+	
+	/**
+	 * Maximum weight
+	 */
+	private long maxWeight;
+	
+	/**
+	 * Current weight
+	 */
+	private long weight;
+	
+	/**
+	 * Statistics
+	 */
+	private long hits,misses,evictions;
+	
+	/**
+	 * Default builder
+	 */
+	public ResultCache(){
+		
+		this(DEFAULT_ENTRIES, DEFAULT_WEIGHT);
+		
+	}//end-method
+	
+	/**
+	 * Builder
+	 * 
+	 * @param maxEntries maximum number of entries
+	 * @param maxWeight maximum weight (bytes)
+	 */
+	public ResultCache(int maxEntries, long maxWeight){
+		
+		entries=new LinkedHashMap<Key, double []>(16, 0.75f, true);
+		this.maxEntries=Math.max(maxEntries, 1);
+		this.maxWeight=Math.max(maxWeight, 1);
+		weight=0;
+		hits=0;
+		misses=0;
+		evictions=0;
+		
+	}//end-method
+	
+	/**
+	 * Get the shared cache, used by the run method
+	 * 
+	 * @return shared cache
+	 */
+	public static synchronized ResultCache getDefault(){
+		
+		if(defaultCache==null){
+			defaultCache=new ResultCache();
+		}
+		
+		return defaultCache;
+		
+	}//end-method
+	
+	/**
+	 * Get the results of a test, computing them if they are not in the cache
+	 * 
+	 * @param test name of the test
+	 * @param arguments data and parameters of the test
+	 * @param computation computation of the results
+	 * @return results of the test
+	 */
+	public double [] results(String test, Object arguments[], Computation computation){
+		
+		Key key=key(test, arguments);
+		double values [];
+		
+		if(key==null){
+			return computation.compute();
+		}
+		
+		values=get(key);
+		if(values!=null){
+			return values;
+		}
+		
+		values=computation.compute();
+		if(values!=null){
+			put(key, values);
+		}
+		
+		return values;
+		
+	}//end-method
+	
+	/**
+	 * Get the results stored with a key
+	 * 
+	 * @param key key of the results
+	 * @return a copy of the results (null if they are not in the cache)
+	 */
+	public synchronized double [] get(Key key){
+		
+		double values []=entries.get(key);
+		
+		if(values==null){
+			misses++;
+			return null;
+		}
+		
+		hits++;
+		
+		return values.clone();
+		
+	}//end-method
+	
+	/**
+	 * Stores the results of a key, evicting the least recently used
+	 * entries if needed
+	 * 
+	 * @param key key of the results
+	 * @param values results to store
+	 */
+	public synchronized void put(Key key, double values[]){
+		
+		double old [];
+		
+		old=entries.put(key, values.clone());
+		if(old!=null){
+			weight-=weight(old);
+		}
+		weight+=weight(values);
+		
+		evict();
+		
+	}//end-method
+	
+	/**
+	 * Evicts the least recently used entries until the bounds are met
+	 */
+	private void evict(){
+		
+		Iterator<double []> iterator=entries.values().iterator();
+		double values [];
+		
+		while(((entries.size()>maxEntries)||(weight>maxWeight))&&iterator.hasNext()){
+			values=iterator.next();
+			iterator.remove();
+			weight-=weight(values);
+			evictions++;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Estimates the weight of an entry
+	 * 
+	 * @param values results of the entry
+	 * @return weight (bytes)
+	 */
+	private static long weight(double values[]){
+		
+		return ENTRY_OVERHEAD+8L*values.length;
+		
+	}//end-method
+	
+	/**
+	 * Removes all the entries. Statistics are kept
+	 */
+	public synchronized void clear(){
+		
+		entries.clear();
+		weight=0;
+		
+	}//end-method
+	
+	/**
+	 * Resets the statistics
+	 */
+	public synchronized void resetStatistics(){
+		
+		hits=0;
+		misses=0;
+		evictions=0;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of hits
+	 * 
+	 * @return number of hits
+	 */
+	public synchronized long getHits(){
+		
+		return hits;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of misses
+	 * 
+	 * @return number of misses
+	 */
+	public synchronized long getMisses(){
+		
+		return misses;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of entries evicted
+	 * 
+	 * @return number of evictions
+	 */
+	public synchronized long getEvictions(){
+		
+		return evictions;
+		
+	}//end-method
+	
+	/**
+	 * Get the rate of hits
+	 * 
+	 * @return hits over the total of requests (0 if there were no requests)
+	 */
+	public synchronized double getHitRate(){
+		
+		return (hits+misses==0) ? 0.0 : (double)hits/(hits+misses);
+		
+	}//end-method
+	
+	/**
+	 * Get the number of entries
+	 * 
+	 * @return number of entries
+	 */
+	public synchronized int size(){
+		
+		return entries.size();
+		
+	}//end-method
+	
+	/**
+	 * Get the weight of the entries
+	 * 
+	 * @return weight (bytes)
+	 */
+	public synchronized long getWeight(){
+		
+		return weight;
+		
+	}//end-method
+	
+	/**
+	 * Prints a report with the state of the cache
+	 * 
+	 * @return report of the cache
+	 */
+	public synchronized String printReport(){
+		
+		StringBuilder report=new StringBuilder();
+		
+		report.append("Entries: ").append(entries.size()).append(" of ").append(maxEntries).append("\n");
+		report.append("Weight: ").append(weight).append(" of ").append(maxWeight).append(" bytes\n");
+		report.append("Hits: ").append(hits).append("\n");
+		report.append("Misses: ").append(misses).append("\n");
+		report.append("Evictions: ").append(evictions).append("\n");
+		report.append("Hit rate: ").append(getHitRate()).append("\n");
+		
+		return report.toString();
+		
+	}//end-method
+	
+	/**
+	 * Saves the entries in a file, from the least to the most recently used
+	 * 
+	 * @param file path of the file
+	 * @return true if the file was written correctly. False, otherwise
+	 */
+	public synchronized boolean save(String file){
+		
+		File temp=new File(file+".tmp");
+		
+		try{
+			try(DataOutputStream output=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1<<16))){
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeInt(entries.size());
+				for(Map.Entry<Key, double []> entry : entries.entrySet()){
+					output.writeLong(entry.getKey().high);
+					output.writeLong(entry.getKey().low);
+					output.writeInt(entry.getValue().length);
+					for(double value : entry.getValue()){
+						output.writeDouble(value);
+					}
+				}
+			}
+			Files.move(temp.toPath(), new File(file).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}catch(IOException e){
+			System.out.println("Error writing "+file+": "+e.getMessage());
+			temp.delete();
+			return false;
+		}
+		
+		return true;
+		
+	}//end-method
+	
+	/**
+	 * Loads the entries of a file, adding them to the cache
+	 * 
+	 * @param file path of the file
+	 * @return number of entries loaded (-1 if the file could not be read)
+	 */
+	public synchronized int load(String file){
+		
+		Key key;
+		double values [];
+		int count;
+		int length;
+		
+		try(DataInputStream input=new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1<<16))){
+			
+			if(input.readInt()!=MAGIC){
+				System.out.println("Error reading "+file+". It is not a results cache file.");
+				return -1;
+			}
+			
+			if(input.readInt()!=VERSION){
+				System.out.println("Error reading "+file+". It was written by another version of the library.");
+				return -1;
+			}
+			
+			count=input.readInt();
+			if(count<0){
+				System.out.println("Error reading "+file+". Wrong number of entries: "+count);
+				return -1;
+			}
+			
+			for(int i=0;i<count;i++){
+				key=new Key(input.readLong(), input.readLong());
+				length=input.readInt();
+				if((length<0)||(length>maxWeight/8)){
+					System.out.println("Error reading "+file+". Wrong length of entry "+i+": "+length);
+					return -1;
+				}
+				values=new double [length];
+				for(int j=0;j<values.length;j++){
+					values[j]=input.readDouble();
+				}
+				put(key, values);
+			}
+			
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			return -1;
+		}
+		
+		return count;
+		
+	}//end-method
+	
+	/**
+	 * Computes the key of a test and its arguments
+	 * 
+	 * @param test name of the test
+	 * @param arguments data and parameters of the test
+	 * @return key of the test (null if an argument cannot be hashed)
+	 */
+	public static Key key(String test, Object arguments[]){
+		
+		Hasher hasher=new Hasher();
+		
+		hasher.add(VERSION);
+		hasher.add(test);
+		
+		for(Object argument : arguments){
+			if(!hasher.addArgument(argument)){
+				return null;
+			}
+		}
+		
+		return hasher.finish();
+		
+	}//end-method
+	
+	/**
+	 * Runs a test through the static run method of its class, using the
+	 * shared cache. Parameters of primitive types are converted from
+	 * any Number.
+	 * 
+	 * @param className name of the class of the test
+	 * @param arguments arguments of the run method
+	 * @return results of the test (null if the method cannot be called)
+	 * @throws RuntimeException if the test fails. Unchecked exceptions and
+	 * errors of the test are thrown as they are
+	 */
+	public static double [] run(String className, Object... arguments){
+		
+		final Method method=findRun(className, arguments);
+		final Object converted [];
+		
+		if(method==null){
+			System.out.println("No run method of "+className+" takes the arguments given");
+			return null;
+		}
+		
+		converted=convert(method.getParameterTypes(), arguments);
+		
+		return getDefault().results(className, converted, () -> {
+			try{
+				return (double [])method.invoke(null, converted);
+			}catch(IllegalAccessException e){
+				System.out.println("Error calling "+className+".run: "+e.getMessage());
+			}catch(InvocationTargetException e){
+				if(e.getCause() instanceof RuntimeException){
+					throw (RuntimeException)e.getCause();
+				}
+				if(e.getCause() instanceof Error){
+					throw (Error)e.getCause();
+				}
+				throw new RuntimeException("Error in "+className+".run", e.getCause());
+			}
+			return null;
+		});
+		
+	}//end-method
+	
+	/**
+	 * Finds the run method of a class which takes some arguments
+	 * 
+	 * @param className name of the class
+	 * @param arguments arguments of the method
+	 * @return method found (null if there is none)
+	 */
+	private static Method findRun(String className, Object arguments[]){
+		
+		Method methods [];
+		Class<?> types [];
+		boolean valid;
+		
+		synchronized(RUN_METHODS){
+			methods=RUN_METHODS.get(className);
+			if(methods==null){
+				try{
+					methods=Class.forName(className).getMethods();
+				}catch(ClassNotFoundException e){
+					System.out.println("Class not found: "+className);
+					return null;
+				}
+				RUN_METHODS.put(className, methods);
+			}
+		}
+		
+		for(Method method : methods){
+			
+			if(!method.getName().equals("run")||!Modifier.isStatic(method.getModifiers())
+					||(method.getReturnType()!=double [].class)){
+				continue;
+			}
+			
+			types=method.getParameterTypes();
+			if(types.length!=arguments.length){
+				continue;
+			}
+			
+			valid=true;
+			for(int i=0;(i<types.length)&&valid;i++){
+				if(types[i].isPrimitive()){
+					valid=(types[i]==boolean.class) ? (arguments[i] instanceof Boolean) : (arguments[i] instanceof Number);
+				}
+				else{
+					valid=(arguments[i]==null)||types[i].isInstance(arguments[i]);
+				}
+			}
+			
+			if(valid){
+				return method;
+			}
+		}
+		
+		return null;
+		
+	}//end-method
+	
+	/**
+	 * Converts the arguments to the types of the parameters
+	 * 
+	 * @param types types of the parameters
+	 * @param arguments arguments given
+	 * @return arguments converted
+	 */
+	private static Object [] convert(Class<?> types[], Object arguments[]){
+		
+		Object converted []=arguments.clone();
+		Number number;
+		
+		for(int i=0;i<types.length;i++){
+			
+			if(!types[i].isPrimitive()||(types[i]==boolean.class)){
+				continue;
+			}
+			
+			number=(Number)arguments[i];
+			if(types[i]==int.class){
+				converted[i]=number.intValue();
+			}
+			else if(types[i]==long.class){
+				converted[i]=number.longValue();
+			}
+			else if(types[i]==float.class){
+				converted[i]=number.floatValue();
+			}
+			else if(types[i]==short.class){
+				converted[i]=number.shortValue();
+			}
+			else if(types[i]==byte.class){
+				converted[i]=number.byteValue();
+			}
+			else{
+				converted[i]=number.doubleValue();
+			}
+		}
+		
+		return converted;
+		
+	}//end-method
+	
+	/**
+	 * Streaming 128 bits hash of 64 bits words (MurmurHash3 x64 mixing)
+	 */
+	private static final class Hasher{
+		
+		/**
+		 * State of the hash
+		 */
+		private long h1,h2;
+		
+		/**
+		 * Word waiting for its pair
+		 */
+		private long pending;
+		
+		/**
+		 * Number of words added
+		 */
+		private long count;
+		
+		/**
+		 * Adds a word
+		 * 
+		 * @param word word to add
+		 */
+		void add(long word){
+			
+			if((count&1)==0){
+				pending=word;
+				count++;
+				return;
+			}
+			
+			block(pending, word);
+			count++;
+			
+		}//end-method
+		
+		/**
+		 * Mixes a block of two words into the hash
+		 * 
+		 * @param k1 first word
+		 * @param k2 second word
+		 */
+		private void block(long k1, long k2){
+			
+			k1*=C1;
+			k1=Long.rotateLeft(k1, 31);
+			k1*=C2;
+			h1^=k1;
+			h1=Long.rotateLeft(h1, 27);
+			h1+=h2;
+			h1=h1*5+0x52dce729;
+			
+			k2*=C2;
+			k2=Long.rotateLeft(k2, 33);
+			k2*=C1;
+			h2^=k2;
+			h2=Long.rotateLeft(h2, 31);
+			h2+=h1;
+			h2=h2*5+0x38495ab5;
+			
+		}//end-method
+		
+		/**
+		 * Adds a text
+		 * 
+		 * @param text text to add
+		 */
+		void add(String text){
+			
+			long word;
+			
+			add(text.length());
+			for(int i=0;i<text.length();i+=4){
+				word=0;
+				for(int j=i;j<Math.min(i+4, text.length());j++){
+					word=(word<<16)|text.charAt(j);
+				}
+				add(word);
+			}
+			
+		}//end-method
+		
+		/**
+		 * Adds an array of doubles
+		 * 
+		 * @param values values to add
+		 */
+		void add(double values[]){
+			
+			int i;
+			
+			add(values.length);
+			
+			i=0;
+			if(((count&1)==1)&&(values.length>0)){
+				add(Double.doubleToLongBits(values[0]));
+				i=1;
+			}
+			
+			//whole blocks, without the pending word
+			for(;i+1<values.length;i+=2){
+				block(Double.doubleToLongBits(values[i]), Double.doubleToLongBits(values[i+1]));
+				count+=2;
+			}
+			
+			if(i<values.length){
+				add(Double.doubleToLongBits(values[i]));
+			}
+			
+		}//end-method
+		
+		/**
+		 * Adds an argument of a test, tagged by its type
+		 * 
+		 * @param argument argument to add
+		 * @return false if the type of the argument is not supported
+		 */
+		boolean addArgument(Object argument){
+			
+			DataTable table;
+			NumericSequence sequence;
+			DoubleBuffer column;
+			long bitmap [];
+			int ints [];
+			boolean last;
+			
+			if(argument==null){
+				add(0);
+			}
+			else if(argument instanceof double []){
+				add(1);
+				add((double [])argument);
+			}
+			else if(argument instanceof double [][]){
+				add(2);
+				add(((double [][])argument).length);
+				for(double row [] : (double [][])argument){
+					add(row);
+				}
+			}
+			else if(argument instanceof int []){
+				add(3);
+				ints=(int [])argument;
+				add(ints.length);
+				for(int i=0;i<ints.length;i+=2){
+					add(((long)ints[i]<<32)|((i+1<ints.length) ? (ints[i+1]&0xFFFFFFFFL) : 0L));
+				}
+			}
+			else if((argument instanceof Long)||(argument instanceof Integer)||(argument instanceof Short)||(argument instanceof Byte)){
+				add(4);
+				add(((Number)argument).longValue());
+			}
+			else if((argument instanceof Double)||(argument instanceof Float)){
+				add(5);
+				add(Double.doubleToLongBits(((Number)argument).doubleValue()));
+			}
+			else if(argument instanceof Boolean){
+				add(6);
+				add(((Boolean)argument).booleanValue() ? 1 : 0);
+			}
+			else if(argument instanceof String){
+				add(7);
+				add((String)argument);
+			}
+			else if(argument instanceof String []){
+				add(8);
+				add(((String [])argument).length);
+				for(String text : (String [])argument){
+					add((text==null) ? "\u0000" : text);
+				}
+			}
+			else if(argument instanceof DataTable){
+				table=(DataTable)argument;
+				add(9);
+				add(table.getRows());
+				add(table.getColumns());
+				for(int j=0;j<table.getColumns();j++){
+					column=table.getColumnView(j);
+					for(int i=0;i<table.getRows();i++){
+						add(Double.doubleToLongBits(column.get(i)));
+					}
+					add(table.getColumnNulls(j));
+					if(table.getColumnNulls(j)>0){
+						bitmap=table.getNullBitmap(j);
+						for(int w=0;w<(table.getRows()+63)>>>6;w++){
+							last=(table.getRows()&63)!=0&&(w==(table.getRows()>>>6));
+							add(last ? bitmap[w]&((1L<<(table.getRows()&63))-1) : bitmap[w]);
+						}
+					}
+				}
+			}
+			else if(argument instanceof NumericSequence){
+				sequence=(NumericSequence)argument;
+				add(10);
+				add(sequence.size());
+				for(int i=0;i<sequence.size();i++){
+					add(Double.doubleToLongBits(sequence.get(i)));
+				}
+			}
+			else{
+				return false;
+			}
+			
+			return true;
+			
+		}//end-method
+		
+		/**
+		 * Finishes the hash
+		 * 
+		 * @return key with the hash
+		 */
+		Key finish(){
+			
+			long k1,length;
+			
+			if((count&1)==1){
+				k1=pending*C1;
+				k1=Long.rotateLeft(k1, 31);
+				k1*=C2;
+				h1^=k1;
+			}
+			
+			length=count*8;
+			h1^=length;
+			h2^=length;
+			h1+=h2;
+			h2+=h1;
+			h1=mix(h1);
+			h2=mix(h2);
+			h1+=h2;
+			h2+=h1;
+			
+			return new Key(h1, h2);
+			
+		}//end-method
+		
+		/**
+		 * Final mix of a half of the hash
+		 * 
+		 * @param k half of the hash
+		 * @return half mixed
+		 */
+		private static long mix(long k){
+			
+			k^=k>>>33;
+			k*=0xff51afd7ed558ccdL;
+			k^=k>>>33;
+			k*=0xc4ceb9fe1a85ec53L;
+			k^=k>>>33;
+			
+			return k;
+			
+		}//end-method
+		
+	}//end-class
+	
+}//end-class
@@ -53,6 +53,11 @@ public abstract class StatisticalTest{
 	 */
 	protected DecimalFormat nf6;
 	
+	/**
+	 * Metrics of the current execution (null if instrumentation is disabled)
+	 */
+	private TestExecution execution;
+	
 	/**
 	 * Tests is the data is ready to carry out the test
 	 * 
@@ -90,6 +95,45 @@ public abstract class StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Starts recording an execution of the test, if instrumentation is
+	 * enabled. Otherwise, nothing is done
+	 * 
+	 * @param operation operation executed (doTest, printReport...)
+	 * @param size size of the input
+	 */
+	protected void startExecution(String operation, int size){
+		
+		execution=Instrumentation.isEnabled() ? new TestExecution(this, operation, size) : null;
+		
+	}//end-method
+	
+	/**
+	 * Starts a new phase of the current execution
+	 * 
+	 * @param name name of the phase
+	 */
+	protected void startPhase(String name){
+		
+		if(execution!=null){
+			execution.startPhase(name);
+		}
+		
+	}//end-method
+	
+	/**
+	 * Finishes the current execution, and passes its metrics to the listeners
+	 */
+	protected void endExecution(){
+		
+		if(execution!=null){
+			execution.finish();
+			Instrumentation.testExecuted(execution);
+			execution=null;
+		}
+		
+	}//end-method
+	
 	/**
 	 * Prints a report with the results of the test
 	 * 
@@ -114,4 +158,13 @@ public abstract class StatisticalTest{
 	 */
 	public abstract void clearData(); 
 	
+	/**
+	 * Get the results of the test in a single vector, so they can be
+	 * collected with a single call. Each test describes the contents of
+	 * the vector in its RESULTS field.
+	 * 
+	 * @return values of the test
+	 */
+	public abstract double [] results();
+	
 }//end-class
@@ -0,0 +1,313 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+import java.util.Arrays;
+
+/**
+ * Metrics of an execution of a statistical test.
+ * 
+ * An execution is divided into named phases (ranking, p-value computation,
+ * confidence intervals...). The time and the bytes allocated by the running
+ * thread are recorded for each phase and for the whole execution, along
+ * with the size of the input of the test.
+ * 
+ * Executions are only recorded while Instrumentation is enabled.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public final class TestExecution{
+	
+	/**
+	 * Test executed
+	 */
+	private StatisticalTest test;
+	
+	/**
+	 * Operation executed (doTest, printReport...)
+	 */
+	private String operation;
+	
+	/**
+	 * Size of the input
+	 */
+	private int size;
+	
+	/**
+	 * Start of the execution and of the current phase (ns)
+	 */
+	private long start,phaseStart;
+	
+	/**
+	 * Bytes allocated at the start of the execution and of the current phase
+	 */
+	private long startBytes,phaseStartBytes;
+	
+	/**
+	 * Total time (ns) and bytes allocated (-1 if not measured)
+	 */
+	private long nanos,bytes;
+	
+	/**
+	 * Names of the phases
+	 */
+	private String names [];
+	
+	/**
+	 * Time of each phase (ns)
+	 */
+	private long phaseNanos [];
+	
+	/**
+	 * Bytes allocated by each phase (-1 if not measured)
+	 */
+	private long phaseBytes [];
+	
+	/**
+	 * Number of phases
+	 */
+	private int phases;
+	
+	/**
+	 * Builder. Starts the execution
+	 * 
+	 * @param test test executed
+	 * @param operation operation executed
+	 * @param size size of the input
+	 */
+	TestExecution(StatisticalTest test, String operation, int size){
+		
+		this.test=test;
+		this.operation=operation;
+		this.size=size;
+		
+		names=new String [4];
+		phaseNanos=new long [4];
+		phaseBytes=new long [4];
+		phases=0;
+		
+		startBytes=Instrumentation.allocatedBytes();
+		start=System.nanoTime();
+		
+	}//end-method
+	
+	/**
+	 * Starts a new phase, finishing the current one
+	 * 
+	 * @param name name of the phase
+	 */
+	void startPhase(String name){
+		
+		long now=System.nanoTime();
+		long allocated=Instrumentation.allocatedBytes();
+		
+		closePhase(now, allocated);
+		
+		if(phases==names.length){
+			names=Arrays.copyOf(names, phases*2);
+			phaseNanos=Arrays.copyOf(phaseNanos, phases*2);
+			phaseBytes=Arrays.copyOf(phaseBytes, phases*2);
+		}
+		
+		names[phases]=name;
+		phases++;
+		phaseStart=now;
+		phaseStartBytes=allocated;
+		
+	}//end-method
+	
+	/**
+	 * Finishes the execution
+	 */
+	void finish(){
+		
+		long now=System.nanoTime();
+		long allocated=Instrumentation.allocatedBytes();
+		
+		closePhase(now, allocated);
+		
+		nanos=now-start;
+		bytes=(allocated<0) ? -1 : allocated-startBytes;
+		
+	}//end-method
+	
+	/**
+	 * Records the metrics of the current phase
+	 * 
+	 * @param now current time (ns)
+	 * @param allocated bytes allocated up to now
+	 */
+	private void closePhase(long now, long allocated){
+		
+		if(phases==0){
+			return;
+		}
+		
+		phaseNanos[phases-1]=now-phaseStart;
+		phaseBytes[phases-1]=(allocated<0) ? -1 : allocated-phaseStartBytes;
+		
+	}//end-method
+	
+	/**
+	 * Get the test executed
+	 * 
+	 * @return test executed
+	 */
+	public StatisticalTest getTest(){
+		
+		return test;
+		
+	}//end-method
+	
+	/**
+	 * Get the name of the test executed
+	 * 
+	 * @return simple name of the class of the test
+	 */
+	public String getTestName(){
+		
+		return test.getClass().getSimpleName();
+		
+	}//end-method
+	
+	/**
+	 * Get the operation executed
+	 * 
+	 * @return operation executed (doTest, printReport...)
+	 */
+	public String getOperation(){
+		
+		return operation;
+		
+	}//end-method
+	
+	/**
+	 * Get the size of the input
+	 * 
+	 * @return size of the input
+	 */
+	public int getSize(){
+		
+		return size;
+		
+	}//end-method
+	
+	/**
+	 * Get the time of the execution
+	 * 
+	 * @return time (ns)
+	 */
+	public long getNanos(){
+		
+		return nanos;
+		
+	}//end-method
+	
+	/**
+	 * Get the bytes allocated by the execution
+	 * 
+	 * @return bytes allocated (-1 if not measured)
+	 */
+	public long getAllocatedBytes(){
+		
+		return bytes;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of phases
+	 * 
+	 * @return number of phases
+	 */
+	public int getPhases(){
+		
+		return phases;
+		
+	}//end-method
+	
+	/**
+	 * Get the name of a phase
+	 * 
+	 * @param phase index of the phase
+	 * @return name of the phase
+	 */
+	public String getPhaseName(int phase){
+		
+		return names[phase];
+		
+	}//end-method
+	
+	/**
+	 * Get the time of a phase
+	 * 
+	 * @param phase index of the phase
+	 * @return time (ns)
+	 */
+	public long getPhaseNanos(int phase){
+		
+		return phaseNanos[phase];
+		
+	}//end-method
+	
+	/**
+	 * Get the bytes allocated by a phase
+	 * 
+	 * @param phase index of the phase
+	 * @return bytes allocated (-1 if not measured)
+	 */
+	public long getPhaseBytes(int phase){
+		
+		return phaseBytes[phase];
+		
+	}//end-method
+	
+	/**
+	 * To String method.
+	 * 
+	 * @return a string representation of the execution
+	 */
+	public String toString(){
+		
+		StringBuilder text=new StringBuilder();
+		
+		text.append(getTestName()).append('.').append(operation);
+		text.append(" size=").append(size);
+		text.append(" time=").append(nanos).append(" ns");
+		text.append(" allocated=").append(bytes).append(" B");
+		
+		for(int i=0;i<phases;i++){
+			text.append("\n  ").append(names[i]).append(": ");
+			text.append(phaseNanos[i]).append(" ns, ").append(phaseBytes[i]).append(" B");
+		}
+		
+		return text.toString();
+		
+	}//end-method
+	
+}//end-class
@@ -0,0 +1,64 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+/**
+ * A receiver of the metrics of the statistical tests.
+ * 
+ * Listeners are registered in Instrumentation. Each execution of an
+ * instrumented test (doTest, printReport) is passed to the listeners when
+ * it finishes, with the time and memory allocated by each of its phases.
+ * Loads of precomputed tables are also notified.
+ * 
+ * Listeners are called from the thread which ran the test, so they should
+ * be thread-safe if tests are run concurrently.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public interface TestListener{
+	
+	/**
+	 * Called when an execution of a test finishes
+	 * 
+	 * @param execution metrics of the execution
+	 */
+	void testExecuted(TestExecution execution);
+	
+	/**
+	 * Called when a table is loaded or computed
+	 * 
+	 * @param table name of the table
+	 * @param entries number of entries of the table
+	 * @param source origin of the table ("disk" or "computed")
+	 * @param nanos time spent (ns)
+	 * @param bytes bytes allocated (-1 if not measured)
+	 */
+	void tableLoaded(String table, int entries, String source, long nanos, long bytes);
+	
+}//end-interface
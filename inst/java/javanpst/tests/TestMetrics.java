@@ -0,0 +1,230 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A listener which aggregates the metrics of the tests.
+ * 
+ * Executions are grouped by test, operation, phase and order of magnitude
+ * of the size of the input (up to 10, 100, 1000...). For each group, the
+ * number of executions, and the total and maximum time and the total bytes
+ * allocated are kept, so slow executions can be related to the tests and
+ * sizes which caused them. Tables loaded are also counted.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class TestMetrics implements TestListener{
+	
+	/**
+	 * Positions of the values of each group
+	 */
+	private static final int COUNT = 0, TOTAL = 1, MAX = 2, BYTES = 3;
+	
+	/**
+	 * Metrics of the executions, by group
+	 */
+	private Map<String, long []> executions;
+	
+	/**
+	 * Metrics of the tables, by name and source
+	 */
+	private Map<String, long []> tables;
+	
+	/**
+	 * Default builder
+	 */
+	public TestMetrics(){
+		
+		executions=new TreeMap<String, long []>();
+		tables=new TreeMap<String, long []>();
+		
+	}//end-method
+	
+	/**
+	 * Adds an execution to the metrics
+	 * 
+	 * @param execution metrics of the execution
+	 */
+	public synchronized void testExecuted(TestExecution execution){
+		
+		String prefix;
+		
+		prefix=execution.getTestName()+"."+execution.getOperation()+" n<="+bucket(execution.getSize());
+		
+		add(executions, prefix, execution.getNanos(), execution.getAllocatedBytes());
+		
+		for(int i=0;i<execution.getPhases();i++){
+			add(executions, prefix+" "+execution.getPhaseName(i), execution.getPhaseNanos(i), execution.getPhaseBytes(i));
+		}
+		
+	}//end-method
+	
+	/**
+	 * Adds a table to the metrics
+	 * 
+	 * @param table name of the table
+	 * @param entries number of entries of the table
+	 * @param source origin of the table ("disk" or "computed")
+	 * @param nanos time spent (ns)
+	 * @param bytes bytes allocated (-1 if not measured)
+	 */
+	public synchronized void tableLoaded(String table, int entries, String source, long nanos, long bytes){
+		
+		add(tables, table+" ("+entries+" entries, "+source+")", nanos, bytes);
+		
+	}//end-method
+	
+	/**
+	 * Adds a measure to a group
+	 * 
+	 * @param map metrics
+	 * @param key group
+	 * @param nanos time (ns)
+	 * @param bytes bytes allocated (-1 if not measured)
+	 */
+	private static void add(Map<String, long []> map, String key, long nanos, long bytes){
+		
+		long values []=map.get(key);
+		
+		if(values==null){
+			values=new long [4];
+			map.put(key, values);
+		}
+		
+		values[COUNT]++;
+		values[TOTAL]+=nanos;
+		values[MAX]=Math.max(values[MAX], nanos);
+		if(bytes>0){
+			values[BYTES]+=bytes;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Get the order of magnitude of a size
+	 * 
+	 * @param size size of the input
+	 * @return lowest power of 10 not lower than the size
+	 */
+	private static long bucket(int size){
+		
+		long bucket=10;
+		
+		while(bucket<size){
+			bucket*=10;
+		}
+		
+		return bucket;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of executions recorded of a group
+	 * 
+	 * @param group name of the group (as in the report)
+	 * @return number of executions (0 if the group is not present)
+	 */
+	public synchronized long getCount(String group){
+		
+		long values []=executions.get(group);
+		
+		return (values==null) ? 0 : values[COUNT];
+		
+	}//end-method
+	
+	/**
+	 * Get the total time of the executions of a group
+	 * 
+	 * @param group name of the group (as in the report)
+	 * @return total time (ns)
+	 */
+	public synchronized long getTotalNanos(String group){
+		
+		long values []=executions.get(group);
+		
+		return (values==null) ? 0 : values[TOTAL];
+		
+	}//end-method
+	
+	/**
+	 * Removes all the metrics
+	 */
+	public synchronized void clear(){
+		
+		executions.clear();
+		tables.clear();
+		
+	}//end-method
+	
+	/**
+	 * Prints a report with the metrics
+	 * 
+	 * @return report of the metrics
+	 */
+	public synchronized String printReport(){
+		
+		StringBuilder report=new StringBuilder();
+		
+		report.append("Executions: (count, mean time, max time, mean bytes allocated)\n\n");
+		print(report, executions);
+		
+		if(!tables.isEmpty()){
+			report.append("\nTables loaded: (count, mean time, max time, mean bytes allocated)\n\n");
+			print(report, tables);
+		}
+		
+		return report.toString();
+		
+	}//end-method
+	
+	/**
+	 * Prints a set of metrics
+	 * 
+	 * @param report report
+	 * @param map metrics
+	 */
+	private static void print(StringBuilder report, Map<String, long []> map){
+		
+		long values [];
+		
+		for(Map.Entry<String, long []> entry : map.entrySet()){
+			values=entry.getValue();
+			report.append(entry.getKey()).append(": ");
+			report.append(values[COUNT]).append(", ");
+			report.append(values[TOTAL]/values[COUNT]).append(" ns, ");
+			report.append(values[MAX]).append(" ns, ");
+			report.append(values[BYTES]/values[COUNT]).append(" B\n");
+		}
+		
+	}//end-method
+	
+}//end-class
@@ -0,0 +1,249 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian;
+
+import java.util.SplittableRandom;
+
+/**
+ * A sampler of Dirichlet distributions.
+ *
+ * Each Dirichlet vector is obtained by normalizing independent
+ * Gamma(alpha_i, 1) variates, which are generated by the
+ * Marsaglia-Tsang method.
+ *
+ * Every sampler owns its own random stream. Independent streams
+ * for parallel sampling are obtained by splitting a master sampler,
+ * so results are reproducible for a given seed and number of blocks.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class DirichletSampler{
+
+	/**
+	 * Number of samples drawn by each parallel block
+	 */
+	public static final int BLOCK_SIZE = 4096;
+
+	/**
+	 * Random stream
+	 */
+	private SplittableRandom random;
+
+	/**
+	 * Flag for a second normal value available
+	 */
+	private boolean hasSpare;
+
+	/**
+	 * Second normal value generated by the polar method
+	 */
+	private double spare;
+
+	/**
+	 * Default builder. The stream is seeded at random
+	 */
+	public DirichletSampler(){
+
+		this(new SplittableRandom());
+
+	}//end-method
+
+	/**
+	 * Builder.
+	 *
+	 * @param seed seed of the random stream
+	 */
+	public DirichletSampler(long seed){
+
+		this(new SplittableRandom(seed));
+
+	}//end-method
+
+	/**
+	 * Builder. Wraps a given random stream
+	 *
+	 * @param stream random stream
+	 */
+	private DirichletSampler(SplittableRandom stream){
+
+		random=stream;
+		hasSpare=false;
+
+	}//end-method
+
+	/**
+	 * Creates a new sampler with an independent random stream
+	 *
+	 * @return a new sampler
+	 */
+	public DirichletSampler split(){
+
+		return new DirichletSampler(random.split());
+
+	}//end-method
+
+	/**
+	 * Creates a set of samplers with independent random streams
+	 *
+	 * @param streams number of samplers
+	 * @return array of samplers
+	 */
+	public DirichletSampler [] split(int streams){
+
+		DirichletSampler samplers []=new DirichletSampler[streams];
+
+		for(int i=0;i<streams;i++){
+			samplers[i]=split();
+		}
+
+		return samplers;
+
+	}//end-method
+
+	/**
+	 * Number of blocks needed to draw a given number of samples
+	 *
+	 * @param samples number of samples
+	 * @return number of blocks of BLOCK_SIZE samples
+	 */
+	public static int getBlocks(int samples){
+
+		return (samples+BLOCK_SIZE-1)/BLOCK_SIZE;
+
+	}//end-method
+
+	/**
+	 * Draws an uniform value in [0,1)
+	 *
+	 * @return uniform value
+	 */
+	public double nextUniform(){
+
+		return random.nextDouble();
+
+	}//end-method
+
+	/**
+	 * Draws a N(0,1) value, using the polar method
+	 *
+	 * @return normal value
+	 */
+	public double nextGaussian(){
+
+		double u,v,s,factor;
+
+		if(hasSpare){
+			hasSpare=false;
+			return spare;
+		}
+
+		do{
+			u=2.0*random.nextDouble()-1.0;
+			v=2.0*random.nextDouble()-1.0;
+			s=u*u+v*v;
+		}while((s>=1.0)||(s==0.0));
+
+		factor=Math.sqrt(-2.0*Math.log(s)/s);
+		spare=v*factor;
+		hasSpare=true;
+
+		return u*factor;
+
+	}//end-method
+
+	/**
+	 * Draws a Gamma(shape,1) value (Marsaglia and Tsang, 2000).
+	 *
+	 * Shapes lower than 1 are boosted to shape+1. A zero shape
+	 * yields a degenerate zero value, and an unit shape is drawn
+	 * as an exponential value.
+	 *
+	 * @param shape shape parameter
+	 * @return gamma value
+	 */
+	public double nextGamma(double shape){
+
+		double d,c,x,v,u;
+
+		if(shape<=0.0){
+			return 0.0;
+		}
+
+		if(shape==1.0){
+			return -Math.log(1.0-random.nextDouble());
+		}
+
+		if(shape<1.0){
+			u=random.nextDouble();
+			return nextGamma(shape+1.0)*Math.pow(u, 1.0/shape);
+		}
+
+		d=shape-1.0/3.0;
+		c=1.0/Math.sqrt(9.0*d);
+
+		while(true){
+			do{
+				x=nextGaussian();
+				v=1.0+c*x;
+			}while(v<=0.0);
+
+			v=v*v*v;
+			u=random.nextDouble();
+
+			if(u<1.0-0.0331*x*x*x*x){
+				return d*v;
+			}
+			if(Math.log(u)<0.5*x*x+d*(1.0-v+Math.log(v))){
+				return d*v;
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Draws a Dirichlet vector
+	 *
+	 * @param alpha concentration parameters
+	 * @param sample array to store the vector (same length as alpha)
+	 */
+	public void nextDirichlet(double alpha[], double sample[]){
+
+		double sum=0.0;
+
+		for(int i=0;i<alpha.length;i++){
+			sample[i]=nextGamma(alpha[i]);
+			sum+=sample[i];
+		}
+
+		for(int i=0;i<alpha.length;i++){
+			sample[i]/=sum;
+		}
+
+	}//end-method
+
+}//end-class
@@ -0,0 +1,1077 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian.friedmanTest;
+
+import java.util.Arrays;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.distributions.common.continuous.FDistribution;
+import javanpst.tests.StatisticalTest;
+import javanpst.utils.Ranks;
+
+/**
+ * The Bayesian Friedman test (Benavoli et al., 2015).
+ *
+ * The posterior of the mean ranks of the k treatments (columns) over the
+ * n blocks (rows) is a Dirichlet process, with a prior pseudo-block of
+ * strength s. The hypothesis of equal mean ranks is rejected (h=1) if the
+ * Hotelling statistic of the posterior mean ranks exceeds the critical
+ * value rho, and accepted (h=0) otherwise.
+ *
+ * With a precise prior, the pseudo-block holds the average rank (k+1)/2 for
+ * every treatment. With the imprecise prior, every permutation of 1..k is
+ * considered as pseudo-block, and h=2 is reported when the decision depends
+ * on the permutation.
+ *
+ * The statistic only depends on the pseudo-block p through b = t'H^-1 p and
+ * c = p'H^-1 p, where H is the scatter matrix of the centered ranks. H is
+ * factorized once (Cholesky), and the permutations are explored by a
+ * branch-and-bound search whose bounds come from the rearrangement
+ * inequality and the eigenvalues of H, so they are not enumerated. If the
+ * search exceeds its budget of nodes, the decision is conservatively
+ * reported as indeterminate, and flagged as not exact.
+ *
+ * If H is singular (e.g. every block ranks the treatments alike), the
+ * precise prior rejects unless the mean ranks are all the average rank.
+ * With the imprecise prior, each pseudo-block adds its own term to H, so
+ * the permutations are enumerated, each one decided with its updated
+ * matrix, within the same budget.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BayesianFriedmanTest extends StatisticalTest{
+
+	/**
+	 * Maximum number of nodes explored by each branch-and-bound search
+	 */
+	private static final long NODE_BUDGET = 1000000L;
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+
+	/**
+	 * Populations samples (blocks by rows)
+	 */
+	private double samples [][];
+
+	/**
+	 * Prior strength
+	 */
+	private double s;
+
+	/**
+	 * Posterior probability level
+	 */
+	private double gamma;
+
+	/**
+	 * Flag for the imprecise prior (search over permutations)
+	 */
+	private boolean imprecise;
+
+	/**
+	 * Posterior mean ranks
+	 */
+	private double meanRanks [];
+
+	/**
+	 * Posterior covariance of the mean ranks (precise prior)
+	 */
+	private double covariance [][];
+
+	/**
+	 * Hotelling statistic (precise prior)
+	 */
+	private double statistic;
+
+	/**
+	 * Critical value of the statistic
+	 */
+	private double rho;
+
+	/**
+	 * Decision (0: equal mean ranks, 1: different, 2: indeterminate)
+	 */
+	private int h;
+
+	/**
+	 * Flag for a decision proved over all permutations
+	 */
+	private boolean exact;
+
+	/**
+	 * Nodes explored by the current search
+	 */
+	private long nodes;
+
+	/**
+	 * Inverse of the scatter matrix of centered ranks (reduced)
+	 */
+	private double inverse [][];
+
+	/**
+	 * Inverse of the scatter matrix times centered sums of ranks
+	 */
+	private double hVector [];
+
+	/**
+	 * Bounds of the eigenvalues of the inverse
+	 */
+	private double lambdaMin, lambdaMax;
+
+	/**
+	 * Constant terms of the decision function
+	 */
+	private double phi0, phiC;
+
+	/**
+	 * Centered values of the pseudo-block
+	 */
+	private double centered [];
+
+	/**
+	 * Default builder
+	 */
+	public BayesianFriedmanTest(){
+
+		setReportFormat();
+		clearData();
+
+	}//end-method
+
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+
+		data=new DataTable();
+
+		performed=false;
+		dataReady=false;
+
+		samples=null;
+		meanRanks=null;
+		covariance=null;
+
+		s=1.0;
+		gamma=0.05;
+		imprecise=false;
+
+		statistic=-1.0;
+		rho=-1.0;
+		h=-1;
+		exact=true;
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param newData data to test.
+	 */
+	public BayesianFriedmanTest(DataTable newData){
+
+		setReportFormat();
+		clearData();
+		setData(newData);
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param newData data to test (blocks by rows).
+	 */
+	public BayesianFriedmanTest(double newData[][]){
+
+		setReportFormat();
+		clearData();
+		setData(newData);
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param newData data to test.
+	 */
+	public void setData(DataTable newData){
+
+		data=DataTable.newInstance(newData);
+
+		for(int i=0;i<data.getColumns();i++){
+			if(data.getColumnNulls(i)>0){
+				System.out.println("No null values allowed in this test.");
+				clearData();
+				return;
+			}
+		}
+
+		setData(data.getBody());
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param newData data to test (blocks by rows).
+	 */
+	public void setData(double newData[][]){
+
+		if(newData[0].length<3){
+			System.out.println("Bayesian Friedman test only can be employed with more than two samples");
+			clearData();
+			return;
+		}
+
+		if(newData.length<newData[0].length){
+			System.out.println("Bayesian Friedman test needs at least as many blocks as samples");
+			clearData();
+			return;
+		}
+
+		samples=new double [newData.length][];
+		for(int i=0;i<newData.length;i++){
+			samples[i]=Arrays.copyOf(newData[i], newData[i].length);
+		}
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the prior strength
+	 *
+	 * @param strength prior strength (s)
+	 */
+	public void setPrior(double strength){
+
+		s=strength;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the posterior probability level
+	 *
+	 * @param level posterior probability level
+	 */
+	public void setGamma(double level){
+
+		gamma=level;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the kind of prior
+	 *
+	 * @param value true to consider every permutation as prior pseudo-block
+	 */
+	public void setImprecise(boolean value){
+
+		imprecise=value;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Perform the test
+	 */
+	public void doTest(){
+
+		int n,k,r;
+		double N,center;
+		double sumRanks [];
+		double t [];
+		double scatter [][];
+		double chol [][];
+		double ranks [];
+		int order [];
+		double a,g,threshold,kappa;
+		FDistribution f;
+
+		if(!dataReady){
+			System.out.println("Data is not ready");
+			return;
+		}
+
+		startExecution("doTest", data.getRows()*data.getColumns());
+
+		exact=true;
+		n=samples.length;
+		k=samples[0].length;
+		r=k-1;
+		N=s+n;
+		center=(k+1.0)/2.0;
+
+		//ranks of each block and scatter matrix of centered ranks
+		ranks=new double [k];
+		order=new int [k];
+		sumRanks=new double [k];
+		scatter=new double [k][k];
+
+		for(int i=0;i<n;i++){
+			Ranks.rank(samples[i], order, ranks);
+			for(int j=0;j<k;j++){
+				sumRanks[j]+=ranks[j];
+				ranks[j]-=center;
+			}
+			for(int j=0;j<k;j++){
+				for(int l=0;l<=j;l++){
+					scatter[j][l]+=ranks[j]*ranks[l];
+				}
+			}
+		}
+		for(int j=0;j<k;j++){
+			for(int l=0;l<j;l++){
+				scatter[l][j]=scatter[j][l];
+			}
+		}
+
+		//posterior mean ranks and covariance with the precise prior
+		meanRanks=new double [k];
+		t=new double [r];
+		for(int j=0;j<k;j++){
+			meanRanks[j]=(sumRanks[j]+s*center)/N;
+		}
+		for(int j=0;j<r;j++){
+			t[j]=sumRanks[j]-n*center;
+		}
+
+		covariance=new double [k][k];
+		for(int j=0;j<k;j++){
+			for(int l=0;l<k;l++){
+				covariance[j][l]=scatter[j][l]/(N*(N+1.0))-(meanRanks[j]-center)*(meanRanks[l]-center)/(N+1.0);
+			}
+		}
+
+		f=new FDistribution(r,n-r);
+		rho=f.inverseCumulativeProbability(1.0-gamma)*(n-1.0)*r/(double)(n-r);
+
+		//the last treatment is dropped, as ranks of a block have a constant sum
+		chol=cholesky(scatter,r);
+
+		if(chol==null){
+			statistic=Double.POSITIVE_INFINITY;
+			if(imprecise){
+				threshold=rho*(N+1.0)/(N+1.0+rho);
+				h=enumerateSingular(scatter,sumRanks,threshold*N/(N+1.0));
+				endExecution();
+				performed=true;
+				return;
+			}
+			h=1;
+			for(int j=0;j<k;j++){
+				if(meanRanks[j]!=center){
+					endExecution();
+					performed=true;
+					return;
+				}
+			}
+			h=0;
+			endExecution();
+			performed=true;
+			return;
+		}
+
+		hVector=choleskySolve(chol,t);
+		a=0.0;
+		for(int j=0;j<r;j++){
+			a+=t[j]*hVector[j];
+		}
+
+		g=(N+1.0)/N*a;
+		statistic=g*(N+1.0)/(N+1.0-g);
+
+		if(!imprecise){
+			h=(statistic<rho) ? 0 : 1;
+			endExecution();
+			performed=true;
+			return;
+		}
+
+		//statistic >= rho  <=>  g >= threshold  <=>  phi >= 0
+		threshold=rho*(N+1.0)/(N+1.0+rho);
+		kappa=threshold*N/(N+1.0);
+		phi0=a-kappa;
+		phiC=s*(a+s-kappa);
+
+		inverse=new double [r][];
+		for(int j=0;j<r;j++){
+			double unit []=new double [r];
+			unit[j]=1.0;
+			inverse[j]=choleskySolve(chol,unit);
+		}
+
+		computeEigenvalueBounds(scatter,r);
+
+		centered=new double [k];
+		for(int j=0;j<k;j++){
+			centered[j]=(j+1.0)-center;
+		}
+
+		boolean rejected=search(true);
+		boolean accepted=exact ? search(false) : true;
+
+		if((rejected&&accepted)||(!exact)){
+			h=2;
+		}
+		else{
+			h=rejected ? 1 : 0;
+		}
+
+		endExecution();
+
+		performed=true;
+
+	}//end-method
+
+	/**
+	 * Decides the imprecise prior when the scatter matrix is singular, by
+	 * enumerating the permutations. The statistic of a pseudo-block p is
+	 * a(p) = v'(H+s uu')^-1 v, with u=p-(k+1)/2 and v=t+s u. If H+s uu' is
+	 * still singular, p rejects unless v is null, as the precise prior.
+	 *
+	 * @param scatter scatter matrix of the centered ranks
+	 * @param sumRanks sums of ranks of each treatment
+	 * @param kappa critical value of a(p)
+	 * @return 0 or 1 if every permutation takes that decision, 2 otherwise
+	 */
+	private int enumerateSingular(double scatter[][], double sumRanks[], double kappa){
+
+		int k=sumRanks.length;
+		int r=k-1;
+		int n=samples.length;
+		double center=(k+1.0)/2.0;
+		double u []=new double [k];
+		double v []=new double [k];
+		double updated [][]=new double [r][r];
+		double L [][];
+		double x [];
+		double a,tolerance;
+		int permutation []=new int [k];
+		boolean rejected,accepted,reject;
+		int i,j,swap;
+
+		for(j=0;j<k;j++){
+			permutation[j]=j+1;
+		}
+
+		tolerance=1e-9*(n+s);
+		rejected=false;
+		accepted=false;
+		nodes=0;
+
+		do{
+
+			nodes++;
+			if(nodes>NODE_BUDGET){
+				exact=false;
+				return 2;
+			}
+
+			for(j=0;j<k;j++){
+				u[j]=permutation[j]-center;
+				v[j]=sumRanks[j]-n*center+s*u[j];
+			}
+
+			for(j=0;j<r;j++){
+				for(int l=0;l<r;l++){
+					updated[j][l]=scatter[j][l]+s*u[j]*u[l];
+				}
+			}
+
+			L=cholesky(updated,r);
+
+			if(L==null){
+				reject=false;
+				for(j=0;j<k;j++){
+					reject|=(Math.abs(v[j])>tolerance);
+				}
+			}
+			else{
+				x=choleskySolve(L,Arrays.copyOf(v,r));
+				a=0.0;
+				for(j=0;j<r;j++){
+					a+=v[j]*x[j];
+				}
+				reject=(a>=kappa);
+			}
+
+			rejected|=reject;
+			accepted|=!reject;
+
+			if(rejected&&accepted){
+				return 2;
+			}
+
+			//next permutation in lexicographic order
+			i=k-2;
+			while((i>=0)&&(permutation[i]>permutation[i+1])){
+				i--;
+			}
+			if(i>=0){
+				j=k-1;
+				while(permutation[j]<permutation[i]){
+					j--;
+				}
+				swap=permutation[i];
+				permutation[i]=permutation[j];
+				permutation[j]=swap;
+				for(int low=i+1,high=k-1;low<high;low++,high--){
+					swap=permutation[low];
+					permutation[low]=permutation[high];
+					permutation[high]=swap;
+				}
+			}
+
+		}while(i>=0);
+
+		return rejected ? 1 : 0;
+
+	}//end-method
+
+	/**
+	 * Cholesky factorization of the leading submatrix of a symmetric matrix
+	 *
+	 * @param matrix symmetric matrix
+	 * @param size size of the leading submatrix
+	 * @return lower triangular factor, or null if the matrix is not positive definite
+	 */
+	private double [][] cholesky(double matrix[][], int size){
+
+		double L [][]=new double [size][size];
+		double sum;
+
+		for(int i=0;i<size;i++){
+			for(int j=0;j<=i;j++){
+				sum=matrix[i][j];
+				for(int l=0;l<j;l++){
+					sum-=L[i][l]*L[j][l];
+				}
+				if(i==j){
+					if(sum<=1e-12*Math.max(1.0,Math.abs(matrix[i][i]))){
+						return null;
+					}
+					L[i][i]=Math.sqrt(sum);
+				}
+				else{
+					L[i][j]=sum/L[j][j];
+				}
+			}
+		}
+
+		return L;
+
+	}//end-method
+
+	/**
+	 * Solves L L' x = b
+	 *
+	 * @param L lower triangular factor
+	 * @param b right hand side
+	 * @return solution x
+	 */
+	private double [] choleskySolve(double L[][], double b[]){
+
+		int size=L.length;
+		double y []=new double [size];
+		double x []=new double [size];
+		double sum;
+
+		for(int i=0;i<size;i++){
+			sum=b[i];
+			for(int l=0;l<i;l++){
+				sum-=L[i][l]*y[l];
+			}
+			y[i]=sum/L[i][i];
+		}
+
+		for(int i=size-1;i>=0;i--){
+			sum=y[i];
+			for(int l=i+1;l<size;l++){
+				sum-=L[l][i]*x[l];
+			}
+			x[i]=sum/L[i][i];
+		}
+
+		return x;
+
+	}//end-method
+
+	/**
+	 * Computes the extreme eigenvalues of the inverse of the scatter matrix,
+	 * through the cyclic Jacobi method over the scatter matrix.
+	 *
+	 * @param matrix scatter matrix
+	 * @param size size of the leading submatrix
+	 */
+	private void computeEigenvalueBounds(double matrix[][], int size){
+
+		double A [][]=new double [size][size];
+		double off,theta,tan,cos,sin,aip,aiq;
+		double min,max;
+
+		for(int i=0;i<size;i++){
+			System.arraycopy(matrix[i], 0, A[i], 0, size);
+		}
+
+		for(int sweep=0;sweep<100;sweep++){
+
+			off=0.0;
+			for(int p=0;p<size;p++){
+				for(int q=p+1;q<size;q++){
+					off+=A[p][q]*A[p][q];
+				}
+			}
+			if(off<1e-22){
+				break;
+			}
+
+			for(int p=0;p<size;p++){
+				for(int q=p+1;q<size;q++){
+					if(A[p][q]==0.0){
+						continue;
+					}
+					theta=(A[q][q]-A[p][p])/(2.0*A[p][q]);
+					tan=Math.signum(theta)/(Math.abs(theta)+Math.sqrt(theta*theta+1.0));
+					if(theta==0.0){
+						tan=1.0;
+					}
+					cos=1.0/Math.sqrt(tan*tan+1.0);
+					sin=tan*cos;
+					for(int i=0;i<size;i++){
+						aip=A[i][p];
+						aiq=A[i][q];
+						A[i][p]=cos*aip-sin*aiq;
+						A[i][q]=sin*aip+cos*aiq;
+					}
+					for(int i=0;i<size;i++){
+						aip=A[p][i];
+						aiq=A[q][i];
+						A[p][i]=cos*aip-sin*aiq;
+						A[q][i]=sin*aip+cos*aiq;
+					}
+				}
+			}
+		}
+
+		min=Double.MAX_VALUE;
+		max=0.0;
+		for(int i=0;i<size;i++){
+			min=Math.min(min,A[i][i]);
+			max=Math.max(max,A[i][i]);
+		}
+
+		//a small margin keeps the bounds valid under rounding
+		lambdaMin=(1.0/max)*(1.0-1e-9);
+		lambdaMax=(1.0/min)*(1.0+1e-9);
+
+	}//end-method
+
+	/**
+	 * Searches a permutation of 1..k whose decision is the given one
+	 *
+	 * @param reject true to search a rejection (phi &gt;= 0), false to search an acceptance (phi &lt; 0)
+	 * @return true if such permutation exists
+	 */
+	private boolean search(boolean reject){
+
+		int k=centered.length;
+		boolean used []=new boolean [k];
+		double cross []=new double [k-1];
+
+		double bounds []=bounds(0,used,cross,0.0,0.0);
+
+		nodes=0;
+
+		if(reject&&(bounds[1]<0.0)){
+			return false;
+		}
+		if((!reject)&&(bounds[0]>=0.0)){
+			return false;
+		}
+
+		return branch(reject,0,used,cross,0.0,0.0);
+
+	}//end-method
+
+	/**
+	 * Branch and bound step. Positions 0..depth-1 of the pseudo-block are assigned.
+	 * Children are explored from the most promising bound.
+	 *
+	 * @param reject searched decision
+	 * @param depth number of positions assigned
+	 * @param used values already assigned
+	 * @param cross twice the product of the inverse and the assigned values, for each position
+	 * @param b partial value of b
+	 * @param c partial value of c (assigned positions only)
+	 * @return true if a permutation with the searched decision is found
+	 */
+	private boolean branch(boolean reject, int depth, boolean used[], double cross[], double b, double c){
+
+		int r=cross.length;
+		int k=centered.length;
+		double bounds [];
+		double q,phi,childB,childC;
+		double childCross [][]=new double [k][];
+		double promise [];
+		int order [];
+		int candidates;
+
+		nodes++;
+		if(nodes>NODE_BUDGET){
+			exact=false;
+			return false;
+		}
+
+		promise=new double [k];
+		Arrays.fill(promise, Double.NEGATIVE_INFINITY);
+		candidates=0;
+
+		for(int v=0;v<k;v++){
+
+			if(used[v]){
+				continue;
+			}
+
+			q=centered[v];
+			childB=b+hVector[depth]*q;
+			childC=c+cross[depth]*q+inverse[depth][depth]*q*q;
+
+			if(depth+1==r){
+				phi=phi0+2.0*s*childB-s*childB*childB+phiC*childC;
+				if(reject ? (phi>=0.0) : (phi<0.0)){
+					return true;
+				}
+				continue;
+			}
+
+			childCross[v]=new double [r];
+			for(int j=0;j<r;j++){
+				childCross[v][j]=cross[j]+2.0*inverse[j][depth]*q;
+			}
+
+			used[v]=true;
+			bounds=bounds(depth+1,used,childCross[v],childB,childC);
+			used[v]=false;
+
+			if(reject&&(bounds[1]>=0.0)){
+				promise[v]=bounds[1];
+				candidates++;
+			}
+			if((!reject)&&(bounds[0]<0.0)){
+				promise[v]=-bounds[0];
+				candidates++;
+			}
+		}
+
+		order=new int [k];
+		Ranks.argsort(promise, order);
+
+		for(int i=k-1;i>=k-candidates;i--){
+
+			int v=order[i];
+			q=centered[v];
+
+			used[v]=true;
+			if(branch(reject,depth+1,used,childCross[v],b+hVector[depth]*q,c+cross[depth]*q+inverse[depth][depth]*q*q)){
+				used[v]=false;
+				return true;
+			}
+			used[v]=false;
+
+			if(!exact){
+				return false;
+			}
+		}
+
+		return false;
+
+	}//end-method
+
+	/**
+	 * Bounds of the decision function over the completions of a partial assignment
+	 *
+	 * @param depth number of positions assigned
+	 * @param used values already assigned
+	 * @param cross twice the product of the inverse and the assigned values, for each position
+	 * @param b partial value of b
+	 * @param c partial value of c
+	 * @return lower and upper bounds
+	 */
+	private double [] bounds(int depth, boolean used[], double cross[], double b, double c){
+
+		int r=cross.length;
+		int free=r-depth+1;
+		double values []=new double [free];
+		double coefB []=new double [free];
+		double coefC []=new double [free];
+		double squares,minSquare,maxSquare;
+		double bounds [];
+		double bLow,bHigh,cLow,cHigh,best,psiLow,psiHigh;
+		int counter;
+
+		counter=0;
+		squares=0.0;
+		minSquare=Double.MAX_VALUE;
+		maxSquare=0.0;
+		for(int v=0;v<centered.length;v++){
+			if(!used[v]){
+				values[counter++]=centered[v];
+				squares+=centered[v]*centered[v];
+				minSquare=Math.min(minSquare,centered[v]*centered[v]);
+				maxSquare=Math.max(maxSquare,centered[v]*centered[v]);
+			}
+		}
+
+		//the dropped treatment has null coefficients
+		for(int j=depth;j<r;j++){
+			coefB[j-depth]=hVector[j];
+			coefC[j-depth]=cross[j];
+		}
+
+		Arrays.sort(values);
+		Arrays.sort(coefB);
+		Arrays.sort(coefC);
+
+		bounds=rearrangement(coefB,values);
+		bLow=b+bounds[0];
+		bHigh=b+bounds[1];
+
+		bounds=rearrangement(coefC,values);
+		cLow=Math.max(0.0,c+bounds[0]+lambdaMin*(squares-maxSquare));
+		cHigh=c+bounds[1]+lambdaMax*(squares-minSquare);
+
+		//psi(b) = 2sb - sb^2 is concave, with its maximum at b=1
+		best=Math.max(bLow,Math.min(1.0,bHigh));
+		psiHigh=2.0*s*best-s*best*best;
+		psiLow=Math.min(2.0*s*bLow-s*bLow*bLow,2.0*s*bHigh-s*bHigh*bHigh);
+
+		bounds=new double [2];
+		bounds[0]=phi0+psiLow+Math.min(phiC*cLow,phiC*cHigh);
+		bounds[1]=phi0+psiHigh+Math.max(phiC*cLow,phiC*cHigh);
+
+		return bounds;
+
+	}//end-method
+
+	/**
+	 * Minimum and maximum of the scalar product of two sorted arrays over
+	 * all their matchings (rearrangement inequality)
+	 *
+	 * @param coef sorted coefficients
+	 * @param values sorted values
+	 * @return minimum and maximum
+	 */
+	private double [] rearrangement(double coef[], double values[]){
+
+		double result []=new double [2];
+		int size=coef.length;
+
+		for(int i=0;i<size;i++){
+			result[0]+=coef[i]*values[size-1-i];
+			result[1]+=coef[i]*values[i];
+		}
+
+		return result;
+
+	}//end-method
+
+	/**
+	 * Get the decision of the test
+	 *
+	 * @return 0 if mean ranks are equal, 1 if they are different, 2 if indeterminate
+	 */
+	public int getH(){
+
+		return h;
+
+	}//end-method
+
+	/**
+	 * Tests if the decision has been proved over all permutations
+	 *
+	 * @return false if a search exceeded its budget and the decision is conservative
+	 */
+	public boolean isExact(){
+
+		return exact;
+
+	}//end-method
+
+	/**
+	 * Get the posterior mean ranks
+	 *
+	 * @return mean ranks
+	 */
+	public double [] getMeanRanks(){
+
+		return meanRanks;
+
+	}//end-method
+
+	/**
+	 * Get the posterior covariance of the mean ranks (precise prior)
+	 *
+	 * @return covariance matrix
+	 */
+	public double [][] getCovariance(){
+
+		return covariance;
+
+	}//end-method
+
+	/**
+	 * Get the Hotelling statistic (precise prior)
+	 *
+	 * @return statistic
+	 */
+	public double getStatistic(){
+
+		return statistic;
+
+	}//end-method
+
+	/**
+	 * Get the critical value of the statistic
+	 *
+	 * @return critical value
+	 */
+	public double getRho(){
+
+		return rho;
+
+	}//end-method
+
+	/**
+	 * Prints the data stored in the test
+	 *
+	 * @return Data stored
+	 */
+	public String printData(){
+
+		String text="";
+
+		text+="\n"+new DataTable(samples);
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the results of the test
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+
+		report+="\n*****************************\n";
+		report+="Bayesian Friedman test\n";
+		report+="*****************************\n\n";
+
+		report+="Posterior mean ranks:\n";
+
+		for(int j=0;j<meanRanks.length;j++){
+			report+="S"+(j+1)+"\t";
+		}
+		report+="\n";
+
+		for(int j=0;j<meanRanks.length;j++){
+			report+=nf6.format(meanRanks[j])+"\t";
+		}
+		report+="\n\n";
+
+		report+="Statistic (precise prior): "+nf6.format(statistic)+"\n";
+		report+="Critical value: "+nf6.format(rho)+"\n";
+		report+="Decision ("+(imprecise ? "imprecise" : "precise")+" prior): ";
+
+		switch(h){
+			case 0: report+="equal mean ranks\n\n";
+					break;
+			case 1: report+="different mean ranks\n\n";
+					break;
+			default: report+="indeterminate\n\n";
+		}
+
+		if(!exact){
+			report+="(The search over permutations exceeded its budget; the decision is conservative)\n\n";
+		}
+
+		return report;
+
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Statistic", "Rho", "H", "Exact"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getStatistic(), getRho(), getH(), isExact() ? 1.0 : 0.0};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @param strength strength of the prior
+	 * @param level credibility level
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][], double strength, double level){
+		
+		BayesianFriedmanTest test=new BayesianFriedmanTest(data);
+		
+		test.setPrior(strength);
+		test.setGamma(level);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
@@ -0,0 +1,529 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian.idpTest;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javanpst.data.DataDefinitions;
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.bayesian.DirichletSampler;
+
+/**
+ * The Bayesian two-sample test based on the Imprecise Dirichlet
+ * Process (Benavoli et al., 2015).
+ *
+ * For each posterior sample, the lower and upper bounds of P(X <= Y)
+ * are computed. The lower bound is the sum of w_x,i * w_y,j * I(y_j > x_i)
+ * (ties count 0.5), and the upper bound adds the mass of the prior
+ * pseudo-observations.
+ *
+ * Both samples are sorted once, and a merged sweep finds, for each y_j,
+ * the number of x values lower than and equal to y_j. Each posterior
+ * sample is then evaluated in O(n+m) through the prefix sums of the x
+ * weights. Samples are drawn in parallel blocks.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BayesianIDPTest extends StatisticalTest{
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+
+	/**
+	 * First sample
+	 */
+	private double sample1 [];
+
+	/**
+	 * Second sample
+	 */
+	private double sample2 [];
+
+	/**
+	 * Prior strength
+	 */
+	private double s;
+
+	/**
+	 * Probability threshold of one sample outperforming the other
+	 */
+	private double c;
+
+	/**
+	 * Number of posterior samples
+	 */
+	private int nSamples;
+
+	/**
+	 * Seed of the sampler
+	 */
+	private long seed;
+
+	/**
+	 * Flag for a seed fixed by the user
+	 */
+	private boolean seeded;
+
+	/**
+	 * Posterior sample of the lower bound
+	 */
+	private double lower [];
+
+	/**
+	 * Posterior sample of the upper bound
+	 */
+	private double upper [];
+
+	/**
+	 * Probability of the lower bound exceeding c
+	 */
+	private double areaLower;
+
+	/**
+	 * Probability of the upper bound exceeding c
+	 */
+	private double areaUpper;
+
+	/**
+	 * Default builder
+	 */
+	public BayesianIDPTest(){
+
+		setReportFormat();
+		clearData();
+
+	}//end-method
+
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+
+		data=new DataTable();
+
+		performed=false;
+		dataReady=false;
+
+		sample1=null;
+		sample2=null;
+		lower=null;
+		upper=null;
+
+		s=Math.sqrt(2.0)-1.0;
+		c=0.5;
+		nSamples=10000;
+		seeded=false;
+
+		areaLower=-1.0;
+		areaUpper=-1.0;
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param newData data to test (two columns)
+	 */
+	public BayesianIDPTest(DataTable newData){
+
+		setReportFormat();
+		clearData();
+		setData(newData);
+
+	}//end-method
+
+	/**
+	 * Builder. Load samples to test.
+	 *
+	 * @param x first sample
+	 * @param y second sample
+	 */
+	public BayesianIDPTest(double x[], double y[]){
+
+		setReportFormat();
+		clearData();
+		setData(x,y);
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param newData data to test (two columns)
+	 */
+	public void setData(DataTable newData){
+
+		data=DataTable.newInstance(newData);
+
+		if(data.getColumns()!=2){
+			System.out.println("Bayesian IDP test only can be employed with two samples");
+			clearData();
+			return;
+		}
+
+		sample1=withoutNulls(data,0);
+		sample2=withoutNulls(data,1);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets samples to test
+	 *
+	 * @param x first sample
+	 * @param y second sample
+	 */
+	public void setData(double x[], double y[]){
+
+		sample1=Arrays.copyOf(x, x.length);
+		sample2=Arrays.copyOf(y, y.length);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Extracts the non null values of a column
+	 *
+	 * @param table data table
+	 * @param col column index
+	 * @return values of the column
+	 */
+	private double [] withoutNulls(DataTable table, int col){
+
+		double values [];
+		int counter;
+
+		values=new double [table.getRows()-table.getColumnNulls(col)];
+		counter=0;
+
+		for(int i=0;i<table.getRows();i++){
+			if(!table.isNull(i, col)){
+				values[counter]=table.get(i, col);
+				counter++;
+			}
+		}
+
+		return values;
+
+	}//end-method
+
+	/**
+	 * Sets the prior strength
+	 *
+	 * @param strength prior strength (s)
+	 */
+	public void setPrior(double strength){
+
+		s=strength;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the probability threshold
+	 *
+	 * @param threshold probability needed of one sample outperforming the other
+	 */
+	public void setThreshold(double threshold){
+
+		c=threshold;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the number of posterior samples
+	 *
+	 * @param samples number of samples
+	 */
+	public void setSamples(int samples){
+
+		if(samples>0){
+			nSamples=samples;
+			performed=false;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the seed of the sampler
+	 *
+	 * @param newSeed seed
+	 */
+	public void setSeed(long newSeed){
+
+		seed=newSeed;
+		seeded=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Perform the test
+	 */
+	public void doTest(){
+
+		final int n,m;
+		final double alphaX [];
+		final double alphaY [];
+		final int lowerEnd [];
+		final int equalEnd [];
+		final DirichletSampler streams [];
+		int pointer;
+		double x [], y [];
+		int countLower, countUpper;
+
+		if(!dataReady){
+			System.out.println("Data is not ready");
+			return;
+		}
+
+		startExecution("doTest", data.getRows()*data.getColumns());
+
+		n=sample1.length;
+		m=sample2.length;
+
+		x=Arrays.copyOf(sample1, n);
+		y=Arrays.copyOf(sample2, m);
+		Arrays.sort(x);
+		Arrays.sort(y);
+
+		//lowerEnd[j]: number of x values lower than y[j]
+		//equalEnd[j]: number of x values lower or equal than y[j]
+		lowerEnd=new int [m];
+		equalEnd=new int [m];
+		pointer=0;
+		for(int j=0;j<m;j++){
+			while((pointer<n)&&(x[pointer]<y[j])){
+				pointer++;
+			}
+			lowerEnd[j]=pointer;
+		}
+		pointer=0;
+		for(int j=0;j<m;j++){
+			while((pointer<n)&&(x[pointer]<=y[j])){
+				pointer++;
+			}
+			equalEnd[j]=pointer;
+		}
+
+		//position 0 is the prior pseudo-observation
+		alphaX=new double [n+1];
+		alphaY=new double [m+1];
+		Arrays.fill(alphaX, 1.0);
+		Arrays.fill(alphaY, 1.0);
+		alphaX[0]=s;
+		alphaY[0]=s;
+
+		lower=new double [nSamples];
+		upper=new double [nSamples];
+		streams=(seeded ? new DirichletSampler(seed) : new DirichletSampler()).split(DirichletSampler.getBlocks(nSamples));
+
+		IntStream.range(0, streams.length).parallel().forEach(block -> {
+
+			double wx [] = new double [n+1];
+			double wy [] = new double [m+1];
+			double prefix [] = new double [n+1];
+			double sum;
+			int end = Math.min(nSamples, (block+1)*DirichletSampler.BLOCK_SIZE);
+
+			for(int k=block*DirichletSampler.BLOCK_SIZE;k<end;k++){
+
+				streams[block].nextDirichlet(alphaX, wx);
+				streams[block].nextDirichlet(alphaY, wy);
+
+				prefix[0]=0.0;
+				for(int i=0;i<n;i++){
+					prefix[i+1]=prefix[i]+wx[i+1];
+				}
+
+				sum=0.0;
+				for(int j=0;j<m;j++){
+					sum+=wy[j+1]*(prefix[lowerEnd[j]]+0.5*(prefix[equalEnd[j]]-prefix[lowerEnd[j]]));
+				}
+
+				lower[k]=sum;
+				upper[k]=sum+wx[0]*wy[0]+wx[0]*(1.0-wy[0])+wy[0]*(1.0-wx[0]);
+			}
+		});
+
+		countLower=0;
+		countUpper=0;
+
+		for(int k=0;k<nSamples;k++){
+			if(lower[k]>c){
+				countLower++;
+			}
+			if(upper[k]>c){
+				countUpper++;
+			}
+		}
+
+		areaLower=(double)countLower/(double)nSamples;
+		areaUpper=(double)countUpper/(double)nSamples;
+
+		endExecution();
+
+		performed=true;
+
+	}//end-method
+
+	/**
+	 * Get the probability of the lower bound exceeding the threshold
+	 *
+	 * @return area of the lower distribution
+	 */
+	public double getAreaLower(){
+
+		return areaLower;
+
+	}//end-method
+
+	/**
+	 * Get the probability of the upper bound exceeding the threshold
+	 *
+	 * @return area of the upper distribution
+	 */
+	public double getAreaUpper(){
+
+		return areaUpper;
+
+	}//end-method
+
+	/**
+	 * Get the posterior sample of the lower bound
+	 *
+	 * @return posterior sample
+	 */
+	public double [] getLowerSample(){
+
+		return lower;
+
+	}//end-method
+
+	/**
+	 * Get the posterior sample of the upper bound
+	 *
+	 * @return posterior sample
+	 */
+	public double [] getUpperSample(){
+
+		return upper;
+
+	}//end-method
+
+	/**
+	 * Prints the data stored in the test
+	 *
+	 * @return Data stored
+	 */
+	public String printData(){
+
+		String text="";
+
+		text+="\n"+Arrays.toString(sample1)+"\n";
+		text+=Arrays.toString(sample2)+"\n";
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the results of the test
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+
+		report+="\n*****************************\n";
+		report+="Bayesian IDP test\n";
+		report+="*****************************\n\n";
+
+		report+="Prior strength: "+nf6.format(s)+"\n";
+		report+="Posterior samples: "+nSamples+"\n\n";
+
+		report+="P(P(X <= Y) > "+nf6.format(c)+") (lower): "+nf6.format(areaLower)+"\n";
+		report+="P(P(X <= Y) > "+nf6.format(c)+") (upper): "+nf6.format(areaUpper)+"\n\n";
+
+		return report;
+
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"AreaLower", "AreaUpper"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getAreaLower(), getAreaUpper()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param x first sample
+	 * @param y second sample
+	 * @param strength strength of the prior
+	 * @param samples number of Monte Carlo samples
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double x[], double y[], double strength, int samples){
+		
+		BayesianIDPTest test=new BayesianIDPTest(x, y);
+		
+		test.setPrior(strength);
+		test.setSamples(samples);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
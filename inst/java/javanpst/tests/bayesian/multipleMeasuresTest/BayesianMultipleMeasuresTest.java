@@ -0,0 +1,702 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian.multipleMeasuresTest;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.distributions.common.continuous.ChiSquareDistribution;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.bayesian.DirichletSampler;
+
+/**
+ * The Bayesian test for the joint analysis of multiple performance
+ * measures, together with its Generalized Likelihood Ratio Test (GLRT).
+ *
+ * Each problem is mapped to a dominance configuration, encoded as a
+ * bitmask of m bits where the bit of the first measure is the most
+ * significant one, and a set bit means that the first algorithm
+ * outperforms the second in that measure. A tie in a measure spreads
+ * the problem evenly over both values of its bit.
+ *
+ * The counts of the 2^m configurations are built in a single pass over
+ * the performance matrices. The posterior Dirichlet distribution is
+ * sampled in parallel blocks, and the most probable configuration of each
+ * sample is found in a single sweep. Both the posterior probabilities and
+ * the GLRT statistic are obtained from the same counts.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BayesianMultipleMeasuresTest extends StatisticalTest{
+
+	/**
+	 * Performance matrix of the first algorithm
+	 */
+	private double x [][];
+
+	/**
+	 * Performance matrix of the second algorithm
+	 */
+	private double y [][];
+
+	/**
+	 * Number of performance measures
+	 */
+	private int measures;
+
+	/**
+	 * Prior parameters of the Dirichlet distribution
+	 */
+	private double prior [];
+
+	/**
+	 * Number of posterior samples
+	 */
+	private int nSamples;
+
+	/**
+	 * Seed of the sampler
+	 */
+	private long seed;
+
+	/**
+	 * Flag for a seed fixed by the user
+	 */
+	private boolean seeded;
+
+	/**
+	 * Flag for storing the posterior sample
+	 */
+	private boolean keepSample;
+
+	/**
+	 * Occurrences of each dominance configuration
+	 */
+	private double counts [];
+
+	/**
+	 * Posterior probability of each configuration being the most probable one
+	 */
+	private double probabilities [];
+
+	/**
+	 * Posterior sample
+	 */
+	private double sample [][];
+
+	/**
+	 * GLRT statistic
+	 */
+	private double lambda;
+
+	/**
+	 * P-value of the GLRT
+	 */
+	private double pValue;
+
+	/**
+	 * Default builder
+	 */
+	public BayesianMultipleMeasuresTest(){
+
+		setReportFormat();
+		clearData();
+
+	}//end-method
+
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+
+		x=null;
+		y=null;
+		measures=0;
+
+		performed=false;
+		dataReady=false;
+
+		prior=null;
+		nSamples=10000;
+		seeded=false;
+		keepSample=true;
+
+		counts=null;
+		probabilities=null;
+		sample=null;
+
+		lambda=-1.0;
+		pValue=-1.0;
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param first performance matrix of the first algorithm (problems as rows)
+	 * @param second performance matrix of the second algorithm (problems as rows)
+	 */
+	public BayesianMultipleMeasuresTest(double first[][], double second[][]){
+
+		setReportFormat();
+		clearData();
+		setData(first,second);
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param first performance table of the first algorithm
+	 * @param second performance table of the second algorithm
+	 */
+	public BayesianMultipleMeasuresTest(DataTable first, DataTable second){
+
+		setReportFormat();
+		clearData();
+		setData(first,second);
+
+	}//end-method
+
+	/**
+	 * Sets data to test. Problems with a null value in any table are discarded
+	 *
+	 * @param first performance table of the first algorithm
+	 * @param second performance table of the second algorithm
+	 */
+	public void setData(DataTable first, DataTable second){
+
+		double a [][], b [][];
+		int rows;
+
+		if((first.getRows()!=second.getRows())||(first.getColumns()!=second.getColumns())){
+			System.out.println("Both tables must have the same number of problems and performance measures");
+			clearData();
+			return;
+		}
+
+		rows=0;
+		for(int i=0;i<first.getRows();i++){
+			if((first.getRowNulls(i)==0)&&(second.getRowNulls(i)==0)){
+				rows++;
+			}
+		}
+
+		a=new double [rows][];
+		b=new double [rows][];
+		rows=0;
+		for(int i=0;i<first.getRows();i++){
+			if((first.getRowNulls(i)==0)&&(second.getRowNulls(i)==0)){
+				a[rows]=first.getRow(i);
+				b[rows]=second.getRow(i);
+				rows++;
+			}
+		}
+
+		setData(a,b);
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param first performance matrix of the first algorithm (problems as rows)
+	 * @param second performance matrix of the second algorithm (problems as rows)
+	 */
+	public void setData(double first[][], double second[][]){
+
+		if(first.length!=second.length){
+			System.out.println("Both matrices must have the same number of problems");
+			clearData();
+			return;
+		}
+
+		if(first.length==0){
+			System.out.println("No problems to analyze");
+			clearData();
+			return;
+		}
+
+		measures=first[0].length;
+
+		if((measures<1)||(measures>Integer.SIZE-2)){
+			System.out.println("The number of performance measures must be between 1 and "+(Integer.SIZE-2));
+			clearData();
+			return;
+		}
+
+		for(int i=0;i<first.length;i++){
+			if((first[i].length!=measures)||(second[i].length!=measures)){
+				System.out.println("Both matrices must have the same number of performance measurements");
+				clearData();
+				return;
+			}
+		}
+
+		x=new double [first.length][];
+		y=new double [second.length][];
+		for(int i=0;i<first.length;i++){
+			x[i]=Arrays.copyOf(first[i], measures);
+			y[i]=Arrays.copyOf(second[i], measures);
+		}
+
+		if((prior!=null)&&(prior.length!=(1<<measures))){
+			prior=null;
+		}
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the prior parameters of the Dirichlet distribution.
+	 * By default, 2^-m is assigned to each configuration
+	 *
+	 * @param parameters prior parameters (one per configuration)
+	 */
+	public void setPrior(double parameters[]){
+
+		prior=Arrays.copyOf(parameters, parameters.length);
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the number of posterior samples. With no samples, only
+	 * the counts and the GLRT are computed
+	 *
+	 * @param samples number of samples
+	 */
+	public void setSamples(int samples){
+
+		if(samples>=0){
+			nSamples=samples;
+			performed=false;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the seed of the sampler
+	 *
+	 * @param newSeed seed
+	 */
+	public void setSeed(long newSeed){
+
+		seed=newSeed;
+		seeded=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets whether the posterior sample is stored. Storing it needs
+	 * nSamples * 2^m values
+	 *
+	 * @param keep true if the posterior sample must be stored
+	 */
+	public void setKeepSample(boolean keep){
+
+		keepSample=keep;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Perform the test
+	 */
+	public void doTest(){
+
+		final int configurations;
+		final double alpha [];
+		final DirichletSampler streams [];
+		final long wins [][];
+		long total;
+
+		if(!dataReady){
+			System.out.println("Data is not ready");
+			return;
+		}
+
+		configurations=1<<measures;
+
+		if((prior!=null)&&(prior.length!=configurations)){
+			System.out.println("The prior must have one parameter for each of the "+configurations+" configurations");
+			return;
+		}
+
+		startExecution("doTest", x.length*measures);
+
+		computeCounts();
+		computeGLRT();
+
+		if(nSamples==0){
+			probabilities=null;
+			sample=null;
+			endExecution();
+			performed=true;
+			return;
+		}
+
+		alpha=new double [configurations];
+		for(int i=0;i<configurations;i++){
+			alpha[i]=counts[i]+((prior==null) ? 1.0/configurations : prior[i]);
+		}
+
+		sample=keepSample ? new double [nSamples][] : null;
+		streams=(seeded ? new DirichletSampler(seed) : new DirichletSampler()).split(DirichletSampler.getBlocks(nSamples));
+		wins=new long [streams.length][configurations];
+
+		IntStream.range(0, streams.length).parallel().forEach(block -> {
+
+			double theta [] = new double [configurations];
+			double max;
+			int best;
+			boolean unique;
+			int end = Math.min(nSamples, (block+1)*DirichletSampler.BLOCK_SIZE);
+
+			for(int k=block*DirichletSampler.BLOCK_SIZE;k<end;k++){
+
+				streams[block].nextDirichlet(alpha, theta);
+
+				//a configuration wins if it is strictly greater than all the others
+				max=theta[0];
+				best=0;
+				unique=true;
+				for(int i=1;i<configurations;i++){
+					if(theta[i]>max){
+						max=theta[i];
+						best=i;
+						unique=true;
+					}
+					else if(theta[i]==max){
+						unique=false;
+					}
+				}
+
+				if(unique){
+					wins[block][best]++;
+				}
+
+				if(sample!=null){
+					sample[k]=theta;
+					theta=new double [configurations];
+				}
+			}
+		});
+
+		probabilities=new double [configurations];
+		for(int i=0;i<configurations;i++){
+			total=0;
+			for(int block=0;block<wins.length;block++){
+				total+=wins[block][i];
+			}
+			probabilities[i]=(double)total/(double)nSamples;
+		}
+
+		endExecution();
+
+		performed=true;
+
+	}//end-method
+
+	/**
+	 * Computes the occurrences of each dominance configuration
+	 */
+	private void computeCounts(){
+
+		int mask,ties,bit,nTies,sub;
+		double weight;
+
+		counts=new double [1<<measures];
+
+		for(int i=0;i<x.length;i++){
+
+			mask=0;
+			ties=0;
+			for(int j=0;j<measures;j++){
+				bit=1<<(measures-1-j);
+				if(x[i][j]>y[i][j]){
+					mask|=bit;
+				}
+				else if(x[i][j]==y[i][j]){
+					ties|=bit;
+				}
+			}
+
+			nTies=Integer.bitCount(ties);
+			weight=1.0/(double)(1<<nTies);
+
+			//enumerate every way of breaking the ties
+			sub=ties;
+			while(true){
+				counts[mask|sub]+=weight;
+				if(sub==0){
+					break;
+				}
+				sub=(sub-1)&ties;
+			}
+		}
+
+	}//end-method
+
+	/**
+	 * Computes the GLRT statistic over the two most frequent configurations
+	 */
+	private void computeGLRT(){
+
+		double first,second,mean,logLambda;
+		ChiSquareDistribution chi;
+
+		first=-1.0;
+		second=-1.0;
+		for(int i=0;i<counts.length;i++){
+			if(counts[i]>first){
+				second=first;
+				first=counts[i];
+			}
+			else if(counts[i]>second){
+				second=counts[i];
+			}
+		}
+
+		if(counts.length<2){
+			second=0.0;
+		}
+
+		//computed in logarithms to avoid overflows with many problems
+		mean=(first+second)/2.0;
+		logLambda=xLogY(first+second,mean)-xLogY(first,first)-xLogY(second,second);
+
+		lambda=Math.exp(logLambda);
+
+		chi=new ChiSquareDistribution(1);
+		pValue=chi.computeCumulativeProbability(-2.0*logLambda);
+
+	}//end-method
+
+	/**
+	 * Computes a*log(b), being 0 when a is 0
+	 *
+	 * @param a a value
+	 * @param b b value
+	 * @return a*log(b)
+	 */
+	private static double xLogY(double a, double b){
+
+		if(a==0.0){
+			return 0.0;
+		}
+
+		return a*Math.log(b);
+
+	}//end-method
+
+	/**
+	 * Get the number of performance measures
+	 *
+	 * @return number of measures
+	 */
+	public int getMeasures(){
+
+		return measures;
+
+	}//end-method
+
+	/**
+	 * Get the occurrences of each dominance configuration
+	 *
+	 * @return counts of the configurations
+	 */
+	public double [] getCounts(){
+
+		return counts;
+
+	}//end-method
+
+	/**
+	 * Get the posterior probability of each configuration being the most probable one
+	 *
+	 * @return posterior probabilities
+	 */
+	public double [] getProbabilities(){
+
+		return probabilities;
+
+	}//end-method
+
+	/**
+	 * Get the posterior sample
+	 *
+	 * @return posterior sample (one row per sample), or null if it was not stored
+	 */
+	public double [][] getSample(){
+
+		return sample;
+
+	}//end-method
+
+	/**
+	 * Get the GLRT statistic
+	 *
+	 * @return lambda statistic
+	 */
+	public double getLambda(){
+
+		return lambda;
+
+	}//end-method
+
+	/**
+	 * Get the p-value of the GLRT
+	 *
+	 * @return p-value
+	 */
+	public double getPValue(){
+
+		return pValue;
+
+	}//end-method
+
+	/**
+	 * Get the name of a dominance configuration
+	 *
+	 * @param configuration index of the configuration
+	 * @return name of the configuration (e.g. "> < >")
+	 */
+	public String getConfigurationName(int configuration){
+
+		String text="";
+
+		for(int j=0;j<measures;j++){
+			if(j>0){
+				text+=" ";
+			}
+			text+=((configuration&(1<<(measures-1-j)))!=0) ? ">" : "<";
+		}
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints the data stored in the test
+	 *
+	 * @return Data stored
+	 */
+	public String printData(){
+
+		String text="";
+
+		if(!dataReady){
+			return text;
+		}
+
+		text+="\n";
+		for(int i=0;i<x.length;i++){
+			text+=Arrays.toString(x[i])+"\t"+Arrays.toString(y[i])+"\n";
+		}
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the results of the test
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+
+		report+="\n********************************************\n";
+		report+="Bayesian test for multiple performance measures\n";
+		report+="********************************************\n\n";
+
+		report+="Posterior samples: "+nSamples+"\n\n";
+
+		report+="Configuration\tCount\tProbability\n";
+		for(int i=0;i<counts.length;i++){
+			report+=getConfigurationName(i)+"\t"+nf6.format(counts[i]);
+			if(probabilities!=null){
+				report+="\t"+nf6.format(probabilities[i]);
+			}
+			report+="\n";
+		}
+
+		report+="\nGLRT statistic: "+nf6.format(lambda)+"\n";
+		report+="P-value computed: "+nf6.format(pValue)+"\n\n";
+
+		return report;
+
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Lambda", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getLambda(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * The posterior is not sampled, so only the likelihood ratio test is performed.
+	 * 
+	 * @param first results of the first algorithm, by problems and measures
+	 * @param second results of the second algorithm, by problems and measures
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double first[][], double second[][]){
+		
+		BayesianMultipleMeasuresTest test=new BayesianMultipleMeasuresTest(first, second);
+		
+		test.setSamples(0);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
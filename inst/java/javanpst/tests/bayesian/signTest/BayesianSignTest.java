@@ -0,0 +1,571 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian.signTest;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javanpst.data.DataDefinitions;
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.bayesian.DirichletSampler;
+
+/**
+ * The Bayesian Sign test (Benavoli et al., 2014).
+ *
+ * The differences are collapsed into the number of them lying at the left,
+ * inside or at the right of the region of practical equivalence (rope).
+ * The posterior distribution is then a Dirichlet distribution of three
+ * categories (two if the rope is a single point), so each posterior sample
+ * is drawn in constant time.
+ *
+ * Samples are drawn in parallel blocks, each one with its own random stream,
+ * and are accumulated as they are drawn. Only the first samples are kept
+ * for plotting: since the samples are independent, they are a uniform
+ * subsample of the posterior sample.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BayesianSignTest extends StatisticalTest{
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+
+	/**
+	 * Differences between paired samples
+	 */
+	private double differences [];
+
+	/**
+	 * Prior strength
+	 */
+	private double s;
+
+	/**
+	 * Inferior limit of the rope
+	 */
+	private double ropeMin;
+
+	/**
+	 * Superior limit of the rope
+	 */
+	private double ropeMax;
+
+	/**
+	 * Number of posterior samples
+	 */
+	private long nSamples;
+
+	/**
+	 * Number of posterior samples kept
+	 */
+	private int reservoirSize;
+
+	/**
+	 * Seed of the sampler
+	 */
+	private long seed;
+
+	/**
+	 * Flag for a seed fixed by the user
+	 */
+	private boolean seeded;
+
+	/**
+	 * Number of differences at each region
+	 */
+	private double counts [];
+
+	/**
+	 * Parameters of the posterior Dirichlet distribution
+	 */
+	private double alpha [];
+
+	/**
+	 * Posterior probability of each region
+	 */
+	private double probabilities [];
+
+	/**
+	 * Posterior samples kept
+	 */
+	private double sample [][];
+
+	/**
+	 * Default builder
+	 */
+	public BayesianSignTest(){
+
+		setReportFormat();
+		clearData();
+
+	}//end-method
+
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+
+		data=new DataTable();
+
+		performed=false;
+		dataReady=false;
+
+		differences=null;
+
+		s=1.0;
+		ropeMin=-0.01;
+		ropeMax=0.01;
+		nSamples=100000;
+		reservoirSize=10000;
+		seeded=false;
+
+		counts=null;
+		alpha=null;
+		probabilities=null;
+		sample=null;
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param newData data to test (a column of differences, or two paired columns)
+	 */
+	public BayesianSignTest(DataTable newData){
+
+		setReportFormat();
+		clearData();
+		setData(newData);
+
+	}//end-method
+
+	/**
+	 * Builder. Load the differences to test.
+	 *
+	 * @param newDifferences differences between paired samples
+	 */
+	public BayesianSignTest(double newDifferences[]){
+
+		setReportFormat();
+		clearData();
+		setData(newDifferences);
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param newData data to test (a column of differences, or two paired columns)
+	 */
+	public void setData(DataTable newData){
+
+		int counter;
+		double diff [];
+
+		data=DataTable.newInstance(newData);
+
+		if((data.getColumns()!=1)&&(data.getColumns()!=2)){
+			System.out.println("Bayesian Sign test only can be employed with a sample of differences or two paired samples");
+			clearData();
+			return;
+		}
+
+		diff=new double [data.getRows()];
+		counter=0;
+
+		for(int i=0;i<data.getRows();i++){
+
+			if(data.getRowNulls(i)==0){
+				if(data.getColumns()==1){
+					diff[counter]=data.get(i, 0);
+				}
+				else{
+					diff[counter]=data.get(i, 0)-data.get(i, 1);
+				}
+				counter++;
+			}
+		}
+
+		differences=Arrays.copyOf(diff, counter);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the differences to test
+	 *
+	 * @param newDifferences differences between paired samples
+	 */
+	public void setData(double newDifferences[]){
+
+		int counter;
+
+		differences=new double [newDifferences.length];
+		counter=0;
+
+		for(int i=0;i<newDifferences.length;i++){
+			if(newDifferences[i]!=DataDefinitions.NULL_VALUE){
+				differences[counter]=newDifferences[i];
+				counter++;
+			}
+		}
+
+		differences=Arrays.copyOf(differences, counter);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the prior strength
+	 *
+	 * @param strength prior strength (s)
+	 */
+	public void setPrior(double strength){
+
+		s=strength;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the region of practical equivalence
+	 *
+	 * @param min inferior limit of the rope
+	 * @param max superior limit of the rope
+	 */
+	public void setRope(double min, double max){
+
+		if(min>max){
+			System.out.println("The inferior limit of the rope should be smaller than the superior limit");
+			return;
+		}
+
+		ropeMin=min;
+		ropeMax=max;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the number of posterior samples
+	 *
+	 * @param samples number of samples
+	 */
+	public void setSamples(long samples){
+
+		if(samples>0){
+			nSamples=samples;
+			performed=false;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the number of posterior samples kept for plotting
+	 *
+	 * @param size number of samples kept (0 to keep none)
+	 */
+	public void setReservoir(int size){
+
+		if(size>=0){
+			reservoirSize=size;
+			performed=false;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the seed of the sampler
+	 *
+	 * @param newSeed seed
+	 */
+	public void setSeed(long newSeed){
+
+		seed=newSeed;
+		seeded=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Perform the test
+	 */
+	public void doTest(){
+
+		final int categories;
+		final int blocks;
+		final int kept;
+		final double sums [][];
+		final DirichletSampler streams [];
+
+		if(!dataReady){
+			System.out.println("Data is not ready");
+			return;
+		}
+
+		startExecution("doTest", data.getRows()*data.getColumns());
+
+		computeCounts();
+
+		categories=alpha.length;
+		kept=(int)Math.min(reservoirSize, nSamples);
+		blocks=(int)((nSamples+DirichletSampler.BLOCK_SIZE-1)/DirichletSampler.BLOCK_SIZE);
+
+		sample=new double [kept][categories];
+		sums=new double [blocks][categories];
+		streams=(seeded ? new DirichletSampler(seed) : new DirichletSampler()).split(blocks);
+
+		IntStream.range(0, blocks).parallel().forEach(block -> {
+
+			double theta [] = new double [categories];
+			long start = (long)block*DirichletSampler.BLOCK_SIZE;
+			long end = Math.min(nSamples, start+DirichletSampler.BLOCK_SIZE);
+
+			for(long k=start;k<end;k++){
+
+				streams[block].nextDirichlet(alpha, theta);
+
+				for(int i=0;i<categories;i++){
+					sums[block][i]+=theta[i];
+				}
+
+				if(k<kept){
+					System.arraycopy(theta, 0, sample[(int)k], 0, categories);
+				}
+			}
+		});
+
+		probabilities=new double [categories];
+		for(int block=0;block<blocks;block++){
+			for(int i=0;i<categories;i++){
+				probabilities[i]+=sums[block][i];
+			}
+		}
+		for(int i=0;i<categories;i++){
+			probabilities[i]/=(double)nSamples;
+		}
+
+		endExecution();
+
+		performed=true;
+
+	}//end-method
+
+	/**
+	 * Collapses the differences into the regions, and computes the
+	 * parameters of the posterior distribution
+	 */
+	private void computeCounts(){
+
+		double left,rope,right;
+
+		left=0.0;
+		rope=0.0;
+		right=0.0;
+
+		if(ropeMin!=ropeMax){
+
+			for(int i=0;i<differences.length;i++){
+				if(differences[i]<ropeMin){
+					left+=1.0;
+				}
+				else if(differences[i]>ropeMax){
+					right+=1.0;
+				}
+				else{
+					rope+=1.0;
+				}
+			}
+
+			counts=new double [] {left, rope, right};
+			alpha=new double [] {left+s/3.0, rope+s/3.0, right+s/3.0};
+			return;
+		}
+
+		//a single point rope: ties count half at each side
+		for(int i=0;i<differences.length;i++){
+			if(differences[i]<ropeMin){
+				left+=1.0;
+			}
+			else if(differences[i]==ropeMin){
+				left+=0.5;
+			}
+		}
+		right=differences.length-left;
+
+		counts=new double [] {left, right};
+
+		//the prior is placed at the side with more differences
+		if(left>right){
+			alpha=new double [] {left+s, right};
+		}
+		else if(left<right){
+			alpha=new double [] {left, right+s};
+		}
+		else{
+			alpha=new double [] {left+s/2.0, right+s/2.0};
+		}
+
+	}//end-method
+
+	/**
+	 * Get the number of differences at each region
+	 *
+	 * @return counts (left, rope, right), or (left, right) if the rope is a point
+	 */
+	public double [] getCounts(){
+
+		return counts;
+
+	}//end-method
+
+	/**
+	 * Get the posterior probability of each region
+	 *
+	 * @return probabilities (left, rope, right), or (left, right) if the rope is a point
+	 */
+	public double [] getProbabilities(){
+
+		return probabilities;
+
+	}//end-method
+
+	/**
+	 * Get the posterior samples kept
+	 *
+	 * @return posterior samples (one row per sample)
+	 */
+	public double [][] getSample(){
+
+		return sample;
+
+	}//end-method
+
+	/**
+	 * Prints the data stored in the test
+	 *
+	 * @return Data stored
+	 */
+	public String printData(){
+
+		String text="";
+
+		text+="\n"+Arrays.toString(differences)+"\n";
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the results of the test
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+
+		report+="\n*****************************\n";
+		report+="Bayesian Sign test\n";
+		report+="*****************************\n\n";
+
+		report+="Prior strength: "+nf6.format(s)+"\n";
+		report+="Rope: ["+nf6.format(ropeMin)+","+nf6.format(ropeMax)+"]\n";
+		report+="Posterior samples: "+nSamples+"\n\n";
+
+		report+="Probability (left): "+nf6.format(probabilities[0])+"\n";
+		if(probabilities.length==3){
+			report+="Probability (rope): "+nf6.format(probabilities[1])+"\n";
+		}
+		report+="Probability (right): "+nf6.format(probabilities[probabilities.length-1])+"\n\n";
+
+		return report;
+
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Left", "Rope", "Right"};
+	
+	/**
+	 * Get the results of the test in a single vector. The probability of
+	 * the rope is 0 if the rope is a single point
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		if(probabilities==null){
+			return new double [RESULTS.length];
+		}
+		
+		if(probabilities.length==2){
+			return new double [] {probabilities[0], 0.0, probabilities[1]};
+		}
+		
+		return new double [] {probabilities[0], probabilities[1], probabilities[2]};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param differences differences between the samples
+	 * @param strength strength of the prior
+	 * @param min lower limit of the rope
+	 * @param max upper limit of the rope
+	 * @param samples number of Monte Carlo samples
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double differences[], double strength, double min, double max, long samples){
+		
+		BayesianSignTest test=new BayesianSignTest(differences);
+		
+		test.setPrior(strength);
+		test.setRope(min, max);
+		test.setSamples(samples);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
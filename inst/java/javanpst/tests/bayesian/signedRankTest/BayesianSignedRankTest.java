@@ -0,0 +1,573 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.tests.bayesian.signedRankTest;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javanpst.data.DataDefinitions;
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.bayesian.DirichletSampler;
+import javanpst.utils.Pair;
+
+/**
+ * The Bayesian Signed-Rank test (Benavoli et al., 2014).
+ *
+ * The posterior distribution of the differences is a Dirichlet process,
+ * with a pseudo-observation z0 of weight s as prior. For each posterior
+ * sample, the probabilities of the Walsh averages being at the left, inside
+ * or at the right of the region of practical equivalence (rope) are computed.
+ *
+ * Differences are sorted once, so the pairs (i,j) whose sum falls at each
+ * side of the rope are described by two monotone index arrays. Each
+ * posterior sample is then evaluated in linear time through the prefix sums
+ * of its weights. Samples are drawn in parallel blocks.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BayesianSignedRankTest extends StatisticalTest{
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+
+	/**
+	 * Differences between samples
+	 */
+	private double differences [];
+
+	/**
+	 * Prior strength
+	 */
+	private double s;
+
+	/**
+	 * Prior pseudo-observation
+	 */
+	private double z0;
+
+	/**
+	 * Dirichlet weights of the pseudo-observation and the differences
+	 */
+	private double weights [];
+
+	/**
+	 * Inferior limit of the rope
+	 */
+	private double ropeMin;
+
+	/**
+	 * Superior limit of the rope
+	 */
+	private double ropeMax;
+
+	/**
+	 * Number of posterior samples
+	 */
+	private int nSamples;
+
+	/**
+	 * Seed of the sampler
+	 */
+	private long seed;
+
+	/**
+	 * Flag for a seed fixed by the user
+	 */
+	private boolean seeded;
+
+	/**
+	 * Posterior sample (left, rope, right)
+	 */
+	private double sample [][];
+
+	/**
+	 * Posterior probability of the left region
+	 */
+	private double left;
+
+	/**
+	 * Posterior probability of the rope
+	 */
+	private double rope;
+
+	/**
+	 * Posterior probability of the right region
+	 */
+	private double right;
+
+	/**
+	 * Default builder
+	 */
+	public BayesianSignedRankTest(){
+
+		setReportFormat();
+		clearData();
+
+	}//end-method
+
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+
+		data=new DataTable();
+
+		performed=false;
+		dataReady=false;
+
+		differences=null;
+		weights=null;
+		sample=null;
+
+		s=0.5;
+		z0=0.0;
+		ropeMin=-0.01;
+		ropeMax=0.01;
+		nSamples=10000;
+		seeded=false;
+
+		left=-1.0;
+		rope=-1.0;
+		right=-1.0;
+
+	}//end-method
+
+	/**
+	 * Builder. Load data to test.
+	 *
+	 * @param newData data to test (a column of differences, or two paired columns)
+	 */
+	public BayesianSignedRankTest(DataTable newData){
+
+		setReportFormat();
+		clearData();
+		setData(newData);
+
+	}//end-method
+
+	/**
+	 * Builder. Load the differences to test.
+	 *
+	 * @param newDifferences differences between paired samples
+	 */
+	public BayesianSignedRankTest(double newDifferences[]){
+
+		setReportFormat();
+		clearData();
+		setData(newDifferences);
+
+	}//end-method
+
+	/**
+	 * Sets data to test
+	 *
+	 * @param newData data to test (a column of differences, or two paired columns)
+	 */
+	public void setData(DataTable newData){
+
+		int counter;
+		double diff [];
+
+		data=DataTable.newInstance(newData);
+
+		if((data.getColumns()!=1)&&(data.getColumns()!=2)){
+			System.out.println("Bayesian Signed-Rank test only can be employed with a sample of differences or two paired samples");
+			clearData();
+			return;
+		}
+
+		diff=new double [data.getRows()];
+		counter=0;
+
+		for(int i=0;i<data.getRows();i++){
+
+			if(data.getRowNulls(i)==0){
+				if(data.getColumns()==1){
+					diff[counter]=data.get(i, 0);
+				}
+				else{
+					diff[counter]=data.get(i, 0)-data.get(i, 1);
+				}
+				counter++;
+			}
+		}
+
+		differences=Arrays.copyOf(diff, counter);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the differences to test
+	 *
+	 * @param newDifferences differences between paired samples
+	 */
+	public void setData(double newDifferences[]){
+
+		int counter;
+
+		differences=new double [newDifferences.length];
+		counter=0;
+
+		for(int i=0;i<newDifferences.length;i++){
+			if(newDifferences[i]!=DataDefinitions.NULL_VALUE){
+				differences[counter]=newDifferences[i];
+				counter++;
+			}
+		}
+
+		differences=Arrays.copyOf(differences, counter);
+
+		dataReady=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the prior of the test
+	 *
+	 * @param strength prior strength (s)
+	 * @param pseudo prior pseudo-observation (z0)
+	 */
+	public void setPrior(double strength, double pseudo){
+
+		s=strength;
+		z0=pseudo;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the Dirichlet weights of the pseudo-observation (first position)
+	 * and of each difference. Overrides the prior strength.
+	 *
+	 * @param newWeights weights (number of differences + 1 values)
+	 */
+	public void setWeights(double newWeights[]){
+
+		weights=Arrays.copyOf(newWeights, newWeights.length);
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the region of practical equivalence
+	 *
+	 * @param min inferior limit of the rope
+	 * @param max superior limit of the rope
+	 */
+	public void setRope(double min, double max){
+
+		if(min>max){
+			System.out.println("The inferior limit of the rope should be smaller than the superior limit");
+			return;
+		}
+
+		ropeMin=min;
+		ropeMax=max;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Sets the number of posterior samples
+	 *
+	 * @param samples number of samples
+	 */
+	public void setSamples(int samples){
+
+		if(samples>0){
+			nSamples=samples;
+			performed=false;
+		}
+
+	}//end-method
+
+	/**
+	 * Sets the seed of the sampler
+	 *
+	 * @param newSeed seed
+	 */
+	public void setSeed(long newSeed){
+
+		seed=newSeed;
+		seeded=true;
+		performed=false;
+
+	}//end-method
+
+	/**
+	 * Perform the test
+	 */
+	public void doTest(){
+
+		final int n;
+		final double values [];
+		final double alpha [];
+		final int leftEnd [];
+		final int rightStart [];
+		final DirichletSampler streams [];
+		Pair pairs [];
+		int pointer;
+
+		if(!dataReady){
+			System.out.println("Data is not ready");
+			return;
+		}
+
+		n=differences.length+1;
+
+		if((weights!=null)&&(weights.length!=n)){
+			System.out.println("The number of weights must be the number of differences plus one");
+			return;
+		}
+
+		startExecution("doTest", data.getRows()*data.getColumns());
+
+		//sort pseudo-observation and differences, along with their weights
+		pairs=new Pair[n];
+		pairs[0]=new Pair(z0,(weights==null) ? s : weights[0]);
+		for(int i=1;i<n;i++){
+			pairs[i]=new Pair(differences[i-1],(weights==null) ? 1.0 : weights[i]);
+		}
+		Arrays.sort(pairs);
+
+		values=new double [n];
+		alpha=new double [n];
+		for(int i=0;i<n;i++){
+			values[i]=pairs[i].a;
+			alpha[i]=pairs[i].b;
+		}
+
+		//leftEnd[i]: number of j with values[i]+values[j] <= 2*ropeMin
+		leftEnd=new int [n];
+		pointer=n;
+		for(int i=0;i<n;i++){
+			while((pointer>0)&&(values[i]+values[pointer-1]>2.0*ropeMin)){
+				pointer--;
+			}
+			leftEnd[i]=pointer;
+		}
+
+		//rightStart[i]: first j with values[i]+values[j] >= 2*ropeMax
+		rightStart=new int [n];
+		pointer=n;
+		for(int i=0;i<n;i++){
+			while((pointer>0)&&(values[i]+values[pointer-1]>=2.0*ropeMax)){
+				pointer--;
+			}
+			rightStart[i]=pointer;
+		}
+
+		sample=new double [nSamples][3];
+		streams=(seeded ? new DirichletSampler(seed) : new DirichletSampler()).split(DirichletSampler.getBlocks(nSamples));
+
+		IntStream.range(0, streams.length).parallel().forEach(block -> {
+
+			double w [] = new double [n];
+			double prefix [] = new double [n+1];
+			double sumLeft, sumRight;
+			int end = Math.min(nSamples, (block+1)*DirichletSampler.BLOCK_SIZE);
+
+			for(int k=block*DirichletSampler.BLOCK_SIZE;k<end;k++){
+
+				streams[block].nextDirichlet(alpha, w);
+
+				prefix[0]=0.0;
+				for(int i=0;i<n;i++){
+					prefix[i+1]=prefix[i]+w[i];
+				}
+
+				sumLeft=0.0;
+				sumRight=0.0;
+				for(int i=0;i<n;i++){
+					sumLeft+=w[i]*prefix[leftEnd[i]];
+					sumRight+=w[i]*(prefix[n]-prefix[rightStart[i]]);
+				}
+
+				sample[k][0]=sumLeft;
+				sample[k][1]=1.0-sumLeft-sumRight;
+				sample[k][2]=sumRight;
+			}
+		});
+
+		left=0.0;
+		rope=0.0;
+		right=0.0;
+
+		for(int k=0;k<nSamples;k++){
+			left+=sample[k][0];
+			rope+=sample[k][1];
+			right+=sample[k][2];
+		}
+
+		left/=(double)nSamples;
+		rope/=(double)nSamples;
+		right/=(double)nSamples;
+
+		endExecution();
+
+		performed=true;
+
+	}//end-method
+
+	/**
+	 * Get posterior probability of the left region
+	 *
+	 * @return left probability
+	 */
+	public double getLeftProbability(){
+
+		return left;
+
+	}//end-method
+
+	/**
+	 * Get posterior probability of the rope
+	 *
+	 * @return rope probability
+	 */
+	public double getRopeProbability(){
+
+		return rope;
+
+	}//end-method
+
+	/**
+	 * Get posterior probability of the right region
+	 *
+	 * @return right probability
+	 */
+	public double getRightProbability(){
+
+		return right;
+
+	}//end-method
+
+	/**
+	 * Get the posterior sample. Each row holds the
+	 * (left, rope, right) probabilities of a sample.
+	 *
+	 * @return posterior sample
+	 */
+	public double [][] getSample(){
+
+		return sample;
+
+	}//end-method
+
+	/**
+	 * Prints the data stored in the test
+	 *
+	 * @return Data stored
+	 */
+	public String printData(){
+
+		String text="";
+
+		text+="\n"+Arrays.toString(differences)+"\n";
+
+		return text;
+
+	}//end-method
+
+	/**
+	 * Prints a report with the results of the test
+	 *
+	 * @return Output report
+	 */
+	public String printReport(){
+
+		String report="";
+
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+
+		report+="\n*****************************\n";
+		report+="Bayesian Signed-Rank test\n";
+		report+="*****************************\n\n";
+
+		report+="Rope: ["+nf6.format(ropeMin)+","+nf6.format(ropeMax)+"]\n";
+		report+="Posterior samples: "+nSamples+"\n\n";
+
+		report+="Probability (left): "+nf6.format(left)+"\n";
+		report+="Probability (rope): "+nf6.format(rope)+"\n";
+		report+="Probability (right): "+nf6.format(right)+"\n\n";
+
+		return report;
+
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"LeftProbability", "RopeProbability", "RightProbability"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getLeftProbability(), getRopeProbability(), getRightProbability()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param differences differences between the samples
+	 * @param strength strength of the prior
+	 * @param pseudo value of the pseudo-observation
+	 * @param min lower limit of the rope
+	 * @param max upper limit of the rope
+	 * @param samples number of Monte Carlo samples
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double differences[], double strength, double pseudo, double min, double max, int samples){
+		
+		BayesianSignedRankTest test=new BayesianSignedRankTest(differences);
+		
+		test.setPrior(strength, pseudo);
+		test.setRope(min, max);
+		test.setSamples(samples);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
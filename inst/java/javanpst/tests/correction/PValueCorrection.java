@@ -0,0 +1,419 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.correction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javanpst.utils.Ranks;
+
+/**
+ * Multiple testing corrections for large sets of p-values.
+ * 
+ * Adjusts a vector of p-values by the procedures of Bonferroni, Holm,
+ * Hochberg, Benjamini-Hochberg, Benjamini-Yekutieli, and computes Storey
+ * q-values. The values are sorted once, and every procedure is applied in
+ * a single sweep over the sorted values, working on primitive arrays. The
+ * results can be written into an array given by the caller (even the array
+ * of p-values itself).
+ * 
+ * P-values spilled to disk (as 8 bytes big-endian doubles) can also be 
+ * adjusted in two passes: the first one keeps only the sorted values, and 
+ * the second one streams the adjusted values to another file, in the 
+ * original order.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class PValueCorrection{
+	
+	/**
+	 * Correction methods
+	 */
+	public static final int BONFERRONI = 0, HOLM = 1, HOCHBERG = 2, BH = 3, BY = 4, STOREY = 5;
+	
+	/**
+	 * Names of the correction methods
+	 */
+	public static final String METHODS [] = {"Bonferroni", "Holm", "Hochberg", "BH", "BY", "Storey"};
+	
+	/**
+	 * Default lambda for the estimation of the proportion of true null hypotheses
+	 */
+	public static final double DEFAULT_LAMBDA = 0.5;
+	
+	/**
+	 * Size of the buffers of the files
+	 */
+	private static final int BUFFER_SIZE = 1<<16;
+	
+	/**
+	 * Adjusts a vector of p-values
+	 * 
+	 * @param p p-values
+	 * @param method correction method
+	 * @return adjusted p-values
+	 */
+	public static double [] adjust(double p[], int method){
+		
+		double adjusted []=new double [p.length];
+		
+		adjust(p, method, adjusted, null);
+		
+		return adjusted;
+		
+	}//end-method
+	
+	/**
+	 * Adjusts a vector of p-values, without allocating the result
+	 * 
+	 * @param p p-values
+	 * @param method correction method
+	 * @param adjusted array to store the adjusted p-values (may be p itself)
+	 * @param order work array for the sort (null to allocate it)
+	 */
+	public static void adjust(double p[], int method, double adjusted[], int order[]){
+		
+		if(method==BONFERRONI){
+			for(int i=0;i<p.length;i++){
+				adjusted[i]=Math.min(1.0, p.length*p[i]);
+			}
+			return;
+		}
+		
+		if(order==null){
+			order=new int [p.length];
+		}
+		Ranks.argsort(p, order);
+		
+		adjustOrdered(p, order, method, (method==STOREY) ? pi0(p, DEFAULT_LAMBDA) : 1.0, adjusted);
+		
+	}//end-method
+	
+	/**
+	 * Adjusts a vector of p-values by all the methods, with a single sort
+	 * 
+	 * @param p p-values
+	 * @return adjusted p-values of each method (in the order of METHODS)
+	 */
+	public static double [][] adjustAll(double p[]){
+		
+		double adjusted [][]=new double [METHODS.length][p.length];
+		int order []=new int [p.length];
+		double pi0;
+		
+		Ranks.argsort(p, order);
+		pi0=pi0(p, DEFAULT_LAMBDA);
+		
+		for(int method=0;method<METHODS.length;method++){
+			adjustOrdered(p, order, method, pi0, adjusted[method]);
+		}
+		
+		return adjusted;
+		
+	}//end-method
+	
+	/**
+	 * Computes Storey q-values
+	 * 
+	 * @param p p-values
+	 * @param lambda threshold for the estimation of the proportion of true null hypotheses
+	 * @return q-values
+	 */
+	public static double [] qValues(double p[], double lambda){
+		
+		double q []=new double [p.length];
+		int order []=new int [p.length];
+		
+		Ranks.argsort(p, order);
+		adjustOrdered(p, order, STOREY, pi0(p, lambda), q);
+		
+		return q;
+		
+	}//end-method
+	
+	/**
+	 * Estimates the proportion of true null hypotheses, as the proportion 
+	 * of p-values greater than lambda over the expected one (1-lambda). At 
+	 * least one p-value is counted, so the estimation is always positive
+	 * 
+	 * @param p p-values
+	 * @param lambda threshold
+	 * @return proportion estimated (up to 1)
+	 */
+	public static double pi0(double p[], double lambda){
+		
+		int count=0;
+		
+		if(p.length==0){
+			return 1.0;
+		}
+		
+		for(int i=0;i<p.length;i++){
+			if(p[i]>lambda){
+				count++;
+			}
+		}
+		
+		return Math.min(1.0, Math.max(count, 1)/(p.length*(1.0-lambda)));
+		
+	}//end-method
+	
+	/**
+	 * Adjusts a vector of p-values already sorted in ascending order
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param method correction method
+	 * @param adjusted array to store the adjusted p-values (may be sorted itself)
+	 */
+	public static void adjustSorted(double sorted[], int method, double adjusted[]){
+		
+		adjustOrdered(sorted, null, method, (method==STOREY) ? pi0(sorted, DEFAULT_LAMBDA) : 1.0, adjusted);
+		
+	}//end-method
+	
+	/**
+	 * Applies a correction method in a sweep over the sorted p-values. Each 
+	 * p-value is read before its adjusted value is written, so both arrays
+	 * can be the same
+	 * 
+	 * @param p p-values
+	 * @param order indexes that sort the p-values (null if they are sorted)
+	 * @param method correction method
+	 * @param pi0 proportion of true null hypotheses (Storey q-values)
+	 * @param adjusted array to store the adjusted p-values
+	 */
+	private static void adjustOrdered(double p[], int order[], int method, double pi0, double adjusted[]){
+		
+		int n=p.length;
+		int index;
+		double value,factor;
+		
+		switch(method){
+		
+		case BONFERRONI:
+			for(int i=0;i<n;i++){
+				adjusted[i]=Math.min(1.0, n*p[i]);
+			}
+			break;
+			
+		case HOLM:
+			value=0.0;
+			for(int i=0;i<n;i++){
+				index=(order==null) ? i : order[i];
+				value=Math.max(value, Math.min(1.0, (n-i)*p[index]));
+				adjusted[index]=value;
+			}
+			break;
+			
+		case HOCHBERG:
+			value=1.0;
+			for(int i=n-1;i>=0;i--){
+				index=(order==null) ? i : order[i];
+				value=Math.min(value, (n-i)*p[index]);
+				adjusted[index]=value;
+			}
+			break;
+			
+		case BH:
+		case BY:
+		case STOREY:
+			factor=n;
+			if(method==BY){
+				value=0.0;
+				for(int i=1;i<=n;i++){
+					value+=1.0/i;
+				}
+				factor*=value;
+			}
+			if(method==STOREY){
+				factor=pi0*n;
+			}
+			value=1.0;
+			for(int i=n-1;i>=0;i--){
+				index=(order==null) ? i : order[i];
+				value=Math.min(value, factor*p[index]/(i+1));
+				adjusted[index]=value;
+			}
+			break;
+			
+		default:
+			System.out.println("Unknown correction method: "+method);
+		}
+		
+	}//end-method
+	
+	/**
+	 * Writes p-values to a file, to be adjusted later by adjustFile
+	 * 
+	 * @param p p-values
+	 * @param file path of the file
+	 * @param append true to add the values at the end of the file
+	 * @return true if the values have been written
+	 */
+	public static boolean spill(double p[], String file, boolean append){
+		
+		ByteBuffer buffer;
+		int from,piece;
+		
+		try(FileChannel channel=append ?
+				FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND) :
+				FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			
+			buffer=ByteBuffer.allocate(BUFFER_SIZE);
+			
+			for(from=0;from<p.length;from+=piece){
+				piece=Math.min(p.length-from, BUFFER_SIZE/8);
+				buffer.clear();
+				buffer.asDoubleBuffer().put(p, from, piece);
+				buffer.limit(piece*8);
+				while(buffer.hasRemaining()){
+					channel.write(buffer);
+				}
+			}
+			
+		}catch(IOException e){
+			System.out.println("Error writing "+file+": "+e.getMessage());
+			return false;
+		}
+		
+		return true;
+		
+	}//end-method
+	
+	/**
+	 * Adjusts the p-values of a file in two passes. The first pass reads 
+	 * and sorts the values, and the second one writes the adjusted value of 
+	 * each p-value to the output file, in the same order and format
+	 * 
+	 * @param input path of the file of p-values
+	 * @param output path of the file of adjusted p-values
+	 * @param method correction method
+	 * @return number of p-values adjusted (-1 if an error has been found)
+	 */
+	public static long adjustFile(String input, String output, int method){
+		
+		double sorted [];
+		double adjusted [];
+		double values [];
+		ByteBuffer inBuffer,outBuffer;
+		DoubleBuffer doubles;
+		long size;
+		int count,read,position;
+		
+		values=new double [BUFFER_SIZE/8];
+		inBuffer=ByteBuffer.allocate(BUFFER_SIZE);
+		outBuffer=ByteBuffer.allocate(BUFFER_SIZE);
+		
+		try(FileChannel in=FileChannel.open(Paths.get(input), StandardOpenOption.READ);
+			FileChannel out=FileChannel.open(Paths.get(output), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			
+			size=in.size();
+			if((size%8!=0)||(size/8>Integer.MAX_VALUE-8)){
+				System.out.println("Error reading "+input+". It is not a file of p-values.");
+				return -1;
+			}
+			
+			//first pass: sorted values
+			sorted=new double [(int)(size/8)];
+			count=0;
+			while((read=readValues(in, inBuffer, values))>0){
+				System.arraycopy(values, 0, sorted, count, read);
+				count+=read;
+			}
+			if(count!=sorted.length){
+				System.out.println("Error reading "+input+". The file has changed while being read.");
+				return -1;
+			}
+			
+			Arrays.sort(sorted);
+			adjusted=new double [sorted.length];
+			adjustSorted(sorted, method, adjusted);
+			
+			//second pass: adjusted values, in the original order
+			in.position(0);
+			while((read=readValues(in, inBuffer, values))>0){
+				
+				for(int i=0;i<read;i++){
+					position=Arrays.binarySearch(sorted, values[i]);
+					values[i]=(position>=0) ? adjusted[position] : Double.NaN;
+				}
+				
+				outBuffer.clear();
+				doubles=outBuffer.asDoubleBuffer();
+				doubles.put(values, 0, read);
+				outBuffer.limit(read*8);
+				while(outBuffer.hasRemaining()){
+					out.write(outBuffer);
+				}
+			}
+			
+		}catch(IOException e){
+			System.out.println("Error adjusting "+input+": "+e.getMessage());
+			return -1;
+		}
+		
+		return sorted.length;
+		
+	}//end-method
+	
+	/**
+	 * Reads the next block of values of a file
+	 * 
+	 * @param channel channel of the file
+	 * @param buffer buffer for the bytes read
+	 * @param values array to store the values
+	 * @return number of values read (0 at the end of the file)
+	 * @throws IOException if the file cannot be read
+	 */
+	private static int readValues(FileChannel channel, ByteBuffer buffer, double values[]) throws IOException{
+		
+		int read;
+		
+		buffer.clear();
+		
+		while(buffer.hasRemaining()&&((read=channel.read(buffer))!=-1)){
+			if(read==0){
+				break;
+			}
+		}
+		
+		buffer.flip();
+		read=buffer.remaining()/8;
+		buffer.asDoubleBuffer().get(values, 0, read);
+		
+		return read;
+		
+	}//end-method
+	
+}//end-class
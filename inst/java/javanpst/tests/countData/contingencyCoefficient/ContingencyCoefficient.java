@@ -187,6 +187,8 @@ public class ContingencyCoefficient extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		sumRow=new double [contingencyTable.length];
 		sumColumn=new double [contingencyTable[0].length];
 		
@@ -230,6 +232,8 @@ public class ContingencyCoefficient extends StatisticalTest{
 		C=Math.sqrt(Q/(Q+N));
 		phi=Math.sqrt(Q/(N));
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -350,4 +354,36 @@ public class ContingencyCoefficient extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Q", "C", "Phi", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getQ(), getC(), getPhi(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		ContingencyCoefficient test=new ContingencyCoefficient(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
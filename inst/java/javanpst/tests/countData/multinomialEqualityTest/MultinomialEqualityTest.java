@@ -192,6 +192,8 @@ public class MultinomialEqualityTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		sumColumns=new double [data.getColumns()];
 		
 		Arrays.fill(sumColumns, 0.0);
@@ -231,6 +233,8 @@ public class MultinomialEqualityTest extends StatisticalTest{
 		
 		pValue=computePValue(dF);
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -328,4 +332,36 @@ public class MultinomialEqualityTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Q", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getQ(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		MultinomialEqualityTest test=new MultinomialEqualityTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -220,6 +220,8 @@ public class OrderedEqualityTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		sumColumns=new double [data.getColumns()];
 		ranks=new double [data.getColumns()];
 		
@@ -283,6 +285,8 @@ public class OrderedEqualityTest extends StatisticalTest{
 		
 		computePValues();
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -437,4 +441,36 @@ public class OrderedEqualityTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Wx", "Wy", "Zleft", "Zright", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getWx(), getWy(), getZleft(), getZright(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		OrderedEqualityTest test=new OrderedEqualityTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
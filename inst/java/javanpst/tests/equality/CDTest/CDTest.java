@@ -211,6 +211,8 @@ public class CDTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		control= new double [data.getRows()];
 		
 		for(int i=0;i<data.getRows();i++){
@@ -239,6 +241,8 @@ public class CDTest extends StatisticalTest{
 		exactPValue=distribution.computeExactProbability(W,data.getRows()*data.getColumns(),data.getColumns(),data.getRows());
 		asymptoticPValue=distribution.computeAsymptoticProbability(W,data.getRows()*data.getColumns(),data.getColumns(),data.getRows());
 
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -329,5 +333,37 @@ public class CDTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"W", "Z", "ExactPValue", "AsymptoticPValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getW(), getZ(), getExactPValue(), getAsymptoticPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		CDTest test=new CDTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -197,6 +197,8 @@ public class JTTest extends StatisticalTest{
 			return;
 		}
 
+		startExecution("doTest", data.getRows()*data.getColumns());
+
 		B=0.0;
 
 		for(int first=0;first<data.getColumns()-1;first++){
@@ -229,6 +231,8 @@ public class JTTest extends StatisticalTest{
 
 		computePValue();
 
+		endExecution();
+
 		performed=true;
 
 	}//end-method
@@ -317,5 +321,37 @@ public class JTTest extends StatisticalTest{
 		return report;
 
 	}//end-method
-
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"B", "Z", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getB(), getZ(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		JTTest test=new JTTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
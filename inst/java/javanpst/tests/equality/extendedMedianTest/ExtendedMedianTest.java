@@ -229,6 +229,8 @@ public class ExtendedMedianTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		N=data.getRows()*data.getColumns();
 		
 		if(N%2==0){
@@ -272,6 +274,8 @@ public class ExtendedMedianTest extends StatisticalTest{
 		
 		computePValues(dF);
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -396,5 +400,37 @@ public class ExtendedMedianTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Median", "Q", "ImprovedQ", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getMedian(), getQ(), getImprovedQ(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		ExtendedMedianTest test=new ExtendedMedianTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
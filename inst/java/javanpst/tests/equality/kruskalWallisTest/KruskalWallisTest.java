@@ -30,6 +30,8 @@ import java.util.Arrays;
 
 import javanpst.data.structures.dataTable.DataTable;
 import javanpst.tests.StatisticalTest;
+import javanpst.tests.multiple.postHoc.PostHoc;
+import javanpst.utils.Ranks;
 import javanpst.distributions.common.continuous.ChiSquareDistribution;
 import javanpst.distributions.common.continuous.NormalDistribution;
 
@@ -44,10 +46,16 @@ import javanpst.distributions.common.continuous.NormalDistribution;
  * two location parameter differ.
  * 
  * Ties are broken by the midrank method (e.g. a tie in ranks 6 and 7 is assumed
- * as a 6.5 rank for both values).
+ * as a 6.5 rank for both values), and H is corrected for them.
+ * 
+ * The samples may have different sizes. They can be given as the columns of a
+ * table (null values are missing observations) or as a combined sample with the
+ * population of each value. The combined sample is sorted once, and the ranks
+ * are summed by populations in a single sweep.
  * 
  * A multiple-comparisons procedure (Bonferroni-Dunn), applied at 0.10 and 0.05
- * levels of significance is also provided.  
+ * levels of significance is also provided, with the Dunn z-score of each pair
+ * of populations.  
  * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
@@ -60,24 +68,29 @@ public class KruskalWallisTest extends StatisticalTest{
 	private DataTable data;
 	
 	/**
-	 * Populations samples
+	 * Values of the combined sample
 	 */
-	private double samples [][];
+	private double values [];
 	
 	/**
-	 * Total number of elements
+	 * Population of each value (from 0 to k-1)
 	 */
-	private double N;
+	private int groups [];
 	
 	/**
-	 * Array with all the values of the combined sample
+	 * Size of each population
 	 */
-	private double combined[];
+	private int sizes [];
 	
 	/**
-	 * Array of ranks
+	 * Total number of elements
 	 */
-	private double ranks [];
+	private double N;
+	
+	/**
+	 * Sum of (t^3 - t) over the groups of t tied values
+	 */
+	private double tiesWeight;
 	
 	/**
 	 * Sum of ranks for each population
@@ -89,6 +102,11 @@ public class KruskalWallisTest extends StatisticalTest{
 	 */
 	private double avgRanks[];
 	
+	/**
+	 * Dunn z-scores for each pair of populations
+	 */
+	private double zScores [][];
+	
 	/**
 	 * H statistic
 	 */
@@ -130,11 +148,15 @@ public class KruskalWallisTest extends StatisticalTest{
 		dataReady=false;
 		
 		H=0.0;
+		N=0.0;
+		tiesWeight=0.0;
 		
-		samples=null;
-		ranks=null;
+		values=null;
+		groups=null;
+		sizes=null;
 		sumRanks=null;
 		avgRanks=null;
+		zScores=null;
 		
 		pValue=-1.0;
 		
@@ -148,80 +170,119 @@ public class KruskalWallisTest extends StatisticalTest{
 	public KruskalWallisTest(DataTable newData){
 		
 		setReportFormat();
+		setData(newData);
 		
-		data=DataTable.newInstance(newData);
+	}//end-method
+	
+	/**
+	 * Builder. Load data to test, as a combined sample and the population
+	 * of each value.
+	 * 
+	 * @param newValues values of the combined sample
+	 * @param newGroups population of each value (from 0 to k-1)
+	 */
+	public KruskalWallisTest(double newValues[], int newGroups[]){
 		
-		if(data.getColumns()<3){
-			System.out.println("Extended median test only can be employed with more than two samples");
-			clearData();
-			return;
-		}
+		setReportFormat();
+		setData(newValues, newGroups);
 		
-		for(int i=0;i<data.getColumns();i++){
-			if(data.getColumnNulls(i)>0){
-				System.out.println("No null values allowed in this test.");
-				clearData();
-				return;
-			}
-		}
+	}//end-method
+	
+	/**
+	 * Sets data to test. Each column is a population. Null values are
+	 * taken as missing observations, so the populations may have
+	 * different sizes.
+	 * 
+	 * @param newData data to test.
+	 */
+	public void setData(DataTable newData){
 		
-		samples=new double[data.getRows()][data.getColumns()];
-		combined=new double[data.getRows()*data.getColumns()];
-		ranks=new double[combined.length];
+		double newValues [];
+		int newGroups [];
+		int counter;
 		
-		for(int i=0;i<data.getRows();i++){
-			
-			for(int j=0;j<data.getColumns();j++){
-				samples[i][j]=data.get(i, j);
-				combined[(i*data.getColumns())+j]=data.get(i, j);
+		data=DataTable.newInstance(newData);
+		
+		newValues=new double [data.getRows()*data.getColumns()];
+		newGroups=new int [newValues.length];
+		counter=0;
+		
+		for(int j=0;j<data.getColumns();j++){
+			for(int i=0;i<data.getRows();i++){
+				if(!data.isNull(i, j)){
+					newValues[counter]=data.get(i, j);
+					newGroups[counter]=j;
+					counter++;
+				}
 			}
-			
 		}
-
-		Arrays.sort(combined);
 		
-		dataReady=true;
-		performed=false;
+		load(Arrays.copyOf(newValues, counter), Arrays.copyOf(newGroups, counter), data.getColumns());
 		
 	}//end-method
 	
 	/**
-	 * Sets data to test
+	 * Sets data to test, as a combined sample and the population of each value.
 	 * 
-	 * @param newData data to test.
+	 * @param newValues values of the combined sample
+	 * @param newGroups population of each value (from 0 to k-1)
 	 */
-	public void setData(DataTable newData){
+	public void setData(double newValues[], int newGroups[]){
 		
-		data=DataTable.newInstance(newData);
+		int k;
+		
+		data=new DataTable();
 		
-		if(data.getColumns()<3){
-			System.out.println("Extended median test only can be employed with more than two samples");
+		if(newValues.length!=newGroups.length){
+			System.out.println("The number of values and populations must be the same.");
 			clearData();
 			return;
 		}
 		
-		for(int i=0;i<data.getColumns();i++){
-			if(data.getColumnNulls(i)>0){
-				System.out.println("No null values allowed in this test.");
+		k=0;
+		for(int i=0;i<newGroups.length;i++){
+			if(newGroups[i]<0){
+				System.out.println("Populations must be numbered from 0.");
 				clearData();
 				return;
 			}
+			k=Math.max(k, newGroups[i]+1);
 		}
 		
-		samples=new double[data.getRows()][data.getColumns()];
-		combined=new double[data.getRows()*data.getColumns()];
-		ranks=new double[combined.length];
+		load(newValues.clone(), newGroups.clone(), k);
 		
-		for(int i=0;i<data.getRows();i++){
-			
-			for(int j=0;j<data.getColumns();j++){
-				samples[i][j]=data.get(i, j);
-				combined[(i*data.getColumns())+j]=data.get(i, j);
+	}//end-method
+	
+	/**
+	 * Stores the combined sample, checking the populations
+	 * 
+	 * @param newValues values of the combined sample
+	 * @param newGroups population of each value
+	 * @param k number of populations
+	 */
+	private void load(double newValues[], int newGroups[], int k){
+		
+		if(k<3){
+			System.out.println("Kruskal-Wallis test only can be employed with more than two samples");
+			clearData();
+			return;
+		}
+		
+		sizes=new int [k];
+		for(int i=0;i<newGroups.length;i++){
+			sizes[newGroups[i]]++;
+		}
+		
+		for(int j=0;j<k;j++){
+			if(sizes[j]==0){
+				System.out.println("Population "+(j+1)+" has no values.");
+				clearData();
+				return;
 			}
-			
 		}
-
-		Arrays.sort(combined);
+		
+		values=newValues;
+		groups=newGroups;
 		
 		dataReady=true;
 		performed=false;
@@ -233,113 +294,92 @@ public class KruskalWallisTest extends StatisticalTest{
 	 */
 	public void doTest(){
 		
-		int counter,i,sample;
-		double sum;
-		double mediumRank;
-		double value;
-		boolean found;
-		int position;
-		double term1, term2;
+		int k;
+		double term;
+		double correction;
 		
 		if(!dataReady){		
 			System.out.println("Data is not ready");
 			return;	
 		}
 		
-		for(i=0;i<combined.length-1;i++){
-			
-			if(combined[i]!=combined[i+1]){
-				ranks[i]=(i+1);
-			}
-			else{
-				counter=2;
-				sum=(2*i)+3;
-				while(((i+counter)<combined.length)&&(combined[i]==combined[i+counter])){
-					sum+=(i+counter);
-					counter++;
-				}
-				counter--;
-				mediumRank=sum/(counter+1);
-				for(int j=0;j<counter+1;j++){
-					ranks[i+j]=mediumRank;
-				}
-				i+=counter;
-			}
-		}
+		k=sizes.length;
+		N=values.length;
 		
-		if(i==combined.length-1){
-			ranks[i]=(i+1);
-		}
+		sumRanks=new double[k];
+		avgRanks=new double[k];
 		
-		sumRanks=new double[samples[0].length];
-		avgRanks=new double[samples[0].length];
-		
-		Arrays.fill(sumRanks, 0.0);
-		for(sample=0;sample<samples[0].length;sample++){
-			for(int j=0;j<samples.length;j++){
-				value=samples[j][sample];
-				found=false;
-				position=-1;
-				for(int k=0;!found;k++){
-					if(combined[k]==value){
-						found=true;
-						position=k;
-					}
-				}
-				sumRanks[sample]+=ranks[position];
-			}
-		}
+		startExecution("doTest", values.length);
+		startPhase("ranking");
 		
-		for(i=0;i<samples[0].length;i++){
-			avgRanks[i]=sumRanks[i]/(double)samples.length;
-		}
+		//ranks are summed by populations while the ties are counted
+		tiesWeight=Ranks.groupRankSums(values, groups, new int [values.length], sumRanks);
 		
-		N=combined.length;
+		startPhase("statistic");
 		
-		term1=12.0/(N*(N+1)*(N/sumRanks.length));
+		term=0.0;
+		for(int i=0;i<k;i++){
+			avgRanks[i]=sumRanks[i]/(double)sizes[i];
+			term+=(sumRanks[i]*sumRanks[i])/(double)sizes[i];
+		}
 		
-		term2=0.0;
+		H=((12.0/(N*(N+1.0)))*term)-(3.0*(N+1.0));
 		
-		for(i=0;i<sumRanks.length;i++){
-			
-			value=(sumRanks[i]*sumRanks[i]);
-			
-			term2+=value;
+		//correction for ties
+		correction=1.0-(tiesWeight/((N*N*N)-N));
+		if(correction>0.0){
+			H/=correction;
 		}
-
-		H=(term1*term2)-(3.0*(N+1.0));
-		int dF=sumRanks.length-1;
+		else{
+			H=0.0;
+		}
+		
+		startPhase("pValue");
+		
+		computePValue(k-1);
 		
-		computePValue(dF);
+		startPhase("multipleComparisons");
 		
 		multipleComparisonsProcedure();
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
 		
 	/**
-	 * Compute critical values for a multiple comparisons procedure (Bonferroni-Dunn)
+	 * Computes Dunn z-scores for each pair of populations, and critical values 
+	 * for a multiple comparisons procedure (Bonferroni-Dunn)
 	 */
 	private void multipleComparisonsProcedure(){	
 	
-		//Comparison of groups
-		
+		int k;
+		double variance;
 		double critical90,critical95;
 		
-		critical90=1.0-(0.1/(double)((sumRanks.length)*(sumRanks.length-1)));
-		critical95=1.0-(0.05/(double)((sumRanks.length)*(sumRanks.length-1)));
+		k=sumRanks.length;
 		
-		NormalDistribution normal=new NormalDistribution();
+		//variance of the ranks, corrected for ties
+		variance=((N*(N+1.0))/12.0)-(tiesWeight/(12.0*(N-1.0)));
 		
-		critical90=normal.inverseNormalDistribution(critical90);
-		critical95=normal.inverseNormalDistribution(critical95);
+		zScores=new double [k][k];
 		
-		double denominator;
-		denominator=Math.sqrt(((double)(N*(N+1))/12.0)*((1/(double)data.getRows())+(1/(double)data.getRows())));
+		for(int first=0;first<k;first++){
+			for(int second=first+1;second<k;second++){
+				zScores[first][second]=(avgRanks[first]-avgRanks[second])
+						/Math.sqrt(variance*((1.0/sizes[first])+(1.0/sizes[second])));
+				zScores[second][first]=-zScores[first][second];
+			}
+		}
+		
+		critical90=1.0-(0.1/(double)(k*(k-1)));
+		critical95=1.0-(0.05/(double)(k*(k-1)));
+		
+		NormalDistribution normal=new NormalDistribution();
 		
-		criticalZ90=critical90*denominator;
-		criticalZ95=critical95*denominator;
+		criticalZ90=normal.inverseNormalDistribution(critical90);
+		criticalZ95=normal.inverseNormalDistribution(critical95);
 	
 	}//end-method
 	
@@ -394,6 +434,51 @@ public class KruskalWallisTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Get the Dunn z-score of a pair of populations
+	 * 
+	 * @param first first population index (from 1 to k)
+	 * @param second second population index (from 1 to k)
+	 * @return z-score of the difference between their average ranks
+	 */
+	public double getZ(int first, int second){
+		
+		if((zScores!=null)&&(first>0)&&(second>0)&&(first<=zScores.length)&&(second<=zScores.length)){
+			return zScores[first-1][second-1];
+		}
+		
+		return 0.0;
+		
+	}//end-method
+	
+	/**
+	 * Get the Dunn z-scores of all the pairs of populations
+	 * 
+	 * @return matrix of z-scores (antisymmetric)
+	 */
+	public double [][] getZScores(){
+		
+		return zScores;
+		
+	}//end-method
+	
+	/**
+	 * Get the post-hoc pairwise comparisons of the populations, with their
+	 * p-values adjusted by Holm, Hochberg, Hommel, Finner, Li and Shaffer procedures
+	 * 
+	 * @return comparisons performed (null if the test has not been performed)
+	 */
+	public PostHoc getPostHoc(){
+		
+		if(!performed){
+			System.out.println("The test has not been performed.");
+			return null;
+		}
+		
+		return new PostHoc(zScores);
+		
+	}//end-method
+	
 	/**
 	 * Prints the data stored in the test
 	 * 
@@ -402,8 +487,20 @@ public class KruskalWallisTest extends StatisticalTest{
 	public String printData(){
 			
 		String text="";
-			
-		text+="\n"+data;
+		
+		if(data.getColumns()>0){
+			text+="\n"+data;
+			return text;
+		}
+		
+		if(values==null){
+			return text;
+		}
+		
+		text+="\n";
+		for(int i=0;i<values.length;i++){
+			text+=values[i]+"\t"+(groups[i]+1)+"\n";
+		}
 			
 		return text;
 			
@@ -422,6 +519,8 @@ public class KruskalWallisTest extends StatisticalTest{
 			report+="The test has not been performed.\n";
 			return report;
 		}
+		
+		startExecution("printReport", values.length);
 			
 		report+="\n***************************************\n";
 		report+="Kruskal-Wallis test\n";
@@ -459,6 +558,8 @@ public class KruskalWallisTest extends StatisticalTest{
 		report+="H statistic: "+nf6.format(H)+"\n\n";	
 		report+="P-Value computed :"+nf6.format(pValue)+"\n\n";
 				
+		endExecution();
+		
 		return report;
 			
 	}//end-method
@@ -470,32 +571,77 @@ public class KruskalWallisTest extends StatisticalTest{
 	 */
 	public String printMultipleComparisonsProcedureReport(){
 		
-		String report="";
+		StringBuilder report=new StringBuilder();
 		
 		if(!performed){
-			report+="The test has not been performed.\n";
-			return report;
+			return "The test has not been performed.\n";
 		}
 		
-		double Z;
-		
-		report+="\n***************************************\n";
-		report+="Multiple comparisons procedure (Kruskal-Wallis test)\n";
-		report+="***************************************\n\n";
+		report.append("\n***************************************\n");
+		report.append("Multiple comparisons procedure (Kruskal-Wallis test)\n");
+		report.append("***************************************\n\n");
 
-		report+="Critical values: Alpha=0.90: "+criticalZ90+" Alpha=0.95: "+criticalZ95+"\n\n";
+		report.append("Critical values: Alpha=0.90: "+criticalZ90+" Alpha=0.95: "+criticalZ95+"\n\n");
 		
-		report+="Individual comparisons:\n\n";
+		report.append("Individual comparisons:\n\n");
 		
-		for(int first=0;first<data.getColumns()-1;first++){
-			for(int second=first+1;second<data.getColumns();second++){
-				Z=Math.abs(avgRanks[first]-avgRanks[second]);
-				report+=(first+1)+" vs "+(second+1)+": Z= "+Z+"\n\n";		
+		for(int first=0;first<zScores.length-1;first++){
+			for(int second=first+1;second<zScores.length;second++){
+				report.append((first+1)+" vs "+(second+1)+": Z= "+Math.abs(zScores[first][second])+"\n\n");		
 			}
 		}
 		
-		return report;
+		return report.toString();
+		
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"H", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getH(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		KruskalWallisTest test=new KruskalWallisTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
 		
 	}//end-method
+	
+	/**
+	 * Performs the test in a single call, from a combined sample.
+	 * 
+	 * @param values values of the combined sample
+	 * @param groups population of each value (from 0 to k-1)
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double values[], int groups[]){
 		
+		KruskalWallisTest test=new KruskalWallisTest(values, groups);
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -496,6 +496,8 @@ public class A_DTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		F0=new double [sequence.size()];
 	
 		//compute F0
@@ -535,6 +537,8 @@ public class A_DTest extends StatisticalTest{
 		
 		pValue=computePValue(A);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -751,4 +755,38 @@ public class A_DTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"W2", "A", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {W2(), getA(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * The sequence is adjusted to a normal distribution, estimating its parameters.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		A_DTest test=new A_DTest(new NumericSequence(sequence));
+		
+		test.adjustNormal();
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -365,6 +365,8 @@ public class ChiSquareTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		chiSquare = new ChiSquareDistribution();
 		errorTable = new double [data.getRows()][2];
 		
@@ -397,6 +399,8 @@ public class ChiSquareTest extends StatisticalTest{
 		chiSquare.setDegree(freedomDegree);
 		pValue=chiSquare.computeCumulativeProbability(Q);
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -633,4 +637,59 @@ public class ChiSquareTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Q", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getQ(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * The data is adjusted to a binomial distribution, estimating its P parameter.
+	 * 
+	 * @param data data of the test, by rows
+	 * @param n N parameter of the distribution
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][], int n){
+		
+		ChiSquareTest test=new ChiSquareTest(new DataTable(data));
+		
+		test.adjustBinomial(n);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * The data is adjusted to a binomial distribution.
+	 * 
+	 * @param data data of the test, by rows
+	 * @param n N parameter of the distribution
+	 * @param p P parameter of the distribution
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][], int n, double p){
+		
+		ChiSquareTest test=new ChiSquareTest(new DataTable(data));
+		
+		test.adjustBinomial(n, p);
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -210,6 +210,8 @@ public class LillieforsTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		Dn=0.0;
 
 		//fill Sn
@@ -259,6 +261,8 @@ public class LillieforsTest extends StatisticalTest{
 			pValue=distribution.computeProbabilityExponential(sequence.size(), Dn);
 		}
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -388,4 +392,38 @@ public class LillieforsTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Dn", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getDn(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * The sequence is adjusted to a normal distribution.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		LillieforsTest test=new LillieforsTest(new NumericSequence(sequence));
+		
+		test.adjustNormal();
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -32,6 +32,8 @@ import javanpst.data.DataDefinitions;
 import javanpst.data.structures.dataTable.DataTable;
 import javanpst.distributions.common.continuous.NormalDistribution;
 import javanpst.tests.StatisticalTest;
+import javanpst.tests.pValue.LinearRankStatistic;
+import javanpst.tests.pValue.PValueStrategy;
 
 /**
  * The Normal scores test.
@@ -44,6 +46,10 @@ import javanpst.tests.StatisticalTest;
  * 
  * Ties are handled by the midranks method, and an appropriate
  * reduction of variance is considered.
+ * 
+ * Alternatively, a PValueStrategy can be set to choose the method of the
+ * p-values (saddlepoint, Monte Carlo or normal) from the size of the
+ * samples, a latency budget and an accuracy target.
  *  
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
@@ -110,6 +116,16 @@ public class NormalScoresTest extends StatisticalTest{
 	 */
 	private NormalDistribution normal;
 	
+	/**
+	 * Strategy to compute the adaptive p-values (null if not used)
+	 */
+	private PValueStrategy strategy;
+	
+	/**
+	 * Adaptive p-values, and method used
+	 */
+	private PValueStrategy.Result adaptive;
+	
 	/**
 	 * Default builder
 	 */
@@ -140,6 +156,8 @@ public class NormalScoresTest extends StatisticalTest{
 		asymptoticRight=-1.0;
 		asymptoticDouble=-1.0;
 		
+		adaptive=null;
+		
 	}//end-method
 	
 	/**
@@ -260,6 +278,8 @@ public class NormalScoresTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -348,6 +368,12 @@ public class NormalScoresTest extends StatisticalTest{
 		
 		computePValues();
 
+		if(strategy!=null){
+			adaptive=strategy.compute(new LinearRankStatistic(ranks, values1, normalStatistic));
+		}
+		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -440,6 +466,44 @@ public class NormalScoresTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Sets a strategy to compute the p-values adaptively, in addition to 
+	 * the ones computed by default
+	 * 
+	 * @param strategy strategy of the p-values (null to disable it)
+	 */
+	public void setPValueStrategy(PValueStrategy strategy){
+		
+		this.strategy=strategy;
+		
+	}//end-method
+	
+	/**
+	 * Get the adaptive p-values, with the method used to compute them
+	 * 
+	 * @return adaptive p-values (null if no strategy has been set)
+	 */
+	public PValueStrategy.Result getAdaptivePValues(){
+		
+		return adaptive;
+		
+	}//end-method
+	
+	/**
+	 * Get the name of the method used to compute the adaptive p-values
+	 * 
+	 * @return name of the method ("" if no strategy has been set)
+	 */
+	public String getPValueMethod(){
+		
+		if(adaptive==null){
+			return "";
+		}
+		
+		return adaptive.getMethodName();
+		
+	}//end-method
+	
 	/**
 	 * Prints the data stored in the test
 	 * 
@@ -480,8 +544,47 @@ public class NormalScoresTest extends StatisticalTest{
 		report+="Asymptotic P-Value (right tail): "+nf6.format(asymptoticRight)+"\n";
 		report+="Asymptotic P-Value (double tail): "+nf6.format(asymptoticDouble)+"\n\n";
 		
+		if(adaptive!=null){
+			report+="Adaptive P-Value (left tail): "+nf6.format(adaptive.getLeftPValue())+"\n";
+			report+="Adaptive P-Value (right tail): "+nf6.format(adaptive.getRightPValue())+"\n";
+			report+="Adaptive P-Value (double tail): "+nf6.format(adaptive.getDoublePValue())+"\n";
+			report+=adaptive+"\n\n";
+		}
+		
 		return report;
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"NormalStatistic1", "NormalStatistic2", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getNormalStatistic1(), getNormalStatistic2(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		NormalScoresTest test=new NormalScoresTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -34,6 +34,8 @@ import javanpst.distributions.DistributionDefinitions;
 import javanpst.distributions.common.continuous.NormalDistribution;
 import javanpst.distributions.tests.WilcoxonRankSumDistribution;
 import javanpst.tests.StatisticalTest;
+import javanpst.tests.pValue.LinearRankStatistic;
+import javanpst.tests.pValue.PValueStrategy;
 
 /**
  * The Wilcoxon Ranks-Sum test.
@@ -52,6 +54,10 @@ import javanpst.tests.StatisticalTest;
  * Ties are handled by the midranks method, and an appropriate
  * reduction of variance is considered.
  * 
+ * Alternatively, a PValueStrategy can be set to choose the method of the
+ * p-values (exact, saddlepoint, Monte Carlo or normal) from the size of the
+ * samples, a latency budget and an accuracy target.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
@@ -136,6 +142,16 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 	 * Exact confidence for both intervals
 	 */
 	double exactConfidence90,exactConfidence95;
+	
+	/**
+	 * Strategy to compute the adaptive p-values (null if not used)
+	 */
+	private PValueStrategy strategy;
+	
+	/**
+	 * Adaptive p-values, and method used
+	 */
+	private PValueStrategy.Result adaptive;
 
 	/**
 	 * Default builder
@@ -176,6 +192,8 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 		exactConfidence90=-1.0;
 		exactConfidence95=-1.0;
 		
+		adaptive=null;
+		
 	}//end-method
 	
 	/**
@@ -297,6 +315,8 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -384,6 +404,12 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 			computePValues();
 		}
 		
+		if(strategy!=null){
+			adaptive=strategy.compute(new LinearRankStatistic(ranks, Math.min(values1, values2), WRank));
+		}
+		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -615,6 +641,44 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Sets a strategy to compute the p-values adaptively, in addition to 
+	 * the ones computed by default
+	 * 
+	 * @param strategy strategy of the p-values (null to disable it)
+	 */
+	public void setPValueStrategy(PValueStrategy strategy){
+		
+		this.strategy=strategy;
+		
+	}//end-method
+	
+	/**
+	 * Get the adaptive p-values, with the method used to compute them
+	 * 
+	 * @return adaptive p-values (null if no strategy has been set)
+	 */
+	public PValueStrategy.Result getAdaptivePValues(){
+		
+		return adaptive;
+		
+	}//end-method
+	
+	/**
+	 * Get the name of the method used to compute the adaptive p-values
+	 * 
+	 * @return name of the method ("" if no strategy has been set)
+	 */
+	public String getPValueMethod(){
+		
+		if(adaptive==null){
+			return "";
+		}
+		
+		return adaptive.getMethodName();
+		
+	}//end-method
+	
 	/**
 	 * Prints the data stored in the test
 	 * 
@@ -666,10 +730,49 @@ public class WilcoxonRankSumTest extends StatisticalTest{
 		report+="Asymptotic P-Value (left tail): "+nf6.format(asymptoticLeftTail)+"\n";
 		report+="Asymptotic P-Value (right tail): "+nf6.format(asymptoticRightTail)+"\n";
 		report+="Asymptotic P-Value (double tail): "+nf6.format(asymptoticDoubleTail)+"\n\n";
+		
+		if(adaptive!=null){
+			report+="Adaptive P-Value (left tail): "+nf6.format(adaptive.getLeftPValue())+"\n";
+			report+="Adaptive P-Value (right tail): "+nf6.format(adaptive.getRightPValue())+"\n";
+			report+="Adaptive P-Value (double tail): "+nf6.format(adaptive.getDoublePValue())+"\n";
+			report+=adaptive+"\n\n";
+		}
 
 		return report;
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Statistic1", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "AsymptoticLeftPValue", "AsymptoticRightPValue", "AsymptoticDoublePValue", "ExactConfidence90", "ExactConfidence95"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getStatistic1(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getAsymptoticLeftPValue(), getAsymptoticRightPValue(), getAsymptoticDoublePValue(), getExactConfidence90(), getExactConfidence95()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		WilcoxonRankSumTest test=new WilcoxonRankSumTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
 
@@ -217,6 +217,8 @@ public class ConcordanceCoefficient extends StatisticalTest{
 			return;
 		}
 
+		startExecution("doTest", data.getRows()*data.getColumns());
+
 		computeRanks();
 
 		for(int i=0;i<data.getRows();i++){
@@ -237,6 +239,8 @@ public class ConcordanceCoefficient extends StatisticalTest{
 
 		computePValue(sumRanks.length-1);
 
+		endExecution();
+
 		performed=true;
 
 	}//end-method
@@ -413,5 +417,37 @@ public class ConcordanceCoefficient extends StatisticalTest{
 		return report;
 
 	}//end-method
-
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"S", "Q", "W", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getS(), getQ(), getW(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		ConcordanceCoefficient test=new ConcordanceCoefficient(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
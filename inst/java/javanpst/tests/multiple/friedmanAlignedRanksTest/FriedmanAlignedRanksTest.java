@@ -0,0 +1,418 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.multiple.friedmanAlignedRanksTest;
+
+import java.util.Arrays;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.distributions.common.continuous.ChiSquareDistribution;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.multiple.postHoc.PostHoc;
+import javanpst.utils.Ranks;
+
+/**
+ * The Friedman Aligned Ranks test.
+ * 
+ * This test can be applied to reject as null hypothesis that the k medians
+ * of the treatments (columns) are equal when applied to n blocks (rows).
+ * 
+ * The mean of each block is subtracted from its values, and the n*k aligned
+ * values are ranked jointly, so the ranks can be compared between blocks.
+ * Ties are broken by the midrank method. The T statistic is compared with
+ * a chi-square distribution with k-1 degrees of freedom.
+ * 
+ * Values are read from the columns of the table without copying them to 
+ * rows, aligned in a single array and ranked with one sort.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class FriedmanAlignedRanksTest extends StatisticalTest{
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+	
+	/**
+	 * Sum of aligned ranks for each population
+	 */
+	private double sumRanks[];
+	
+	/**
+	 * Average aligned rank for each population
+	 */
+	private double avgRanks[];
+	
+	/**
+	 * T statistic
+	 */
+	private double T;
+	
+	/**
+	 * P-value
+	 */
+	private double pValue;
+	
+	/**
+	 * Default builder
+	 */
+	public FriedmanAlignedRanksTest(){
+
+		setReportFormat();
+		clearData();
+		
+	}//end-method
+	
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+		
+		data=new DataTable();
+		
+		performed=false;
+		dataReady=false;
+		
+		T=0.0;
+		
+		sumRanks=null;
+		avgRanks=null;
+		
+		pValue=-1.0;
+		
+	}//end-method
+	
+	/**
+	 * Builder. Load data to test.
+	 * 
+	 * @param newData data to test.
+	 */
+	public FriedmanAlignedRanksTest(DataTable newData){
+		
+		setReportFormat();
+		setData(newData);
+		
+	}//end-method
+	
+	/**
+	 * Sets data to test
+	 * 
+	 * @param newData data to test.
+	 */
+	public void setData(DataTable newData){
+		
+		if(!checkData(newData, "Friedman Aligned-Rank test")){
+			clearData();
+			return;
+		}
+		
+		data=DataTable.newInstance(newData);
+		
+		sumRanks=new double[data.getColumns()];
+		avgRanks=new double [sumRanks.length];
+		
+		dataReady=true;
+		performed=false;
+		
+	}//end-method
+	
+	/**
+	 * Checks if a table can be analyzed with the aligned ranks
+	 * 
+	 * @param table data to test
+	 * @param name name of the test, for the error messages
+	 * @return true if the data is valid
+	 */
+	public static boolean checkData(DataTable table, String name){
+		
+		if(table.getColumns()<3){
+			System.out.println(name+" only can be employed with more than two samples");
+			return false;
+		}
+		
+		for(int i=0;i<table.getColumns();i++){
+			if(table.getColumnNulls(i)>0){
+				System.out.println("No null values allowed in this test.");
+				return false;
+			}
+		}
+		
+		return true;
+		
+	}//end-method
+	
+	/**
+	 * Performs the test
+	 */
+	public void doTest(){
+		
+		if(!dataReady){		
+			System.out.println("Data is not ready");
+			return;	
+		}
+		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		startPhase("ranking");
+		
+		T=alignedRanksStatistic(data, sumRanks);
+		
+		for(int j=0;j<sumRanks.length;j++){
+			avgRanks[j]=sumRanks[j]/(double)data.getRows();
+		}
+		
+		startPhase("pValue");
+		
+		ChiSquareDistribution chi=new ChiSquareDistribution();
+		
+		chi.setDegree(sumRanks.length-1);
+
+		//upper incomplete gamma: the complement of the lower tail bottoms out near 1e-10
+		pValue=chi.computeUpperTailProbability(T);
+		
+		endExecution();
+		
+		performed=true;
+		
+	}//end-method
+	
+	/**
+	 * Computes the T statistic of the aligned ranks of a table. 
+	 * 
+	 * The columns are copied into a single array, where each value is 
+	 * aligned by subtracting the mean of its row, and then replaced by its 
+	 * midrank among all the n*k aligned values.
+	 * 
+	 * @param table data (n rows, k columns, no null values)
+	 * @param sumRanks array to store the sum of aligned ranks of each column
+	 * @return T statistic
+	 */
+	public static double alignedRanksStatistic(DataTable table, double sumRanks[]){
+		
+		int n,k;
+		double values [];
+		double rowSums [];
+		int order [];
+		double N,sumCols,sumRows;
+		
+		n=table.getRows();
+		k=table.getColumns();
+		N=(double)n*k;
+		
+		values=new double [n*k];
+		rowSums=new double [n];
+		
+		for(int j=0;j<k;j++){
+			table.getColumnView(j).get(values, j*n, n);
+			for(int i=0;i<n;i++){
+				rowSums[i]+=values[j*n+i];
+			}
+		}
+		
+		//align the rows in place
+		for(int i=0;i<n;i++){
+			rowSums[i]/=k;
+		}
+		for(int j=0;j<k;j++){
+			for(int i=0;i<n;i++){
+				values[j*n+i]-=rowSums[i];
+			}
+		}
+		
+		//rank in place
+		order=new int [n*k];
+		Ranks.argsort(values, order);
+		Ranks.midranks(values, order, values);
+		
+		Arrays.fill(rowSums, 0.0);
+		sumCols=0.0;
+		for(int j=0;j<k;j++){
+			sumRanks[j]=0.0;
+			for(int i=0;i<n;i++){
+				sumRanks[j]+=values[j*n+i];
+				rowSums[i]+=values[j*n+i];
+			}
+			sumCols+=sumRanks[j]*sumRanks[j];
+		}
+		
+		sumRows=0.0;
+		for(int i=0;i<n;i++){
+			sumRows+=rowSums[i]*rowSums[i];
+		}
+		
+		return ((k-1.0)*(sumCols-(k*(double)n*n*(N+1.0)*(N+1.0))/4.0))/
+				((N*(N+1.0)*(2.0*N+1.0))/6.0-(sumRows/k));
+		
+	}//end-method
+	
+	/**
+	 * Get T statistic 
+	 * 
+	 * @return T statistic 
+	 */
+	public double getT(){
+		
+		return T;
+		
+	}//end-method
+	
+	/**
+	 * Get p-value 
+	 * 
+	 * @return p-value computed
+	 */
+	public double getPValue(){
+		
+		return pValue;
+		
+	}//end-method
+	
+	/**
+	 * Get average aligned rank of the selected population
+	 * 
+	 * @param pop population index (from 1 to k)
+	 * @return average aligned rank of the population
+	 */
+	public double getAvgRanks(int pop){
+		
+		if((avgRanks!=null)&&((pop-1)>-1)&&((pop-1)<avgRanks.length)){
+			return avgRanks[pop-1];
+		}
+		
+		return -1.0;
+		
+	}//end-method
+	
+	/**
+	 * Get the post-hoc pairwise comparisons of the populations. The standard
+	 * error of the difference of two average aligned ranks is sqrt(k(n+1)/6)
+	 * 
+	 * @return comparisons performed (null if the test has not been performed)
+	 */
+	public PostHoc getPostHoc(){
+		
+		if(!performed){
+			System.out.println("The test has not been performed.");
+			return null;
+		}
+		
+		double k=avgRanks.length;
+		
+		return PostHoc.fromRanks(avgRanks, Math.sqrt((k*(data.getRows()+1.0))/6.0));
+		
+	}//end-method
+	
+	/**
+	 * Prints the data stored in the test
+	 * 
+	 * @return Data stored
+	 */
+	public String printData(){
+			
+		String text="";
+			
+		text+="\n"+data;
+			
+		return text;
+			
+	}//end-method
+	
+	/**
+	 * Prints a report with the results of the test
+	 * 
+	 * @return Output report
+	 */
+	public String printReport(){
+			
+		StringBuilder report=new StringBuilder();
+		
+		if(!performed){
+			report.append("The test has not been performed.\n");
+			return report.toString();
+		}
+		
+		startExecution("printReport", data.getRows()*data.getColumns());
+			
+		report.append("\n******************\n");
+		report.append("Friedman Aligned Ranks test\n");
+		report.append("******************\n\n");
+		
+		report.append("Average aligned ranks:\n");
+		
+		for(int j=0;j<avgRanks.length;j++){
+			report.append("S").append(j+1).append("\t");
+		}
+		report.append("\n");
+		
+		for(int j=0;j<avgRanks.length;j++){
+			report.append(nf6.format(avgRanks[j])).append("\t");
+		}
+		report.append("\n\n");
+		
+		report.append("T statistic: ").append(nf6.format(T)).append("\n\n");
+		report.append("P-Value computed :").append(nf6.format(pValue)).append("\n\n");
+				
+		endExecution();
+		
+		return report.toString();
+			
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"T", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getT(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		FriedmanAlignedRanksTest test=new FriedmanAlignedRanksTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
@@ -32,6 +32,7 @@ import javanpst.data.structures.dataTable.DataTable;
 import javanpst.distributions.common.continuous.ChiSquareDistribution;
 import javanpst.distributions.common.continuous.NormalDistribution;
 import javanpst.tests.StatisticalTest;
+import javanpst.tests.multiple.postHoc.PostHoc;
 
 /**
  * The Friedman's test.
@@ -235,6 +236,9 @@ public class FriedmanTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		startPhase("ranking");
+		
 		computeRanks();
 		
 		for(int i=0;i<data.getRows();i++){
@@ -247,6 +251,8 @@ public class FriedmanTest extends StatisticalTest{
 			avgRanks[i]=sumRanks[i]/(double)data.getRows();
 		}
 		
+		startPhase("statistic");
+		
 		for(int j=0;j<data.getColumns();j++){
 			S+=(sumRanks[j]*sumRanks[j]);
 		}
@@ -256,10 +262,16 @@ public class FriedmanTest extends StatisticalTest{
 		
 		Q/=(data.getRows()*data.getColumns()*((data.getColumns()*data.getColumns())-1.0))-tiesWeight;
 		
+		startPhase("pValue");
+		
 		computePValue(sumRanks.length-1);
 		
+		startPhase("multipleComparisons");
+		
 		multipleComparisonsProcedure();
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -404,6 +416,25 @@ public class FriedmanTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Get the post-hoc pairwise comparisons of the populations, with their
+	 * p-values adjusted by Holm, Hochberg, Hommel, Finner, Li and Shaffer procedures
+	 * 
+	 * @return comparisons performed (null if the test has not been performed)
+	 */
+	public PostHoc getPostHoc(){
+		
+		if(!performed){
+			System.out.println("The test has not been performed.");
+			return null;
+		}
+		
+		double k=avgRanks.length;
+		
+		return PostHoc.fromRanks(avgRanks, Math.sqrt((k*(k+1.0))/(6.0*data.getRows())));
+		
+	}//end-method
+	
 	/**
 	 * Prints the data stored in the test
 	 * 
@@ -432,6 +463,8 @@ public class FriedmanTest extends StatisticalTest{
 			report+="The test has not been performed.\n";
 			return report;
 		}
+		
+		startExecution("printReport", data.getRows()*data.getColumns());
 			
 		report+="\n******************\n";
 		report+="Friedman test\n";
@@ -470,6 +503,8 @@ public class FriedmanTest extends StatisticalTest{
 		report+="Q statistic: "+nf6.format(Q)+"\n\n";
 		report+="P-Value computed :"+nf6.format(pValue)+"\n\n";
 				
+		endExecution();
+		
 		return report;
 			
 	}//end-method
@@ -508,5 +543,37 @@ public class FriedmanTest extends StatisticalTest{
 		return report;
 		
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"S", "Q", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getS(), getQ(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		FriedmanTest test=new FriedmanTest(new DataTable(data));
 		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -0,0 +1,296 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.multiple.imanDavenportTest;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.distributions.common.continuous.FDistribution;
+import javanpst.tests.StatisticalTest;
+import javanpst.tests.multiple.friedmanAlignedRanksTest.FriedmanAlignedRanksTest;
+
+/**
+ * The Iman-Davenport test.
+ * 
+ * This test can be applied to reject as null hypothesis that the k medians
+ * of the treatments (columns) are equal when applied to n blocks (rows).
+ * 
+ * The T statistic of the aligned ranks (see FriedmanAlignedRanksTest) is 
+ * transformed into F = (n-1)T / (n(k-1)-T), which is compared with a 
+ * F distribution with k-1 and (k-1)(n-1) degrees of freedom.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class ImanDavenportTest extends StatisticalTest{
+
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+	
+	/**
+	 * Sum of aligned ranks for each population
+	 */
+	private double sumRanks[];
+	
+	/**
+	 * T statistic
+	 */
+	private double T;
+	
+	/**
+	 * F statistic
+	 */
+	private double F;
+	
+	/**
+	 * P-values
+	 */
+	private double rightPValue,doublePValue;
+	
+	/**
+	 * Default builder
+	 */
+	public ImanDavenportTest(){
+
+		setReportFormat();
+		clearData();
+		
+	}//end-method
+	
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+		
+		data=new DataTable();
+		
+		performed=false;
+		dataReady=false;
+		
+		T=0.0;
+		F=0.0;
+		
+		sumRanks=null;
+		
+		rightPValue=-1.0;
+		doublePValue=-1.0;
+		
+	}//end-method
+	
+	/**
+	 * Builder. Load data to test.
+	 * 
+	 * @param newData data to test.
+	 */
+	public ImanDavenportTest(DataTable newData){
+		
+		setReportFormat();
+		setData(newData);
+		
+	}//end-method
+	
+	/**
+	 * Sets data to test
+	 * 
+	 * @param newData data to test.
+	 */
+	public void setData(DataTable newData){
+		
+		if(!FriedmanAlignedRanksTest.checkData(newData, "Iman-Davenport test")){
+			clearData();
+			return;
+		}
+		
+		data=DataTable.newInstance(newData);
+		
+		sumRanks=new double[data.getColumns()];
+		
+		dataReady=true;
+		performed=false;
+		
+	}//end-method
+	
+	/**
+	 * Performs the test
+	 */
+	public void doTest(){
+		
+		double n,k,left;
+		
+		if(!dataReady){		
+			System.out.println("Data is not ready");
+			return;	
+		}
+		
+		n=data.getRows();
+		k=data.getColumns();
+		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		startPhase("ranking");
+		
+		T=FriedmanAlignedRanksTest.alignedRanksStatistic(data, sumRanks);
+		
+		startPhase("pValue");
+		
+		F=((n-1.0)*T)/((n*(k-1.0))-T);
+		
+		FDistribution f=new FDistribution(k-1.0, (k-1.0)*(n-1.0));
+		
+		rightPValue=f.computeRightTailProbability(F);
+		left=f.computeCumulativeProbability(F);
+		doublePValue=Math.min(Math.min(left, rightPValue)*2.0, 1.0);
+		
+		endExecution();
+		
+		performed=true;
+		
+	}//end-method
+	
+	/**
+	 * Get T statistic 
+	 * 
+	 * @return T statistic 
+	 */
+	public double getT(){
+		
+		return T;
+		
+	}//end-method
+	
+	/**
+	 * Get F statistic 
+	 * 
+	 * @return F statistic 
+	 */
+	public double getF(){
+		
+		return F;
+		
+	}//end-method
+	
+	/**
+	 * Get right tail p-value 
+	 * 
+	 * @return p-value computed
+	 */
+	public double getRightPValue(){
+		
+		return rightPValue;
+		
+	}//end-method
+	
+	/**
+	 * Get double tail p-value 
+	 * 
+	 * @return p-value computed
+	 */
+	public double getDoublePValue(){
+		
+		return doublePValue;
+		
+	}//end-method
+	
+	/**
+	 * Prints the data stored in the test
+	 * 
+	 * @return Data stored
+	 */
+	public String printData(){
+			
+		String text="";
+			
+		text+="\n"+data;
+			
+		return text;
+			
+	}//end-method
+	
+	/**
+	 * Prints a report with the results of the test
+	 * 
+	 * @return Output report
+	 */
+	public String printReport(){
+			
+		String report="";
+		
+		if(!performed){
+			report+="The test has not been performed.\n";
+			return report;
+		}
+		
+		startExecution("printReport", data.getRows()*data.getColumns());
+			
+		report+="\n******************\n";
+		report+="Iman-Davenport test\n";
+		report+="******************\n\n";
+		
+		report+="T statistic: "+nf6.format(T)+"\n";	
+		report+="F statistic: "+nf6.format(F)+"\n\n";
+		report+="P-Value computed (right tail): "+nf6.format(rightPValue)+"\n";
+		report+="P-Value computed (double tail): "+nf6.format(doublePValue)+"\n\n";
+				
+		endExecution();
+		
+		return report;
+			
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"T", "F", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getT(), getF(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		ImanDavenportTest test=new ImanDavenportTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
@@ -33,6 +33,7 @@ import javanpst.data.structures.dataTable.DataTable;
 import javanpst.distributions.common.continuous.ChiSquareDistribution;
 import javanpst.distributions.common.continuous.NormalDistribution;
 import javanpst.tests.StatisticalTest;
+import javanpst.tests.multiple.postHoc.PostHoc;
 
 /**
  * A concordance coefficient-based test for incomplete classifications
@@ -252,6 +253,8 @@ public class IncompleteConcordance extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		for(int i=0;i<data.getRows();i++){
 			for(int j=0;j<data.getColumns();j++){
 				sumRanks[j]+=ranks[i][j];
@@ -272,6 +275,8 @@ public class IncompleteConcordance extends StatisticalTest{
 		
 		multipleComparisonsProcedure();
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -349,6 +354,23 @@ public class IncompleteConcordance extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Get the post-hoc pairwise comparisons of the populations, with their
+	 * p-values adjusted by Holm, Hochberg, Hommel, Finner, Li and Shaffer procedures
+	 * 
+	 * @return comparisons performed (null if the test has not been performed)
+	 */
+	public PostHoc getPostHoc(){
+		
+		if(!performed){
+			System.out.println("The test has not been performed.");
+			return null;
+		}
+		
+		return PostHoc.fromRanks(sumRanks, Math.sqrt((k*n*(n+1))/6.0));
+		
+	}//end-method
+	
 	/**
 	 * Prints the data stored in the test
 	 * 
@@ -441,4 +463,37 @@ public class IncompleteConcordance extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Q", "W", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getQ(), getW(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @param lambda number of times each pair of treatments appears together
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][], double lambda){
+		
+		IncompleteConcordance test=new IncompleteConcordance(new DataTable(data), lambda);
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
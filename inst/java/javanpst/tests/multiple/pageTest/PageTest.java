@@ -218,6 +218,8 @@ public class PageTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		computeRanks();
 		
 		for(int i=0;i<data.getRows();i++){
@@ -237,6 +239,8 @@ public class PageTest extends StatisticalTest{
 		exactPValue=distribution.computeExactProbability(data.getColumns(),data.getRows(), L);
 		asymptoticPValue=distribution.computeAsymptoticProbability(data.getColumns(),data.getRows(), L);
 		
+		endExecution();
+		
 		performed=true;
 			
 	}//end-method
@@ -381,4 +385,36 @@ public class PageTest extends StatisticalTest{
 			
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"L", "ExactPValue", "AsymptoticPValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getL(), getExactPValue(), getAsymptoticPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		PageTest test=new PageTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -223,6 +223,8 @@ public class PartialCorrelationTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		computeRanks();
 		
 		sortRanksZ();
@@ -293,6 +295,8 @@ public class PartialCorrelationTest extends StatisticalTest{
 		
 		pValue=distribution.computeProbability(n,tau);
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -470,4 +474,36 @@ public class PartialCorrelationTest extends StatisticalTest{
 			
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Tau", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getTau(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		PartialCorrelationTest test=new PartialCorrelationTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -0,0 +1,511 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.multiple.postHoc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javanpst.tests.Instrumentation;
+
+/**
+ * Bergmann-Hommel procedure for all pairwise comparisons.
+ * 
+ * The exhaustive sets of hypotheses are the sets of pairwise equalities
+ * which can be true at the same time, that is, the sets given by the
+ * partitions of the k samples into groups of equal samples. A hypothesis is
+ * rejected if, for every exhaustive set I containing it, the minimum p-value
+ * of I is not greater than alpha/|I|. Its adjusted p-value is the maximum,
+ * over the exhaustive sets containing it, of |I| times their minimum p-value.
+ * 
+ * Each exhaustive set is stored as a bitset of the k(k-1)/2 hypotheses in a
+ * single long, so up to 11 samples are supported. The pair (i, j), i &lt; j, 
+ * is given the bit j(j-1)/2+i, so the sets of k samples are built from the 
+ * sets of k-1 samples, adding the last sample to each group or as a new group. 
+ * The sets of each k are computed once, kept in memory and, optionally, 
+ * saved in a cache directory, from where they are loaded in later sessions.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class BergmannHommel{
+	
+	/**
+	 * Maximum number of samples
+	 */
+	public static final int MAX_K = 11;
+	
+	/**
+	 * Identifier of the cache files
+	 */
+	private static final int MAGIC = 0x4A424831;
+	
+	/**
+	 * Number of partitions of each number of samples (Bell numbers)
+	 */
+	private static final int BELL [] = {1, 1, 2, 5, 15, 52, 203, 877, 4140, 21147, 115975, 678570};
+	
+	/**
+	 * Exhaustive sets of each number of samples
+	 */
+	private static final long SETS [][] = new long [MAX_K+1][];
+	
+	/**
+	 * Directory of the cache files (null to keep the sets only in memory)
+	 */
+	private static String cacheDirectory = System.getProperty("javanpst.cache");
+	
+	/**
+	 * Number of samples
+	 */
+	private int k;
+	
+	/**
+	 * Unadjusted p-values of the hypotheses, by bit
+	 */
+	private double p [];
+	
+	/**
+	 * Adjusted p-values of the hypotheses, by bit
+	 */
+	private double adjusted [];
+	
+	/**
+	 * Builder. Applies the procedure to the p-values of a post-hoc analysis
+	 * 
+	 * @param postHoc pairwise comparisons
+	 */
+	public BergmannHommel(PostHoc postHoc){
+		
+		this(postHoc.getPValues());
+		
+	}//end-method
+	
+	/**
+	 * Builder. Applies the procedure to a matrix of unadjusted p-values
+	 * 
+	 * @param pValues k x k matrix of p-values (only the upper triangle is used)
+	 */
+	public BergmannHommel(double pValues[][]){
+		
+		long sets [];
+		long mask;
+		double min,value;
+		int count,bit;
+		
+		k=pValues.length;
+		
+		if(k>MAX_K){
+			System.out.println("Bergmann-Hommel procedure is only available for up to "+MAX_K+" samples");
+			k=0;
+			p=new double [0];
+			adjusted=new double [0];
+			return;
+		}
+		
+		p=new double [(k*(k-1))/2];
+		adjusted=new double [p.length];
+		
+		for(int j=1;j<k;j++){
+			for(int i=0;i<j;i++){
+				p[bit(i, j)]=pValues[i][j];
+			}
+		}
+		
+		sets=partitions(k);
+		
+		for(int s=0;s<sets.length;s++){
+			
+			min=1.0;
+			count=0;
+			for(mask=sets[s];mask!=0L;mask&=mask-1){
+				min=Math.min(min, p[Long.numberOfTrailingZeros(mask)]);
+				count++;
+			}
+			value=Math.min(1.0, count*min);
+			
+			for(mask=sets[s];mask!=0L;mask&=mask-1){
+				bit=Long.numberOfTrailingZeros(mask);
+				if(value>adjusted[bit]){
+					adjusted[bit]=value;
+				}
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Get the number of samples compared
+	 * 
+	 * @return number of samples
+	 */
+	public int getK(){
+		
+		return k;
+		
+	}//end-method
+	
+	/**
+	 * Get the adjusted p-values
+	 * 
+	 * @return k x k matrix of adjusted p-values
+	 */
+	public double [][] getAdjustedPValues(){
+		
+		double matrix [][]=new double [k][k];
+		
+		for(int i=0;i<k;i++){
+			matrix[i][i]=1.0;
+			for(int j=i+1;j<k;j++){
+				matrix[i][j]=adjusted[bit(i, j)];
+				matrix[j][i]=matrix[i][j];
+			}
+		}
+		
+		return matrix;
+		
+	}//end-method
+	
+	/**
+	 * Get the hypotheses rejected at a significance level. The hypotheses 
+	 * accepted are the union of the exhaustive sets I whose minimum p-value 
+	 * is greater than alpha/|I|
+	 * 
+	 * @param alpha significance level
+	 * @return k x k matrix, true for the pairs of samples found different
+	 */
+	public boolean [][] getRejected(double alpha){
+		
+		boolean matrix [][]=new boolean [k][k];
+		long sets [];
+		long accepted,mask;
+		double min;
+		
+		if(k<2){
+			return matrix;
+		}
+		
+		sets=partitions(k);
+		accepted=0L;
+		
+		for(int s=0;s<sets.length;s++){
+			
+			//sets already covered do not change the result
+			if((sets[s]&~accepted)==0L){
+				continue;
+			}
+			
+			min=1.0;
+			for(mask=sets[s];mask!=0L;mask&=mask-1){
+				min=Math.min(min, p[Long.numberOfTrailingZeros(mask)]);
+			}
+			if(min>alpha/Long.bitCount(sets[s])){
+				accepted|=sets[s];
+			}
+		}
+		
+		for(int j=1;j<k;j++){
+			for(int i=0;i<j;i++){
+				matrix[i][j]=(accepted&(1L<<bit(i, j)))==0L;
+				matrix[j][i]=matrix[i][j];
+			}
+		}
+		
+		return matrix;
+		
+	}//end-method
+	
+	/**
+	 * Index of the bit of a pair of samples
+	 * 
+	 * @param i first sample
+	 * @param j second sample (greater than i)
+	 * @return index of the bit
+	 */
+	private static int bit(int i, int j){
+		
+		return ((j*(j-1))/2)+i;
+		
+	}//end-method
+	
+	/**
+	 * Sets the directory where the exhaustive sets are saved. By default, 
+	 * the directory given by the javanpst.cache system property is used, and 
+	 * the sets are only kept in memory if it is not defined.
+	 * 
+	 * @param directory path of the directory (null to keep the sets only in memory)
+	 */
+	public static synchronized void setCacheDirectory(String directory){
+		
+		cacheDirectory=directory;
+		
+	}//end-method
+	
+	/**
+	 * Get the exhaustive sets of hypotheses of a number of samples. The empty 
+	 * set (all the samples different) is not included
+	 * 
+	 * @param k number of samples (up to MAX_K)
+	 * @return exhaustive sets, as bitsets of the hypotheses
+	 */
+	public static long [] exhaustiveSets(int k){
+		
+		if((k<0)||(k>MAX_K)){
+			System.out.println("Bergmann-Hommel procedure is only available for up to "+MAX_K+" samples");
+			return new long [0];
+		}
+		
+		return nonEmpty(partitions(k));
+		
+	}//end-method
+	
+	/**
+	 * Get the sets of hypotheses of all the partitions of a number of samples,
+	 * computing them if they are not available
+	 * 
+	 * @param k number of samples (up to MAX_K)
+	 * @return sets of hypotheses, beginning with the empty one
+	 */
+	private static synchronized long [] partitions(int k){
+		
+		int from;
+		long start,bytes;
+		
+		if(SETS[k]!=null){
+			return SETS[k];
+		}
+		
+		start=System.nanoTime();
+		bytes=Instrumentation.isEnabled() ? Instrumentation.allocatedBytes() : -1;
+		
+		SETS[0]=new long [] {0L};
+		SETS[1]=new long [] {0L};
+		
+		//start from the largest number of samples available
+		from=k;
+		while(SETS[from]==null){
+			SETS[from]=load(from);
+			if(SETS[from]==null){
+				from--;
+			}
+		}
+		
+		for(int n=from+1;n<=k;n++){
+			SETS[n]=extend(SETS[n-1], n);
+		}
+		
+		if(from<k){
+			save(k, SETS[k]);
+		}
+		
+		if(Instrumentation.isEnabled()){
+			Instrumentation.tableLoaded("Bergmann-Hommel exhaustive sets, k="+k, SETS[k].length-1, (from<k) ? "computed" : "disk",
+					System.nanoTime()-start, (bytes<0) ? -1 : Instrumentation.allocatedBytes()-bytes);
+		}
+		
+		return SETS[k];
+		
+	}//end-method
+	
+	/**
+	 * Builds the sets of n samples from the sets of n-1 samples
+	 * 
+	 * @param previous sets of n-1 samples, including the empty one
+	 * @param n number of samples
+	 * @return sets of n samples, including the empty one
+	 */
+	private static long [] extend(long previous[], int n){
+		
+		long sets [];
+		long groups [];
+		long assigned,mask,group,pairs;
+		int count,size,last,member;
+		
+		last=n-1;
+		
+		sets=new long [BELL[n]];
+		groups=new long [last];
+		count=0;
+		
+		for(int s=0;s<previous.length;s++){
+			
+			mask=previous[s];
+			
+			//groups of the partition, as sets of samples
+			size=0;
+			assigned=0L;
+			for(int i=0;i<last;i++){
+				if((assigned&(1L<<i))!=0L){
+					continue;
+				}
+				group=1L<<i;
+				for(int j=i+1;j<last;j++){
+					if((mask&(1L<<bit(i, j)))!=0L){
+						group|=1L<<j;
+					}
+				}
+				assigned|=group;
+				groups[size++]=group;
+			}
+			
+			//the last sample in a new group
+			sets[count++]=mask;
+			
+			//the last sample in each group
+			for(int g=0;g<size;g++){
+				pairs=0L;
+				for(group=groups[g];group!=0L;group&=group-1){
+					member=Long.numberOfTrailingZeros(group);
+					pairs|=1L<<bit(member, last);
+				}
+				sets[count++]=mask|pairs;
+			}
+		}
+		
+		return sets;
+		
+	}//end-method
+	
+	/**
+	 * Removes the empty set
+	 * 
+	 * @param sets sets of hypotheses, with the empty one at the beginning
+	 * @return sets without the empty one
+	 */
+	private static long [] nonEmpty(long sets[]){
+		
+		long result [];
+		
+		if((sets.length>0)&&(sets[0]==0L)){
+			result=new long [sets.length-1];
+			System.arraycopy(sets, 1, result, 0, result.length);
+			return result;
+		}
+		
+		return sets;
+		
+	}//end-method
+	
+	/**
+	 * Get the cache file of a number of samples
+	 * 
+	 * @param k number of samples
+	 * @return cache file (null if there is no cache directory)
+	 */
+	private static File cacheFile(int k){
+		
+		if(cacheDirectory==null){
+			return null;
+		}
+		
+		return new File(cacheDirectory, "javanpst-bergmann-hommel-"+k+".bin");
+		
+	}//end-method
+	
+	/**
+	 * Loads the sets of a number of samples from the cache
+	 * 
+	 * @param k number of samples
+	 * @return sets loaded (null if they are not in the cache)
+	 */
+	private static long [] load(int k){
+		
+		File file=cacheFile(k);
+		long sets [];
+		
+		if((file==null)||!file.isFile()){
+			return null;
+		}
+		
+		try(DataInputStream input=new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1<<16))){
+			
+			if((input.readInt()!=MAGIC)||(input.readInt()!=k)||(input.readInt()!=BELL[k])){
+				return null;
+			}
+			
+			sets=new long [BELL[k]];
+			for(int i=0;i<sets.length;i++){
+				sets[i]=input.readLong();
+			}
+			
+		}catch(IOException e){
+			System.out.println("Error reading "+file+": "+e.getMessage());
+			return null;
+		}
+		
+		//the first set of a valid file is the empty one
+		if((sets.length!=BELL[k])||(sets[0]!=0L)){
+			return null;
+		}
+		
+		return sets;
+		
+	}//end-method
+	
+	/**
+	 * Saves the sets of a number of samples in the cache
+	 * 
+	 * @param k number of samples
+	 * @param sets sets to save
+	 */
+	private static void save(int k, long sets[]){
+		
+		File file=cacheFile(k);
+		File temp;
+		
+		if((file==null)||(k<2)){
+			return;
+		}
+		
+		temp=new File(file.getPath()+".tmp");
+		
+		try{
+			try(DataOutputStream output=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1<<16))){
+				output.writeInt(MAGIC);
+				output.writeInt(k);
+				output.writeInt(sets.length);
+				for(int i=0;i<sets.length;i++){
+					output.writeLong(sets[i]);
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}catch(IOException e){
+			System.out.println("Error writing "+file+": "+e.getMessage());
+			temp.delete();
+		}
+		
+	}//end-method
+	
+}//end-class
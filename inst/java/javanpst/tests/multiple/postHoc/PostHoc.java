@@ -0,0 +1,567 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.multiple.postHoc;
+
+import javanpst.distributions.common.continuous.NormalDistribution;
+import javanpst.tests.correction.PValueCorrection;
+import javanpst.utils.Ranks;
+
+/**
+ * Post-hoc pairwise comparisons for multiple samples tests.
+ * 
+ * From the z statistic of each pair of samples (usually computed from their
+ * average ranks), the full k x k matrices of z statistics and unadjusted
+ * p-values are computed, and the p-values are adjusted by the procedures of
+ * Holm, Hochberg, Hommel, Finner, Li and Shaffer (static procedure).
+ * 
+ * The p-values are sorted once, and every procedure is applied in linear
+ * time over the sorted values, except Hommel's, which uses the lower convex
+ * hull of the sorted p-values to find the Simes p-values of all the
+ * intersection hypotheses in O(m log m). The sets of possible true
+ * hypotheses for Shaffer's procedure are built with bitsets. Thus, the
+ * whole procedure takes O(k^2 log k) time, and can be used with hundreds
+ * of samples.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class PostHoc{
+	
+	/**
+	 * Adjustment procedures
+	 */
+	public static final int HOLM = 0, HOCHBERG = 1, HOMMEL = 2, FINNER = 3, LI = 4, SHAFFER = 5;
+	
+	/**
+	 * Names of the adjustment procedures
+	 */
+	public static final String PROCEDURES [] = {"Holm", "Hochberg", "Hommel", "Finner", "Li", "Shaffer"};
+	
+	/**
+	 * Names of the columns of the comparisons table
+	 */
+	public static final String COLUMNS [] = {"First", "Second", "Z", "PValue", "Holm", "Hochberg", "Hommel", "Finner", "Li", "Shaffer"};
+	
+	/**
+	 * Number of samples
+	 */
+	private int k;
+	
+	/**
+	 * Z statistics
+	 */
+	private double z [][];
+	
+	/**
+	 * Unadjusted p-values
+	 */
+	private double p [][];
+	
+	/**
+	 * Adjusted p-values, for each procedure
+	 */
+	private double adjusted [][][];
+	
+	/**
+	 * Builder. Performs the comparisons from a matrix of z statistics.
+	 * 
+	 * @param zScores z statistic of each pair of samples (only the upper triangle is used)
+	 */
+	public PostHoc(double zScores[][]){
+		
+		int m,counter;
+		double pairs [];
+		double sorted [];
+		double adjustedSorted [][];
+		int order [];
+		int first [],second [];
+		NormalDistribution normal;
+		
+		k=zScores.length;
+		m=(k*(k-1))/2;
+		
+		z=new double [k][k];
+		p=new double [k][k];
+		adjusted=new double [PROCEDURES.length][k][k];
+		
+		pairs=new double [m];
+		first=new int [m];
+		second=new int [m];
+		normal=new NormalDistribution();
+		
+		counter=0;
+		for(int i=0;i<k;i++){
+			p[i][i]=1.0;
+			for(int j=i+1;j<k;j++){
+				z[i][j]=zScores[i][j];
+				z[j][i]=-zScores[i][j];
+				p[i][j]=Math.min(1.0, 2.0*normal.getTipifiedProbability(Math.abs(z[i][j]), true));
+				p[j][i]=p[i][j];
+				pairs[counter]=p[i][j];
+				first[counter]=i;
+				second[counter]=j;
+				counter++;
+			}
+		}
+		
+		//single sort of the p-values
+		order=new int [m];
+		Ranks.argsort(pairs, order);
+		sorted=new double [m];
+		for(int i=0;i<m;i++){
+			sorted[i]=pairs[order[i]];
+		}
+		
+		adjustedSorted=new double [PROCEDURES.length][m];
+		
+		PValueCorrection.adjustSorted(sorted, PValueCorrection.HOLM, adjustedSorted[HOLM]);
+		PValueCorrection.adjustSorted(sorted, PValueCorrection.HOCHBERG, adjustedSorted[HOCHBERG]);
+		hommel(sorted, adjustedSorted[HOMMEL]);
+		finner(sorted, adjustedSorted[FINNER]);
+		li(sorted, adjustedSorted[LI]);
+		shaffer(sorted, adjustedSorted[SHAFFER], k);
+		
+		for(int proc=0;proc<PROCEDURES.length;proc++){
+			for(int i=0;i<k;i++){
+				adjusted[proc][i][i]=1.0;
+			}
+			for(int i=0;i<m;i++){
+				adjusted[proc][first[order[i]]][second[order[i]]]=adjustedSorted[proc][i];
+				adjusted[proc][second[order[i]]][first[order[i]]]=adjustedSorted[proc][i];
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Performs the comparisons from the ranks of the samples. The z statistic
+	 * of each pair is the difference of their ranks divided by its standard error.
+	 * 
+	 * @param ranks average (or sum of) ranks of each sample
+	 * @param standardError standard error of the difference of two ranks
+	 * @return comparisons performed
+	 */
+	public static PostHoc fromRanks(double ranks[], double standardError){
+		
+		double zScores [][]=new double [ranks.length][ranks.length];
+		
+		for(int i=0;i<ranks.length;i++){
+			for(int j=i+1;j<ranks.length;j++){
+				zScores[i][j]=(ranks[i]-ranks[j])/standardError;
+			}
+		}
+		
+		return new PostHoc(zScores);
+		
+	}//end-method
+	
+	/**
+	 * Performs the comparisons after a Friedman test, in a single call
+	 * 
+	 * @param avgRanks average ranks of the samples
+	 * @param blocks number of blocks (rows) of the data
+	 * @return comparisons table (see getComparisons)
+	 */
+	public static double [][] friedman(double avgRanks[], int blocks){
+		
+		double n=avgRanks.length;
+		
+		return fromRanks(avgRanks, Math.sqrt((n*(n+1.0))/(6.0*blocks))).getComparisons();
+		
+	}//end-method
+	
+	/**
+	 * Get the number of samples compared
+	 * 
+	 * @return number of samples
+	 */
+	public int getK(){
+		
+		return k;
+		
+	}//end-method
+	
+	/**
+	 * Get the z statistics
+	 * 
+	 * @return k x k matrix of z statistics (antisymmetric)
+	 */
+	public double [][] getZ(){
+		
+		return z;
+		
+	}//end-method
+	
+	/**
+	 * Get the unadjusted p-values
+	 * 
+	 * @return k x k matrix of p-values
+	 */
+	public double [][] getPValues(){
+		
+		return p;
+		
+	}//end-method
+	
+	/**
+	 * Get the adjusted p-values of a procedure
+	 * 
+	 * @param procedure procedure (HOLM, HOCHBERG, HOMMEL, FINNER, LI or SHAFFER)
+	 * @return k x k matrix of adjusted p-values
+	 */
+	public double [][] getAdjustedPValues(int procedure){
+		
+		return adjusted[procedure];
+		
+	}//end-method
+	
+	/**
+	 * Applies the Bergmann-Hommel procedure to the p-values (up to 11 samples)
+	 * 
+	 * @return Bergmann-Hommel procedure applied
+	 */
+	public BergmannHommel getBergmannHommel(){
+		
+		return new BergmannHommel(p);
+		
+	}//end-method
+	
+	/**
+	 * Get all the comparisons in a table, with a row per pair of samples
+	 * (first &lt; second, from 1 to k) and the columns described in COLUMNS
+	 * 
+	 * @return comparisons table
+	 */
+	public double [][] getComparisons(){
+		
+		double table [][];
+		int counter;
+		
+		table=new double [(k*(k-1))/2][COLUMNS.length];
+		
+		counter=0;
+		for(int i=0;i<k;i++){
+			for(int j=i+1;j<k;j++){
+				table[counter][0]=i+1;
+				table[counter][1]=j+1;
+				table[counter][2]=z[i][j];
+				table[counter][3]=p[i][j];
+				for(int proc=0;proc<PROCEDURES.length;proc++){
+					table[counter][4+proc]=adjusted[proc][i][j];
+				}
+				counter++;
+			}
+		}
+		
+		return table;
+		
+	}//end-method
+	
+	/**
+	 * Hommel procedure (closed testing with Simes tests).
+	 * 
+	 * The adjusted p-value of a hypothesis is min over h of max(U(h), h p),
+	 * where U(h) is the largest Simes p-value among the sets formed by the
+	 * s &gt; h largest p-values. The Simes p-value of the set of the s largest
+	 * p-values is s times the minimum slope from the point (m-s, 0) to the points
+	 * (t, p(t)), t &gt; m-s, which is found over their lower convex hull.
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param adj array to store the adjusted p-values
+	 */
+	private static void hommel(double sorted[], double adj[]){
+		
+		int m=sorted.length;
+		double simes [];
+		double upper [];
+		int hull [];
+		int size,low,high,mid,v,h;
+		
+		if(m==0){
+			return;
+		}
+		
+		simes=new double [m+1];
+		hull=new int [m];
+		size=0;
+		
+		//points are added from right to left. hull[size-1] is the leftmost vertex
+		for(int c=m-1;c>=0;c--){
+			
+			while((size>=2)&&(cross(sorted, c+1, hull[size-1], hull[size-2])<=0.0)){
+				size--;
+			}
+			hull[size++]=c+1;
+			
+			//tangent from (c, 0): first vertex whose successor does not lower the slope
+			low=0;
+			high=size-1;
+			while(low<high){
+				mid=(low+high)>>>1;
+				if(slopeIncreases(sorted, c, hull[size-1-mid], hull[size-2-mid])){
+					high=mid;
+				}
+				else{
+					low=mid+1;
+				}
+			}
+			v=hull[size-1-low];
+			
+			simes[m-c]=(m-c)*sorted[v-1]/(v-c);
+		}
+		
+		//upper[h]: maximum Simes p-value of the sets with more than h hypotheses
+		upper=new double [m+1];
+		upper[m]=0.0;
+		for(int s=m-1;s>=0;s--){
+			upper[s]=Math.max(upper[s+1], simes[s+1]);
+		}
+		
+		for(int i=0;i<m;i++){
+			
+			//first h with h p >= upper[h]
+			low=0;
+			high=m;
+			while(low<high){
+				mid=(low+high)>>>1;
+				if(mid*sorted[i]>=upper[mid]){
+					high=mid;
+				}
+				else{
+					low=mid+1;
+				}
+			}
+			h=low;
+			
+			adj[i]=h*sorted[i];
+			if(h>0){
+				adj[i]=Math.min(adj[i], upper[h-1]);
+			}
+			adj[i]=Math.min(1.0, Math.max(adj[i], sorted[i]));
+		}
+		
+	}//end-method
+	
+	/**
+	 * Cross product of the points (a, p(a)), (b, p(b)), (c, p(c)),
+	 * with positions from 1 to m
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param a first position
+	 * @param b second position
+	 * @param c third position
+	 * @return cross product (positive for a counterclockwise turn)
+	 */
+	private static double cross(double sorted[], int a, int b, int c){
+		
+		return ((b-a)*(sorted[c-1]-sorted[a-1]))-((sorted[b-1]-sorted[a-1])*(c-a));
+		
+	}//end-method
+	
+	/**
+	 * Checks if the slope from (c, 0) to (b, p(b)) is not lower than to (a, p(a))
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param c origin
+	 * @param a first position
+	 * @param b second position
+	 * @return true if the slope does not decrease
+	 */
+	private static boolean slopeIncreases(double sorted[], int c, int a, int b){
+		
+		return ((a-c)*sorted[b-1])-(sorted[a-1]*(b-c))>=0.0;
+		
+	}//end-method
+	
+	/**
+	 * Finner step-down procedure
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param adj array to store the adjusted p-values
+	 */
+	private static void finner(double sorted[], double adj[]){
+		
+		int m=sorted.length;
+		double max=0.0;
+		
+		for(int i=0;i<m;i++){
+			max=Math.max(max, Math.min(1.0, 1.0-Math.pow(1.0-sorted[i], (double)m/(i+1))));
+			adj[i]=max;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Li two-step procedure
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param adj array to store the adjusted p-values
+	 */
+	private static void li(double sorted[], double adj[]){
+		
+		int m=sorted.length;
+		double last;
+		
+		if(m==0){
+			return;
+		}
+		
+		last=sorted[m-1];
+		
+		for(int i=0;i<m;i++){
+			if(sorted[i]==0.0){
+				adj[i]=0.0;
+			}
+			else{
+				adj[i]=sorted[i]/(sorted[i]+(1.0-last));
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Shaffer static procedure. The p-value of the i-th hypothesis is multiplied
+	 * by the maximum number of hypotheses which can be true given that the 
+	 * previous ones are false
+	 * 
+	 * @param sorted p-values, in ascending order
+	 * @param adj array to store the adjusted p-values
+	 * @param k number of samples
+	 */
+	private static void shaffer(double sorted[], double adj[], int k){
+		
+		int m=sorted.length;
+		long possible [];
+		int maxTrue [];
+		int last;
+		double max;
+		
+		possible=possibleTrue(k);
+		
+		//maxTrue[x]: largest possible number of true hypotheses not above x
+		maxTrue=new int [m+1];
+		last=0;
+		for(int x=0;x<=m;x++){
+			if((possible[x>>>6]&(1L<<(x&63)))!=0){
+				last=x;
+			}
+			maxTrue[x]=last;
+		}
+		
+		max=0.0;
+		for(int i=0;i<m;i++){
+			max=Math.max(max, Math.min(1.0, maxTrue[m-i]*sorted[i]));
+			adj[i]=max;
+		}
+		
+	}//end-method
+	
+	/**
+	 * Computes the possible numbers of true hypotheses among the pairwise
+	 * comparisons of k samples: S(k) = union over j of {C(j,2) + x : x in S(k-j)}
+	 * 
+	 * @param k number of samples
+	 * @return bitset of the possible numbers
+	 */
+	private static long [] possibleTrue(int k){
+		
+		long sets [][];
+		long set [];
+		long source [];
+		int shift,words,wordShift,bitShift;
+		
+		sets=new long [Math.max(k+1, 2)][];
+		sets[0]=new long [] {1L};
+		sets[1]=new long [] {1L};
+		
+		for(int n=2;n<=k;n++){
+			
+			set=new long [((n*(n-1))/2>>>6)+1];
+			
+			for(int j=1;j<=n;j++){
+				
+				source=sets[n-j];
+				shift=(j*(j-1))/2;
+				wordShift=shift>>>6;
+				bitShift=shift&63;
+				words=set.length;
+				
+				for(int w=0;w<source.length;w++){
+					if(source[w]==0L){
+						continue;
+					}
+					if(w+wordShift<words){
+						set[w+wordShift]|=source[w]<<bitShift;
+					}
+					if((bitShift!=0)&&(w+wordShift+1<words)){
+						set[w+wordShift+1]|=source[w]>>>(64-bitShift);
+					}
+				}
+			}
+			
+			sets[n]=set;
+		}
+		
+		return sets[k];
+		
+	}//end-method
+	
+	/**
+	 * Prints a report with the comparisons
+	 * 
+	 * @return Output report
+	 */
+	public String printReport(){
+		
+		StringBuilder report=new StringBuilder();
+		
+		report.append("\n***************************************\n");
+		report.append("Post-hoc pairwise comparisons\n");
+		report.append("***************************************\n\n");
+		
+		report.append("Pair\tZ\tP-Value");
+		for(String name : PROCEDURES){
+			report.append("\t").append(name);
+		}
+		report.append("\n");
+		
+		for(int i=0;i<k;i++){
+			for(int j=i+1;j<k;j++){
+				report.append(i+1).append(" vs ").append(j+1).append("\t").append(z[i][j]).append("\t").append(p[i][j]);
+				for(int proc=0;proc<PROCEDURES.length;proc++){
+					report.append("\t").append(adjusted[proc][i][j]);
+				}
+				report.append("\n");
+			}
+		}
+		
+		return report.toString();
+		
+	}//end-method
+	
+}//end-class
@@ -0,0 +1,534 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.multiple.quadeTest;
+
+import java.nio.DoubleBuffer;
+import java.util.stream.IntStream;
+
+import javanpst.data.structures.dataTable.DataTable;
+import javanpst.distributions.common.continuous.FDistribution;
+import javanpst.tests.StatisticalTest;
+import javanpst.utils.Ranks;
+
+/**
+ * The Quade test.
+ * 
+ * This test can be applied to reject as null hypothesis that the k medians
+ * of the treatments (columns) are equal when applied to b blocks (rows).
+ * 
+ * Values are ranked within each block, and blocks are ranked by their
+ * range (maximum minus minimum), so blocks with larger differences get a
+ * larger weight. Ties are broken by the midrank method. The statistic is 
+ * compared with a F distribution with k-1 and (b-1)(k-1) degrees of freedom.
+ * 
+ * Pairwise comparisons between treatments (Conover) are also provided, by
+ * t statistics with (b-1)(k-1) degrees of freedom.
+ * 
+ * Blocks are processed in chunks, in parallel for large tables. The partial
+ * sums of each chunk are added in the same order in both cases, so results
+ * do not depend on the number of threads.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class QuadeTest extends StatisticalTest{
+
+	/**
+	 * Blocks processed by each chunk
+	 */
+	private static final int CHUNK_SIZE = 4096;
+	
+	/**
+	 * Minimum number of blocks to use the parallel path
+	 */
+	private static final int PARALLEL_THRESHOLD = 1<<15;
+	
+	/**
+	 * Data to analyze
+	 */
+	private DataTable data;
+	
+	/**
+	 * Weighted sum of ranks (S) of each treatment
+	 */
+	private double S [];
+	
+	/**
+	 * Sum of the squared weighted ranks
+	 */
+	private double A;
+	
+	/**
+	 * Treatments sum of squares
+	 */
+	private double B;
+	
+	/**
+	 * T statistic
+	 */
+	private double T;
+	
+	/**
+	 * P-value
+	 */
+	private double pValue;
+	
+	/**
+	 * Pairwise t statistics
+	 */
+	private double pairwiseT [][];
+	
+	/**
+	 * Pairwise p-values
+	 */
+	private double pairwisePValues [][];
+	
+	/**
+	 * Use of the parallel path (null to decide by the size of the table)
+	 */
+	private Boolean parallel;
+	
+	/**
+	 * Default builder
+	 */
+	public QuadeTest(){
+
+		setReportFormat();
+		parallel=null;
+		clearData();
+		
+	}//end-method
+	
+	/**
+	 * Clears the data stored in the test
+	 */
+	public void clearData(){
+		
+		data=new DataTable();
+		
+		performed=false;
+		dataReady=false;
+		
+		S=null;
+		A=0.0;
+		B=0.0;
+		T=0.0;
+		
+		pairwiseT=null;
+		pairwisePValues=null;
+		
+		pValue=-1.0;
+		
+	}//end-method
+	
+	/**
+	 * Builder. Load data to test.
+	 * 
+	 * @param newData data to test.
+	 */
+	public QuadeTest(DataTable newData){
+		
+		setReportFormat();
+		parallel=null;
+		setData(newData);
+		
+	}//end-method
+	
+	/**
+	 * Sets data to test
+	 * 
+	 * @param newData data to test.
+	 */
+	public void setData(DataTable newData){
+		
+		if(newData.getColumns()<3){
+			System.out.println("Quade test only can be employed with more than two samples");
+			clearData();
+			return;
+		}
+		
+		if(newData.getRows()<2){
+			System.out.println("Quade test needs at least two blocks");
+			clearData();
+			return;
+		}
+		
+		for(int i=0;i<newData.getColumns();i++){
+			if(newData.getColumnNulls(i)>0){
+				System.out.println("No null values allowed in this test.");
+				clearData();
+				return;
+			}
+		}
+		
+		data=DataTable.newInstance(newData);
+		
+		S=new double [data.getColumns()];
+		
+		dataReady=true;
+		performed=false;
+		
+	}//end-method
+	
+	/**
+	 * Sets the use of the parallel path over blocks
+	 * 
+	 * @param value true to process blocks in parallel, false to process them
+	 * sequentially, null to decide by the size of the table
+	 */
+	public void setParallel(Boolean value){
+		
+		parallel=value;
+		
+	}//end-method
+	
+	/**
+	 * Performs the test
+	 */
+	public void doTest(){
+		
+		final int b,k,chunks;
+		final double ranks [];
+		final double ranges [];
+		final double weights [];
+		final double partialS [][];
+		final double partialA [];
+		final DoubleBuffer columns [];
+		IntStream stream;
+		double den1,den2,sd;
+		
+		if(!dataReady){		
+			System.out.println("Data is not ready");
+			return;	
+		}
+		
+		b=data.getRows();
+		k=data.getColumns();
+		chunks=(b+CHUNK_SIZE-1)/CHUNK_SIZE;
+		
+		startExecution("doTest", b*k);
+		startPhase("ranking");
+		
+		columns=new DoubleBuffer [k];
+		for(int j=0;j<k;j++){
+			columns[j]=data.getColumnView(j);
+		}
+		
+		ranks=new double [b*k];
+		ranges=new double [b];
+		
+		//ranks within each block, and ranges of the blocks
+		stream=IntStream.range(0, chunks);
+		if((parallel==null) ? (b>=PARALLEL_THRESHOLD) : parallel.booleanValue()){
+			stream=stream.parallel();
+		}
+		stream.forEach(chunk -> {
+			
+			double values [] = new double [k];
+			double blockRanks [] = new double [k];
+			int order [] = new int [k];
+			int end = Math.min(b, (chunk+1)*CHUNK_SIZE);
+			double min, max;
+			
+			for(int i=chunk*CHUNK_SIZE;i<end;i++){
+				
+				min=Double.MAX_VALUE;
+				max=-Double.MAX_VALUE;
+				for(int j=0;j<k;j++){
+					values[j]=columns[j].get(i);
+					min=Math.min(min, values[j]);
+					max=Math.max(max, values[j]);
+				}
+				ranges[i]=max-min;
+				
+				Ranks.rank(values, order, blockRanks);
+				System.arraycopy(blockRanks, 0, ranks, i*k, k);
+			}
+		});
+		
+		//ranks of the blocks, by their ranges
+		weights=new double [b];
+		Ranks.rank(ranges, new int [b], weights);
+		
+		startPhase("statistic");
+		
+		//weighted ranks, accumulated by chunks
+		partialS=new double [chunks][k];
+		partialA=new double [chunks];
+		
+		stream=IntStream.range(0, chunks);
+		if((parallel==null) ? (b>=PARALLEL_THRESHOLD) : parallel.booleanValue()){
+			stream=stream.parallel();
+		}
+		stream.forEach(chunk -> {
+			
+			int end = Math.min(b, (chunk+1)*CHUNK_SIZE);
+			double center = (k+1.0)/2.0;
+			double value, sumA;
+			
+			sumA=0.0;
+			for(int i=chunk*CHUNK_SIZE;i<end;i++){
+				for(int j=0;j<k;j++){
+					value=weights[i]*(ranks[i*k+j]-center);
+					partialS[chunk][j]+=value;
+					sumA+=value*value;
+				}
+			}
+			partialA[chunk]=sumA;
+		});
+		
+		A=0.0;
+		for(int j=0;j<k;j++){
+			S[j]=0.0;
+		}
+		for(int c=0;c<chunks;c++){
+			A+=partialA[c];
+			for(int j=0;j<k;j++){
+				S[j]+=partialS[c][j];
+			}
+		}
+		
+		B=0.0;
+		for(int j=0;j<k;j++){
+			B+=S[j]*S[j];
+		}
+		B/=b;
+		
+		startPhase("pValue");
+		
+		den1=k-1.0;
+		den2=(b-1.0)*(k-1.0);
+		
+		if(A>B){
+			T=((b-1.0)*B)/(A-B);
+			pValue=new FDistribution(den1, den2).computeRightTailProbability(T);
+		}
+		else if(A==0.0){
+			//every block is fully tied: there is no evidence of any difference
+			T=0.0;
+			pValue=1.0;
+		}
+		else{
+			//all the weighted ranks are explained by the treatments
+			T=Double.POSITIVE_INFINITY;
+			pValue=1.0;
+			for(int i=2;i<=k;i++){
+				pValue/=i;
+			}
+			pValue=Math.pow(pValue, b-1.0);
+		}
+		
+		startPhase("multipleComparisons");
+		
+		//pairwise comparisons
+		pairwiseT=new double [k][k];
+		pairwisePValues=new double [k][k];
+		
+		sd=Math.sqrt((2.0*b*(A-B))/den2);
+		FDistribution f=new FDistribution(1.0, den2);
+		
+		for(int i=0;i<k;i++){
+			pairwisePValues[i][i]=1.0;
+			for(int j=i+1;j<k;j++){
+				if(sd>0.0){
+					pairwiseT[i][j]=(S[i]-S[j])/sd;
+					pairwisePValues[i][j]=f.computeRightTailProbability(pairwiseT[i][j]*pairwiseT[i][j]);
+				}
+				else{
+					pairwiseT[i][j]=(S[i]==S[j]) ? 0.0 : Math.signum(S[i]-S[j])*Double.POSITIVE_INFINITY;
+					pairwisePValues[i][j]=(S[i]==S[j]) ? 1.0 : 0.0;
+				}
+				pairwiseT[j][i]=-pairwiseT[i][j];
+				pairwisePValues[j][i]=pairwisePValues[i][j];
+			}
+		}
+		
+		endExecution();
+		
+		performed=true;
+		
+	}//end-method
+	
+	/**
+	 * Get T statistic 
+	 * 
+	 * @return T statistic 
+	 */
+	public double getT(){
+		
+		return T;
+		
+	}//end-method
+	
+	/**
+	 * Get p-value 
+	 * 
+	 * @return p-value computed
+	 */
+	public double getPValue(){
+		
+		return pValue;
+		
+	}//end-method
+	
+	/**
+	 * Get the weighted sum of ranks of the selected treatment
+	 * 
+	 * @param pop treatment index (from 1 to k)
+	 * @return weighted sum of ranks of the treatment
+	 */
+	public double getS(int pop){
+		
+		if((S!=null)&&((pop-1)>-1)&&((pop-1)<S.length)){
+			return S[pop-1];
+		}
+		
+		return 0.0;
+		
+	}//end-method
+	
+	/**
+	 * Get the pairwise t statistics
+	 * 
+	 * @return k x k matrix of t statistics (antisymmetric)
+	 */
+	public double [][] getPairwiseT(){
+		
+		return pairwiseT;
+		
+	}//end-method
+	
+	/**
+	 * Get the pairwise p-values (double tail)
+	 * 
+	 * @return k x k matrix of p-values
+	 */
+	public double [][] getPairwisePValues(){
+		
+		return pairwisePValues;
+		
+	}//end-method
+	
+	/**
+	 * Prints the data stored in the test
+	 * 
+	 * @return Data stored
+	 */
+	public String printData(){
+			
+		String text="";
+			
+		text+="\n"+data;
+			
+		return text;
+			
+	}//end-method
+	
+	/**
+	 * Prints a report with the results of the test
+	 * 
+	 * @return Output report
+	 */
+	public String printReport(){
+			
+		StringBuilder report=new StringBuilder();
+		
+		if(!performed){
+			report.append("The test has not been performed.\n");
+			return report.toString();
+		}
+		
+		startExecution("printReport", data.getRows()*data.getColumns());
+			
+		report.append("\n******************\n");
+		report.append("Quade test\n");
+		report.append("******************\n\n");
+		
+		report.append("Weighted sum of ranks:\n");
+		
+		for(int j=0;j<S.length;j++){
+			report.append("S").append(j+1).append("\t");
+		}
+		report.append("\n");
+		
+		for(int j=0;j<S.length;j++){
+			report.append(nf6.format(S[j])).append("\t");
+		}
+		report.append("\n\n");
+		
+		report.append("T statistic: ").append(nf6.format(T)).append("\n\n");
+		report.append("P-Value computed :").append(nf6.format(pValue)).append("\n\n");
+		
+		report.append("Pairwise comparisons:\n\n");
+		
+		for(int i=0;i<S.length;i++){
+			for(int j=i+1;j<S.length;j++){
+				report.append(i+1).append(" vs ").append(j+1).append(": t= ").append(nf6.format(pairwiseT[i][j]));
+				report.append(" P-Value= ").append(nf6.format(pairwisePValues[i][j])).append("\n");
+			}
+		}
+				
+		endExecution();
+		
+		return report.toString();
+			
+	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"T", "PValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getT(), getPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		QuadeTest test=new QuadeTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+}//end-class
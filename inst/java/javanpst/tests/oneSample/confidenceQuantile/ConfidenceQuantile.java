@@ -185,6 +185,8 @@ public class ConfidenceQuantile extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", N);
+		
 		alpha=1.0-confidence;
 		
 		//binomial adjustment
@@ -213,6 +215,8 @@ public class ConfidenceQuantile extends StatisticalTest{
 		r=Math.floor(r);
 		s=Math.ceil(s);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -333,6 +337,40 @@ public class ConfidenceQuantile extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"ExactLowerLimit", "ExactUpperLimit", "ApproximateLowerLimit", "ApproximateUpperLimit"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getExactLowerLimit(), getExactUpperLimit(), getApproximateLowerLimit(), getApproximateUpperLimit()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param n size of the sample
+	 * @param p quantile
+	 * @param confidence confidence level
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(int n, double p, double confidence){
 		
+		ConfidenceQuantile test=new ConfidenceQuantile(n, p, confidence);
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
 	
\ No newline at end of file
@@ -196,6 +196,8 @@ public class PopulationQuantile extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		K=0;
 		
 		sequence.sort();
@@ -211,6 +213,8 @@ public class PopulationQuantile extends StatisticalTest{
 		exactRightTail=1.0-distribution.computeCumulativeProbability(K-1);
 		exactDoubleTail=Math.min(exactLeftTail,exactRightTail)*2.0;
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -303,6 +307,40 @@ public class PopulationQuantile extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"K", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getK(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param sequence sequence of values
+	 * @param quantile quantile to test
+	 * @param value value of the quantile
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[], double quantile, double value){
 		
+		PopulationQuantile test=new PopulationQuantile(new NumericSequence(sequence), quantile, value);
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
 	
\ No newline at end of file
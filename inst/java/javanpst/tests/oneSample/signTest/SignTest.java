@@ -267,6 +267,9 @@ public class SignTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		startPhase("statistic");
+		
 		//compute K statistics
 				
 		K=0;
@@ -285,6 +288,8 @@ public class SignTest extends StatisticalTest{
 			}
 		}
 				
+		startPhase("exact");
+		
 		//compute p-values
 		
 		effectiveSamples=sequence.size()-draws;
@@ -294,6 +299,8 @@ public class SignTest extends StatisticalTest{
 		exactRightTail=binomial.computeCumulativeProbability(effectiveSamples-K);
 		exactDoubleTail=Math.min(Math.min(exactLeftTail,exactRightTail)*2.0,1.0);
 							
+		startPhase("asymptotic");
+		
 		//asymptotic p-values
 		double numerator, denominator;
 		
@@ -308,6 +315,8 @@ public class SignTest extends StatisticalTest{
 		
 		asymptoticDoubleTail=Math.min(Math.min(asymptoticLeftTail,asymptoticRightTail)*2.0,1.0);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -429,6 +438,8 @@ public class SignTest extends StatisticalTest{
 			return report;
 		}
 		
+		startExecution("printReport", sequence.size());
+		
 		report+="\n*******\n";
 		report+="Sign test\n";
 		report+="*********\n\n";
@@ -443,8 +454,58 @@ public class SignTest extends StatisticalTest{
 		report+="Asymptotic P-Value (Right tail, Y > X): "+nf6.format(asymptoticRightTail)+"\n";
 		report+="Asymptotic P-Value (Double tail, Y != X): "+nf6.format(asymptoticDoubleTail)+"\n\n";
 
+		endExecution();
+		
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"K", "K2", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getK(), getK2(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call from a table.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		SignTest test=new SignTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call from a sequence.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		SignTest test=new SignTest(new NumericSequence(sequence));
 		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -42,6 +42,9 @@ import javanpst.tests.StatisticalTest;
  * in making inferences concerning the value of the median 
  * of the population of differences.
  * 
+ * The data can also be given as a single column with the differences
+ * (for example, a difference view of a larger table).
+ * 
  * Zero differences are shared between both samples. If there 
  * is a odd number of them, one is discarded. Ties are handled
  * by the midrank method.
@@ -162,7 +165,7 @@ public class WilcoxonTest extends StatisticalTest{
 	/**
 	 * Builder. Load data to test.
 	 * 
-	 * @param newData data to test.
+	 * @param newData data to test (two paired samples, or a sample of differences).
 	 */
 	public WilcoxonTest(DataTable newData){
 		
@@ -171,8 +174,8 @@ public class WilcoxonTest extends StatisticalTest{
 		
 		data=DataTable.newInstance(newData);
 		
-		if(data.getColumns()!=2){
-			System.out.println("Wilcoxon test only can be employed with two samples");
+		if((data.getColumns()!=1)&&(data.getColumns()!=2)){
+			System.out.println("Wilcoxon test only can be employed with two samples, or a sample of differences");
 			clearData();
 			return;
 		}
@@ -193,14 +196,14 @@ public class WilcoxonTest extends StatisticalTest{
 	/**
 	 * Load data to test.
 	 * 
-	 * @param newData data to test.
+	 * @param newData data to test (two paired samples, or a sample of differences).
 	 */
 	public void setData(DataTable newData){
 		
 		data=DataTable.newInstance(newData);
 		
-		if(data.getColumns()!=2){
-			System.out.println("Wilcoxon test only can be employed with two samples");
+		if((data.getColumns()!=1)&&(data.getColumns()!=2)){
+			System.out.println("Wilcoxon test only can be employed with two samples, or a sample of differences");
 			clearData();
 			return;
 		}
@@ -238,6 +241,9 @@ public class WilcoxonTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows());
+		startPhase("ranking");
+		
 		AOld=new double[data.getRows()];
 		BOld=new double[data.getRows()];
 		diffOld=new double[data.getRows()];
@@ -249,7 +255,7 @@ public class WilcoxonTest extends StatisticalTest{
 		for(int i=0;i<data.getRows();i++){
 			
 			AOld[i]=data.get(i, 0);
-			BOld[i]=data.get(i, 1);
+			BOld[i]=(data.getColumns()==2) ? data.get(i, 1) : 0.0;
 			
 			diffOld[i]=Math.abs(AOld[i]-BOld[i]);
 
@@ -385,6 +391,8 @@ public class WilcoxonTest extends StatisticalTest{
 			
 		}//end of compute ranks
 
+		startPhase("exact");
+		
 		//compute exact p-values (distribution is symmetric)
 		
 		double aux1,aux2;
@@ -410,11 +418,15 @@ public class WilcoxonTest extends StatisticalTest{
 			}
 		}
 		
+		startPhase("asymptotic");
+		
 		//compute asymptotic p-values
 		asymptoticLeftTail=distribution.computeAsymptoticLeftTailProbability(N, rPlus, tiesWeight);
 		asymptoticRightTail=distribution.computeAsymptoticRightTailProbability(N, rPlus, tiesWeight);
 		asymptoticDoubleTail=distribution.computeAsymptoticDoubleTailProbability(N, rPlus, tiesWeight);
 		
+		startPhase("confidence");
+		
 		//compute confidence intervals
 		walsh=new ArrayList<Double>();
 		
@@ -449,6 +461,8 @@ public class WilcoxonTest extends StatisticalTest{
 		
 		exactConfidence90=1.0-(distribution.computeExactProbability(diffOld.length,criticalN));
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -592,6 +606,8 @@ public class WilcoxonTest extends StatisticalTest{
 			return report;
 		}
 		
+		startExecution("printReport", data.getRows());
+		
 		report+="\n************\n";
 		report+="Wilcoxon test\n";
 		report+="************\n\n";
@@ -613,8 +629,42 @@ public class WilcoxonTest extends StatisticalTest{
 		report+="90% confidence interval: ["+nf6.format(lower90)+","+nf6.format(upper90)+"], exact confidence: "+nf6.format(exactConfidence90)+"\n";
 		report+="95% confidence interval: ["+nf6.format(lower95)+","+nf6.format(upper95)+"], exact confidence: "+nf6.format(exactConfidence95)+"\n";
 		
+		endExecution();
+		
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"RPlus", "RMinus", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getRPlus(), getRMinus(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
 		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		WilcoxonTest test=new WilcoxonTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -0,0 +1,311 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.pValue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Cost model of the methods to compute p-values of linear rank statistics.
+ * 
+ * The time of each method is predicted as the number of elementary
+ * operations it performs times a cost per operation, in nanoseconds:
+ * 
+ * - Exact: cells of the dynamic programming table (N (s+1) range).
+ * - Saddlepoint: terms of the cumulant generating function evaluated
+ *   (N per Newton iteration and tail).
+ * - Monte Carlo: scores drawn (s per sample, plus the check of the sample).
+ * - Normal: only the fixed cost, as the moments of the statistic are known.
+ * 
+ * Costs default to values measured on a current desktop machine. They can
+ * be several times off on other machines, so the models used for actual
+ * selections should be measured again on the running machine by
+ * calibrate(). getCalibrated() gives a shared model, calibrated the first
+ * time it is asked for.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class CostModel{
+	
+	/**
+	 * Default costs per operation (ns)
+	 */
+	public static final double DEFAULT_CELL = 0.6, DEFAULT_TERM = 22.0, DEFAULT_DRAW = 4.5;
+	
+	/**
+	 * Newton iterations expected for each tail of the saddlepoint approximation
+	 */
+	public static final int SADDLEPOINT_ITERATIONS = 8;
+	
+	/**
+	 * Draws charged for the check of each Monte Carlo sample
+	 */
+	public static final int SAMPLE_CHECK = 4;
+	
+	/**
+	 * Fixed cost of any method (ns)
+	 */
+	public static final double OVERHEAD = 2000.0;
+	
+	/**
+	 * Costs per operation (ns)
+	 */
+	private double cell, term, draw;
+	
+	/**
+	 * Shared model, calibrated on this machine
+	 */
+	private static CostModel calibrated=null;
+	
+	/**
+	 * Get a model calibrated on this machine. It is calibrated the first
+	 * time it is asked for, and shared afterwards.
+	 * 
+	 * @return calibrated model
+	 */
+	public static synchronized CostModel getCalibrated(){
+		
+		if(calibrated==null){
+			calibrated=new CostModel();
+			calibrated.calibrate();
+		}
+		
+		return calibrated;
+		
+	}//end-method
+	
+	/**
+	 * Default builder. Uses the default costs
+	 */
+	public CostModel(){
+		
+		this(DEFAULT_CELL, DEFAULT_TERM, DEFAULT_DRAW);
+		
+	}//end-method
+	
+	/**
+	 * Builder
+	 * 
+	 * @param cell cost of a cell of the exact distribution (ns)
+	 * @param term cost of a term of the saddlepoint equations (ns)
+	 * @param draw cost of a score drawn by Monte Carlo (ns)
+	 */
+	public CostModel(double cell, double term, double draw){
+		
+		this.cell=cell;
+		this.term=term;
+		this.draw=draw;
+		
+	}//end-method
+	
+	/**
+	 * Measures the costs per operation on this machine, timing each method
+	 * over synthetic statistics. The saddlepoint is timed at several
+	 * distances from the mean, keeping the slowest, as the iterations of
+	 * Newton's method vary with the tail. Takes a few tens of milliseconds.
+	 */
+	public void calibrate(){
+		
+		LinearRankStatistic statistic,small,tails [];
+		double ranks [];
+		double slowest;
+		SplittableRandom random;
+		long start,time;
+		int n,samples;
+		
+		n=200;
+		ranks=new double [n];
+		for(int i=0;i<n;i++){
+			ranks[i]=i+1;
+		}
+		statistic=new LinearRankStatistic(ranks, n/2, (n/2)*(n+1)/2.0+400.0);
+		
+		//samples of 10 and n/2 scores, at 1, 3 and 5 standard deviations
+		tails=new LinearRankStatistic [6];
+		for(int i=0;i<tails.length;i++){
+			tails[i]=new LinearRankStatistic(ranks, (i<3) ? 10 : n/2, 0.0);
+			tails[i]=new LinearRankStatistic(ranks, tails[i].getM(), tails[i].getMean()+(2*(i%3)+1)*Math.sqrt(tails[i].getVariance()));
+		}
+		small=new LinearRankStatistic(Arrays.copyOf(ranks, 100), 33, 33*101/2.0+100.0);
+		random=new SplittableRandom(0);
+		samples=4000;
+		
+		//first round warms up the methods
+		for(int round=0;round<2;round++){
+			
+			time=Long.MAX_VALUE;
+			for(int r=0;r<3;r++){
+				start=System.nanoTime();
+				small.exactTails();
+				time=Math.min(time, System.nanoTime()-start);
+			}
+			cell=time/small.exactCells();
+			
+			slowest=0.0;
+			for(LinearRankStatistic tail : tails){
+				time=Long.MAX_VALUE;
+				for(int r=0;r<10;r++){
+					start=System.nanoTime();
+					tail.saddlepointTails();
+					time=Math.min(time, System.nanoTime()-start);
+				}
+				slowest=Math.max(slowest, time);
+			}
+			term=slowest/(2.0*SADDLEPOINT_ITERATIONS*n);
+			
+			time=Long.MAX_VALUE;
+			for(int r=0;r<3;r++){
+				start=System.nanoTime();
+				statistic.monteCarloTails(random, 0.0, samples);
+				time=Math.min(time, System.nanoTime()-start);
+			}
+			draw=time/((double)samples*(statistic.getSmallest()+SAMPLE_CHECK));
+		}
+		
+	}//end-method
+	
+	/**
+	 * Predicts the time of the exact distribution
+	 * 
+	 * @param statistic statistic
+	 * @return time (ns), or infinity if the exact distribution is not available
+	 */
+	public double exactCost(LinearRankStatistic statistic){
+		
+		if(!statistic.isExactAvailable()){
+			return Double.POSITIVE_INFINITY;
+		}
+		
+		return OVERHEAD+statistic.exactCells()*cell;
+		
+	}//end-method
+	
+	/**
+	 * Predicts the time of the saddlepoint approximation
+	 * 
+	 * @param statistic statistic
+	 * @return time (ns)
+	 */
+	public double saddlepointCost(LinearRankStatistic statistic){
+		
+		return OVERHEAD+2.0*SADDLEPOINT_ITERATIONS*statistic.getN()*term;
+		
+	}//end-method
+	
+	/**
+	 * Predicts the time of a Monte Carlo estimation
+	 * 
+	 * @param statistic statistic
+	 * @param samples number of samples
+	 * @return time (ns)
+	 */
+	public double monteCarloCost(LinearRankStatistic statistic, long samples){
+		
+		return OVERHEAD+((double)samples*(statistic.getSmallest()+SAMPLE_CHECK)+statistic.getN())*draw;
+		
+	}//end-method
+	
+	/**
+	 * Predicts the number of Monte Carlo samples which can be drawn in a given time
+	 * 
+	 * @param statistic statistic
+	 * @param nanos time available (ns)
+	 * @return number of samples
+	 */
+	public long monteCarloSamples(LinearRankStatistic statistic, double nanos){
+		
+		double available;
+		
+		available=nanos-OVERHEAD-statistic.getN()*draw;
+		
+		if(available<=0.0){
+			return 0;
+		}
+		
+		return (long)Math.min(available/((statistic.getSmallest()+SAMPLE_CHECK)*draw), Long.MAX_VALUE/2);
+		
+	}//end-method
+	
+	/**
+	 * Predicts the time of the normal approximation
+	 * 
+	 * @param statistic statistic
+	 * @return time (ns)
+	 */
+	public double normalCost(LinearRankStatistic statistic){
+		
+		return OVERHEAD;
+		
+	}//end-method
+	
+	/**
+	 * Get the cost of a cell of the exact distribution
+	 * 
+	 * @return cost (ns)
+	 */
+	public double getCellCost(){
+		
+		return cell;
+		
+	}//end-method
+	
+	/**
+	 * Get the cost of a term of the saddlepoint equations
+	 * 
+	 * @return cost (ns)
+	 */
+	public double getTermCost(){
+		
+		return term;
+		
+	}//end-method
+	
+	/**
+	 * Get the cost of a score drawn by Monte Carlo
+	 * 
+	 * @return cost (ns)
+	 */
+	public double getDrawCost(){
+		
+		return draw;
+		
+	}//end-method
+	
+	/**
+	 * Prints the costs per operation
+	 * 
+	 * @return costs of the model
+	 */
+	public String toString(){
+		
+		return "Cost model (ns): cell "+cell+", term "+term+", draw "+draw;
+		
+	}//end-method
+	
+}//end-class
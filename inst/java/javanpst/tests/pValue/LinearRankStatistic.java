@@ -0,0 +1,813 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.pValue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import javanpst.distributions.common.continuous.NormalDistribution;
+
+/**
+ * Null distribution of a linear rank statistic.
+ * 
+ * The statistic is the sum of the scores of the m values of the first
+ * sample, among the N scores of the combined sample (ranks, midranks,
+ * normal scores, etc). Under the null hypothesis every subset of m scores
+ * is equally likely, so the tails of the statistic can be computed by four
+ * methods:
+ * 
+ * - Exact: the distribution of the sums of subsets is built by dynamic
+ *   programming. Only for scores on a lattice (e.g. integer or midranks),
+ *   and tables of up to MAX_TABLE cells.
+ * - Saddlepoint: the double saddlepoint approximation of the conditional
+ *   distribution (Skovgaard, 1987), with continuity correction on lattices.
+ * - Monte Carlo: random subsets are drawn until the relative error of the
+ *   smallest tail falls below a target, or a maximum number of samples.
+ * - Normal: the usual normal approximation, with the exact mean and
+ *   variance of the permutation distribution.
+ * 
+ * Tails are returned as P(T &lt;= t) and P(T &gt;= t).
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class LinearRankStatistic{
+	
+	/**
+	 * Maximum number of cells of the table of the exact distribution (128 MB)
+	 */
+	public static final double MAX_TABLE = 1<<24;
+	
+	/**
+	 * Relative tolerance to compare sums of scores
+	 */
+	private static final double EPSILON = 1e-9;
+	
+	/**
+	 * Largest denominator tried to put the scores on a lattice
+	 */
+	private static final int MAX_DENOMINATOR = 2;
+	
+	/**
+	 * Newton iterations of the saddlepoint equations
+	 */
+	private static final int MAX_ITERATIONS = 50;
+	
+	/**
+	 * Size of the blocks of Monte Carlo samples between checks of the stopping rule
+	 */
+	private static final int BLOCK = 256;
+	
+	/**
+	 * Scores of the combined sample
+	 */
+	private double scores [];
+	
+	/**
+	 * Size of the first sample
+	 */
+	private int m;
+	
+	/**
+	 * Observed value of the statistic
+	 */
+	private double statistic;
+	
+	/**
+	 * Minimum of the scores
+	 */
+	private double minScore;
+	
+	/**
+	 * Span of the lattice of the scores (0 if they are not on a lattice)
+	 */
+	private double span;
+	
+	/**
+	 * Scores as integers on the lattice, from 0 (null if they are not on a lattice)
+	 */
+	private int points [];
+	
+	/**
+	 * Number of distinct scores
+	 */
+	private int distinct;
+	
+	/**
+	 * Sum of all the scores
+	 */
+	private double total;
+	
+	/**
+	 * Mean and variance of the statistic
+	 */
+	private double mean, variance;
+	
+	/**
+	 * Smallest and largest values of the statistic
+	 */
+	private double lowest, highest;
+	
+	/**
+	 * Number of samples drawn by the last Monte Carlo run
+	 */
+	private long samples;
+	
+	/**
+	 * Normal distribution
+	 */
+	private NormalDistribution normal;
+	
+	/**
+	 * Builder
+	 * 
+	 * @param scores scores of the combined sample
+	 * @param m size of the first sample
+	 * @param statistic sum of the scores of the first sample
+	 */
+	public LinearRankStatistic(double scores[], int m, double statistic){
+		
+		double sorted [];
+		double average, sum;
+		int n;
+		
+		this.scores=scores.clone();
+		this.m=m;
+		this.statistic=statistic;
+		
+		normal=new NormalDistribution();
+		samples=0;
+		
+		n=scores.length;
+		
+		sorted=scores.clone();
+		Arrays.sort(sorted);
+		
+		minScore=(n>0) ? sorted[0] : 0.0;
+		
+		distinct=(n>0) ? 1 : 0;
+		for(int i=1;i<n;i++){
+			if(sorted[i]!=sorted[i-1]){
+				distinct++;
+			}
+		}
+		
+		lowest=0.0;
+		highest=0.0;
+		for(int i=0;i<m;i++){
+			lowest+=sorted[i];
+			highest+=sorted[n-1-i];
+		}
+		
+		total=0.0;
+		for(int i=0;i<n;i++){
+			total+=scores[i];
+		}
+		average=total/n;
+		
+		sum=0.0;
+		for(int i=0;i<n;i++){
+			sum+=(scores[i]-average)*(scores[i]-average);
+		}
+		
+		mean=m*average;
+		variance=(n>1) ? ((double)m*(n-m)/((double)n*(n-1)))*sum : 0.0;
+		
+		findLattice();
+		
+	}//end-method
+	
+	/**
+	 * Finds if the scores lie on a lattice, d (minScore + k span) with k
+	 * integer, trying the denominators up to MAX_DENOMINATOR (so midranks
+	 * are found)
+	 */
+	private void findLattice(){
+		
+		long value [];
+		long gcd;
+		double scaled;
+		
+		span=0.0;
+		points=null;
+		value=new long [scores.length];
+		
+		for(int d=1;d<=MAX_DENOMINATOR;d++){
+			
+			gcd=0;
+			
+			for(int i=0;i<scores.length;i++){
+				scaled=(scores[i]-minScore)*d;
+				value[i]=Math.round(scaled);
+				if((Math.abs(scaled-value[i])>EPSILON*Math.max(1.0, scaled))||(value[i]>Integer.MAX_VALUE)){
+					gcd=-1;
+					break;
+				}
+				gcd=gcd(gcd, value[i]);
+			}
+			
+			if(gcd>=0){
+				//all the scores are equal
+				if(gcd==0){
+					gcd=1;
+				}
+				points=new int [scores.length];
+				for(int i=0;i<scores.length;i++){
+					points[i]=(int)(value[i]/gcd);
+				}
+				span=(double)gcd/d;
+				return;
+			}
+		}
+		
+	}//end-method
+	
+	/**
+	 * Greatest common divisor
+	 * 
+	 * @param a first value
+	 * @param b second value
+	 * @return gcd of a and b
+	 */
+	private static long gcd(long a, long b){
+		
+		long aux;
+		
+		while(b!=0){
+			aux=a%b;
+			a=b;
+			b=aux;
+		}
+		
+		return a;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of scores
+	 * 
+	 * @return size of the combined sample
+	 */
+	public int getN(){
+		
+		return scores.length;
+		
+	}//end-method
+	
+	/**
+	 * Get the size of the first sample
+	 * 
+	 * @return size of the first sample
+	 */
+	public int getM(){
+		
+		return m;
+		
+	}//end-method
+	
+	/**
+	 * Get the observed value of the statistic
+	 * 
+	 * @return statistic
+	 */
+	public double getStatistic(){
+		
+		return statistic;
+		
+	}//end-method
+	
+	/**
+	 * Get the mean of the statistic
+	 * 
+	 * @return mean under the null hypothesis
+	 */
+	public double getMean(){
+		
+		return mean;
+		
+	}//end-method
+	
+	/**
+	 * Get the variance of the statistic
+	 * 
+	 * @return variance under the null hypothesis
+	 */
+	public double getVariance(){
+		
+		return variance;
+		
+	}//end-method
+	
+	/**
+	 * Checks if the scores lie on a lattice, so the exact distribution can be computed
+	 * 
+	 * @return true if the scores lie on a lattice
+	 */
+	public boolean isLattice(){
+		
+		return points!=null;
+		
+	}//end-method
+	
+	/**
+	 * Checks if the exact distribution can be computed: the scores lie on a
+	 * lattice, and its table is not larger than MAX_TABLE
+	 * 
+	 * @return true if the exact distribution can be computed
+	 */
+	public boolean isExactAvailable(){
+		
+		return (points!=null)&&((getSmallest()+1)*exactRange()<=MAX_TABLE);
+		
+	}//end-method
+	
+	/**
+	 * Get the span of the lattice of the scores
+	 * 
+	 * @return span (0 if the scores are not on a lattice)
+	 */
+	public double getSpan(){
+		
+		return span;
+		
+	}//end-method
+	
+	/**
+	 * Get the size of the smallest sample
+	 * 
+	 * @return size of the smallest sample
+	 */
+	public int getSmallest(){
+		
+		return Math.min(m, scores.length-m);
+		
+	}//end-method
+	
+	/**
+	 * Get the number of distinct scores
+	 * 
+	 * @return number of distinct scores
+	 */
+	public int getDistinct(){
+		
+		return distinct;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of sums tabulated by the exact distribution, for each
+	 * size of subset
+	 * 
+	 * @return number of sums (-1 if the scores are not on a lattice)
+	 */
+	public double exactRange(){
+		
+		int s;
+		double top;
+		
+		if(points==null){
+			return -1.0;
+		}
+		
+		s=getSmallest();
+		top=(s==m) ? highest : total-lowest;
+		
+		return Math.rint((top-s*minScore)/span)+1.0;
+		
+	}//end-method
+	
+	/**
+	 * Get the number of cells updated by the exact distribution
+	 * 
+	 * @return number of cells (-1 if the scores are not on a lattice)
+	 */
+	public double exactCells(){
+		
+		if(points==null){
+			return -1.0;
+		}
+		
+		return (double)scores.length*(getSmallest()+1)*exactRange();
+		
+	}//end-method
+	
+	/**
+	 * Get the number of samples drawn by the last Monte Carlo run
+	 * 
+	 * @return number of samples
+	 */
+	public long getSamples(){
+		
+		return samples;
+		
+	}//end-method
+	
+	/**
+	 * Computes the exact tails of the statistic.
+	 * 
+	 * The probabilities of the sums of subsets of s values (s the size of 
+	 * the smallest sample) are built over the scores, one score at a time,
+	 * as P_i(j,r) = (i-j)/i P_{i-1}(j,r) + j/i P_{i-1}(j-1,r-a_i), which 
+	 * never overflows. Sums of the largest sample are taken from the complement.
+	 * 
+	 * @return {left tail, right tail}, or null if it is not available
+	 */
+	public double [] exactTails(){
+		
+		int n,s,sum,top,limit,target;
+		double table [][];
+		double keep,move,left,right;
+		boolean complement;
+		int sorted [];
+		
+		if(!isExactAvailable()){
+			return null;
+		}
+		
+		n=scores.length;
+		complement=(m>n-m);
+		s=complement ? n-m : m;
+		
+		sum=0;
+		for(int i=0;i<n;i++){
+			sum+=points[i];
+		}
+		
+		//largest sum of s points
+		sorted=points.clone();
+		Arrays.sort(sorted);
+		top=0;
+		for(int i=0;i<s;i++){
+			top+=sorted[n-1-i];
+		}
+		
+		table=new double [s+1][top+1];
+		table[0][0]=1.0;
+		limit=0;
+		
+		for(int i=1;i<=n;i++){
+			limit=Math.min(limit+points[i-1], top);
+			for(int j=Math.min(i, s);j>=1;j--){
+				keep=(double)(i-j)/i;
+				move=(double)j/i;
+				for(int r=limit;r>=0;r--){
+					table[j][r]*=keep;
+					if(r>=points[i-1]){
+						table[j][r]+=move*table[j-1][r-points[i-1]];
+					}
+				}
+			}
+		}
+		
+		//observed sum, in points, for the sample of size s
+		target=(int)Math.round((statistic-m*minScore)/span);
+		if(complement){
+			target=sum-target;
+		}
+		
+		left=0.0;
+		right=0.0;
+		for(int r=0;r<=top;r++){
+			if(r<=target){
+				left+=table[s][r];
+			}
+			if(r>=target){
+				right+=table[s][r];
+			}
+		}
+		
+		left=Math.min(left, 1.0);
+		right=Math.min(right, 1.0);
+		
+		return complement ? new double [] {right, left} : new double [] {left, right};
+		
+	}//end-method
+	
+	/**
+	 * Computes the tails of the statistic by the normal approximation,
+	 * with continuity correction on lattices
+	 * 
+	 * @return {left tail, right tail}
+	 */
+	public double [] normalTails(){
+		
+		double sd,left,right;
+		
+		if(variance<=0.0){
+			return new double [] {1.0, 1.0};
+		}
+		
+		sd=Math.sqrt(variance);
+		
+		left=normal.getTipifiedProbability((statistic+span/2.0-mean)/sd, false);
+		right=normal.getTipifiedProbability((statistic-span/2.0-mean)/sd, true);
+		
+		return new double [] {Math.min(left, 1.0), Math.min(right, 1.0)};
+		
+	}//end-method
+	
+	/**
+	 * Computes the tails of the statistic by the double saddlepoint approximation
+	 * 
+	 * @return {left tail, right tail}
+	 */
+	public double [] saddlepointTails(){
+		
+		double negated [];
+		double left,right;
+		
+		negated=new double [scores.length];
+		for(int i=0;i<scores.length;i++){
+			negated[i]=-scores[i];
+		}
+		
+		right=rightTail(scores, statistic, mean, lowest, highest);
+		left=rightTail(negated, -statistic, -mean, -highest, -lowest);
+		
+		return new double [] {left, right};
+		
+	}//end-method
+	
+	/**
+	 * Saddlepoint approximation of P(T &gt;= t).
+	 * 
+	 * The first sample is taken as the values with I_i=1, with I_i independent
+	 * Bernoulli(m/N), conditioned on sum(I_i)=m. With 
+	 * K(s,u) = sum log(1-p+p exp(s+u a_i)), and (s',u') the solution of
+	 * K_s=m, K_u=t, the tail is approximated by
+	 * 1-F(w)-f(w)(1/w-1/v), with w = sign(u') sqrt(2(s'm+u't-K(s',u'))) and
+	 * v = u' sqrt(det K''(s',u')/(Np(1-p))) (2 sinh(u' span/2) instead of
+	 * u' on lattices, with t moved half a span to the mean).
+	 * 
+	 * @param a scores
+	 * @param t observed value
+	 * @param center mean of the statistic
+	 * @param low smallest value of the statistic
+	 * @param high largest value of the statistic
+	 * @return right tail
+	 */
+	private double rightTail(double a[], double t, double center, double low, double high){
+		
+		int n;
+		double p,logit,s,u,x,pi,q,k,ks,ku,kss,ksu,kuu,det,ds,du;
+		double w,v,tail,corrected,tolerance;
+		boolean converged;
+		
+		n=a.length;
+		tolerance=EPSILON*Math.max(1.0, Math.abs(high)+Math.abs(low));
+		
+		if(t<=low+tolerance){
+			return 1.0;
+		}
+		if(t>high+tolerance){
+			return 0.0;
+		}
+		if(t>=high-tolerance){
+			return extremeProbability(a);
+		}
+		
+		corrected=t-span/2.0;
+		
+		//too close to the mean: the approximation is singular at u=0
+		if(Math.abs(corrected-center)<=1e-3*Math.sqrt(variance)){
+			return normal.getTipifiedProbability((corrected-center)/Math.sqrt(variance), true);
+		}
+		
+		p=(double)m/n;
+		logit=Math.log(p/(1.0-p));
+		
+		//Newton's method from the origin (where K_s=m)
+		s=0.0;
+		u=0.0;
+		k=0.0;
+		kss=ksu=kuu=0.0;
+		converged=false;
+		
+		for(int iteration=0;iteration<MAX_ITERATIONS;iteration++){
+			
+			k=0.0;
+			ks=0.0;
+			ku=0.0;
+			kss=0.0;
+			ksu=0.0;
+			kuu=0.0;
+			
+			for(int i=0;i<n;i++){
+				x=s+u*a[i]+logit;
+				pi=1.0/(1.0+Math.exp(-x));
+				q=pi*(1.0-pi);
+				k+=(x>0.0) ? x+Math.log1p(Math.exp(-x)) : Math.log1p(Math.exp(x));
+				ks+=pi;
+				ku+=pi*a[i];
+				kss+=q;
+				ksu+=q*a[i];
+				kuu+=q*a[i]*a[i];
+			}
+			k+=n*Math.log(1.0-p);
+			
+			ks-=m;
+			ku-=corrected;
+			
+			det=kss*kuu-ksu*ksu;
+			if(!(det>0.0)){
+				break;
+			}
+			
+			ds=(kuu*ks-ksu*ku)/det;
+			du=(kss*ku-ksu*ks)/det;
+			
+			s-=ds;
+			u-=du;
+			
+			if((Math.abs(ds)<1e-12*Math.max(1.0, Math.abs(s)))&&(Math.abs(du)<1e-12*Math.max(1.0, Math.abs(u)))){
+				converged=true;
+				break;
+			}
+		}
+		
+		if(!converged){
+			return normal.getTipifiedProbability((corrected-center)/Math.sqrt(variance), true);
+		}
+		
+		det=kss*kuu-ksu*ksu;
+		
+		w=Math.signum(u)*Math.sqrt(Math.max(2.0*(s*m+u*corrected-k), 0.0));
+		
+		if(span>0.0){
+			v=2.0*Math.sinh(u*span/2.0)/span;
+		}
+		else{
+			v=u;
+		}
+		v*=Math.sqrt(det/(n*p*(1.0-p)));
+		
+		if((Math.abs(w)<1e-8)||(Math.abs(v)<1e-8)){
+			return normal.getTipifiedProbability((corrected-center)/Math.sqrt(variance), true);
+		}
+		
+		tail=normal.getTipifiedProbability(w, true)-normal.computeProbability(w)*(1.0/w-1.0/v);
+		
+		return Math.min(Math.max(tail, 0.0), 1.0);
+		
+	}//end-method
+	
+	/**
+	 * Probability of the largest value of the statistic: the ways to pick
+	 * the m largest scores, ties included, among all the subsets
+	 * 
+	 * @param a scores
+	 * @return probability of the largest value
+	 */
+	private double extremeProbability(double a[]){
+		
+		double sorted [];
+		double border,logValue;
+		int tied,chosen,n;
+		
+		n=a.length;
+		sorted=a.clone();
+		Arrays.sort(sorted);
+		
+		border=sorted[n-m];
+		
+		tied=0;
+		chosen=0;
+		for(int i=0;i<n;i++){
+			if(sorted[i]==border){
+				tied++;
+				if(i>=n-m){
+					chosen++;
+				}
+			}
+		}
+		
+		logValue=logChoose(tied, chosen)-logChoose(n, m);
+		
+		return Math.exp(logValue);
+		
+	}//end-method
+	
+	/**
+	 * Logarithm of the binomial coefficient
+	 * 
+	 * @param n number of elements
+	 * @param k elements chosen
+	 * @return log(n choose k)
+	 */
+	private static double logChoose(int n, int k){
+		
+		double value=0.0;
+		
+		k=Math.min(k, n-k);
+		for(int i=1;i<=k;i++){
+			value+=Math.log((double)(n-k+i)/i);
+		}
+		
+		return value;
+		
+	}//end-method
+	
+	/**
+	 * Estimates the tails of the statistic by Monte Carlo sampling.
+	 * 
+	 * Random subsets of the scores are drawn (by a partial Fisher-Yates
+	 * shuffle of the smallest sample), in blocks, until the relative standard
+	 * error of the smallest tail is not greater than the target, or the maximum
+	 * number of samples is reached. Tails are estimated as (hits+1)/(samples+1),
+	 * so they are never 0.
+	 * 
+	 * @param random source of random numbers
+	 * @param target relative standard error sought
+	 * @param maxSamples maximum number of samples
+	 * @return {left tail, right tail}
+	 */
+	public double [] monteCarloTails(SplittableRandom random, double target, long maxSamples){
+		
+		int n,s,index,aux;
+		int order [];
+		long leftHits,rightHits,drawn;
+		double sum,tolerance,observed,smallest,error;
+		boolean complement;
+		
+		n=scores.length;
+		complement=(m>n-m);
+		s=complement ? n-m : m;
+		
+		observed=complement ? total-statistic : statistic;
+		tolerance=EPSILON*Math.max(1.0, Math.abs(total));
+		
+		order=new int [n];
+		for(int i=0;i<n;i++){
+			order[i]=i;
+		}
+		
+		leftHits=0;
+		rightHits=0;
+		drawn=0;
+		
+		while(drawn<maxSamples){
+			
+			for(int b=0;(b<BLOCK)&&(drawn<maxSamples);b++){
+				
+				sum=0.0;
+				for(int i=0;i<s;i++){
+					index=i+random.nextInt(n-i);
+					aux=order[i];
+					order[i]=order[index];
+					order[index]=aux;
+					sum+=scores[order[i]];
+				}
+				
+				if(sum<=observed+tolerance){
+					leftHits++;
+				}
+				if(sum>=observed-tolerance){
+					rightHits++;
+				}
+				drawn++;
+			}
+			
+			smallest=(Math.min(leftHits, rightHits)+1.0)/(drawn+1.0);
+			error=Math.sqrt((1.0-smallest)/(smallest*drawn));
+			
+			if(error<=target){
+				break;
+			}
+		}
+		
+		samples=drawn;
+		
+		if(complement){
+			return new double [] {(rightHits+1.0)/(drawn+1.0), (leftHits+1.0)/(drawn+1.0)};
+		}
+		
+		return new double [] {(leftHits+1.0)/(drawn+1.0), (rightHits+1.0)/(drawn+1.0)};
+		
+	}//end-method
+	
+}//end-class
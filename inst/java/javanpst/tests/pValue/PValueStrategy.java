@@ -0,0 +1,569 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+	
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+  
+**********************************************************************/
+
+
+package javanpst.tests.pValue;
+
+import java.util.SplittableRandom;
+
+/**
+ * Adaptive selection of the method to compute p-values.
+ * 
+ * Given a latency budget and an accuracy target (relative error of the
+ * p-value), the strategy predicts the time of each method through a cost
+ * model, and its error from the size s of the smallest sample, the number
+ * d of distinct scores, the standardized statistic z and a normal pilot
+ * estimate p of the p-value:
+ * 
+ * - Exact: no error. Only for scores on a lattice, and tables of bounded size.
+ * - Saddlepoint: relative error a (1+z^2)/s^1.5 + b (1+z^2)^2/(s d^2).
+ * - Monte Carlo: relative standard error sqrt((1-p)/(p B)), with B samples.
+ * - Normal: relative error exp(c (1+z^4)/s + e/d^2)-1.
+ * 
+ * The constants bound the errors measured against the exact distribution
+ * of rank sums with N from 20 to 4000 scores, samples from 2 scores to N/2,
+ * and scores without ties, with N/5 levels and with 4 levels, up to 6
+ * standard deviations. The second terms only matter with heavy ties, where
+ * both approximations lose accuracy.
+ * 
+ * Among the methods which fit in the budget, the cheapest one which meets
+ * the target is chosen. If none meets it, the most accurate one is chosen
+ * instead. The normal approximation is always available, even if the
+ * budget is exceeded. An accuracy target of 0 asks for the most accurate
+ * p-value that fits in the budget.
+ * 
+ * The method used, its predicted error and the time spent are stored in
+ * the result. Unless a cost model is given, the times are predicted by a
+ * model calibrated on this machine (see CostModel.getCalibrated()), so the
+ * first strategy built takes a few tens of milliseconds more.
+ * 
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class PValueStrategy{
+	
+	/**
+	 * Methods
+	 */
+	public static final int EXACT = 0, SADDLEPOINT = 1, MONTE_CARLO = 2, NORMAL = 3;
+	
+	/**
+	 * Names of the methods
+	 */
+	public static final String METHODS [] = {"Exact", "Saddlepoint", "Monte Carlo", "Normal"};
+	
+	/**
+	 * Default latency budget (ns)
+	 */
+	public static final long DEFAULT_BUDGET = 10000000L;
+	
+	/**
+	 * Default accuracy target (relative error)
+	 */
+	public static final double DEFAULT_ACCURACY = 0.01;
+	
+	/**
+	 * Relative error of the saddlepoint approximation:
+	 * SADDLEPOINT_ERROR (1+z^2)/s^1.5 + SADDLEPOINT_TIES_ERROR (1+z^2)^2/(s d^2)
+	 */
+	public static final double SADDLEPOINT_ERROR = 0.05, SADDLEPOINT_TIES_ERROR = 16.0;
+	
+	/**
+	 * Relative error of the normal approximation:
+	 * exp(NORMAL_ERROR (1+z^4)/s + NORMAL_TIES_ERROR/d^2)-1
+	 */
+	public static final double NORMAL_ERROR = 0.2, NORMAL_TIES_ERROR = 3.5;
+	
+	/**
+	 * Minimum number of Monte Carlo samples
+	 */
+	public static final long MIN_SAMPLES = 1000;
+	
+	/**
+	 * Result of a computation
+	 */
+	public static final class Result{
+		
+		/**
+		 * Method used
+		 */
+		private final int method;
+		
+		/**
+		 * Tails
+		 */
+		private final double left,right;
+		
+		/**
+		 * Relative error predicted
+		 */
+		private final double error;
+		
+		/**
+		 * Monte Carlo samples drawn
+		 */
+		private final long samples;
+		
+		/**
+		 * Predicted and actual time (ns)
+		 */
+		private final double predicted;
+		private final long nanos;
+		
+		/**
+		 * Builder
+		 * 
+		 * @param method method used
+		 * @param tails left and right tails
+		 * @param error relative error predicted
+		 * @param samples Monte Carlo samples drawn
+		 * @param predicted time predicted (ns)
+		 * @param nanos time spent (ns)
+		 */
+		Result(int method, double tails[], double error, long samples, double predicted, long nanos){
+			
+			this.method=method;
+			this.left=tails[0];
+			this.right=tails[1];
+			this.error=error;
+			this.samples=samples;
+			this.predicted=predicted;
+			this.nanos=nanos;
+			
+		}//end-method
+		
+		/**
+		 * Get the method used
+		 * 
+		 * @return method (EXACT, SADDLEPOINT, MONTE_CARLO or NORMAL)
+		 */
+		public int getMethod(){
+			
+			return method;
+			
+		}//end-method
+		
+		/**
+		 * Get the name of the method used
+		 * 
+		 * @return name of the method
+		 */
+		public String getMethodName(){
+			
+			return METHODS[method];
+			
+		}//end-method
+		
+		/**
+		 * Get the left tail p-value
+		 * 
+		 * @return left tail p-value
+		 */
+		public double getLeftPValue(){
+			
+			return left;
+			
+		}//end-method
+		
+		/**
+		 * Get the right tail p-value
+		 * 
+		 * @return right tail p-value
+		 */
+		public double getRightPValue(){
+			
+			return right;
+			
+		}//end-method
+		
+		/**
+		 * Get the double tail p-value
+		 * 
+		 * @return double tail p-value
+		 */
+		public double getDoublePValue(){
+			
+			return Math.min(Math.min(left, right)*2.0, 1.0);
+			
+		}//end-method
+		
+		/**
+		 * Get the relative error predicted for the smallest tail
+		 * 
+		 * @return relative error
+		 */
+		public double getError(){
+			
+			return error;
+			
+		}//end-method
+		
+		/**
+		 * Get the number of Monte Carlo samples drawn
+		 * 
+		 * @return samples (0 for the other methods)
+		 */
+		public long getSamples(){
+			
+			return samples;
+			
+		}//end-method
+		
+		/**
+		 * Get the time predicted by the cost model
+		 * 
+		 * @return time (ns)
+		 */
+		public double getPredictedNanos(){
+			
+			return predicted;
+			
+		}//end-method
+		
+		/**
+		 * Get the time spent
+		 * 
+		 * @return time (ns)
+		 */
+		public long getNanos(){
+			
+			return nanos;
+			
+		}//end-method
+		
+		/**
+		 * Prints the result
+		 * 
+		 * @return description of the result
+		 */
+		public String toString(){
+			
+			String text;
+			
+			text="P-Value method: "+METHODS[method];
+			if(method==MONTE_CARLO){
+				text+=" ("+samples+" samples)";
+			}
+			text+=". Relative error: "+error;
+			text+=". Time: "+(nanos/1000)+" us (predicted "+(long)(predicted/1000)+" us)";
+			
+			return text;
+			
+		}//end-method
+		
+	}//end-class
+	
+	/**
+	 * Latency budget (ns)
+	 */
+	private long budget;
+	
+	/**
+	 * Accuracy target (relative error)
+	 */
+	private double accuracy;
+	
+	/**
+	 * Cost model
+	 */
+	private CostModel model;
+	
+	/**
+	 * Source of random numbers for Monte Carlo
+	 */
+	private SplittableRandom random;
+	
+	/**
+	 * Default builder. Uses the default budget and accuracy, and the
+	 * calibrated cost model
+	 */
+	public PValueStrategy(){
+		
+		this(DEFAULT_BUDGET, DEFAULT_ACCURACY);
+		
+	}//end-method
+	
+	/**
+	 * Builder. Uses the calibrated cost model
+	 * 
+	 * @param budget latency budget (ns)
+	 * @param accuracy accuracy target (relative error)
+	 */
+	public PValueStrategy(long budget, double accuracy){
+		
+		this(budget, accuracy, CostModel.getCalibrated(), System.nanoTime());
+		
+	}//end-method
+	
+	/**
+	 * Builder
+	 * 
+	 * @param budget latency budget (ns)
+	 * @param accuracy accuracy target (relative error)
+	 * @param model cost model
+	 * @param seed seed of the Monte Carlo samples
+	 */
+	public PValueStrategy(long budget, double accuracy, CostModel model, long seed){
+		
+		this.budget=budget;
+		this.accuracy=Math.max(accuracy, 0.0);
+		this.model=model;
+		this.random=new SplittableRandom(seed);
+		
+	}//end-method
+	
+	/**
+	 * Get the latency budget
+	 * 
+	 * @return budget (ns)
+	 */
+	public long getBudget(){
+		
+		return budget;
+		
+	}//end-method
+	
+	/**
+	 * Get the accuracy target
+	 * 
+	 * @return relative error
+	 */
+	public double getAccuracy(){
+		
+		return accuracy;
+		
+	}//end-method
+	
+	/**
+	 * Get the cost model
+	 * 
+	 * @return cost model
+	 */
+	public CostModel getCostModel(){
+		
+		return model;
+		
+	}//end-method
+	
+	/**
+	 * Selects the method for a statistic
+	 * 
+	 * @param statistic statistic
+	 * @return method (EXACT, SADDLEPOINT, MONTE_CARLO or NORMAL)
+	 */
+	public int select(LinearRankStatistic statistic){
+		
+		return (int)choose(statistic, pilot(statistic.normalTails()))[0];
+		
+	}//end-method
+	
+	/**
+	 * Computes the p-values of a statistic by the method selected
+	 * 
+	 * @param statistic statistic
+	 * @return p-values and method used
+	 */
+	public Result compute(LinearRankStatistic statistic){
+		
+		double tails [],normalTails [];
+		double p,error,predicted;
+		long choice [];
+		long samples,start;
+		
+		start=System.nanoTime();
+		
+		normalTails=statistic.normalTails();
+		p=pilot(normalTails);
+		choice=choose(statistic, p);
+		samples=0;
+		
+		switch((int)choice[0]){
+		
+			case EXACT:
+				tails=statistic.exactTails();
+				error=0.0;
+				predicted=model.exactCost(statistic);
+				break;
+				
+			case SADDLEPOINT:
+				tails=statistic.saddlepointTails();
+				error=saddlepointError(statistic);
+				predicted=model.saddlepointCost(statistic);
+				break;
+				
+			case MONTE_CARLO:
+				tails=statistic.monteCarloTails(random, accuracy, choice[1]);
+				samples=statistic.getSamples();
+				p=Math.min(tails[0], tails[1]);
+				error=Math.sqrt((1.0-p)/(p*samples));
+				predicted=model.monteCarloCost(statistic, choice[1]);
+				break;
+				
+			default:
+				tails=normalTails;
+				error=normalError(statistic);
+				predicted=model.normalCost(statistic);
+				break;
+		}
+		
+		return new Result((int)choice[0], tails, error, samples, predicted, System.nanoTime()-start);
+		
+	}//end-method
+	
+	/**
+	 * Pilot estimate of the smallest tail
+	 * 
+	 * @param tails normal tails
+	 * @return smallest tail, kept away from 0
+	 */
+	private static double pilot(double tails[]){
+		
+		return Math.max(Math.min(Math.min(tails[0], tails[1]), 0.5), Double.MIN_NORMAL);
+		
+	}//end-method
+	
+	/**
+	 * Chooses the method
+	 * 
+	 * @param statistic statistic
+	 * @param p pilot estimate of the smallest tail
+	 * @return method chosen, and number of Monte Carlo samples
+	 */
+	private long [] choose(LinearRankStatistic statistic, double p){
+		
+		double cost [],error [];
+		long samples,needed;
+		int best;
+		boolean met;
+		
+		cost=new double [METHODS.length];
+		error=new double [METHODS.length];
+		
+		//exact
+		cost[EXACT]=model.exactCost(statistic);
+		error[EXACT]=0.0;
+		
+		//saddlepoint
+		cost[SADDLEPOINT]=model.saddlepointCost(statistic);
+		error[SADDLEPOINT]=saddlepointError(statistic);
+		
+		//Monte Carlo: samples to meet the target, within the budget
+		samples=model.monteCarloSamples(statistic, budget);
+		if(accuracy>0.0){
+			needed=(long)Math.ceil(Math.min((1.0-p)/(p*accuracy*accuracy), Long.MAX_VALUE/2));
+			samples=Math.min(samples, Math.max(needed, MIN_SAMPLES));
+		}
+		if(samples>=MIN_SAMPLES){
+			cost[MONTE_CARLO]=model.monteCarloCost(statistic, samples);
+			error[MONTE_CARLO]=Math.sqrt((1.0-p)/(p*samples));
+		}
+		else{
+			cost[MONTE_CARLO]=Double.POSITIVE_INFINITY;
+			error[MONTE_CARLO]=Double.POSITIVE_INFINITY;
+		}
+		
+		//normal
+		cost[NORMAL]=model.normalCost(statistic);
+		error[NORMAL]=normalError(statistic);
+		
+		//cheapest method meeting the target, or else the most accurate
+		best=NORMAL;
+		met=(error[NORMAL]<=accuracy);
+		
+		for(int method=0;method<METHODS.length;method++){
+			
+			if((method==best)||(cost[method]>budget)){
+				continue;
+			}
+			
+			if(error[method]<=accuracy){
+				if(!met||(cost[method]<cost[best])){
+					best=method;
+					met=true;
+				}
+			}
+			else if(!met&&((error[method]<error[best])||((error[method]==error[best])&&(cost[method]<cost[best])))){
+				best=method;
+			}
+		}
+		
+		return new long [] {best, samples};
+		
+	}//end-method
+	
+	/**
+	 * Predicted relative error of the saddlepoint approximation
+	 * 
+	 * @param statistic statistic
+	 * @return relative error
+	 */
+	private static double saddlepointError(LinearRankStatistic statistic){
+		
+		double z2,s,d;
+		
+		z2=1.0+standardized(statistic)*standardized(statistic);
+		s=Math.max(statistic.getSmallest(), 1);
+		d=Math.max(statistic.getDistinct(), 1);
+		
+		return SADDLEPOINT_ERROR*z2/(s*Math.sqrt(s))+SADDLEPOINT_TIES_ERROR*z2*z2/(s*d*d);
+		
+	}//end-method
+	
+	/**
+	 * Predicted relative error of the normal approximation
+	 * 
+	 * @param statistic statistic
+	 * @return relative error
+	 */
+	private static double normalError(LinearRankStatistic statistic){
+		
+		double z,s,d;
+		
+		z=standardized(statistic);
+		s=Math.max(statistic.getSmallest(), 1);
+		d=Math.max(statistic.getDistinct(), 1);
+		
+		return Math.expm1(NORMAL_ERROR*(1.0+z*z*z*z)/s+NORMAL_TIES_ERROR/(d*d));
+		
+	}//end-method
+	
+	/**
+	 * Distance from the statistic to its mean, in standard deviations
+	 * 
+	 * @param statistic statistic
+	 * @return absolute standardized statistic (0 if the variance is null)
+	 */
+	private static double standardized(LinearRankStatistic statistic){
+		
+		if(statistic.getVariance()<=0.0){
+			return 0.0;
+		}
+		
+		return Math.abs(statistic.getStatistic()-statistic.getMean())/Math.sqrt(statistic.getVariance());
+		
+	}//end-method
+	
+}//end-class
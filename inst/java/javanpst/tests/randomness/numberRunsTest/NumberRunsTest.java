@@ -39,6 +39,9 @@ import javanpst.tests.StatisticalTest;
  * 
  * A normal approximation is also provided. 
  * 
+ * Runs and elements are counted over the codes of the dictionary-encoded
+ * sequence, so no string is compared.
+ * 
  * @author Joaquín Derrac Rus (jderrac@decsai.ugr.es)
  * @version 1.0
  */
@@ -176,31 +179,18 @@ public class NumberRunsTest extends StatisticalTest{
 	 * Perform the test
 	 */
 	public void doTest(){
-	
-		String c;
-		int i;
 		
 		if(!dataReady){		
 			System.out.println("Data is not ready");
 			return;	
 		}
 		
-		countElements();
-
-		//compute the number of runs
-		runs=1;
-		
-		c=sequence.get(0);
+		startExecution("doTest", sequence.size());
 		
-		i=1;
+		countElements();
 
-		while(i<sequence.size()){
-			if(!sequence.get(i).equals(c)){
-				runs++;
-				c=sequence.get(i);
-			}
-			i++;
-		}
+		//compute the number of runs, over the codes of the sequence
+		runs=(int)sequence.countRuns();
 		
 		//compute p-values
 		
@@ -212,6 +202,8 @@ public class NumberRunsTest extends StatisticalTest{
 		asymptoticRightTail=distribution.computeAsymptoticRightTailProbability(n1, n2, runs);
 		asymptoticDoubleTail=distribution.computeAsymptoticDoubleTailProbability(n1, n2, runs);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -221,22 +213,10 @@ public class NumberRunsTest extends StatisticalTest{
 	 */
 	private void countElements(){
 	
-		String firstElement;
 		int aux;
 		
-		n1=0;
-		n2=0;
-		
-		firstElement=sequence.get(0);
-		
-		for(String d : sequence.getSequence()){
-			if(d.equals(firstElement)){
-				n1++;
-			}
-			else{
-				n2++;
-			}
-		}
+		n1=(int)sequence.count(sequence.getCode(0));
+		n2=sequence.size()-n1;
 		
 		//n1 must be equal or lower than n2
 		if(n1>n2){
@@ -392,6 +372,39 @@ public class NumberRunsTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"N1", "N2", "Runs", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getN1(), getN2(), getRuns(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param codes codes of the elements of the sequence
+	 * @param symbols symbol of each code
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(int codes[], String symbols[]){
+		
+		NumberRunsTest test=new NumberRunsTest(new StringSequence(codes, symbols));
 		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
 	
\ No newline at end of file
@@ -177,6 +177,8 @@ public class RunsUpDownMedianTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		countElementsMedian();
 		
 		computeRuns();
@@ -200,6 +202,8 @@ public class RunsUpDownMedianTest extends StatisticalTest{
 		asymptoticRightTail=distribution.computeAsymptoticRightTailProbability(n1, n2, runs);
 		asymptoticDoubleTail=distribution.computeAsymptoticDoubleTailProbability(n1, n2, runs);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -414,5 +418,37 @@ public class RunsUpDownMedianTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Median", "Runs", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getMedian(), getRuns(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		RunsUpDownMedianTest test=new RunsUpDownMedianTest(new NumericSequence(sequence));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
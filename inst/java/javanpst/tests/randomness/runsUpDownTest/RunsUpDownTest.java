@@ -162,6 +162,8 @@ public class RunsUpDownTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		computeRuns();
 		
 		exactLeftTail=distribution.computeExactProbability(sequence.size(), runs,true);
@@ -172,6 +174,8 @@ public class RunsUpDownTest extends StatisticalTest{
 		asymptoticRightTail=distribution.computeAsymptoticRightTailProbability(sequence.size(), runs);
 		asymptoticDoubleTail=distribution.computeAsymptoticDoubleTailProbability(sequence.size(), runs);
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -343,5 +347,37 @@ public class RunsUpDownTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Runs", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getRuns(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		RunsUpDownTest test=new RunsUpDownTest(new NumericSequence(sequence));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -186,6 +186,8 @@ public class VonNeumannTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", sequence.size());
+		
 		computeRanks();
 		
 		double denominator=0.0;
@@ -231,6 +233,8 @@ public class VonNeumannTest extends StatisticalTest{
 		asymptoticRightTail=normal.getTipifiedProbability(z, true);
 		asymptoticDoubleTail=Math.min(Math.min(asymptoticLeftTail, asymptoticRightTail)*2.0,1.0);
 
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -418,5 +422,37 @@ public class VonNeumannTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"NM", "RVN", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getNM(), getRVN(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param sequence sequence of values
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double sequence[]){
+		
+		VonNeumannTest test=new VonNeumannTest(new NumericSequence(sequence));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
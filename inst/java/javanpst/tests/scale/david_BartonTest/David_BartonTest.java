@@ -260,6 +260,8 @@ public class David_BartonTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -292,6 +294,8 @@ public class David_BartonTest extends StatisticalTest{
 			
 		computePValues();
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -488,4 +492,36 @@ public class David_BartonTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"TestStatistic1", "TestStatistic2", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getTestStatistic1(), getTestStatistic2(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		David_BartonTest test=new David_BartonTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -260,6 +260,8 @@ public class Freund_Ansari_BradleyTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -293,6 +295,8 @@ public class Freund_Ansari_BradleyTest extends StatisticalTest{
 			
 		computePValues();
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -485,4 +489,36 @@ public class Freund_Ansari_BradleyTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"TestStatistic1", "TestStatistic2", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getTestStatistic1(), getTestStatistic2(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		Freund_Ansari_BradleyTest test=new Freund_Ansari_BradleyTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
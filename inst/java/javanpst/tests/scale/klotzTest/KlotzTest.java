@@ -262,6 +262,8 @@ public class KlotzTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -294,6 +296,8 @@ public class KlotzTest extends StatisticalTest{
 			
 		computePValues();
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -458,4 +462,36 @@ public class KlotzTest extends StatisticalTest{
 		
 	}//end-method
 	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"TestStatistic1", "TestStatistic2", "PValue1", "PValue2"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
+		
+		return new double [] {getTestStatistic1(), getTestStatistic2(), getPValue1(), getPValue2()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		KlotzTest test=new KlotzTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -262,6 +262,8 @@ public class K_STest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		Arrays.sort(Fn);
 		Arrays.sort(Fm);
 		Arrays.sort(combined);
@@ -349,6 +351,8 @@ public class K_STest extends StatisticalTest{
 		asymptoticRightTail=distribution.computeAsymptoticProbability(data.getRows(), Math.abs(DnPos));
 		asymptoticDoubleTail=distribution.computeAsymptoticProbability(data.getRows(), Math.abs(Dn));
 		
+		endExecution();
+		
 		performed=true;
 
 	}//end-method
@@ -503,5 +507,37 @@ public class K_STest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"Dn", "DnNeg", "DnPos", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getDn(), getDnNeg(), getDnPos(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		K_STest test=new K_STest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -271,6 +271,8 @@ public class ControlMedianTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
 		
@@ -312,6 +314,8 @@ public class ControlMedianTest extends StatisticalTest{
 
 		computeStatistics();
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -512,5 +516,37 @@ public class ControlMedianTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"U", "V", "Median", "Median2", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getU(), getV(), getMedian(), getMedian2(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		ControlMedianTest test=new ControlMedianTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
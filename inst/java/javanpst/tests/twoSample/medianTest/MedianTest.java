@@ -281,6 +281,8 @@ public class MedianTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		combined= new double[sample1.length+sample2.length];
 		Arrays.sort(sample1);
 		Arrays.sort(sample2);
@@ -323,6 +325,8 @@ public class MedianTest extends StatisticalTest{
 		
 		computeStatistics();
 		
+		endExecution();
+		
 		performed=true;
 	
 	}//end-method
@@ -332,7 +336,6 @@ public class MedianTest extends StatisticalTest{
 	 */
 	private void computeStatistics(){
 		
-		System.out.println((m+n)+" "+t);
 		double denominator= Operations.combinatorial(m+n,t);
 		double numerator=0.0;
 		double numerator1=0.0;
@@ -578,5 +581,37 @@ public class MedianTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"U", "V", "Median", "ExactLeftPValue", "ExactRightPValue", "ExactDoublePValue", "LeftPValue", "RightPValue", "DoublePValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getU(), getV(), getMedian(), getExactLeftPValue(), getExactRightPValue(), getExactDoublePValue(), getLeftPValue(), getRightPValue(), getDoublePValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		MedianTest test=new MedianTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
@@ -335,6 +335,8 @@ public class Wald_WolfowitzTest extends StatisticalTest{
 			return;	
 		}
 		
+		startExecution("doTest", data.getRows()*data.getColumns());
+		
 		//compute the number of runs
 		R=1;
 		
@@ -353,6 +355,8 @@ public class Wald_WolfowitzTest extends StatisticalTest{
 		exactPValue=distribution.computeLeftTailProbability(sample1.length, sample2.length, R);
 		asymptoticPValue=distribution.computeAsymptoticLeftTailProbability(sample1.length, sample2.length, R);
 		
+		endExecution();
+		
 		performed=true;
 		
 	}//end-method
@@ -437,5 +441,37 @@ public class Wald_WolfowitzTest extends StatisticalTest{
 		return report;
 			
 	}//end-method
+	
+	/**
+	 * Names of the values returned by results(), in the same order
+	 */
+	public static final String RESULTS [] = {"R", "ExactPValue", "AsymptoticPValue"};
+	
+	/**
+	 * Get the results of the test in a single vector
+	 * 
+	 * @return values of the test, as named in RESULTS
+	 */
+	public double [] results(){
 		
+		return new double [] {getR(), getExactPValue(), getAsymptoticPValue()};
+		
+	}//end-method
+	
+	/**
+	 * Performs the test in a single call.
+	 * 
+	 * @param data data of the test, by rows
+	 * @return values of the test, as named in RESULTS
+	 */
+	public static double [] run(double data[][]){
+		
+		Wald_WolfowitzTest test=new Wald_WolfowitzTest(new DataTable(data));
+		
+		test.doTest();
+		
+		return test.results();
+		
+	}//end-method
+	
 }//end-class
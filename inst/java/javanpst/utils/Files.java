@@ -27,6 +27,7 @@
 package javanpst.utils;
 
 import java.io.*;
+import java.nio.file.Paths;
 
 /**
  * A simple class for managing files.
@@ -51,18 +52,7 @@ public class Files{
         String content = "";
         
         try {
-                FileInputStream fis = new FileInputStream(fileName);
-                byte[] piece = new byte[4096];
-                int readBytes = 0;
-                while (readBytes != -1) {
-				readBytes = fis.read(piece);
-				if (readBytes != -1) {
-					content += new String(piece, 0, readBytes);
-				}
-		}
-                
-		fis.close();
-		
+                content = new String(java.nio.file.Files.readAllBytes(Paths.get(fileName)));
 	    }
 	catch (IOException e) {
 	        e.printStackTrace();
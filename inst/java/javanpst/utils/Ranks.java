@@ -0,0 +1,253 @@
+/***********************************************************************
+
+	This file is part of JavaNPST, a Java library of NonParametric
+	Statistical Tests.
+
+	Copyright (C) 2011
+
+	J. Derrac (jderrac@decsai.ugr.es)
+	S. García (sglopez@ujaen.es)
+	F. Herrera (herrera@decsai.ugr.es)
+
+	This program is free software: you can redistribute it and/or modify
+	it under the terms of the GNU General Public License as published by
+	the Free Software Foundation, either version 3 of the License, or
+	(at your option) any later version.
+
+	This program is distributed in the hope that it will be useful,
+	but WITHOUT ANY WARRANTY; without even the implied warranty of
+	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+	GNU General Public License for more details.
+
+	You should have received a copy of the GNU General Public License
+	along with this program.  If not, see http://www.gnu.org/licenses/
+
+**********************************************************************/
+
+package javanpst.utils;
+
+/**
+ * A class with ranking procedures over primitive arrays.
+ *
+ * Ties are handled by the midranks method. The order array
+ * can be reused between calls, so ranking the rows of a table
+ * does not allocate memory for each row.
+ *
+ * @author Jacinto Carrasco (jacintocc@correo.ugr.es)
+ * @version 1.0
+ */
+public class Ranks{
+
+	/**
+	 * Arrays of this size or lower are sorted by insertion
+	 */
+	private static final int INSERTION_LIMIT = 32;
+
+	/**
+	 * Computes the indexes that sort an array in ascending order.
+	 * The sort is stable.
+	 *
+	 * @param values values to sort
+	 * @param order array to store the indexes (same length as values)
+	 */
+	public static void argsort(double values[], int order[]){
+
+		int aux [];
+
+		for(int i=0;i<order.length;i++){
+			order[i]=i;
+		}
+
+		if(order.length<=INSERTION_LIMIT){
+			insertionSort(values, order, 0, order.length);
+			return;
+		}
+
+		aux=new int [order.length];
+		mergeSort(values, order, aux, 0, order.length);
+
+	}//end-method
+
+	/**
+	 * Sorts a range of indexes by insertion
+	 *
+	 * @param values values to sort
+	 * @param order indexes
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 */
+	private static void insertionSort(double values[], int order[], int from, int to){
+
+		int index,j;
+
+		for(int i=from+1;i<to;i++){
+			index=order[i];
+			j=i-1;
+			while((j>=from)&&(values[order[j]]>values[index])){
+				order[j+1]=order[j];
+				j--;
+			}
+			order[j+1]=index;
+		}
+
+	}//end-method
+
+	/**
+	 * Sorts a range of indexes by merging
+	 *
+	 * @param values values to sort
+	 * @param order indexes
+	 * @param aux auxiliary buffer
+	 * @param from first position (inclusive)
+	 * @param to last position (exclusive)
+	 */
+	private static void mergeSort(double values[], int order[], int aux[], int from, int to){
+
+		int middle,i,j,k;
+
+		if(to-from<=INSERTION_LIMIT){
+			insertionSort(values, order, from, to);
+			return;
+		}
+
+		middle=(from+to)>>>1;
+		mergeSort(values, order, aux, from, middle);
+		mergeSort(values, order, aux, middle, to);
+
+		if(values[order[middle-1]]<=values[order[middle]]){
+			return;
+		}
+
+		System.arraycopy(order, from, aux, from, to-from);
+
+		i=from;
+		j=middle;
+		k=from;
+
+		while((i<middle)&&(j<to)){
+			if(values[aux[j]]<values[aux[i]]){
+				order[k++]=aux[j++];
+			}
+			else{
+				order[k++]=aux[i++];
+			}
+		}
+		while(i<middle){
+			order[k++]=aux[i++];
+		}
+		while(j<to){
+			order[k++]=aux[j++];
+		}
+
+	}//end-method
+
+	/**
+	 * Assigns midranks (from 1 to n) to sorted values
+	 *
+	 * @param values values ranked
+	 * @param order indexes that sort the values
+	 * @param ranks array to store the ranks (same length as values)
+	 * @return sum of (t^3 - t) over the groups of t tied values
+	 */
+	public static double midranks(double values[], int order[], double ranks[]){
+
+		int i,j;
+		double rank;
+		double tiesWeight;
+		double t;
+
+		tiesWeight=0.0;
+		i=0;
+
+		while(i<order.length){
+
+			j=i+1;
+			while((j<order.length)&&(values[order[j]]==values[order[i]])){
+				j++;
+			}
+
+			rank=(i+1+j)/2.0;
+			for(int k=i;k<j;k++){
+				ranks[order[k]]=rank;
+			}
+
+			if(j-i>1){
+				t=j-i;
+				tiesWeight+=t*t*t-t;
+			}
+
+			i=j;
+		}
+
+		return tiesWeight;
+
+	}//end-method
+
+	/**
+	 * Sums the midranks of the values of each group. The values are ranked
+	 * jointly, and the rank of each value is added to the sum of its group
+	 * in the same sweep that finds the ties, so no array of ranks is needed.
+	 *
+	 * @param values values to rank
+	 * @param groups group of each value (from 0 to sums.length-1)
+	 * @param order work array for the indexes (same length as values)
+	 * @param sums array to store the sum of ranks of each group
+	 * @return sum of (t^3 - t) over the groups of t tied values
+	 */
+	public static double groupRankSums(double values[], int groups[], int order[], double sums[]){
+
+		int i,j;
+		double rank;
+		double tiesWeight;
+		double t;
+
+		argsort(values, order);
+
+		for(int g=0;g<sums.length;g++){
+			sums[g]=0.0;
+		}
+
+		tiesWeight=0.0;
+		i=0;
+
+		while(i<order.length){
+
+			j=i+1;
+			while((j<order.length)&&(values[order[j]]==values[order[i]])){
+				j++;
+			}
+
+			rank=(i+1+j)/2.0;
+			for(int k=i;k<j;k++){
+				sums[groups[order[k]]]+=rank;
+			}
+
+			if(j-i>1){
+				t=j-i;
+				tiesWeight+=t*t*t-t;
+			}
+
+			i=j;
+		}
+
+		return tiesWeight;
+
+	}//end-method
+
+	/**
+	 * Ranks an array of values. Ties are handled by the midranks method.
+	 *
+	 * @param values values to rank
+	 * @param order work array for the indexes (same length as values)
+	 * @param ranks array to store the ranks (same length as values)
+	 * @return sum of (t^3 - t) over the groups of t tied values
+	 */
+	public static double rank(double values[], int order[], double ranks[]){
+
+		argsort(values, order);
+
+		return midranks(values, order, ranks);
+
+	}//end-method
+
+}//end-class